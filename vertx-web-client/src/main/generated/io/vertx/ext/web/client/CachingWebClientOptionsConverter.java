@@ -40,11 +40,41 @@ public class CachingWebClientOptionsConverter {
             obj.setCachedStatusCodes(list);
           }
           break;
+        case "defaultStaleIfError":
+          if (member.getValue() instanceof Number) {
+            obj.setDefaultStaleIfError(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "defaultStaleWhileRevalidate":
+          if (member.getValue() instanceof Number) {
+            obj.setDefaultStaleWhileRevalidate(((Number)member.getValue()).longValue());
+          }
+          break;
         case "enableVaryCaching":
           if (member.getValue() instanceof Boolean) {
             obj.setEnableVaryCaching((Boolean)member.getValue());
           }
           break;
+        case "localCacheMaxSize":
+          if (member.getValue() instanceof Number) {
+            obj.setLocalCacheMaxSize(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "maxVariations":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxVariations(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "requestCoalescing":
+          if (member.getValue() instanceof Boolean) {
+            obj.setRequestCoalescing((Boolean)member.getValue());
+          }
+          break;
+        case "requestCoalescingTimeout":
+          if (member.getValue() instanceof Number) {
+            obj.setRequestCoalescingTimeout(((Number)member.getValue()).longValue());
+          }
+          break;
         case "varyCachingEnabled":
           break;
       }
@@ -66,6 +96,12 @@ public class CachingWebClientOptionsConverter {
       obj.getCachedStatusCodes().forEach(item -> array.add(item));
       json.put("cachedStatusCodes", array);
     }
+    json.put("defaultStaleIfError", obj.getDefaultStaleIfError());
+    json.put("defaultStaleWhileRevalidate", obj.getDefaultStaleWhileRevalidate());
+    json.put("localCacheMaxSize", obj.getLocalCacheMaxSize());
+    json.put("maxVariations", obj.getMaxVariations());
+    json.put("requestCoalescing", obj.isRequestCoalescing());
+    json.put("requestCoalescingTimeout", obj.getRequestCoalescingTimeout());
     json.put("varyCachingEnabled", obj.isVaryCachingEnabled());
   }
 }
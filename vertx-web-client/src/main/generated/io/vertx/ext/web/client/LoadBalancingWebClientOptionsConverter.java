@@ -0,0 +1,72 @@
+package io.vertx.ext.web.client;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.impl.JsonUtil;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+
+/**
+ * Converter and mapper for {@link io.vertx.ext.web.client.LoadBalancingWebClientOptions}.
+ * NOTE: This class has been automatically generated from the {@link io.vertx.ext.web.client.LoadBalancingWebClientOptions} original class using Vert.x codegen.
+ */
+public class LoadBalancingWebClientOptionsConverter {
+
+
+  private static final Base64.Decoder BASE64_DECODER = JsonUtil.BASE64_DECODER;
+  private static final Base64.Encoder BASE64_ENCODER = JsonUtil.BASE64_ENCODER;
+
+
+  public static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, LoadBalancingWebClientOptions obj) {
+    for (java.util.Map.Entry<String, Object> member : json) {
+      switch (member.getKey()) {
+        case "ejectionTime":
+          if (member.getValue() instanceof Number) {
+            obj.setEjectionTime(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "failureRateThreshold":
+          if (member.getValue() instanceof Number) {
+            obj.setFailureRateThreshold(((Number)member.getValue()).doubleValue());
+          }
+          break;
+        case "latencyThreshold":
+          if (member.getValue() instanceof Number) {
+            obj.setLatencyThreshold(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "maxEjectionPercent":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxEjectionPercent(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "minimumRequests":
+          if (member.getValue() instanceof Number) {
+            obj.setMinimumRequests(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "strategy":
+          if (member.getValue() instanceof String) {
+            obj.setStrategy(io.vertx.ext.web.client.LoadBalancingStrategy.valueOf((String)member.getValue()));
+          }
+          break;
+      }
+    }
+  }
+
+  public static void toJson(LoadBalancingWebClientOptions obj, JsonObject json) {
+    toJson(obj, json.getMap());
+  }
+
+  public static void toJson(LoadBalancingWebClientOptions obj, java.util.Map<String, Object> json) {
+    json.put("ejectionTime", obj.getEjectionTime());
+    json.put("failureRateThreshold", obj.getFailureRateThreshold());
+    json.put("latencyThreshold", obj.getLatencyThreshold());
+    json.put("maxEjectionPercent", obj.getMaxEjectionPercent());
+    json.put("minimumRequests", obj.getMinimumRequests());
+    if (obj.getStrategy() != null) {
+      json.put("strategy", obj.getStrategy().name());
+    }
+  }
+}
@@ -25,6 +25,11 @@ public class OAuth2WebClientOptionsConverter {
             obj.setLeeway(((Number)member.getValue()).intValue());
           }
           break;
+        case "refreshWindow":
+          if (member.getValue() instanceof Number) {
+            obj.setRefreshWindow(((Number)member.getValue()).intValue());
+          }
+          break;
         case "renewTokenOnForbidden":
           if (member.getValue() instanceof Boolean) {
             obj.setRenewTokenOnForbidden((Boolean)member.getValue());
@@ -40,6 +45,7 @@ public class OAuth2WebClientOptionsConverter {
 
   public static void toJson(OAuth2WebClientOptions obj, java.util.Map<String, Object> json) {
     json.put("leeway", obj.getLeeway());
+    json.put("refreshWindow", obj.getRefreshWindow());
     json.put("renewTokenOnForbidden", obj.isRenewTokenOnForbidden());
   }
 }
@@ -0,0 +1,76 @@
+package io.vertx.ext.web.client;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.impl.JsonUtil;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+
+/**
+ * Converter and mapper for {@link io.vertx.ext.web.client.RetryingWebClientOptions}.
+ * NOTE: This class has been automatically generated from the {@link io.vertx.ext.web.client.RetryingWebClientOptions} original class using Vert.x codegen.
+ */
+public class RetryingWebClientOptionsConverter {
+
+
+  private static final Base64.Decoder BASE64_DECODER = JsonUtil.BASE64_DECODER;
+  private static final Base64.Encoder BASE64_ENCODER = JsonUtil.BASE64_ENCODER;
+
+
+  public static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, RetryingWebClientOptions obj) {
+    for (java.util.Map.Entry<String, Object> member : json) {
+      switch (member.getKey()) {
+        case "budgetRatio":
+          if (member.getValue() instanceof Number) {
+            obj.setBudgetRatio(((Number)member.getValue()).doubleValue());
+          }
+          break;
+        case "hedgingPercentile":
+          if (member.getValue() instanceof Number) {
+            obj.setHedgingPercentile(((Number)member.getValue()).doubleValue());
+          }
+          break;
+        case "initialBackoff":
+          if (member.getValue() instanceof Number) {
+            obj.setInitialBackoff(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "maxBackoff":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxBackoff(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "maxRetries":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxRetries(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "minHedgingDelay":
+          if (member.getValue() instanceof Number) {
+            obj.setMinHedgingDelay(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "minRetriesPerSecond":
+          if (member.getValue() instanceof Number) {
+            obj.setMinRetriesPerSecond(((Number)member.getValue()).intValue());
+          }
+          break;
+      }
+    }
+  }
+
+  public static void toJson(RetryingWebClientOptions obj, JsonObject json) {
+    toJson(obj, json.getMap());
+  }
+
+  public static void toJson(RetryingWebClientOptions obj, java.util.Map<String, Object> json) {
+    json.put("budgetRatio", obj.getBudgetRatio());
+    json.put("hedgingPercentile", obj.getHedgingPercentile());
+    json.put("initialBackoff", obj.getInitialBackoff());
+    json.put("maxBackoff", obj.getMaxBackoff());
+    json.put("maxRetries", obj.getMaxRetries());
+    json.put("minHedgingDelay", obj.getMinHedgingDelay());
+    json.put("minRetriesPerSecond", obj.getMinRetriesPerSecond());
+  }
+}
@@ -88,7 +88,7 @@ public interface CachingWebClient {
    */
   @GenIgnore(GenIgnore.PERMITTED_TYPE)
   static WebClient create(WebClient webClient, CachingWebClientOptions options) {
-    return create(webClient, new LocalCacheStore(), options);
+    return create(webClient, new LocalCacheStore(options.getLocalCacheMaxSize()), options);
   }
 
   /**
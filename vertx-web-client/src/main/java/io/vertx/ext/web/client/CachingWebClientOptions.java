@@ -45,10 +45,22 @@ public class CachingWebClientOptions extends WebClientOptions {
 
   public static final Set<Integer> DEFAULT_CACHED_STATUS_CODES = buildDefaultStatusCodes();
   public static final Set<HttpMethod> DEFAULT_CACHED_METHODS = buildDefaultMethods();
+  public static final long DEFAULT_LOCAL_CACHE_MAX_SIZE = 64L * 1024 * 1024;
+  public static final boolean DEFAULT_REQUEST_COALESCING = false;
+  public static final long DEFAULT_REQUEST_COALESCING_TIMEOUT = 10_000L;
+  public static final long DEFAULT_STALE_WHILE_REVALIDATE = 0L;
+  public static final long DEFAULT_STALE_IF_ERROR = 0L;
+  public static final int DEFAULT_MAX_VARIATIONS = 64;
 
   private boolean enableVaryCaching = false;
   private Set<Integer> cachedStatusCodes = DEFAULT_CACHED_STATUS_CODES;
   private Set<HttpMethod> cachedMethods = DEFAULT_CACHED_METHODS;
+  private long localCacheMaxSize = DEFAULT_LOCAL_CACHE_MAX_SIZE;
+  private boolean requestCoalescing = DEFAULT_REQUEST_COALESCING;
+  private long requestCoalescingTimeout = DEFAULT_REQUEST_COALESCING_TIMEOUT;
+  private long defaultStaleWhileRevalidate = DEFAULT_STALE_WHILE_REVALIDATE;
+  private long defaultStaleIfError = DEFAULT_STALE_IF_ERROR;
+  private int maxVariations = DEFAULT_MAX_VARIATIONS;
 
   public CachingWebClientOptions() {
   }
@@ -71,6 +83,12 @@ public class CachingWebClientOptions extends WebClientOptions {
     this.enableVaryCaching = other.enableVaryCaching;
     this.cachedStatusCodes = other.cachedStatusCodes;
     this.cachedMethods = other.cachedMethods;
+    this.localCacheMaxSize = other.localCacheMaxSize;
+    this.requestCoalescing = other.requestCoalescing;
+    this.requestCoalescingTimeout = other.requestCoalescingTimeout;
+    this.defaultStaleWhileRevalidate = other.defaultStaleWhileRevalidate;
+    this.defaultStaleIfError = other.defaultStaleIfError;
+    this.maxVariations = other.maxVariations;
   }
 
   /**
@@ -182,6 +200,123 @@ public class CachingWebClientOptions extends WebClientOptions {
     return enableVaryCaching;
   }
 
+  /**
+   * @return the maximum number of {@code Vary} variations kept per resource
+   */
+  public int getMaxVariations() {
+    return maxVariations;
+  }
+
+  /**
+   * Configure the maximum number of {@code Vary} variations kept per resource, the least recently used variation is
+   * forgotten when a new one is cached.
+   *
+   * @param maxVariations the maximum number of variations
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CachingWebClientOptions setMaxVariations(int maxVariations) {
+    this.maxVariations = maxVariations;
+    return this;
+  }
+
+  /**
+   * @return the maximum size in bytes of the responses kept by the local cache store
+   */
+  public long getLocalCacheMaxSize() {
+    return localCacheMaxSize;
+  }
+
+  /**
+   * Configure the maximum size of the responses kept by the local cache store, used when the client is not created
+   * with a {@link io.vertx.ext.web.client.spi.CacheStore}. The size of a response is estimated from its body and
+   * headers, the least recently used responses are evicted when the store is full. A response bigger than the
+   * maximum size is not cached.
+   *
+   * @param localCacheMaxSize the maximum size in bytes, or {@code -1} for an unbounded store
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CachingWebClientOptions setLocalCacheMaxSize(long localCacheMaxSize) {
+    this.localCacheMaxSize = localCacheMaxSize;
+    return this;
+  }
+
+  /**
+   * @return true if concurrent requests for the same resource missing the cache are coalesced
+   */
+  public boolean isRequestCoalescing() {
+    return requestCoalescing;
+  }
+
+  /**
+   * Configure whether concurrent {@code GET} and {@code HEAD} requests for the same resource that cannot be answered
+   * from the cache are coalesced. Only the first one is sent to the server, the others are answered with its response
+   * when it can be cached publicly, so an expired popular resource does not cause a burst of requests.
+   *
+   * @param requestCoalescing true to coalesce the requests
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CachingWebClientOptions setRequestCoalescing(boolean requestCoalescing) {
+    this.requestCoalescing = requestCoalescing;
+    return this;
+  }
+
+  /**
+   * @return the maximum time in milliseconds a coalesced request waits for the response of the first request
+   */
+  public long getRequestCoalescingTimeout() {
+    return requestCoalescingTimeout;
+  }
+
+  /**
+   * Configure the maximum time a coalesced request waits for the response of the first request, after which it is
+   * sent to the server.
+   *
+   * @param requestCoalescingTimeout the timeout in milliseconds, or {@code 0} to wait as long as the first request
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CachingWebClientOptions setRequestCoalescingTimeout(long requestCoalescingTimeout) {
+    this.requestCoalescingTimeout = requestCoalescingTimeout;
+    return this;
+  }
+
+  /**
+   * @return the {@code stale-while-revalidate} seconds of the responses that do not specify it
+   */
+  public long getDefaultStaleWhileRevalidate() {
+    return defaultStaleWhileRevalidate;
+  }
+
+  /**
+   * Configure the {@code stale-while-revalidate} seconds of the cached responses that do not specify it: during that
+   * time after a response expired, it is still served while it is revalidated in the background.
+   *
+   * @param defaultStaleWhileRevalidate the stale window in seconds, {@code 0} to disable
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CachingWebClientOptions setDefaultStaleWhileRevalidate(long defaultStaleWhileRevalidate) {
+    this.defaultStaleWhileRevalidate = defaultStaleWhileRevalidate;
+    return this;
+  }
+
+  /**
+   * @return the {@code stale-if-error} seconds of the responses that do not specify it
+   */
+  public long getDefaultStaleIfError() {
+    return defaultStaleIfError;
+  }
+
+  /**
+   * Configure the {@code stale-if-error} seconds of the cached responses that do not specify it: during that time
+   * after a response expired, it is served instead of a server error or a failure to reach the server.
+   *
+   * @param defaultStaleIfError the stale window in seconds, {@code 0} to disable
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CachingWebClientOptions setDefaultStaleIfError(long defaultStaleIfError) {
+    this.defaultStaleIfError = defaultStaleIfError;
+    return this;
+  }
+
   @Override
   public CachingWebClientOptions setUserAgentEnabled(boolean userAgentEnabled) {
     return (CachingWebClientOptions) super.setUserAgentEnabled(userAgentEnabled);
@@ -49,6 +49,7 @@ import java.util.function.Function;
  * <ul>
  *   <li>{@link #send()}</li>
  *   <li>{@link #sendStream(ReadStream)}</li>
+ *   <li>{@link #sendFile(String, long, long)}</li>
  *   <li>{@link #sendJson(Object)} ()}</li>
  *   <li>{@link #sendForm(MultiMap)}</li>
  * </ul>
@@ -466,6 +467,19 @@ public interface HttpRequest<T> {
    */
   Future<HttpResponse<T>> sendStream(ReadStream<Buffer> body);
 
+  /**
+   * Like {@link #send()} but with a region of a file as HTTP request {@code body}.
+   * <p>
+   * The file is opened when the request is sent and the region is streamed from disk with a {@code content-length}
+   * of {@code length} bytes. Unlike a stream, the body can be sent again, e.g. when following a redirect.
+   *
+   * @param path the path of the file
+   * @param offset the position of the region in the file
+   * @param length the length of the region
+   * @see HttpRequest#sendFile(String, long, long)
+   */
+  Future<HttpResponse<T>> sendFile(String path, long offset, long length);
+
   /**
    * Like {@link #send()} but with an HTTP request {@code body} buffer.
    *
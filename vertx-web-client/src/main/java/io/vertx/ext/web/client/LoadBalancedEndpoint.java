@@ -0,0 +1,61 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.client;
+
+import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.core.net.SocketAddress;
+
+/**
+ * An endpoint of a {@link LoadBalancingWebClient} and the requests observed by the client.
+ */
+@VertxGen
+public interface LoadBalancedEndpoint {
+
+  /**
+   * @return the address of the endpoint
+   */
+  SocketAddress address();
+
+  /**
+   * @return the number of requests sent to the endpoint and waiting for a response
+   */
+  long outstandingRequests();
+
+  /**
+   * @return the total number of requests sent to the endpoint
+   */
+  long requests();
+
+  /**
+   * @return the total number of requests that failed to connect, failed or got a {@code 5xx} response
+   */
+  long failures();
+
+  /**
+   * @return the number of times the endpoint was ejected as an outlier
+   */
+  long ejections();
+
+  /**
+   * @return the moving average of the time to the response headers in milliseconds
+   */
+  double averageLatency();
+
+  /**
+   * @return whether the endpoint is ejected and doesn't get new requests
+   */
+  boolean isEjected();
+}
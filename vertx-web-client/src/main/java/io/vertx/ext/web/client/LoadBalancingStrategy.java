@@ -0,0 +1,41 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.client;
+
+import io.vertx.codegen.annotations.VertxGen;
+
+/**
+ * The strategies selecting the endpoint of a request sent by a {@link LoadBalancingWebClient}.
+ */
+@VertxGen
+public enum LoadBalancingStrategy {
+
+  /**
+   * Each endpoint in turn.
+   */
+  ROUND_ROBIN,
+
+  /**
+   * The endpoint with the fewest requests in flight.
+   */
+  LEAST_OUTSTANDING,
+
+  /**
+   * The endpoint with the fewest requests in flight among two endpoints picked at random, which avoids sending every
+   * request to the same endpoint when the request counts seen by the clients lag behind.
+   */
+  POWER_OF_TWO_CHOICES
+}
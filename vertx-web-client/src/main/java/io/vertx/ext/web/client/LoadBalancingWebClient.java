@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.client;
+
+import io.vertx.codegen.annotations.GenIgnore;
+import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.web.client.impl.LoadBalancingWebClientImpl;
+import io.vertx.ext.web.client.spi.EndpointSelector;
+
+import java.util.List;
+
+/**
+ * A web client balancing the requests over a static list of endpoints.
+ * <p>
+ * The requests are addressed to the logical host of the service, e.g. {@code client.get(8080, "my-service", "/")}:
+ * the client connects to the selected endpoint and the request keeps the {@code host} header of the service. The
+ * endpoints that fail or respond slowly are ejected for a while, see {@link LoadBalancingWebClientOptions}.
+ */
+@VertxGen
+public interface LoadBalancingWebClient extends WebClient {
+
+  /**
+   * Create a load balancing web client using the provided {@code webClient} instance.
+   *
+   * @param webClient the web client instance
+   * @param endpoints the addresses of the endpoints
+   * @return the created client
+   */
+  static LoadBalancingWebClient create(WebClient webClient, List<SocketAddress> endpoints) {
+    return create(webClient, endpoints, new LoadBalancingWebClientOptions());
+  }
+
+  /**
+   * Create a load balancing web client using the provided {@code webClient} instance.
+   *
+   * @param webClient the web client instance
+   * @param endpoints the addresses of the endpoints
+   * @param options the load balancing options
+   * @return the created client
+   */
+  static LoadBalancingWebClient create(WebClient webClient, List<SocketAddress> endpoints, LoadBalancingWebClientOptions options) {
+    return create(webClient, endpoints, EndpointSelector.create(options.getStrategy()), options);
+  }
+
+  /**
+   * Create a load balancing web client using the provided {@code webClient} instance.
+   *
+   * @param webClient the web client instance
+   * @param endpoints the addresses of the endpoints
+   * @param selector the selector of the endpoints, overriding the strategy of the {@code options}
+   * @param options the load balancing options
+   * @return the created client
+   */
+  @GenIgnore(GenIgnore.PERMITTED_TYPE)
+  static LoadBalancingWebClient create(WebClient webClient, List<SocketAddress> endpoints, EndpointSelector selector, LoadBalancingWebClientOptions options) {
+    return new LoadBalancingWebClientImpl(webClient, endpoints, selector, options);
+  }
+
+  /**
+   * @return the endpoints and their metrics
+   */
+  List<LoadBalancedEndpoint> endpoints();
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.client;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * The options of a {@link LoadBalancingWebClient}: the endpoint selection strategy and the passive outlier ejection.
+ */
+@DataObject(generateConverter = true)
+public class LoadBalancingWebClientOptions {
+
+  /**
+   * The default strategy selecting the endpoints.
+   */
+  public static final LoadBalancingStrategy DEFAULT_STRATEGY = LoadBalancingStrategy.ROUND_ROBIN;
+
+  /**
+   * The default failure rate above which an endpoint is ejected.
+   */
+  public static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5;
+
+  /**
+   * The default average latency above which an endpoint is ejected (disabled).
+   */
+  public static final long DEFAULT_LATENCY_THRESHOLD = 0L;
+
+  /**
+   * The default number of requests observed before an endpoint can be ejected.
+   */
+  public static final int DEFAULT_MINIMUM_REQUESTS = 10;
+
+  /**
+   * The default time an endpoint stays ejected.
+   */
+  public static final long DEFAULT_EJECTION_TIME = 30_000L;
+
+  /**
+   * The default maximum percentage of the endpoints that can be ejected at the same time.
+   */
+  public static final int DEFAULT_MAX_EJECTION_PERCENT = 50;
+
+  private LoadBalancingStrategy strategy = DEFAULT_STRATEGY;
+  private double failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+  private long latencyThreshold = DEFAULT_LATENCY_THRESHOLD;
+  private int minimumRequests = DEFAULT_MINIMUM_REQUESTS;
+  private long ejectionTime = DEFAULT_EJECTION_TIME;
+  private int maxEjectionPercent = DEFAULT_MAX_EJECTION_PERCENT;
+
+  public LoadBalancingWebClientOptions() {
+  }
+
+  /**
+   * Copy constructor.
+   *
+   * @param other the options to copy
+   */
+  public LoadBalancingWebClientOptions(LoadBalancingWebClientOptions other) {
+    this.strategy = other.strategy;
+    this.failureRateThreshold = other.failureRateThreshold;
+    this.latencyThreshold = other.latencyThreshold;
+    this.minimumRequests = other.minimumRequests;
+    this.ejectionTime = other.ejectionTime;
+    this.maxEjectionPercent = other.maxEjectionPercent;
+  }
+
+  /**
+   * Creates a new instance from JSON.
+   *
+   * @param json the JSON object
+   */
+  public LoadBalancingWebClientOptions(JsonObject json) {
+    LoadBalancingWebClientOptionsConverter.fromJson(json, this);
+  }
+
+  /**
+   * Convert to JSON
+   *
+   * @return the JSON
+   */
+  public JsonObject toJson() {
+    final JsonObject json = new JsonObject();
+    LoadBalancingWebClientOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  /**
+   * @return the strategy selecting the endpoint of each request
+   */
+  public LoadBalancingStrategy getStrategy() {
+    return strategy;
+  }
+
+  /**
+   * Set the strategy selecting the endpoint of each request.
+   *
+   * @param strategy the strategy
+   * @return fluent self
+   */
+  public LoadBalancingWebClientOptions setStrategy(LoadBalancingStrategy strategy) {
+    this.strategy = strategy;
+    return this;
+  }
+
+  /**
+   * @return the failure rate above which an endpoint is ejected
+   */
+  public double getFailureRateThreshold() {
+    return failureRateThreshold;
+  }
+
+  /**
+   * Set the rate of recent requests failing to connect, failing or getting a {@code 5xx} response from which an
+   * endpoint is ejected, between {@code 0} and {@code 1}.
+   *
+   * @param failureRateThreshold the failure rate
+   * @return fluent self
+   */
+  public LoadBalancingWebClientOptions setFailureRateThreshold(double failureRateThreshold) {
+    if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+      throw new IllegalArgumentException("failureRateThreshold must be > 0 and <= 1");
+    }
+    this.failureRateThreshold = failureRateThreshold;
+    return this;
+  }
+
+  /**
+   * @return the average latency in milliseconds above which an endpoint is ejected
+   */
+  public long getLatencyThreshold() {
+    return latencyThreshold;
+  }
+
+  /**
+   * Set the average time to the response headers of the recent requests in milliseconds above which an endpoint is
+   * ejected. {@code 0} disables the latency based ejection.
+   *
+   * @param latencyThreshold the latency in milliseconds
+   * @return fluent self
+   */
+  public LoadBalancingWebClientOptions setLatencyThreshold(long latencyThreshold) {
+    if (latencyThreshold < 0) {
+      throw new IllegalArgumentException("latencyThreshold must be >= 0");
+    }
+    this.latencyThreshold = latencyThreshold;
+    return this;
+  }
+
+  /**
+   * @return the number of requests observed before an endpoint can be ejected
+   */
+  public int getMinimumRequests() {
+    return minimumRequests;
+  }
+
+  /**
+   * Set the number of requests observed before an endpoint can be ejected, it is also the number of recent requests
+   * the failure rate and the average latency are computed over.
+   *
+   * @param minimumRequests the number of requests
+   * @return fluent self
+   */
+  public LoadBalancingWebClientOptions setMinimumRequests(int minimumRequests) {
+    if (minimumRequests < 1) {
+      throw new IllegalArgumentException("minimumRequests must be > 0");
+    }
+    this.minimumRequests = minimumRequests;
+    return this;
+  }
+
+  /**
+   * @return the time in milliseconds an endpoint stays ejected
+   */
+  public long getEjectionTime() {
+    return ejectionTime;
+  }
+
+  /**
+   * Set the time in milliseconds an ejected endpoint doesn't get new requests. {@code 0} disables the ejection.
+   *
+   * @param ejectionTime the time in milliseconds
+   * @return fluent self
+   */
+  public LoadBalancingWebClientOptions setEjectionTime(long ejectionTime) {
+    if (ejectionTime < 0) {
+      throw new IllegalArgumentException("ejectionTime must be >= 0");
+    }
+    this.ejectionTime = ejectionTime;
+    return this;
+  }
+
+  /**
+   * @return the maximum percentage of the endpoints that can be ejected at the same time
+   */
+  public int getMaxEjectionPercent() {
+    return maxEjectionPercent;
+  }
+
+  /**
+   * Set the maximum percentage of the endpoints that can be ejected at the same time, so an outage of the endpoints
+   * does not move the whole load to the few remaining ones. When every endpoint is ejected, the requests are balanced
+   * over all of them.
+   *
+   * @param maxEjectionPercent the percentage
+   * @return fluent self
+   */
+  public LoadBalancingWebClientOptions setMaxEjectionPercent(int maxEjectionPercent) {
+    if (maxEjectionPercent < 0 || maxEjectionPercent > 100) {
+      throw new IllegalArgumentException("maxEjectionPercent must be >= 0 and <= 100");
+    }
+    this.maxEjectionPercent = maxEjectionPercent;
+    return this;
+  }
+}
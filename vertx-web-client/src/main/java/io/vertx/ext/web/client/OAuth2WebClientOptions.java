@@ -35,8 +35,14 @@ public class OAuth2WebClientOptions {
    */
   public static final int DEFAULT_LEEWAY = 0;
 
+  /**
+   * The default window before the token expiration during which it is refreshed in the background (disabled).
+   */
+  public static final int DEFAULT_REFRESH_WINDOW = 0;
+
   private boolean renewTokenOnForbidden = DEFAULT_RENEW_TOKEN_ON_FORBIDDEN;
   private int leeway = DEFAULT_LEEWAY;
+  private int refreshWindow = DEFAULT_REFRESH_WINDOW;
 
   public OAuth2WebClientOptions() {
   }
@@ -49,6 +55,7 @@ public class OAuth2WebClientOptions {
   public OAuth2WebClientOptions(OAuth2WebClientOptions other) {
     this.renewTokenOnForbidden = other.renewTokenOnForbidden;
     this.leeway = other.leeway;
+    this.refreshWindow = other.refreshWindow;
   }
 
   /**
@@ -111,4 +118,26 @@ public class OAuth2WebClientOptions {
     this.leeway = leeway;
     return this;
   }
+
+  /**
+   * The window before the token expiration during which a request still uses the current token but triggers its
+   * refresh in the background.
+   *
+   * @return default value is {@link #DEFAULT_REFRESH_WINDOW}
+   */
+  public int getRefreshWindow() {
+    return refreshWindow;
+  }
+
+  /**
+   * Set the window in seconds before the token expiration during which the token is refreshed in the background, so
+   * the requests don't wait for a new token while it is still valid. {@code 0} disables the proactive refresh.
+   *
+   * @param refreshWindow the desired window in seconds
+   * @return fluent self
+   */
+  public OAuth2WebClientOptions setRefreshWindow(int refreshWindow) {
+    this.refreshWindow = refreshWindow;
+    return this;
+  }
 }
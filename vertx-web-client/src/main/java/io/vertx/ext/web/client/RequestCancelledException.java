@@ -0,0 +1,31 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.client;
+
+import io.vertx.core.VertxException;
+
+/**
+ * The failure of a request cancelled by the client because another request got the response first, e.g. the slower
+ * of a request and its hedge.
+ * <p>
+ * The interceptors seeing this failure release the request without counting it as a failure of the server.
+ */
+public class RequestCancelledException extends VertxException {
+
+  public RequestCancelledException(String message) {
+    super(message, true);
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.client;
+
+import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.ext.web.client.impl.RetryingWebClientImpl;
+
+/**
+ * A web client retrying and hedging the idempotent requests ({@code GET}, {@code HEAD}, {@code OPTIONS},
+ * {@code TRACE}, {@code PUT} and {@code DELETE}).
+ * <p>
+ * A request failing before its response or getting a {@code 5xx} response is sent again after an exponential backoff.
+ * When hedging is enabled, a request without a response after a percentile of the observed latencies is sent a second
+ * time: the first response is used and the other request is reset. The retries and the hedges are limited by a budget
+ * shared by the requests of the client, see {@link RetryingWebClientOptions}.
+ * <p>
+ * A request body sent with {@link HttpRequest#sendStream} cannot be sent twice, such a request is neither retried
+ * nor hedged.
+ */
+@VertxGen
+public interface RetryingWebClient extends WebClient {
+
+  /**
+   * Create a retrying web client using the provided {@code webClient} instance.
+   *
+   * @param webClient the web client instance
+   * @return the created client
+   */
+  static RetryingWebClient create(WebClient webClient) {
+    return create(webClient, new RetryingWebClientOptions());
+  }
+
+  /**
+   * Create a retrying web client using the provided {@code webClient} instance.
+   *
+   * @param webClient the web client instance
+   * @param options the retry and hedging options
+   * @return the created client
+   */
+  static RetryingWebClient create(WebClient webClient, RetryingWebClientOptions options) {
+    return new RetryingWebClientImpl(webClient, options);
+  }
+
+  /**
+   * @return the number of retried requests
+   */
+  long retries();
+
+  /**
+   * @return the number of hedged requests
+   */
+  long hedges();
+
+  /**
+   * @return the number of hedged requests whose hedge got the response first
+   */
+  long hedgeWins();
+}
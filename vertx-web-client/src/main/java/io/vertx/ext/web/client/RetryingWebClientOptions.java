@@ -0,0 +1,263 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.client;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * The options of a {@link RetryingWebClient}: the retries of the failed requests and the hedging of the slow ones.
+ */
+@DataObject(generateConverter = true)
+public class RetryingWebClientOptions {
+
+  /**
+   * The default maximum number of retries of a request.
+   */
+  public static final int DEFAULT_MAX_RETRIES = 2;
+
+  /**
+   * The default delay before the first retry.
+   */
+  public static final long DEFAULT_INITIAL_BACKOFF = 50L;
+
+  /**
+   * The default maximum delay between retries.
+   */
+  public static final long DEFAULT_MAX_BACKOFF = 1000L;
+
+  /**
+   * The default ratio of retries and hedges to requests.
+   */
+  public static final double DEFAULT_BUDGET_RATIO = 0.2;
+
+  /**
+   * The default number of retries and hedges per second allowed regardless of the ratio.
+   */
+  public static final int DEFAULT_MIN_RETRIES_PER_SECOND = 10;
+
+  /**
+   * The default percentile of the latencies after which a request is hedged (disabled).
+   */
+  public static final double DEFAULT_HEDGING_PERCENTILE = 0;
+
+  /**
+   * The default minimum delay before a request is hedged.
+   */
+  public static final long DEFAULT_MIN_HEDGING_DELAY = 10L;
+
+  private int maxRetries = DEFAULT_MAX_RETRIES;
+  private long initialBackoff = DEFAULT_INITIAL_BACKOFF;
+  private long maxBackoff = DEFAULT_MAX_BACKOFF;
+  private double budgetRatio = DEFAULT_BUDGET_RATIO;
+  private int minRetriesPerSecond = DEFAULT_MIN_RETRIES_PER_SECOND;
+  private double hedgingPercentile = DEFAULT_HEDGING_PERCENTILE;
+  private long minHedgingDelay = DEFAULT_MIN_HEDGING_DELAY;
+
+  public RetryingWebClientOptions() {
+  }
+
+  /**
+   * Copy constructor.
+   *
+   * @param other the options to copy
+   */
+  public RetryingWebClientOptions(RetryingWebClientOptions other) {
+    this.maxRetries = other.maxRetries;
+    this.initialBackoff = other.initialBackoff;
+    this.maxBackoff = other.maxBackoff;
+    this.budgetRatio = other.budgetRatio;
+    this.minRetriesPerSecond = other.minRetriesPerSecond;
+    this.hedgingPercentile = other.hedgingPercentile;
+    this.minHedgingDelay = other.minHedgingDelay;
+  }
+
+  /**
+   * Creates a new instance from JSON.
+   *
+   * @param json the JSON object
+   */
+  public RetryingWebClientOptions(JsonObject json) {
+    RetryingWebClientOptionsConverter.fromJson(json, this);
+  }
+
+  /**
+   * Convert to JSON
+   *
+   * @return the JSON
+   */
+  public JsonObject toJson() {
+    final JsonObject json = new JsonObject();
+    RetryingWebClientOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  /**
+   * @return the maximum number of retries of a request
+   */
+  public int getMaxRetries() {
+    return maxRetries;
+  }
+
+  /**
+   * Set the maximum number of times an idempotent request is sent again after a connection failure or a {@code 5xx}
+   * response. {@code 0} disables the retries.
+   *
+   * @param maxRetries the number of retries
+   * @return fluent self
+   */
+  public RetryingWebClientOptions setMaxRetries(int maxRetries) {
+    if (maxRetries < 0) {
+      throw new IllegalArgumentException("maxRetries must be >= 0");
+    }
+    this.maxRetries = maxRetries;
+    return this;
+  }
+
+  /**
+   * @return the delay in milliseconds before the first retry
+   */
+  public long getInitialBackoff() {
+    return initialBackoff;
+  }
+
+  /**
+   * Set the delay in milliseconds before the first retry, the delay doubles with each retry up to the
+   * {@link #setMaxBackoff(long) maximum backoff}. The actual delay is randomly picked between the half of the delay and
+   * the delay, so the clients failing at the same time don't retry at the same time.
+   *
+   * @param initialBackoff the delay in milliseconds
+   * @return fluent self
+   */
+  public RetryingWebClientOptions setInitialBackoff(long initialBackoff) {
+    if (initialBackoff < 1) {
+      throw new IllegalArgumentException("initialBackoff must be > 0");
+    }
+    this.initialBackoff = initialBackoff;
+    return this;
+  }
+
+  /**
+   * @return the maximum delay in milliseconds between retries
+   */
+  public long getMaxBackoff() {
+    return maxBackoff;
+  }
+
+  /**
+   * Set the maximum delay in milliseconds between retries.
+   *
+   * @param maxBackoff the delay in milliseconds
+   * @return fluent self
+   */
+  public RetryingWebClientOptions setMaxBackoff(long maxBackoff) {
+    if (maxBackoff < 1) {
+      throw new IllegalArgumentException("maxBackoff must be > 0");
+    }
+    this.maxBackoff = maxBackoff;
+    return this;
+  }
+
+  /**
+   * @return the ratio of retries and hedges to requests
+   */
+  public double getBudgetRatio() {
+    return budgetRatio;
+  }
+
+  /**
+   * Set the ratio of retries and hedges to requests the client can send on top of the
+   * {@link #setMinRetriesPerSecond(int) minimum retries per second}, e.g. {@code 0.2} allows one retry or hedge every
+   * five requests. The budget is shared by the requests of the client, so an outage of the server does not multiply
+   * the load by the maximum number of retries.
+   *
+   * @param budgetRatio the ratio
+   * @return fluent self
+   */
+  public RetryingWebClientOptions setBudgetRatio(double budgetRatio) {
+    if (budgetRatio < 0) {
+      throw new IllegalArgumentException("budgetRatio must be >= 0");
+    }
+    this.budgetRatio = budgetRatio;
+    return this;
+  }
+
+  /**
+   * @return the number of retries and hedges per second allowed regardless of the ratio
+   */
+  public int getMinRetriesPerSecond() {
+    return minRetriesPerSecond;
+  }
+
+  /**
+   * Set the number of retries and hedges per second allowed regardless of the {@link #setBudgetRatio(double) ratio},
+   * so a client sending few requests can still retry them.
+   *
+   * @param minRetriesPerSecond the number of retries
+   * @return fluent self
+   */
+  public RetryingWebClientOptions setMinRetriesPerSecond(int minRetriesPerSecond) {
+    if (minRetriesPerSecond < 0) {
+      throw new IllegalArgumentException("minRetriesPerSecond must be >= 0");
+    }
+    this.minRetriesPerSecond = minRetriesPerSecond;
+    return this;
+  }
+
+  /**
+   * @return the percentile of the latencies after which a request is hedged
+   */
+  public double getHedgingPercentile() {
+    return hedgingPercentile;
+  }
+
+  /**
+   * Set the percentile of the observed latencies, between {@code 0} and {@code 100}, after which a duplicate of an
+   * idempotent request is sent if it has no response yet, e.g. {@code 95} hedges the slowest 5% of the requests. The
+   * first response is used and the other request is cancelled. {@code 0} disables the hedging.
+   *
+   * @param hedgingPercentile the percentile
+   * @return fluent self
+   */
+  public RetryingWebClientOptions setHedgingPercentile(double hedgingPercentile) {
+    if (hedgingPercentile < 0 || hedgingPercentile >= 100) {
+      throw new IllegalArgumentException("hedgingPercentile must be >= 0 and < 100");
+    }
+    this.hedgingPercentile = hedgingPercentile;
+    return this;
+  }
+
+  /**
+   * @return the minimum delay in milliseconds before a request is hedged
+   */
+  public long getMinHedgingDelay() {
+    return minHedgingDelay;
+  }
+
+  /**
+   * Set the minimum delay in milliseconds before a request is hedged, whatever the observed latencies.
+   *
+   * @param minHedgingDelay the delay in milliseconds
+   * @return fluent self
+   */
+  public RetryingWebClientOptions setMinHedgingDelay(long minHedgingDelay) {
+    if (minHedgingDelay < 1) {
+      throw new IllegalArgumentException("minHedgingDelay must be > 0");
+    }
+    this.minHedgingDelay = minHedgingDelay;
+    return this;
+  }
+}
@@ -15,6 +15,7 @@
  */
 package io.vertx.ext.web.client.impl;
 
+import io.vertx.core.http.impl.HttpClientInternal;
 import io.vertx.ext.web.client.CachingWebClientOptions;
 import io.vertx.ext.web.client.WebClient;
 import io.vertx.ext.web.client.impl.cache.CacheInterceptor;
@@ -26,8 +27,9 @@ import io.vertx.ext.web.client.spi.CacheStore;
 public interface CachingWebClientImpl {
 
   static WebClient wrap(WebClient webClient, CacheStore cacheStore, CachingWebClientOptions options) {
-    WebClientInternal internal = new WebClientBase((WebClientBase) webClient);
-    internal.addInterceptor(new CacheInterceptor(cacheStore, options));
+    WebClientBase base = (WebClientBase) webClient;
+    WebClientInternal internal = new WebClientBase(base);
+    internal.addInterceptor(new CacheInterceptor(((HttpClientInternal) base.client).vertx(), cacheStore, options));
     return internal;
   }
 }
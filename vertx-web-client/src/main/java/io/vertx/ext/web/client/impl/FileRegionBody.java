@@ -0,0 +1,68 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.client.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.file.AsyncFile;
+import io.vertx.core.file.OpenOptions;
+
+/**
+ * A request body read from a region of a file, opened when the request is sent.
+ */
+final class FileRegionBody {
+
+  private static final OpenOptions READ_ONLY = new OpenOptions().setRead(true).setWrite(false).setCreate(false);
+
+  private final String path;
+  private final long offset;
+  private final long length;
+
+  FileRegionBody(String path, long offset, long length) {
+    if (offset < 0) {
+      throw new IllegalArgumentException("offset must be >= 0");
+    }
+    if (length < 0) {
+      throw new IllegalArgumentException("length must be >= 0");
+    }
+    this.path = path;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  long length() {
+    return length;
+  }
+
+  /**
+   * @return the file, positioned at the region and limited to its length
+   */
+  Future<AsyncFile> open(Vertx vertx) {
+    return vertx.fileSystem()
+      .open(path, READ_ONLY)
+      .compose(file -> file.size().compose(size -> {
+        if (offset + length > size) {
+          file.close();
+          return Future.failedFuture(new IllegalArgumentException("The region [" + offset + ", " + (offset + length)
+            + ") is beyond the end of " + path + " (" + size + " bytes)"));
+        }
+        return Future.succeededFuture(file
+          .setReadPos(offset)
+          .setReadLength(length)
+          .setReadBufferSize(StreamingMultipartFormUpload.READ_BUFFER_SIZE));
+      }));
+  }
+}
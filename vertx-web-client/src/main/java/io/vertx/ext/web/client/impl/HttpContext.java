@@ -18,6 +18,7 @@ package io.vertx.ext.web.client.impl;
 import io.netty.handler.codec.http.multipart.HttpPostRequestEncoder;
 import io.vertx.core.*;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.AsyncFile;
 import io.vertx.core.http.HttpClientRequest;
 import io.vertx.core.http.HttpClientResponse;
 import io.vertx.core.http.HttpHeaders;
@@ -60,6 +61,7 @@ public class HttpContext<T> {
   private Promise<HttpClientRequest> requestPromise;
   private HttpResponse<T> response;
   private Throwable failure;
+  private boolean discardFailure;
   private int redirects;
   private List<String> redirectedLocations = Collections.emptyList();
   private CacheStore privateCacheStore;
@@ -311,6 +313,17 @@ public class HttpContext<T> {
     return true;
   }
 
+  /**
+   * Discard the failure being processed: the next interceptors still traverse the {@link ClientPhase#FAILURE} phase,
+   * so they can release the request, but the failure is not delivered to the response handler, e.g. the request is
+   * sent again or another request got the response.
+   */
+  public void discardFailure() {
+    if (phase == ClientPhase.FAILURE) {
+      discardFailure = true;
+    }
+  }
+
   /**
    * Fire a client execution phase.
    *
@@ -323,6 +336,7 @@ public class HttpContext<T> {
     Objects.requireNonNull(phase);
     this.phase = phase;
     this.interceptorIdx = 0;
+    this.discardFailure = false;
     if (invoking) {
       this.invokeNext = true;
     } else {
@@ -390,6 +404,14 @@ public class HttpContext<T> {
   }
 
   private void handleFailure() {
+    if (requestPromise != null) {
+      // the request body is not sent, release it
+      requestPromise.tryFail(failure);
+    }
+    if (discardFailure) {
+      discardFailure = false;
+      return;
+    }
     handler.handle(Future.failedFuture(failure));
   }
 
@@ -422,12 +444,20 @@ public class HttpContext<T> {
     requestPromise = Promise.promise();
     if (body != null || "application/json".equals(contentType)) {
       if (body instanceof MultipartForm) {
-        MultipartFormUpload multipartForm;
+        MultipartForm form = (MultipartForm) this.body;
+        MultiMap formHeaders;
         try {
           boolean multipart = "multipart/form-data".equals(contentType);
-          HttpPostRequestEncoder.EncoderMode encoderMode = this.request.multipartMixed() ? HttpPostRequestEncoder.EncoderMode.RFC1738 : HttpPostRequestEncoder.EncoderMode.HTML5;
-          multipartForm = new MultipartFormUpload(context,  (MultipartForm) this.body, multipart, encoderMode);
-          this.body = multipartForm;
+          if (multipart && StreamingMultipartFormUpload.supports(form, this.request.multipartMixed())) {
+            StreamingMultipartFormUpload upload = new StreamingMultipartFormUpload(client.vertx(), form);
+            formHeaders = upload.headers();
+            this.body = upload;
+          } else {
+            HttpPostRequestEncoder.EncoderMode encoderMode = this.request.multipartMixed() ? HttpPostRequestEncoder.EncoderMode.RFC1738 : HttpPostRequestEncoder.EncoderMode.HTML5;
+            MultipartFormUpload multipartForm = new MultipartFormUpload(context, form, multipart, encoderMode);
+            formHeaders = multipartForm.headers();
+            this.body = multipartForm;
+          }
         } catch (Exception e) {
           fail(e);
           return;
@@ -435,35 +465,32 @@ public class HttpContext<T> {
         for (String headerName : this.request.headers().names()) {
           requestOptions.putHeader(headerName, this.request.headers().get(headerName));
         }
-        multipartForm.headers().forEach(header -> {
+        formHeaders.forEach(header -> {
           requestOptions.putHeader(header.getKey(), header.getValue());
         });
       }
-      if (body instanceof ReadStream<?>) {
-        ReadStream<Buffer> stream = (ReadStream<Buffer>) body;
-        Pipe<Buffer> pipe = stream.pipe(); // Shouldn't this be called in an earlier phase ?
-        requestPromise.future().onComplete(ar -> {
+      if (body instanceof FileRegionBody) {
+        // opened for each request, so the body can be sent again on redirect
+        FileRegionBody region = (FileRegionBody) body;
+        requestOptions.putHeader(HttpHeaders.CONTENT_LENGTH, "" + region.length());
+        region.open(client.vertx()).onComplete(ar -> {
           if (ar.succeeded()) {
-            HttpClientRequest req = ar.result();
-            if (this.request.headers == null || !this.request.headers.contains(HttpHeaders.CONTENT_LENGTH)) {
-              req.setChunked(true);
-            }
-            pipe.endOnFailure(false);
-            pipe.to(req).onComplete(ar2 -> {
-              clientRequest = null;
-              if (ar2.failed()) {
-                req.reset(0L, ar2.cause());
-              }
-            });
-            if (body instanceof MultipartFormUpload) {
-              ((MultipartFormUpload) body).run();
-            }
+            AsyncFile file = ar.result();
+            pipeBody(file).onComplete(v -> file.close());
+            createClientRequest();
           } else {
-            // Test this
-            clientRequest = null;
-            pipe.close();
+            fail(ar.cause());
           }
         });
+        return;
+      }
+      if (body instanceof ReadStream<?>) {
+        Future<Void> sent = pipeBody((ReadStream<Buffer>) body);
+        if (body instanceof StreamingMultipartFormUpload) {
+          // a file part may be open when the request fails
+          StreamingMultipartFormUpload upload = (StreamingMultipartFormUpload) body;
+          sent.onComplete(v -> upload.close());
+        }
       } else {
         Buffer buffer;
         if (body instanceof Buffer) {
@@ -473,6 +500,8 @@ public class HttpContext<T> {
         } else {
           buffer = Buffer.buffer(Json.encode(body));
         }
+        // encoded once, a redirected or retried request sends the same buffer
+        this.body = buffer;
         requestOptions.putHeader(HttpHeaders.CONTENT_LENGTH, "" + buffer.length());
         requestPromise.future().onSuccess(request -> {
           clientRequest = null;
@@ -485,17 +514,54 @@ public class HttpContext<T> {
         request.end();
       });
     }
+    createClientRequest();
+  }
+
+  private void createClientRequest() {
     client.request(requestOptions)
       .onComplete(ar1 -> {
         if (ar1.succeeded()) {
           sendRequest(ar1.result());
         } else {
           fail(ar1.cause());
-          requestPromise.fail(ar1.cause());
+          requestPromise.tryFail(ar1.cause());
         }
       });
   }
 
+  /**
+   * @return a future completed when the stream is no longer read, sent or not
+   */
+  private Future<Void> pipeBody(ReadStream<Buffer> stream) {
+    Promise<Void> done = Promise.promise();
+    Pipe<Buffer> pipe = stream.pipe(); // Shouldn't this be called in an earlier phase ?
+    requestPromise.future().onComplete(ar -> {
+      if (ar.succeeded()) {
+        HttpClientRequest req = ar.result();
+        if (requestOptions.getHeaders() == null || !requestOptions.getHeaders().contains(HttpHeaders.CONTENT_LENGTH)) {
+          req.setChunked(true);
+        }
+        pipe.endOnFailure(false);
+        pipe.to(req).onComplete(ar2 -> {
+          clientRequest = null;
+          if (ar2.failed()) {
+            req.reset(0L, ar2.cause());
+          }
+          done.handle(ar2);
+        });
+        if (stream instanceof MultipartFormUpload) {
+          ((MultipartFormUpload) stream).run();
+        }
+      } else {
+        // Test this
+        clientRequest = null;
+        pipe.close();
+        done.fail(ar.cause());
+      }
+    });
+    return done.future();
+  }
+
   private void handleReceiveResponse() {
     HttpClientResponse resp = clientResponse;
     Context context = Vertx.currentContext();
@@ -387,6 +387,17 @@ public class HttpRequestImpl<T> implements HttpRequest<T> {
     return send(null, body);
   }
 
+  @Override
+  public Future<HttpResponse<T>> sendFile(String path, long offset, long length) {
+    FileRegionBody body;
+    try {
+      body = new FileRegionBody(Objects.requireNonNull(path, "Path cannot be null"), offset, length);
+    } catch (IllegalArgumentException e) {
+      return Future.failedFuture(e);
+    }
+    return send(null, body);
+  }
+
   @Override
   public Future<HttpResponse<T>> send() {
     return send(null, null);
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.client.impl;
+
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.web.client.LoadBalancedEndpoint;
+import io.vertx.ext.web.client.LoadBalancingWebClient;
+import io.vertx.ext.web.client.LoadBalancingWebClientOptions;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.impl.lb.LoadBalancingInterceptor;
+import io.vertx.ext.web.client.spi.EndpointSelector;
+
+import java.util.List;
+
+public class LoadBalancingWebClientImpl extends WebClientBase implements LoadBalancingWebClient {
+
+  private final LoadBalancingInterceptor interceptor;
+
+  public LoadBalancingWebClientImpl(WebClient client, List<SocketAddress> endpoints, EndpointSelector selector, LoadBalancingWebClientOptions options) {
+    super((WebClientBase) client);
+    if (selector == null) {
+      throw new IllegalArgumentException("Selector cannot be null");
+    }
+    if (options == null) {
+      throw new IllegalArgumentException("Options cannot be null");
+    }
+    this.interceptor = new LoadBalancingInterceptor(endpoints, selector, options);
+    addInterceptor(interceptor);
+  }
+
+  @Override
+  public List<LoadBalancedEndpoint> endpoints() {
+    return interceptor.endpoints();
+  }
+}
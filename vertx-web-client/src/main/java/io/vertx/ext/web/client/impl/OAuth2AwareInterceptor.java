@@ -13,9 +13,11 @@ package io.vertx.ext.web.client.impl;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Promise;
+import io.vertx.ext.auth.User;
+import io.vertx.ext.auth.authentication.Credentials;
 
-import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static io.vertx.core.http.HttpHeaders.AUTHORIZATION;
 
@@ -24,8 +26,13 @@ import static io.vertx.core.http.HttpHeaders.AUTHORIZATION;
  */
 public class OAuth2AwareInterceptor implements Handler<HttpContext<?>> {
 
-  private final Set<HttpContext<?>> dejaVu = new HashSet<>();
+  // the user whose token was sent with the request
+  private static final String USER_KEY = "_oauth2_user";
+
+  private final Set<HttpContext<?>> dejaVu = ConcurrentHashMap.newKeySet();
   private final Oauth2WebClientAware parentClient;
+  // the token request in progress, shared by all the requests waiting for a token
+  private Future<User> renewal;
 
   public OAuth2AwareInterceptor(Oauth2WebClientAware webClientOauth2Aware) {
     this.parentClient = webClientOauth2Aware;
@@ -58,17 +65,11 @@ public class OAuth2AwareInterceptor implements Handler<HttpContext<?>> {
         } else {
           // we need some stop condition so we don't go into an infinite loop
           dejaVu.add(context);
-          parentClient
-            .oauth2Auth()
-            .authenticate(parentClient.getCredentials())
-            .onSuccess(userResult -> {
-              // update the user
-              parentClient.setUser(userResult);
-              context.createRequest(context.requestOptions());
-            })
+          // the token was rejected, don't refresh it
+          renew(context.get(USER_KEY), true)
+            .onSuccess(userResult -> context.createRequest(context.requestOptions()))
             .onFailure(err -> {
               dejaVu.remove(context);
-              parentClient.setUser(null);
               context.fail(err);
             });
         }
@@ -81,56 +82,79 @@ public class OAuth2AwareInterceptor implements Handler<HttpContext<?>> {
   }
 
   private Future<Void> createRequest(HttpContext<?> context) {
+    if (parentClient.getCredentials() == null) {
+      return Future.failedFuture("Missing client credentials");
+    }
 
-    Promise<Void> promise = Promise.promise();
-    if (parentClient.getCredentials() != null) {
-      if (parentClient.getUser() != null) {
-        if (parentClient.getUser().expired(parentClient.getLeeway())) {
-          //Token has expired we need to invalidate the session
-          parentClient
-            .oauth2Auth()
-            .refresh(parentClient.getUser())
-            .onSuccess(userResult -> {
-              parentClient.setUser(userResult);
-              context.requestOptions().putHeader(AUTHORIZATION, "Bearer " + userResult.principal().getString("access_token"));
-              promise.complete();
-            })
-            .onFailure(error -> {
-              // Refresh token failed, we can try standard authentication
-              parentClient
-                .oauth2Auth()
-                .authenticate(parentClient.getCredentials())
-                .onSuccess(userResult -> {
-                  parentClient.setUser(userResult);
-                  context.requestOptions().putHeader(AUTHORIZATION, "Bearer " + userResult.principal().getString("access_token"));
-                  promise.complete();
-                })
-                .onFailure(errorAuth -> {
-                  //Refresh token did not work and failed to obtain new authentication token, we need to fail
-                  parentClient.setUser(null);
-                  promise.fail(errorAuth);
-                });
-            });
-        } else {
-          //User is not expired, access_token is valid
-          context.requestOptions().putHeader(AUTHORIZATION, "Bearer " + parentClient.getUser().principal().getString("access_token"));
-          promise.complete();
-        }
-      } else {
-        parentClient
-          .oauth2Auth()
-          .authenticate(parentClient.getCredentials())
-          .onSuccess(userResult -> {
-            parentClient.setUser(userResult);
-            context.requestOptions().putHeader(AUTHORIZATION, "Bearer " + userResult.principal().getString("access_token"));
-            promise.complete();
-          })
-          .onFailure(promise::fail);
+    final User user = parentClient.getUser();
+    final Future<User> fut;
+    if (user == null || user.expired(parentClient.getLeeway())) {
+      fut = renew(user, false);
+    } else {
+      // access_token is valid, refresh it in the background when it is about to expire
+      if (parentClient.getRefreshWindow() > 0 && user.expired(-parentClient.getRefreshWindow())) {
+        renew(user, false);
       }
+      fut = Future.succeededFuture(user);
+    }
+
+    return fut.map(userResult -> {
+      context.set(USER_KEY, userResult);
+      context.requestOptions().putHeader(AUTHORIZATION, "Bearer " + userResult.principal().getString("access_token"));
+      return null;
+    });
+  }
+
+  /**
+   * Obtains a new token, the concurrent callers share the same token request.
+   *
+   * @param current the user known by the caller, {@code null} when there is none
+   * @param authenticate {@code true} to authenticate without trying to refresh the current token first
+   * @return the renewed user
+   */
+  private synchronized Future<User> renew(User current, boolean authenticate) {
+    final User user = parentClient.getUser();
+    if (user != null && user != current && !user.expired(parentClient.getLeeway())) {
+      // already renewed by another request
+      return Future.succeededFuture(user);
+    }
+    if (renewal != null) {
+      return renewal;
+    }
+
+    final Credentials credentials = parentClient.getCredentials();
+    final Future<User> fut;
+    if (current != null && !authenticate) {
+      fut = parentClient
+        .oauth2Auth()
+        .refresh(current)
+        // Refresh token failed, we can try standard authentication
+        .recover(error -> parentClient.oauth2Auth().authenticate(credentials));
     } else {
-      promise.fail("Missing client credentials");
+      fut = parentClient
+        .oauth2Auth()
+        .authenticate(credentials);
     }
 
+    final Promise<User> promise = Promise.promise();
+    renewal = promise.future();
+    fut.onComplete(ar -> {
+      synchronized (this) {
+        if (renewal == promise.future()) {
+          renewal = null;
+        }
+      }
+      // the credentials may have been replaced in the meantime
+      if (credentials == parentClient.getCredentials()) {
+        if (ar.succeeded()) {
+          parentClient.setUser(ar.result());
+        } else if (authenticate || current == null || current.expired(parentClient.getLeeway())) {
+          // failed to obtain a new token, a background refresh keeps the current one until it expires
+          parentClient.setUser(null);
+        }
+      }
+      promise.handle(ar);
+    });
     return promise.future();
   }
 }
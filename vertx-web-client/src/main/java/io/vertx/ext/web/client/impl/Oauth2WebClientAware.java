@@ -22,9 +22,10 @@ public class Oauth2WebClientAware extends WebClientBase implements OAuth2WebClie
   private final OAuth2Auth oauth2Auth;
   private final OAuth2WebClientOptions option;
 
-  private Credentials credentials;
+  // read by the requests of any thread
+  private volatile Credentials credentials;
 
-  private User user;
+  private volatile User user;
 
   public Oauth2WebClientAware(WebClient client, OAuth2Auth oauth2Auth, OAuth2WebClientOptions options) {
     super((WebClientBase) client);
@@ -76,6 +77,10 @@ public class Oauth2WebClientAware extends WebClientBase implements OAuth2WebClie
     return option.getLeeway();
   }
 
+  public int getRefreshWindow() {
+    return option.getRefreshWindow();
+  }
+
   public boolean isRenewTokenOnForbidden() {
     return option.isRenewTokenOnForbidden();
   }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.client.impl;
+
+import io.vertx.core.http.impl.HttpClientInternal;
+import io.vertx.ext.web.client.RetryingWebClient;
+import io.vertx.ext.web.client.RetryingWebClientOptions;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.impl.retry.RetryInterceptor;
+
+public class RetryingWebClientImpl extends WebClientBase implements RetryingWebClient {
+
+  private final RetryInterceptor interceptor;
+
+  public RetryingWebClientImpl(WebClient client, RetryingWebClientOptions options) {
+    super((WebClientBase) client);
+    if (options == null) {
+      throw new IllegalArgumentException("Options cannot be null");
+    }
+    this.interceptor = new RetryInterceptor(((HttpClientInternal) this.client).vertx(), options);
+    addInterceptor(interceptor);
+  }
+
+  @Override
+  public long retries() {
+    return interceptor.retries();
+  }
+
+  @Override
+  public long hedges() {
+    return interceptor.hedges();
+  }
+
+  @Override
+  public long hedgeWins() {
+    return interceptor.hedgeWins();
+  }
+}
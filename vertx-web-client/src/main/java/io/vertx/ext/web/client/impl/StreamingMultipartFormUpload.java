@@ -0,0 +1,318 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.client.impl;
+
+import io.netty.handler.codec.http.HttpConstants;
+import io.netty.handler.codec.http.multipart.HttpPostRequestEncoder;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.AsyncFile;
+import io.vertx.core.file.OpenOptions;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.web.multipart.FormDataPart;
+import io.vertx.ext.web.multipart.MultipartForm;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A stream that sends a {@code multipart/form-data} form with file parts.
+ * <p>
+ * Unlike {@link MultipartFormUpload}, the boundaries and the part headers are written by this stream and the files are
+ * streamed from disk with non-blocking reads of {@link #READ_BUFFER_SIZE} bytes, instead of being read on the event
+ * loop in small chunks by the Netty encoder. The size of the form is known upfront, so it is sent with a
+ * {@code content-length} rather than chunked.
+ */
+public class StreamingMultipartFormUpload implements ReadStream<Buffer> {
+
+  /**
+   * The size of the reads of the file parts.
+   */
+  static final int READ_BUFFER_SIZE = 64 * 1024;
+
+  private static final OpenOptions READ_ONLY = new OpenOptions().setRead(true).setWrite(false).setCreate(false);
+
+  private final Vertx vertx;
+  private final String boundary;
+  // the Buffer or FilePart to send
+  private final Deque<Object> parts = new ArrayDeque<>();
+  private final long length;
+  private Handler<Throwable> exceptionHandler;
+  private Handler<Buffer> dataHandler;
+  private Handler<Void> endHandler;
+  private long demand = Long.MAX_VALUE;
+  private boolean draining;
+  private boolean opening;
+  private boolean ended;
+  private AsyncFile file;
+  private long fileRead;
+
+  /**
+   * Whether a form can be sent by this stream: the file parts of a {@code multipart/mixed} form must have distinct
+   * names, otherwise they are nested.
+   *
+   * @param form the form
+   * @param multipartMixed whether to nest the files with the same name in {@code multipart/mixed} parts
+   * @return {@code true} when the form has files to stream from disk and can be sent by this stream
+   */
+  public static boolean supports(MultipartForm form, boolean multipartMixed) {
+    boolean files = false;
+    Set<String> names = new HashSet<>();
+    for (FormDataPart part : form) {
+      if (!part.isAttribute()) {
+        files |= part.pathname() != null;
+        if (multipartMixed && !names.add(part.name())) {
+          return false;
+        }
+      }
+    }
+    return files;
+  }
+
+  public StreamingMultipartFormUpload(Vertx vertx, MultipartForm form) throws Exception {
+    this.vertx = vertx;
+    this.boundary = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    Charset charset = form.getCharset() != null ? form.getCharset() : HttpConstants.DEFAULT_CHARSET;
+    long length = 0;
+    for (FormDataPart part : form) {
+      StringBuilder header = new StringBuilder("--").append(boundary).append("\r\n");
+      Buffer content = null;
+      FilePart file = null;
+      if (part.isAttribute()) {
+        content = Buffer.buffer(part.value().getBytes(charset));
+        header.append("content-disposition: form-data; name=\"").append(part.name()).append("\"\r\n")
+          .append("content-length: ").append(content.length()).append("\r\n")
+          .append("content-type: text/plain; charset=").append(charset.name()).append("\r\n");
+      } else {
+        long size;
+        String contentType = part.mediaType();
+        Charset partCharset = null;
+        if (part.pathname() != null) {
+          File f = new File(part.pathname());
+          if (!f.isFile()) {
+            // the same failure as the Netty encoder
+            throw new HttpPostRequestEncoder.ErrorDataEncoderException(new FileNotFoundException(part.pathname()));
+          }
+          size = f.length();
+          file = new FilePart(part.pathname(), size);
+          partCharset = charset;
+        } else {
+          content = part.content();
+          size = content.length();
+        }
+        if (contentType == null) {
+          contentType = part.isText() ? "text/plain" : "application/octet-stream";
+        }
+        header.append("content-disposition: form-data; name=\"").append(part.name())
+          .append("\"; filename=\"").append(part.filename()).append("\"\r\n")
+          .append("content-length: ").append(size).append("\r\n")
+          .append("content-type: ").append(contentType);
+        if (!part.isText()) {
+          header.append("\r\ncontent-transfer-encoding: binary\r\n");
+        } else if (partCharset != null) {
+          header.append("; charset=").append(partCharset.name()).append("\r\n");
+        } else {
+          header.append("\r\n");
+        }
+      }
+      header.append("\r\n");
+      Buffer head = Buffer.buffer(header.toString().getBytes(charset));
+      if (content != null) {
+        head.appendBuffer(content).appendString("\r\n");
+        length += head.length();
+        parts.add(head);
+      } else {
+        length += head.length() + file.size + 2;
+        parts.add(head);
+        parts.add(file);
+        parts.add(Buffer.buffer("\r\n"));
+      }
+    }
+    Buffer end = Buffer.buffer("--" + boundary + "--\r\n");
+    length += end.length();
+    parts.add(end);
+    this.length = length;
+  }
+
+  public MultiMap headers() {
+    return MultiMap.caseInsensitiveMultiMap()
+      .add(HttpHeaders.CONTENT_TYPE, "multipart/form-data; boundary=" + boundary)
+      .add(HttpHeaders.CONTENT_LENGTH, Long.toString(length));
+  }
+
+  @Override
+  public StreamingMultipartFormUpload exceptionHandler(Handler<Throwable> handler) {
+    exceptionHandler = handler;
+    return this;
+  }
+
+  @Override
+  public StreamingMultipartFormUpload handler(Handler<Buffer> handler) {
+    dataHandler = handler;
+    return this;
+  }
+
+  @Override
+  public StreamingMultipartFormUpload endHandler(Handler<Void> handler) {
+    endHandler = handler;
+    return this;
+  }
+
+  @Override
+  public StreamingMultipartFormUpload pause() {
+    demand = 0L;
+    if (file != null) {
+      file.pause();
+    }
+    return this;
+  }
+
+  @Override
+  public StreamingMultipartFormUpload resume() {
+    return fetch(Long.MAX_VALUE);
+  }
+
+  @Override
+  public StreamingMultipartFormUpload fetch(long amount) {
+    demand += amount;
+    if (demand < 0L) {
+      demand = Long.MAX_VALUE;
+    }
+    drain();
+    return this;
+  }
+
+  private void drain() {
+    if (draining) {
+      return;
+    }
+    draining = true;
+    try {
+      while (demand > 0L && file == null && !opening && !ended) {
+        Object part = parts.poll();
+        if (part == null) {
+          ended = true;
+          if (endHandler != null) {
+            endHandler.handle(null);
+          }
+        } else if (part instanceof Buffer) {
+          emit((Buffer) part);
+        } else {
+          open((FilePart) part);
+        }
+      }
+      if (file != null && demand > 0L) {
+        file.resume();
+      }
+    } finally {
+      draining = false;
+    }
+  }
+
+  private void emit(Buffer buffer) {
+    if (demand != Long.MAX_VALUE) {
+      demand--;
+    }
+    if (dataHandler != null) {
+      dataHandler.handle(buffer);
+    }
+  }
+
+  private void open(FilePart part) {
+    opening = true;
+    vertx.fileSystem().open(part.path, READ_ONLY).onComplete(ar -> {
+      opening = false;
+      if (ar.failed()) {
+        fail(ar.cause());
+        return;
+      }
+      AsyncFile f = ar.result();
+      if (ended) {
+        f.close();
+        return;
+      }
+      file = f;
+      fileRead = 0L;
+      f.pause()
+        .setReadBufferSize(READ_BUFFER_SIZE)
+        .setReadLength(part.size)
+        .exceptionHandler(this::fail)
+        .endHandler(v -> {
+          file = null;
+          f.close();
+          if (fileRead != part.size) {
+            fail(new IOException("File " + part.path + " changed while being uploaded"));
+          } else {
+            drain();
+          }
+        })
+        .handler(buffer -> {
+          fileRead += buffer.length();
+          emit(buffer);
+          if (demand == 0L) {
+            f.pause();
+          }
+        });
+      drain();
+    });
+  }
+
+  /**
+   * Stops the upload and closes the file part being read, e.g. when the request fails. A file part being opened is
+   * closed once opened.
+   */
+  public void close() {
+    if (!ended) {
+      ended = true;
+      parts.clear();
+      if (file != null) {
+        file.close();
+        file = null;
+      }
+    }
+  }
+
+  private void fail(Throwable cause) {
+    if (ended) {
+      return;
+    }
+    close();
+    if (exceptionHandler != null) {
+      exceptionHandler.handle(cause);
+    }
+  }
+
+  private static final class FilePart {
+
+    final String path;
+    final long size;
+
+    FilePart(String path, long size) {
+      this.path = path;
+      this.size = size;
+    }
+  }
+}
@@ -86,6 +86,20 @@ public class CacheControl {
     return maxAge;
   }
 
+  /**
+   * @return the seconds a stale response can be served while it is revalidated in the background, {@code 0} if none
+   */
+  public long getStaleWhileRevalidate() {
+    return Math.max(0L, timeDirectives.getOrDefault(CacheControlDirective.STALE_WHILE_REVALIDATE, 0L));
+  }
+
+  /**
+   * @return the seconds a stale response can be served when the server fails, {@code 0} if none
+   */
+  public long getStaleIfError() {
+    return Math.max(0L, timeDirectives.getOrDefault(CacheControlDirective.STALE_IF_ERROR, 0L));
+  }
+
   public Set<CharSequence> variations() {
     if (vary == null) {
       return Collections.emptySet();
@@ -145,6 +159,24 @@ public class CacheControl {
     return directives.contains(CacheControlDirective.MUST_REVALIDATE);
   }
 
+  /**
+   * Use the given stale windows when the server did not send the {@code stale-while-revalidate} or
+   * {@code stale-if-error} directives.
+   *
+   * @param staleWhileRevalidate the default {@code stale-while-revalidate} seconds
+   * @param staleIfError the default {@code stale-if-error} seconds
+   * @return a reference to this
+   */
+  CacheControl withStaleDefaults(long staleWhileRevalidate, long staleIfError) {
+    if (staleWhileRevalidate > 0) {
+      timeDirectives.putIfAbsent(CacheControlDirective.STALE_WHILE_REVALIDATE, staleWhileRevalidate);
+    }
+    if (staleIfError > 0) {
+      timeDirectives.putIfAbsent(CacheControlDirective.STALE_IF_ERROR, staleIfError);
+    }
+    return this;
+  }
+
   private long computeMaxAge() {
     if (!isPrivate() && timeDirectives.containsKey(CacheControlDirective.SHARED_MAX_AGE)) {
       return timeDirectives.get(CacheControlDirective.SHARED_MAX_AGE);
@@ -17,24 +17,32 @@ package io.vertx.ext.web.client.impl.cache;
 
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
 import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.RequestOptions;
 import io.vertx.ext.web.client.CachingWebClientOptions;
 import io.vertx.ext.web.client.HttpRequest;
 import io.vertx.ext.web.client.HttpResponse;
 import io.vertx.ext.web.client.impl.HttpContext;
 import io.vertx.ext.web.client.spi.CacheStore;
-import java.util.Collections;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * An interceptor for caching responses that operates on the {@link HttpContext}.
+ * <p>
+ * When {@link CachingWebClientOptions#isRequestCoalescing() request coalescing} is enabled, concurrent requests that
+ * cannot be answered from the cache are coalesced: the first one goes to the server and the others wait for its
+ * response, up to {@link CachingWebClientOptions#getRequestCoalescingTimeout()}. The waiting requests are answered with
+ * that response when it is stored in the public cache and matches their variation, otherwise they go to the server.
  *
  * @author <a href="mailto:craigday3@gmail.com">Craig Day</a>
  */
@@ -43,15 +51,27 @@ public class CacheInterceptor implements Handler<HttpContext<?>> {
   private static final String IS_CACHE_DISPATCH = "cache.dispatch";
   private static final String RESPONSE_TO_REVALIDATE = "cache.response_to_revalidate";
   private static final String IS_CACHE_REVALIDATION = "cache.revalidation";
+  private static final String IN_FLIGHT_KEY = "cache.in_flight_key";
+  private static final String IN_FLIGHT_PROMISE = "cache.in_flight_promise";
+  private static final String IN_FLIGHT_RESULT = "cache.in_flight_result";
 
   private final CacheStore publicCacheStore;
   private final CachingWebClientOptions options;
-  private final Map<CacheVariationsKey, Set<Vary>> variationsRegistry;
+  private final Map<CacheVariationsKey, Variations> variationsRegistry;
+  private final Vertx vertx;
+  // the requests sent to the server, by method and resource, when coalescing
+  private final ConcurrentMap<String, Future<Coalesced>> inFlight;
 
   public CacheInterceptor(CacheStore store, CachingWebClientOptions options) {
+    this(null, store, options);
+  }
+
+  public CacheInterceptor(Vertx vertx, CacheStore store, CachingWebClientOptions options) {
     this.publicCacheStore = store;
     this.options = options;
     this.variationsRegistry = new ConcurrentHashMap<>();
+    this.vertx = vertx;
+    this.inFlight = options.isRequestCoalescing() ? new ConcurrentHashMap<>() : null;
   }
 
   @Override
@@ -61,8 +81,13 @@ public class CacheInterceptor implements Handler<HttpContext<?>> {
         case DISPATCH_RESPONSE:
           processResponse((HttpContext<Buffer>) context, null).onComplete(ar -> {
             // Don't go further
+            release(context);
           });
           break;
+        case FAILURE:
+          // The stale response was already served, keep it until the next revalidation
+          release(context);
+          break;
         default:
           context.next();
           break;
@@ -75,6 +100,9 @@ public class CacheInterceptor implements Handler<HttpContext<?>> {
         case DISPATCH_RESPONSE:
           handleDispatchResponse((HttpContext<Buffer>) context);
           break;
+        case FAILURE:
+          handleFailure((HttpContext<Buffer>) context);
+          break;
         default:
           context.next();
           break;
@@ -84,12 +112,15 @@ public class CacheInterceptor implements Handler<HttpContext<?>> {
 
   private void handleCreateRequest(HttpContext<Buffer> context) {
     RequestOptions request = context.requestOptions();
-    Vary variation;
 
-    if (!options.getCachedMethods().contains(request.getMethod()) || (variation = selectVariation(request)) == null) {
+    if (!options.getCachedMethods().contains(request.getMethod())) {
       context.next();
       return;
     }
+    Vary selected = selectVariation(request);
+    // An unknown resource may still have been stored, e.g. by a previous instance using the same persistent store,
+    // but only a response that does not vary can be found without its variations
+    Vary variation = selected != null ? selected : new Vary(request.getHeaders(), MultiMap.caseInsensitiveMultiMap());
 
     Promise<CachedHttpResponse> promise = Promise.promise();
     CacheKey key = new CacheKey(request, variation);
@@ -110,19 +141,99 @@ public class CacheInterceptor implements Handler<HttpContext<?>> {
 
     promise
       .future()
-      .map(cached -> respondFromCache(context, cached))
+      .map(cached -> respondFromCache(context, selected != null ? cached : recover(request, variation, cached)))
       .onComplete(ar -> {
         if (ar.succeeded() && ar.result().isPresent()) {
           context.set(IS_CACHE_DISPATCH, true);
           context.dispatchResponse(ar.result().get());
         } else {
-          context.next();
+          fetch(context);
         }
       });
   }
 
+  private CachedHttpResponse recover(RequestOptions request, Vary variation, CachedHttpResponse cached) {
+    if (cached == null || cached.getCacheControl().isVarying()) {
+      return null;
+    }
+    registerVariation(new CacheVariationsKey(request), variation);
+    return cached;
+  }
+
+  /**
+   * Sends the request to the server, or waits for the response of the same request already sent.
+   */
+  private void fetch(HttpContext<Buffer> context) {
+    String key = inFlightKey(context);
+    if (key == null || context.get(IN_FLIGHT_PROMISE) != null) {
+      // not coalesced, or following a redirect of a coalesced request
+      context.next();
+      return;
+    }
+    Promise<Coalesced> promise = Promise.promise();
+    Future<Coalesced> existing = inFlight.putIfAbsent(key, promise.future());
+    if (existing == null) {
+      context.set(IN_FLIGHT_KEY, key);
+      context.set(IN_FLIGHT_PROMISE, promise);
+      context.next();
+      return;
+    }
+
+    Promise<Coalesced> waiter = Promise.promise();
+    long timeout = options.getRequestCoalescingTimeout();
+    long timerId = vertx == null || timeout <= 0 ? -1 : vertx.setTimer(timeout, id -> {
+      // don't let the next requests wait for a response that may never come
+      inFlight.remove(key, existing);
+      waiter.tryFail("Timed out waiting for a coalesced request");
+    });
+    existing.onComplete(ar -> {
+      if (timerId != -1) {
+        vertx.cancelTimer(timerId);
+      }
+      if (ar.succeeded()) {
+        waiter.tryComplete(ar.result());
+      } else {
+        waiter.tryFail(ar.cause());
+      }
+    });
+    waiter.future().onComplete(ar -> {
+      Coalesced coalesced = ar.succeeded() ? ar.result() : null;
+      if (coalesced != null && coalesced.variation.matchesRequest(context.requestOptions())) {
+        HttpResponse<Buffer> result = coalesced.response.rehydrate();
+        result.headers().set(HttpHeaders.AGE, Long.toString(coalesced.response.age()));
+        context.set(IS_CACHE_DISPATCH, true);
+        context.dispatchResponse(result);
+      } else {
+        // the response could not be shared, get our own
+        context.next();
+      }
+    });
+  }
+
+  private String inFlightKey(HttpContext<?> context) {
+    RequestOptions request = context.requestOptions();
+    if (inFlight == null || context.body() != null
+      || (request.getMethod() != HttpMethod.GET && request.getMethod() != HttpMethod.HEAD)) {
+      return null;
+    }
+    return request.getMethod().name() + ' ' + new CacheVariationsKey(request);
+  }
+
+  /**
+   * Hands the response of a coalesced request, if it was cached, to the requests waiting for it.
+   */
+  private void release(HttpContext<?> context) {
+    Promise<Coalesced> promise = context.get(IN_FLIGHT_PROMISE);
+    if (promise != null) {
+      context.set(IN_FLIGHT_PROMISE, null);
+      inFlight.remove(context.<String>get(IN_FLIGHT_KEY), promise.future());
+      promise.tryComplete(context.get(IN_FLIGHT_RESULT));
+    }
+  }
+
   private void handleDispatchResponse(HttpContext<Buffer> context) {
     if (context.get(IS_CACHE_DISPATCH) == Boolean.TRUE) {
+      release(context);
       context.next();
       return;
     }
@@ -134,27 +245,35 @@ public class CacheInterceptor implements Handler<HttpContext<?>> {
         if (ar.succeeded()) {
           context.response(ar.result());
         }
+        release(context);
         context.next();
       });
     } else {
       // We're storing a new response in cache
       processResponse(context, null).onComplete(ar -> {
+        release(context);
         context.next();
       });
     }
   }
 
-  private Vary selectVariation(RequestOptions request) {
-    CacheVariationsKey key = new CacheVariationsKey(request);
-    Set<Vary> possibleVariations = variationsRegistry.getOrDefault(key, Collections.emptySet());
-
-    for (Vary variation : possibleVariations) {
-      if (variation.matchesRequest(request)) {
-        return variation;
-      }
+  private void handleFailure(HttpContext<Buffer> context) {
+    release(context);
+    CachedHttpResponse responseToValidate = context.get(RESPONSE_TO_REVALIDATE);
+    if (responseToValidate != null && responseToValidate.useStaleIfError()) {
+      // The server could not be reached, the stale response is better than an error
+      HttpResponse<Buffer> result = responseToValidate.rehydrate();
+      result.headers().set(HttpHeaders.AGE, Long.toString(responseToValidate.age()));
+      context.set(IS_CACHE_DISPATCH, true);
+      context.dispatchResponse(result);
+    } else {
+      context.next();
     }
+  }
 
-    return null;
+  private Vary selectVariation(RequestOptions request) {
+    Variations variations = variationsRegistry.get(new CacheVariationsKey(request));
+    return variations == null ? null : variations.select(request);
   }
 
   private Future<HttpResponse<Buffer>> processResponse(HttpContext<Buffer> context, CachedHttpResponse cachedResponse) {
@@ -163,8 +282,8 @@ public class CacheInterceptor implements Handler<HttpContext<?>> {
     if (options.getCachedStatusCodes().contains(response.statusCode())) {
       // Request was successful, attempt to cache response
       return cacheResponse(context, response).map(response);
-    } else if (cachedResponse != null && cachedResponse.useStaleIfError()) {
-      // The response is a status code we don't know about, assume revalidate failed and use cached result
+    } else if (cachedResponse != null && response.statusCode() >= 500 && cachedResponse.useStaleIfError()) {
+      // The server failed to revalidate, use cached result
       return Future.succeededFuture(cachedResponse.rehydrate());
     } else {
       // Response is not cacheable, do nothing
@@ -189,8 +308,18 @@ public class CacheInterceptor implements Handler<HttpContext<?>> {
       return Optional.of(result);
     } else if (response.useStaleWhileRevalidate()) {
       // Send off a request to revalidate the cache but don't want for a response,
+      String key = inFlightKey(context);
+      Promise<Coalesced> promise = Promise.promise();
+      if (key != null && inFlight.putIfAbsent(key, promise.future()) != null) {
+        // already being revalidated
+        return Optional.of(result);
+      }
       HttpContext<Buffer> duplicate = context.duplicate();
       duplicate.set(IS_CACHE_REVALIDATION, true);
+      if (key != null) {
+        duplicate.set(IN_FLIGHT_KEY, key);
+        duplicate.set(IN_FLIGHT_PROMISE, promise);
+      }
       duplicate.prepareRequest(context.request(), context.contentType(), context.body());
       // Just respond immediately with the cached value.
       return Optional.of(result);
@@ -220,7 +349,8 @@ public class CacheInterceptor implements Handler<HttpContext<?>> {
 
   private Future<HttpResponse<Buffer>> cacheResponse(HttpContext<?> context, HttpResponse<Buffer> response) {
     HttpRequest<?> request = context.request();
-    CacheControl cacheControl = CacheControl.parse(response.headers());
+    CacheControl cacheControl = CacheControl.parse(response.headers())
+      .withStaleDefaults(options.getDefaultStaleWhileRevalidate(), options.getDefaultStaleIfError());
 
     if (!cacheControl.isCacheable()) {
       return Future.succeededFuture(response);
@@ -244,15 +374,78 @@ public class CacheInterceptor implements Handler<HttpContext<?>> {
     if (cacheControl.isPrivate()) {
       return context.privateCacheStore().set(key, cachedResponse).map(response);
     } else {
+      if (context.get(IN_FLIGHT_PROMISE) != null) {
+        // anyone can be answered with it
+        context.set(IN_FLIGHT_RESULT, new Coalesced(variation, cachedResponse));
+      }
       return publicCacheStore.set(key, cachedResponse).map(response);
     }
   }
 
   private void registerVariation(CacheVariationsKey variationsKey, Vary variation) {
-    Set<Vary> existing = variationsRegistry.getOrDefault(variationsKey, Collections.emptySet());
-    Set<Vary> updated = new HashSet<>(existing);
+    variationsRegistry
+      .computeIfAbsent(variationsKey, k -> new Variations(options.getMaxVariations()))
+      .register(variation);
+  }
+
+  /**
+   * The variations of a resource, indexed by the {@link Vary#key() key} of the requests they match.
+   */
+  private static final class Variations {
+
+    private static final int MAX_SHAPES = 8;
 
-    updated.add(variation);
-    variationsRegistry.put(variationsKey, updated);
+    // one variation per list of varied headers, usually a single one
+    private volatile Vary[] shapes = new Vary[0];
+    private final Map<String, Vary> byKey;
+
+    Variations(int maxVariations) {
+      this.byKey = new LinkedHashMap<String, Vary>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Vary> eldest) {
+          return size() > maxVariations;
+        }
+      };
+    }
+
+    Vary select(RequestOptions request) {
+      for (Vary shape : shapes) {
+        String key = shape.keyOf(request);
+        Vary variation;
+        synchronized (this) {
+          variation = byKey.get(key);
+        }
+        if (variation != null) {
+          return variation;
+        }
+      }
+      return null;
+    }
+
+    synchronized void register(Vary variation) {
+      byKey.put(variation.key(), variation);
+      Vary[] current = shapes;
+      for (Vary shape : current) {
+        if (shape.variesLike(variation)) {
+          return;
+        }
+      }
+      // the server changed the headers it varies on, drop the oldest list when there are too many
+      int from = current.length < MAX_SHAPES ? 0 : 1;
+      Vary[] updated = Arrays.copyOfRange(current, from, current.length + 1);
+      updated[updated.length - 1] = variation;
+      shapes = updated;
+    }
+  }
+
+  private static final class Coalesced {
+
+    final Vary variation;
+    final CachedHttpResponse response;
+
+    Coalesced(Vary variation, CachedHttpResponse response) {
+      this.variation = variation;
+      this.response = response;
+    }
   }
 }
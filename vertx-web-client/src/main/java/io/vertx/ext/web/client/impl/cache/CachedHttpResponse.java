@@ -57,12 +57,18 @@ public class CachedHttpResponse {
 
   CachedHttpResponse(String version, int statusCode, String statusMessage, Buffer body,
     MultiMap responseHeaders, CacheControl cacheControl) {
+    // TODO: should we look at the Date or Age header instead?
+    this(version, statusCode, statusMessage, body, responseHeaders, Instant.now(), cacheControl);
+  }
+
+  CachedHttpResponse(String version, int statusCode, String statusMessage, Buffer body,
+    MultiMap responseHeaders, Instant timestamp, CacheControl cacheControl) {
     this.version = version;
     this.statusCode = statusCode;
     this.statusMessage = statusMessage;
     this.body = body;
     this.responseHeaders = responseHeaders;
-    this.timestamp = Instant.now(); // TODO: should we look at the Date or Age header instead?
+    this.timestamp = timestamp;
     this.cacheControl = cacheControl;
   }
 
@@ -106,6 +112,25 @@ public class CachedHttpResponse {
     return useStale(CacheControlDirective.STALE_IF_ERROR);
   }
 
+  /**
+   * @return the time in milliseconds after which the response can neither be served, nor revalidated with its
+   * {@code ETag}, or {@link Long#MAX_VALUE}
+   */
+  long expiresAt() {
+    if (cacheControl.getEtag() != null) {
+      // a stale response can still be revalidated
+      return Long.MAX_VALUE;
+    }
+    long maxAge = cacheControl.getMaxAge();
+    long stale = Math.max(cacheControl.getStaleWhileRevalidate(), cacheControl.getStaleIfError());
+    if (maxAge >= Long.MAX_VALUE / 4000 || stale >= Long.MAX_VALUE / 4000) {
+      // no max-age, nor Expires
+      return Long.MAX_VALUE;
+    }
+    // the age is counted in whole seconds
+    return timestamp.toEpochMilli() + (maxAge + stale + 1) * 1000;
+  }
+
   public long age() {
     return Duration.between(timestamp, Instant.now()).getSeconds();
   }
@@ -124,6 +149,10 @@ public class CachedHttpResponse {
   }
 
   private boolean useStale(CacheControlDirective directive) {
+    if (getCacheControl().mustRevalidate()) {
+      // a stale response must not be used without a successful validation
+      return false;
+    }
     long secondsStale = Math.max(0L, age() - getCacheControl().getMaxAge());
 
     long maxSecondsStale = getCacheControl()
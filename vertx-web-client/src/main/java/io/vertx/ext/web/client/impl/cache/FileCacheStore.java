@@ -0,0 +1,612 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.client.impl.cache;
+
+import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxException;
+import io.vertx.core.WorkerExecutor;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.web.client.spi.CacheStore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+/**
+ * A {@link CacheStore} keeping responses on disk, so they survive restarts.
+ * <p>
+ * Responses are appended to a log of fixed size segment files, read through memory mappings of the segments and
+ * located with an in-memory index rebuilt from the log when the store is opened. Deleting a response appends a
+ * tombstone to the log.
+ * <p>
+ * The oldest segment is cleaned in the background when a new segment is started: its live responses are appended
+ * again to the log and the segment is deleted, unless the store is over its disk budget, in which case the oldest
+ * segment is dropped with its responses. Expired responses, see {@link LocalCacheStore}, are dropped when read or
+ * cleaned.
+ * <p>
+ * The changes are run in submission order by a single worker thread, the index is updated with the log under the
+ * write lock. The responses are read and decoded on the worker pool, reading mapped pages can block on the disk.
+ * <p>
+ * A segment is written to disk when the next segment is started and when the store is closed. A crash of the host can
+ * lose the responses of the active segment, the log is then recovered up to its last valid record.
+ * <p>
+ * A directory must be used by a single store at a time.
+ */
+public class FileCacheStore implements CacheStore {
+
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".log";
+  private static final long MIN_SEGMENT_SIZE = 64 * 1024;
+  private static final long MAX_SEGMENT_SIZE = 64 * 1024 * 1024;
+  // length and checksum
+  private static final int RECORD_HEADER = 8;
+  private static final byte PUT = 1;
+  private static final byte DELETE = 2;
+
+  private final Vertx vertx;
+  private final WorkerExecutor writer;
+  private final Path directory;
+  private final long maxSize;
+  private final int segmentSize;
+  private final Map<String, Location> index = new ConcurrentHashMap<>();
+  private final ConcurrentSkipListMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+  private final AtomicBoolean cleaning = new AtomicBoolean();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder expirations = new LongAdder();
+  // guards the writes, the active segment is the last one
+  private final Object lock = new Object();
+  private Segment active;
+
+  /**
+   * Open the store, recovering the responses kept in the directory. This blocks while the segments are read, see
+   * {@link #open(Vertx, String, long)}.
+   *
+   * @param vertx the vertx instance running the reads and writes
+   * @param directory the directory of the segment files, created if needed
+   * @param maxSize the disk budget of the store in bytes
+   */
+  public FileCacheStore(Vertx vertx, String directory, long maxSize) {
+    this.vertx = vertx;
+    this.directory = Paths.get(directory);
+    this.maxSize = maxSize;
+    this.segmentSize = (int) Math.max(MIN_SEGMENT_SIZE, Math.min(MAX_SEGMENT_SIZE, maxSize / 8));
+    try {
+      Files.createDirectories(this.directory);
+      recover();
+    } catch (IOException e) {
+      throw new VertxException("Cannot open the cache store " + directory, e);
+    }
+    this.writer = vertx.createSharedWorkerExecutor("vertx-file-cache-store-" + this.directory.toAbsolutePath(), 1);
+  }
+
+  /**
+   * Open the store on a worker thread, recovering the responses kept in the directory.
+   *
+   * @param vertx the vertx instance running the reads and writes
+   * @param directory the directory of the segment files, created if needed
+   * @param maxSize the disk budget of the store in bytes
+   * @return the store, once opened
+   */
+  public static Future<CacheStore> open(Vertx vertx, String directory, long maxSize) {
+    return vertx.executeBlocking(() -> new FileCacheStore(vertx, directory, maxSize), false);
+  }
+
+  @Override
+  public Future<CachedHttpResponse> get(CacheKey key) {
+    String id = key.toString();
+    Location location = index.get(id);
+    if (location != null && location.expiresAt <= System.currentTimeMillis()) {
+      if (index.remove(id, location)) {
+        release(location);
+        expirations.increment();
+      }
+      location = null;
+    }
+    Segment segment = location == null ? null : segments.get(location.segment);
+    if (segment == null) {
+      // missing, or removed by the cleaner in the meantime
+      misses.increment();
+      return Future.succeededFuture();
+    }
+    int offset = location.offset;
+    int length = location.length;
+    return vertx.executeBlocking(() -> {
+      CachedHttpResponse response = decode(segment.read(offset, length));
+      hits.increment();
+      return response;
+    }, false);
+  }
+
+  @Override
+  public Future<CachedHttpResponse> set(CacheKey key, CachedHttpResponse response) {
+    String id = key.toString();
+    long expiresAt = response.expiresAt();
+    Buffer record = encode(id, response, expiresAt);
+    return writer.executeBlocking(() -> {
+      synchronized (lock) {
+        if (record.length() <= segmentSize) {
+          Location location = append(record, expiresAt);
+          retain(location);
+          Location previous = index.put(id, location);
+          if (previous != null) {
+            release(previous);
+          }
+        }
+      }
+      return response;
+    }, false);
+  }
+
+  @Override
+  public Future<Void> delete(CacheKey key) {
+    String id = key.toString();
+    return writer.<Void>executeBlocking(() -> {
+      synchronized (lock) {
+        Location previous = index.remove(id);
+        if (previous != null) {
+          release(previous);
+          // the record would be resurrected by the next recovery
+          Buffer tombstone = Buffer.buffer().appendByte(DELETE);
+          appendString(tombstone, id);
+          append(tombstone, 0);
+        }
+      }
+      return null;
+    }, false);
+  }
+
+  @Override
+  public Future<Void> flush() {
+    return writer.<Void>executeBlocking(() -> {
+      synchronized (lock) {
+        index.clear();
+        for (Segment segment : segments.values()) {
+          segment.delete();
+        }
+        segments.clear();
+        active = null;
+        roll(0);
+      }
+      return null;
+    }, false);
+  }
+
+  /**
+   * Write the pending changes to disk and close the segment files, after the submitted changes.
+   */
+  @Override
+  public Future<Void> close() {
+    return writer.<Void>executeBlocking(() -> {
+      synchronized (lock) {
+        for (Segment segment : segments.values()) {
+          segment.close();
+        }
+      }
+      return null;
+    }, false).transform(ar -> writer.close()
+      .transform(v -> ar.succeeded() ? Future.succeededFuture() : Future.failedFuture(ar.cause())));
+  }
+
+  /**
+   * @return the number of lookups that found a response
+   */
+  @Override
+  public long hits() {
+    return hits.sum();
+  }
+
+  /**
+   * @return the number of lookups that found no response, expired ones included
+   */
+  @Override
+  public long misses() {
+    return misses.sum();
+  }
+
+  /**
+   * @return the number of responses dropped to stay within the disk budget
+   */
+  @Override
+  public long evictions() {
+    return evictions.sum();
+  }
+
+  /**
+   * @return the number of responses dropped because they expired
+   */
+  @Override
+  public long expirations() {
+    return expirations.sum();
+  }
+
+  /**
+   * @return the number of stored responses
+   */
+  public int size() {
+    return index.size();
+  }
+
+  /**
+   * @return the size of the log in bytes
+   */
+  public long diskSize() {
+    long size = 0;
+    for (Segment segment : segments.values()) {
+      size += segment.end;
+    }
+    return size;
+  }
+
+  private void recover() throws IOException {
+    List<Integer> ids = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+      for (Path path : stream) {
+        String name = path.getFileName().toString();
+        try {
+          ids.add(Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+        } catch (NumberFormatException ignore) {
+          // not ours
+        }
+      }
+    }
+    ids.sort(null);
+    for (int id : ids) {
+      Segment segment = new Segment(id, segmentFile(id), Math.max(segmentSize, (int) Files.size(segmentFile(id))));
+      segments.put(id, segment);
+      scan(segment);
+    }
+    if (ids.isEmpty()) {
+      roll(0);
+    } else {
+      active = segments.lastEntry().getValue();
+    }
+  }
+
+  /**
+   * Replays the records of a segment in the index, up to the first invalid one, e.g. a partially written record.
+   */
+  private void scan(Segment segment) {
+    long now = System.currentTimeMillis();
+    ByteBuffer buffer = segment.map.duplicate();
+    int offset = 0;
+    while (offset + RECORD_HEADER < buffer.capacity()) {
+      int length = buffer.getInt(offset);
+      if (length <= 0 || offset + RECORD_HEADER + length > buffer.capacity()) {
+        break;
+      }
+      byte[] bytes = new byte[length];
+      buffer.position(offset + RECORD_HEADER);
+      buffer.get(bytes);
+      if (checksum(bytes) != buffer.getInt(offset + 4)) {
+        break;
+      }
+      Buffer record = Buffer.buffer(bytes);
+      int pos = 1;
+      int keyLength = record.getInt(pos);
+      String id = record.getString(pos + 4, pos + 4 + keyLength, "UTF-8");
+      Location previous;
+      if (record.getByte(0) == PUT) {
+        long expiresAt = record.getLong(pos + 4 + keyLength);
+        if (expiresAt > now) {
+          Location location = new Location(segment.id, offset, RECORD_HEADER + length, expiresAt);
+          segment.live.addAndGet(location.length);
+          previous = index.put(id, location);
+        } else {
+          previous = index.remove(id);
+        }
+      } else {
+        previous = index.remove(id);
+      }
+      if (previous != null) {
+        release(previous);
+      }
+      offset += RECORD_HEADER + length;
+    }
+    segment.end = offset;
+  }
+
+  /**
+   * Appends a record to the active segment, called with the lock held. The record is not live until its location is
+   * retained, tombstones never are.
+   */
+  private Location append(Buffer record, long expiresAt) throws IOException {
+    int length = RECORD_HEADER + record.length();
+    if (active.end + length > active.map.capacity()) {
+      roll(active.id + 1);
+    }
+    byte[] bytes = record.getBytes();
+    int offset = active.end;
+    ByteBuffer buffer = active.map.duplicate();
+    buffer.position(offset);
+    buffer.putInt(bytes.length);
+    buffer.putInt(checksum(bytes));
+    buffer.put(bytes);
+    active.end = offset + length;
+    return new Location(active.id, offset, length, expiresAt);
+  }
+
+  /**
+   * Starts a new active segment, called with the lock held.
+   */
+  private void roll(int id) throws IOException {
+    if (active != null) {
+      // the full segment is not written anymore
+      active.map.force();
+    }
+    active = new Segment(id, segmentFile(id), segmentSize);
+    segments.put(id, active);
+    if (segments.size() > 1 && cleaning.compareAndSet(false, true)) {
+      vertx.executeBlocking(() -> {
+        try {
+          clean();
+        } finally {
+          cleaning.set(false);
+        }
+        return null;
+      }, false);
+    }
+  }
+
+  /**
+   * Cleans the oldest segments while the log is over its disk budget, or they are mostly garbage.
+   */
+  private void clean() throws IOException {
+    synchronized (lock) {
+      while (segments.size() > 1) {
+        Segment oldest = segments.firstEntry().getValue();
+        long diskSize = diskSize();
+        boolean overBudget = diskSize > maxSize;
+        if (!overBudget && oldest.live.get() * 2 > oldest.end) {
+          break;
+        }
+        if (overBudget && liveSize() > maxSize / 4 * 3) {
+          // Rewriting would not free enough space
+          evict(oldest);
+        } else {
+          compact(oldest);
+        }
+        segments.remove(oldest.id);
+        oldest.delete();
+      }
+    }
+  }
+
+  private void compact(Segment segment) throws IOException {
+    long now = System.currentTimeMillis();
+    for (Map.Entry<String, Location> entry : index.entrySet()) {
+      Location location = entry.getValue();
+      if (location.segment != segment.id) {
+        continue;
+      }
+      if (location.expiresAt <= now) {
+        if (index.remove(entry.getKey(), location)) {
+          expirations.increment();
+        }
+        continue;
+      }
+      Buffer record = Buffer.buffer(segment.read(location.offset + RECORD_HEADER, location.length - RECORD_HEADER));
+      // written to the active segment, which is never the cleaned one
+      Location moved = append(record, location.expiresAt);
+      if (index.replace(entry.getKey(), location, moved)) {
+        retain(moved);
+      }
+    }
+  }
+
+  private void evict(Segment segment) {
+    Iterator<Location> it = index.values().iterator();
+    while (it.hasNext()) {
+      if (it.next().segment == segment.id) {
+        it.remove();
+        evictions.increment();
+      }
+    }
+  }
+
+  /**
+   * @return the size of the records still in the index in bytes
+   */
+  long liveSize() {
+    long size = 0;
+    for (Segment segment : segments.values()) {
+      size += segment.live.get();
+    }
+    return size;
+  }
+
+  private void retain(Location location) {
+    Segment segment = segments.get(location.segment);
+    if (segment != null) {
+      segment.live.addAndGet(location.length);
+    }
+  }
+
+  private void release(Location location) {
+    Segment segment = segments.get(location.segment);
+    if (segment != null) {
+      segment.live.addAndGet(-location.length);
+    }
+  }
+
+  private Path segmentFile(int id) {
+    return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+  }
+
+  private static int checksum(byte[] bytes) {
+    CRC32 crc = new CRC32();
+    crc.update(bytes, 0, bytes.length);
+    return (int) crc.getValue();
+  }
+
+  private static Buffer encode(String id, CachedHttpResponse response, long expiresAt) {
+    Buffer buffer = Buffer.buffer(256 + (response.getBody() == null ? 0 : response.getBody().length()));
+    buffer.appendByte(PUT);
+    appendString(buffer, id);
+    buffer
+      .appendLong(expiresAt)
+      .appendLong(response.getTimestamp().toEpochMilli())
+      .appendInt(response.getStatusCode())
+      .appendLong(response.getCacheControl().getStaleWhileRevalidate())
+      .appendLong(response.getCacheControl().getStaleIfError());
+    appendString(buffer, response.getVersion());
+    appendString(buffer, response.getStatusMessage());
+    MultiMap headers = response.getResponseHeaders();
+    buffer.appendInt(headers.size());
+    for (Map.Entry<String, String> header : headers) {
+      appendString(buffer, header.getKey());
+      appendString(buffer, header.getValue());
+    }
+    if (response.getBody() == null) {
+      buffer.appendInt(-1);
+    } else {
+      buffer.appendInt(response.getBody().length()).appendBuffer(response.getBody());
+    }
+    return buffer;
+  }
+
+  private static CachedHttpResponse decode(byte[] bytes) {
+    // skip the header, the type and the key
+    Buffer record = Buffer.buffer(bytes);
+    int[] pos = { RECORD_HEADER + 1 };
+    readString(record, pos);
+    long timestamp = record.getLong(pos[0] + 8);
+    int statusCode = record.getInt(pos[0] + 16);
+    long staleWhileRevalidate = record.getLong(pos[0] + 20);
+    long staleIfError = record.getLong(pos[0] + 28);
+    pos[0] += 36;
+    String version = readString(record, pos);
+    String statusMessage = readString(record, pos);
+    int count = record.getInt(pos[0]);
+    pos[0] += 4;
+    MultiMap headers = MultiMap.caseInsensitiveMultiMap();
+    for (int i = 0; i < count; i++) {
+      headers.add(readString(record, pos), readString(record, pos));
+    }
+    int bodyLength = record.getInt(pos[0]);
+    pos[0] += 4;
+    Buffer body = bodyLength < 0 ? null : record.slice(pos[0], pos[0] + bodyLength);
+    CacheControl cacheControl = CacheControl.parse(headers).withStaleDefaults(staleWhileRevalidate, staleIfError);
+    return new CachedHttpResponse(version, statusCode, statusMessage, body, headers,
+      Instant.ofEpochMilli(timestamp), cacheControl);
+  }
+
+  private static void appendString(Buffer buffer, String s) {
+    if (s == null) {
+      buffer.appendInt(-1);
+    } else {
+      byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+      buffer.appendInt(bytes.length).appendBytes(bytes);
+    }
+  }
+
+  private static String readString(Buffer buffer, int[] pos) {
+    int length = buffer.getInt(pos[0]);
+    pos[0] += 4;
+    if (length < 0) {
+      return null;
+    }
+    String s = buffer.getString(pos[0], pos[0] + length, "UTF-8");
+    pos[0] += length;
+    return s;
+  }
+
+  private static final class Location {
+
+    final int segment;
+    final int offset;
+    final int length;
+    final long expiresAt;
+
+    Location(int segment, int offset, int length, long expiresAt) {
+      this.segment = segment;
+      this.offset = offset;
+      this.length = length;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+  private static final class Segment {
+
+    final int id;
+    final Path path;
+    final FileChannel channel;
+    final MappedByteBuffer map;
+    // bytes of the records still in the index
+    final AtomicLong live = new AtomicLong();
+    // written by the lock holder only
+    volatile int end;
+
+    Segment(int id, Path path, int size) throws IOException {
+      this.id = id;
+      this.path = path;
+      this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      // the file is sparse until written
+      this.map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    /**
+     * @return a copy of the record, header included, straight from the mapped pages
+     */
+    byte[] read(int offset, int length) {
+      byte[] bytes = new byte[length];
+      ByteBuffer buffer = map.duplicate();
+      buffer.position(offset);
+      buffer.get(bytes);
+      return bytes;
+    }
+
+    void close() {
+      map.force();
+      try {
+        channel.close();
+      } catch (IOException ignore) {
+        // nothing to do
+      }
+    }
+
+    void delete() {
+      close();
+      try {
+        Files.deleteIfExists(path);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+}
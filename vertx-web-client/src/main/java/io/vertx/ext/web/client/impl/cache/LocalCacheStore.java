@@ -16,38 +16,370 @@
 package io.vertx.ext.web.client.impl.cache;
 
 import io.vertx.core.Future;
+import io.vertx.ext.web.client.CachingWebClientOptions;
 import io.vertx.ext.web.client.spi.CacheStore;
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * A {@link CacheStore} implementation using a local {@link Map}.
+ * A {@link CacheStore} implementation keeping responses in memory.
+ * <p>
+ * The store is bounded by the estimated size of the responses (body and headers) and evicts them with a segmented
+ * LRU policy: a response read more than once is moved from the probation segment to the protected segment, so a scan
+ * of responses read once cannot evict the popular ones. The store is split in independently locked shards sharing the
+ * size budget: when the store is full, the least recently used responses of each shard are evicted in turn, the
+ * probation segments first, so the order is an approximation of the LRU order of the whole store.
+ * <p>
+ * Any response up to the size budget can be stored, a bigger one is not stored.
+ * <p>
+ * Responses that can no longer be served, nor revalidated with their {@code ETag}, expire once their {@code max-age}
+ * and stale windows are elapsed.
  *
  * @author <a href="mailto:craigday3@gmail.com">Craig Day</a>
  */
 public class LocalCacheStore implements CacheStore {
 
-  private final Map<CacheKey, CachedHttpResponse> localMap = new HashMap<>();
+  /**
+   * The size of a store that never evicts responses.
+   */
+  public static final long UNBOUNDED = -1;
+
+  // estimated memory used by an entry, beyond the response body and headers
+  private static final int ENTRY_OVERHEAD = 128;
+  // share of a shard kept for the responses read more than once
+  private static final int PROTECTED_PERCENT = 80;
+  // don't split small stores, the protected segment of each shard would be too small
+  private static final long MIN_SHARD_SIZE = 1024 * 1024;
+
+  private final Shard[] shards;
+  private final long maxWeight;
+  // the estimated size of the stored responses, updated by the shards under their lock
+  private final AtomicLong weight = new AtomicLong();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder expirations = new LongAdder();
+
+  public LocalCacheStore() {
+    this(CachingWebClientOptions.DEFAULT_LOCAL_CACHE_MAX_SIZE);
+  }
+
+  /**
+   * @param maxSize the maximum estimated size of the stored responses in bytes, or {@link #UNBOUNDED}
+   */
+  public LocalCacheStore(long maxSize) {
+    int count = Integer.highestOneBit(Math.max(1, 2 * Runtime.getRuntime().availableProcessors() - 1)) << 1;
+    if (maxSize >= 0) {
+      while (count > 1 && maxSize / count < MIN_SHARD_SIZE) {
+        count >>= 1;
+      }
+    }
+    this.maxWeight = maxSize < 0 ? UNBOUNDED : maxSize;
+    shards = new Shard[count];
+    for (int i = 0; i < count; i++) {
+      shards[i] = new Shard(maxSize < 0 ? UNBOUNDED : maxSize / count / 100 * PROTECTED_PERCENT);
+    }
+  }
 
   @Override
   public Future<CachedHttpResponse> get(CacheKey key) {
-    return Future.succeededFuture(localMap.get(key));
+    CachedHttpResponse response = shard(key).get(key, System.currentTimeMillis());
+    if (response == null) {
+      misses.increment();
+    } else {
+      hits.increment();
+    }
+    return Future.succeededFuture(response);
   }
 
   @Override
   public Future<CachedHttpResponse> set(CacheKey key, CachedHttpResponse response) {
-    return Future.succeededFuture(localMap.put(key, response));
+    int index = index(key);
+    CachedHttpResponse previous = shards[index].put(key, new Entry(response), System.currentTimeMillis());
+    // the shard of the new response comes last, its eldest entry might be the new response
+    evict((index + 1) & (shards.length - 1));
+    return Future.succeededFuture(previous);
   }
 
   @Override
   public Future<Void> delete(CacheKey key) {
-    localMap.remove(key);
+    shard(key).remove(key);
     return Future.succeededFuture();
   }
 
   @Override
   public Future<Void> flush() {
-    localMap.clear();
+    for (Shard shard : shards) {
+      shard.clear();
+    }
     return Future.succeededFuture();
   }
+
+  /**
+   * @return the number of lookups that found a response
+   */
+  @Override
+  public long hits() {
+    return hits.sum();
+  }
+
+  /**
+   * @return the number of lookups that found no response, expired ones included
+   */
+  @Override
+  public long misses() {
+    return misses.sum();
+  }
+
+  /**
+   * @return the number of responses evicted to stay within the size budget
+   */
+  @Override
+  public long evictions() {
+    return evictions.sum();
+  }
+
+  /**
+   * @return the number of responses removed because they expired
+   */
+  @Override
+  public long expirations() {
+    return expirations.sum();
+  }
+
+  /**
+   * @return the number of stored responses
+   */
+  public int size() {
+    int size = 0;
+    for (Shard shard : shards) {
+      size += shard.size();
+    }
+    return size;
+  }
+
+  /**
+   * @return the estimated size of the stored responses in bytes
+   */
+  public long weight() {
+    return weight.get();
+  }
+
+  private Shard shard(CacheKey key) {
+    return shards[index(key)];
+  }
+
+  private int index(CacheKey key) {
+    int h = key.hashCode();
+    return (h ^ (h >>> 16)) & (shards.length - 1);
+  }
+
+  /**
+   * Evicts responses until the store is within its budget, one shard at a time. The protected segments are only
+   * evicted once the probation segments are empty.
+   */
+  private void evict(int start) {
+    if (maxWeight < 0) {
+      return;
+    }
+    boolean fromProtected = false;
+    int empty = 0;
+    for (int i = start; weight.get() > maxWeight; i = (i + 1) & (shards.length - 1)) {
+      if (shards[i].evictEldest(fromProtected)) {
+        empty = 0;
+      } else if (++empty == shards.length) {
+        if (fromProtected) {
+          return;
+        }
+        fromProtected = true;
+        empty = 0;
+      }
+    }
+  }
+
+  private static long weigh(CachedHttpResponse response) {
+    long weight = ENTRY_OVERHEAD;
+    if (response.getBody() != null) {
+      weight += response.getBody().length();
+    }
+    if (response.getResponseHeaders() != null) {
+      for (Map.Entry<String, String> header : response.getResponseHeaders()) {
+        weight += header.getKey().length() + header.getValue().length();
+      }
+    }
+    return weight;
+  }
+
+  private static final class Entry {
+
+    final CachedHttpResponse response;
+    final long weight;
+    final long expiresAt;
+
+    Entry(CachedHttpResponse response) {
+      this.response = response;
+      this.weight = weigh(response);
+      this.expiresAt = response.expiresAt();
+    }
+
+    boolean expired(long now) {
+      return now >= expiresAt;
+    }
+  }
+
+  private final class Shard {
+
+    private final long maxProtectedWeight;
+    // both in access order, the eldest entry is the least recently used
+    private final LinkedHashMap<CacheKey, Entry> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<CacheKey, Entry> protect = new LinkedHashMap<>(16, 0.75f, true);
+    private long probationWeight;
+    private long protectedWeight;
+
+    Shard(long maxProtectedWeight) {
+      this.maxProtectedWeight = maxProtectedWeight;
+    }
+
+    synchronized CachedHttpResponse get(CacheKey key, long now) {
+      Entry entry = probation.remove(key);
+      if (entry != null) {
+        if (entry.expired(now)) {
+          probationWeight -= entry.weight;
+          weight.addAndGet(-entry.weight);
+          expirations.increment();
+          return null;
+        }
+        // read twice, promote it
+        probationWeight -= entry.weight;
+        protect.put(key, entry);
+        protectedWeight += entry.weight;
+        demote();
+        return entry.response;
+      }
+      entry = protect.get(key);
+      if (entry == null) {
+        return null;
+      }
+      if (entry.expired(now)) {
+        protect.remove(key);
+        protectedWeight -= entry.weight;
+        weight.addAndGet(-entry.weight);
+        expirations.increment();
+        return null;
+      }
+      return entry.response;
+    }
+
+    synchronized CachedHttpResponse put(CacheKey key, Entry entry, long now) {
+      boolean wasProtected = protect.containsKey(key);
+      Entry previous = unlink(key);
+      if (maxWeight >= 0 && entry.weight > maxWeight) {
+        // would evict everything else and not fit anyway
+        return previous == null ? null : previous.response;
+      }
+      purge(now);
+      if (wasProtected) {
+        // an update of a response in use (e.g. a revalidation) stays protected
+        protect.put(key, entry);
+        protectedWeight += entry.weight;
+        demote();
+      } else {
+        probation.put(key, entry);
+        probationWeight += entry.weight;
+      }
+      weight.addAndGet(entry.weight);
+      return previous == null ? null : previous.response;
+    }
+
+    synchronized void remove(CacheKey key) {
+      unlink(key);
+    }
+
+    synchronized void clear() {
+      weight.addAndGet(-(probationWeight + protectedWeight));
+      probation.clear();
+      protect.clear();
+      probationWeight = 0;
+      protectedWeight = 0;
+    }
+
+    synchronized int size() {
+      return probation.size() + protect.size();
+    }
+
+    /**
+     * Evicts the least recently used entry of a segment.
+     *
+     * @return whether an entry was evicted
+     */
+    synchronized boolean evictEldest(boolean fromProtected) {
+      Iterator<Entry> it = (fromProtected ? protect : probation).values().iterator();
+      if (!it.hasNext()) {
+        return false;
+      }
+      Entry eldest = it.next();
+      it.remove();
+      if (fromProtected) {
+        protectedWeight -= eldest.weight;
+      } else {
+        probationWeight -= eldest.weight;
+      }
+      weight.addAndGet(-eldest.weight);
+      evictions.increment();
+      return true;
+    }
+
+    private Entry unlink(CacheKey key) {
+      Entry entry = probation.remove(key);
+      if (entry != null) {
+        probationWeight -= entry.weight;
+      } else {
+        entry = protect.remove(key);
+        if (entry == null) {
+          return null;
+        }
+        protectedWeight -= entry.weight;
+      }
+      weight.addAndGet(-entry.weight);
+      return entry;
+    }
+
+    /**
+     * Moves the least recently used protected entries back to probation when the protected segment is full.
+     */
+    private void demote() {
+      if (maxProtectedWeight < 0) {
+        return;
+      }
+      Iterator<Map.Entry<CacheKey, Entry>> it = protect.entrySet().iterator();
+      while (protectedWeight > maxProtectedWeight && it.hasNext()) {
+        Map.Entry<CacheKey, Entry> eldest = it.next();
+        it.remove();
+        protectedWeight -= eldest.getValue().weight;
+        probation.put(eldest.getKey(), eldest.getValue());
+        probationWeight += eldest.getValue().weight;
+      }
+    }
+
+    /**
+     * Drops the expired entries at the tail of the probation segment, so an unbounded store does not keep them until
+     * they are read again.
+     */
+    private void purge(long now) {
+      Iterator<Entry> it = probation.values().iterator();
+      while (it.hasNext()) {
+        Entry eldest = it.next();
+        if (!eldest.expired(now)) {
+          break;
+        }
+        it.remove();
+        probationWeight -= eldest.weight;
+        weight.addAndGet(-eldest.weight);
+        expirations.increment();
+      }
+    }
+  }
 }
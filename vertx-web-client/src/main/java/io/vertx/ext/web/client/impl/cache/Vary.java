@@ -20,6 +20,7 @@ import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.RequestOptions;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -34,17 +35,46 @@ public class Vary {
   private final MultiMap requestHeaders;
   private final MultiMap responseHeaders;
   private final Set<CharSequence> variations;
+  private final List<CharSequence> sortedVariations;
+  private final String key;
 
   public Vary(MultiMap requestHeaders, MultiMap responseHeaders) {
     this.requestHeaders = requestHeaders;
     this.responseHeaders = responseHeaders;
     this.variations = parseHeaders(responseHeaders);
+    this.sortedVariations = variations.stream().sorted(Comparator.comparing(CharSequence::toString)).collect(Collectors.toList());
+    this.key = keyOf(requestHeaders);
   }
 
   public boolean matchesRequest(RequestOptions request) {
     return variations.stream().allMatch(variation -> variationMatches(variation, request));
   }
 
+  /**
+   * @return a key shared by the variations matching the same requests, see {@link #keyOf(RequestOptions)}
+   */
+  public String key() {
+    return key;
+  }
+
+  /**
+   * Compute the key of the variation the request would match, among those varying on the same headers as this one:
+   * the request matches this variation if and only if the keys are equal.
+   *
+   * @param request the request
+   * @return the key
+   */
+  public String keyOf(RequestOptions request) {
+    return keyOf(request.getHeaders());
+  }
+
+  /**
+   * @return true if this variation varies on the same headers as the other one
+   */
+  public boolean variesLike(Vary other) {
+    return variations.equals(other.variations);
+  }
+
   @Override
   public String toString() {
     List<String> parts = new ArrayList<>(variations.size());
@@ -56,6 +86,24 @@ public class Vary {
     return parts.stream().sorted().collect(Collectors.joining(","));
   }
 
+  private String keyOf(MultiMap headers) {
+    if (headers == null) {
+      headers = MultiMap.caseInsensitiveMultiMap();
+    }
+    // the header names and values are separated by characters they cannot contain
+    StringBuilder sb = new StringBuilder();
+    for (CharSequence variation : sortedVariations) {
+      sb.append(variation).append('\n');
+      if (HttpHeaders.USER_AGENT.equals(variation)) {
+        sb.append(UserAgent.parse(headers).normalize());
+      } else if (!HttpHeaders.ACCEPT_ENCODING.equals(variation)) {
+        normalizeValues(headers.getAll(variation)).stream().sorted().forEach(v -> sb.append(v).append(','));
+      }
+      sb.append('\n');
+    }
+    return sb.toString();
+  }
+
   private boolean variationMatches(CharSequence variation, RequestOptions request) {
     if (HttpHeaders.USER_AGENT.equals(variation)) {
       return isUserAgentMatch(request);
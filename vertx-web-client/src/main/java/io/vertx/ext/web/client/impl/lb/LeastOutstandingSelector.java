@@ -0,0 +1,45 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.client.impl.lb;
+
+import io.vertx.ext.web.client.LoadBalancedEndpoint;
+import io.vertx.ext.web.client.spi.EndpointSelector;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LeastOutstandingSelector implements EndpointSelector {
+
+  // rotates the first endpoint checked, so the ties are balanced
+  private final AtomicInteger index = new AtomicInteger();
+
+  @Override
+  public LoadBalancedEndpoint select(List<LoadBalancedEndpoint> endpoints) {
+    int size = endpoints.size();
+    int start = Math.floorMod(index.getAndIncrement(), size);
+    LoadBalancedEndpoint selected = null;
+    long min = Long.MAX_VALUE;
+    for (int i = 0; i < size; i++) {
+      LoadBalancedEndpoint endpoint = endpoints.get((start + i) % size);
+      long outstanding = endpoint.outstandingRequests();
+      if (outstanding < min) {
+        selected = endpoint;
+        min = outstanding;
+      }
+    }
+    return selected;
+  }
+}
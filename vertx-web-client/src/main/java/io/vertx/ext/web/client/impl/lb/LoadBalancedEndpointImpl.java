@@ -0,0 +1,157 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.client.impl.lb;
+
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.web.client.LoadBalancedEndpoint;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An endpoint and the requests observed by the client.
+ * <p>
+ * The failure rate and the latency of the recent requests are exponential moving averages over the minimum number of
+ * requests of the ejection, they are reset when the endpoint is ejected so it is judged again on the requests it gets
+ * once back.
+ */
+public class LoadBalancedEndpointImpl implements LoadBalancedEndpoint {
+
+  private final SocketAddress address;
+  private final double alpha;
+  private final int minimumRequests;
+  private final AtomicLong outstanding = new AtomicLong();
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder ejections = new LongAdder();
+  // guarded by this
+  private int samples;
+  private double failureRate;
+  private double latency;
+  private volatile double averageLatency;
+  private volatile long ejectedUntil;
+  private volatile boolean ejected;
+
+  public LoadBalancedEndpointImpl(SocketAddress address, int minimumRequests) {
+    this.address = address;
+    this.minimumRequests = minimumRequests;
+    this.alpha = 2.0 / (minimumRequests + 1);
+  }
+
+  @Override
+  public SocketAddress address() {
+    return address;
+  }
+
+  @Override
+  public long outstandingRequests() {
+    return outstanding.get();
+  }
+
+  @Override
+  public long requests() {
+    return requests.sum();
+  }
+
+  @Override
+  public long failures() {
+    return failures.sum();
+  }
+
+  @Override
+  public long ejections() {
+    return ejections.sum();
+  }
+
+  @Override
+  public double averageLatency() {
+    return averageLatency;
+  }
+
+  @Override
+  public boolean isEjected() {
+    return isEjected(System.nanoTime());
+  }
+
+  boolean isEjected(long now) {
+    return ejected && now - ejectedUntil < 0;
+  }
+
+  void acquire() {
+    outstanding.incrementAndGet();
+    requests.increment();
+  }
+
+  /**
+   * Release a request that was not completed, e.g. replayed before its response.
+   */
+  void release() {
+    outstanding.decrementAndGet();
+  }
+
+  /**
+   * Record the completion of a request.
+   *
+   * @param now the current {@link System#nanoTime()}
+   * @param latency the latency in nanoseconds
+   * @param failed whether the request failed
+   * @param failureRateThreshold the failure rate making the endpoint an outlier
+   * @param latencyThreshold the latency in nanoseconds making the endpoint an outlier, {@code 0} to ignore the latency
+   * @return whether the endpoint is an outlier
+   */
+  boolean complete(long now, long latency, boolean failed, double failureRateThreshold, long latencyThreshold) {
+    outstanding.decrementAndGet();
+    if (failed) {
+      failures.increment();
+    }
+    synchronized (this) {
+      if (ejected && now - ejectedUntil >= 0) {
+        // back from ejection
+        ejected = false;
+        samples = 0;
+      }
+      if (samples == 0) {
+        this.failureRate = failed ? 1 : 0;
+        this.latency = latency;
+      } else {
+        this.failureRate += alpha * ((failed ? 1 : 0) - failureRate);
+        this.latency += alpha * (latency - this.latency);
+      }
+      if (samples < minimumRequests) {
+        samples++;
+      }
+      averageLatency = this.latency / TimeUnit.MILLISECONDS.toNanos(1);
+      if (ejected || samples < minimumRequests) {
+        // the requests completing during the ejection are not judged
+        return false;
+      }
+      return failureRate >= failureRateThreshold || (latencyThreshold > 0 && this.latency > latencyThreshold);
+    }
+  }
+
+  synchronized void eject(long until) {
+    ejections.increment();
+    ejectedUntil = until;
+    ejected = true;
+    samples = 0;
+  }
+
+  @Override
+  public String toString() {
+    return address.toString();
+  }
+}
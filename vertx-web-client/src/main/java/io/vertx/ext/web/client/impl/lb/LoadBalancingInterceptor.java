@@ -0,0 +1,177 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.client.impl.lb;
+
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.web.client.LoadBalancedEndpoint;
+import io.vertx.ext.web.client.LoadBalancingWebClientOptions;
+import io.vertx.ext.web.client.RequestCancelledException;
+import io.vertx.ext.web.client.impl.HttpContext;
+import io.vertx.ext.web.client.spi.EndpointSelector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends the requests to the endpoints picked by an {@link EndpointSelector} and ejects the outliers.
+ * <p>
+ * The endpoint is selected when the request is created, redirects to another server are not balanced. The request
+ * completes when its response headers are received or when it fails: the requests failing to connect, failing or
+ * getting a {@code 5xx} response count as failures. A request cancelled with a {@link RequestCancelledException}, e.g.
+ * the slower of a request and its hedge, only releases its endpoint.
+ */
+public class LoadBalancingInterceptor implements Handler<HttpContext<?>> {
+
+  private static final String ENDPOINT_KEY = "_lb_endpoint";
+  private static final String START_KEY = "_lb_start";
+  private static final String AUTHORITY_KEY = "_lb_authority";
+
+  private final List<LoadBalancedEndpoint> endpoints;
+  private final EndpointSelector selector;
+  private final double failureRateThreshold;
+  private final long latencyThreshold;
+  private final long ejectionTime;
+  private final int maxEjectionPercent;
+
+  public LoadBalancingInterceptor(List<SocketAddress> addresses, EndpointSelector selector, LoadBalancingWebClientOptions options) {
+    if (addresses == null || addresses.isEmpty()) {
+      throw new IllegalArgumentException("Endpoints cannot be empty");
+    }
+    List<LoadBalancedEndpoint> endpoints = new ArrayList<>(addresses.size());
+    for (SocketAddress address : addresses) {
+      endpoints.add(new LoadBalancedEndpointImpl(address, options.getMinimumRequests()));
+    }
+    this.endpoints = Collections.unmodifiableList(endpoints);
+    this.selector = selector;
+    this.failureRateThreshold = options.getFailureRateThreshold();
+    this.latencyThreshold = TimeUnit.MILLISECONDS.toNanos(options.getLatencyThreshold());
+    this.ejectionTime = TimeUnit.MILLISECONDS.toNanos(options.getEjectionTime());
+    this.maxEjectionPercent = options.getMaxEjectionPercent();
+  }
+
+  public List<LoadBalancedEndpoint> endpoints() {
+    return endpoints;
+  }
+
+  @Override
+  public void handle(HttpContext<?> context) {
+    switch (context.phase()) {
+      case CREATE_REQUEST:
+        createRequest(context);
+        break;
+      case FOLLOW_REDIRECT:
+      case RECEIVE_RESPONSE:
+        complete(context, context.clientResponse().statusCode() >= 500);
+        break;
+      case FAILURE:
+        if (context.failure() instanceof RequestCancelledException) {
+          release(context);
+        } else {
+          HttpClientResponse response = context.clientResponse();
+          complete(context, response == null || response.statusCode() >= 500);
+        }
+        break;
+    }
+    context.next();
+  }
+
+  private void createRequest(HttpContext<?> context) {
+    LoadBalancedEndpointImpl previous = context.get(ENDPOINT_KEY);
+    if (previous != null) {
+      // created again before a response, e.g. replayed by another interceptor
+      previous.release();
+      context.set(ENDPOINT_KEY, null);
+    }
+    RequestOptions options = context.requestOptions();
+    String authority = options.getHost() + ":" + options.getPort();
+    String balanced = context.get(AUTHORITY_KEY);
+    if (balanced == null) {
+      context.set(AUTHORITY_KEY, authority);
+    } else if (!balanced.equals(authority)) {
+      // redirected to another server
+      return;
+    }
+    LoadBalancedEndpointImpl endpoint = select();
+    endpoint.acquire();
+    context.set(ENDPOINT_KEY, endpoint);
+    context.set(START_KEY, System.nanoTime());
+    options.setServer(endpoint.address());
+  }
+
+  private LoadBalancedEndpointImpl select() {
+    long now = System.nanoTime();
+    List<LoadBalancedEndpoint> available = endpoints;
+    for (int i = 0; i < endpoints.size(); i++) {
+      if (((LoadBalancedEndpointImpl) endpoints.get(i)).isEjected(now)) {
+        if (available == endpoints) {
+          available = new ArrayList<>(endpoints.subList(0, i));
+        }
+      } else if (available != endpoints) {
+        available.add(endpoints.get(i));
+      }
+    }
+    if (available.isEmpty()) {
+      // every endpoint is ejected, balance over all of them
+      available = endpoints;
+    }
+    LoadBalancedEndpoint selected = selector.select(available);
+    if (!(selected instanceof LoadBalancedEndpointImpl) || !endpoints.contains(selected)) {
+      throw new IllegalStateException("The selector must return one of the endpoints");
+    }
+    return (LoadBalancedEndpointImpl) selected;
+  }
+
+  private void complete(HttpContext<?> context, boolean failed) {
+    LoadBalancedEndpointImpl endpoint = context.get(ENDPOINT_KEY);
+    if (endpoint == null) {
+      return;
+    }
+    context.set(ENDPOINT_KEY, null);
+    long now = System.nanoTime();
+    long start = context.get(START_KEY);
+    if (endpoint.complete(now, now - start, failed, failureRateThreshold, latencyThreshold)) {
+      eject(endpoint, now);
+    }
+  }
+
+  private void release(HttpContext<?> context) {
+    LoadBalancedEndpointImpl endpoint = context.get(ENDPOINT_KEY);
+    if (endpoint != null) {
+      context.set(ENDPOINT_KEY, null);
+      endpoint.release();
+    }
+  }
+
+  private synchronized void eject(LoadBalancedEndpointImpl endpoint, long now) {
+    if (ejectionTime == 0 || endpoint.isEjected(now)) {
+      return;
+    }
+    int ejected = 0;
+    for (LoadBalancedEndpoint e : endpoints) {
+      if (((LoadBalancedEndpointImpl) e).isEjected(now)) {
+        ejected++;
+      }
+    }
+    if ((ejected + 1) * 100 <= maxEjectionPercent * endpoints.size()) {
+      endpoint.eject(now + ejectionTime);
+    }
+  }
+}
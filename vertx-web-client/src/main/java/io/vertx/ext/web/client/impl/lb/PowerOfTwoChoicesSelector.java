@@ -0,0 +1,44 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.client.impl.lb;
+
+import io.vertx.ext.web.client.LoadBalancedEndpoint;
+import io.vertx.ext.web.client.spi.EndpointSelector;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class PowerOfTwoChoicesSelector implements EndpointSelector {
+
+  @Override
+  public LoadBalancedEndpoint select(List<LoadBalancedEndpoint> endpoints) {
+    int size = endpoints.size();
+    if (size == 1) {
+      return endpoints.get(0);
+    }
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int first = random.nextInt(size);
+    // a distinct second endpoint
+    int second = (first + 1 + random.nextInt(size - 1)) % size;
+    LoadBalancedEndpoint a = endpoints.get(first);
+    LoadBalancedEndpoint b = endpoints.get(second);
+    long diff = a.outstandingRequests() - b.outstandingRequests();
+    if (diff == 0) {
+      return a.averageLatency() <= b.averageLatency() ? a : b;
+    }
+    return diff < 0 ? a : b;
+  }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.client.impl.lb;
+
+import io.vertx.ext.web.client.LoadBalancedEndpoint;
+import io.vertx.ext.web.client.spi.EndpointSelector;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RoundRobinSelector implements EndpointSelector {
+
+  private final AtomicInteger index = new AtomicInteger();
+
+  @Override
+  public LoadBalancedEndpoint select(List<LoadBalancedEndpoint> endpoints) {
+    return endpoints.get(Math.floorMod(index.getAndIncrement(), endpoints.size()));
+  }
+}
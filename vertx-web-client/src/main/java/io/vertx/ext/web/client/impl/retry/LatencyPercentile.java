@@ -0,0 +1,62 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.client.impl.retry;
+
+import java.util.Arrays;
+
+/**
+ * A percentile of the last {@link #SIZE} observed latencies, computed again every {@link #REFRESH} latencies.
+ */
+public class LatencyPercentile {
+
+  static final int SIZE = 512;
+  static final int REFRESH = 32;
+  static final int MIN_SAMPLES = 20;
+
+  private final double percentile;
+  private final long[] samples = new long[SIZE];
+  private int count;
+  private volatile long value = -1L;
+
+  /**
+   * @param percentile the percentile between {@code 0} and {@code 100}
+   */
+  public LatencyPercentile(double percentile) {
+    this.percentile = percentile;
+  }
+
+  /**
+   * @return the percentile in nanoseconds, or {@code -1} until enough latencies are observed
+   */
+  public long value() {
+    return value;
+  }
+
+  public synchronized void record(long latency) {
+    samples[count % SIZE] = latency;
+    count++;
+    if (count == MIN_SAMPLES || (count > MIN_SAMPLES && count % REFRESH == 0)) {
+      long[] sorted = Arrays.copyOf(samples, Math.min(count, SIZE));
+      Arrays.sort(sorted);
+      int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+      value = sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+    if (count == 2 * SIZE) {
+      // keep the position in the ring without overflowing
+      count = SIZE;
+    }
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.client.impl.retry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The retries and hedges a client can send: each request deposits a fraction of a retry, each retry withdraws one,
+ * and a minimum number of retries per second is always allowed.
+ * <p>
+ * The deposits are capped to the budget of the last {@link #MAX_REQUESTS} requests, so a long quiet period does not
+ * allow a burst of retries.
+ */
+public class RetryBudget {
+
+  static final int MAX_REQUESTS = 1000;
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final double ratio;
+  private final double maxBalance;
+  private final int minPerSecond;
+  private double balance;
+  private long second;
+  private int reserved;
+
+  public RetryBudget(double ratio, int minPerSecond) {
+    this.ratio = ratio;
+    this.maxBalance = ratio * MAX_REQUESTS;
+    this.minPerSecond = minPerSecond;
+  }
+
+  public synchronized void deposit() {
+    balance = Math.min(maxBalance, balance + ratio);
+  }
+
+  /**
+   * @param now the current {@link System#nanoTime()}
+   * @return whether a retry can be sent
+   */
+  public synchronized boolean tryWithdraw(long now) {
+    long s = now / SECOND;
+    if (s != second) {
+      second = s;
+      reserved = 0;
+    }
+    if (reserved < minPerSecond) {
+      reserved++;
+      return true;
+    }
+    if (balance >= 1) {
+      balance -= 1;
+      return true;
+    }
+    return false;
+  }
+}
@@ -0,0 +1,449 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.client.impl.retry;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxException;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpClosedException;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.StreamResetException;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.web.client.RequestCancelledException;
+import io.vertx.ext.web.client.RetryingWebClientOptions;
+import io.vertx.ext.web.client.impl.HttpContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Retries and hedges the idempotent requests.
+ * <ul>
+ *   <li>a request failing before its response or getting a {@code 5xx} response is created again after a backoff</li>
+ *   <li>a request without a response after a percentile of the observed latencies is duplicated, the first response
+ *   is dispatched and the other request is reset</li>
+ * </ul>
+ * The retries and the hedges are limited by a {@link RetryBudget} shared by the requests of the client. A request
+ * streaming its body from a {@link ReadStream} cannot be sent again and is neither retried nor hedged.
+ * <p>
+ * The attempts that are sent again or lose the race still traverse the {@code FAILURE} phase of the next interceptors,
+ * so they can release the request, but their failure is discarded. The cancelled attempts fail with a
+ * {@link RequestCancelledException}.
+ */
+public class RetryInterceptor implements Handler<HttpContext<?>> {
+
+  private static final String ATTEMPT_KEY = "_retry_attempt";
+
+  private static final Set<HttpMethod> IDEMPOTENT_METHODS = new HashSet<>(Arrays.asList(
+    HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.TRACE, HttpMethod.PUT, HttpMethod.DELETE));
+
+  private static final RequestCancelledException CANCELLED = new RequestCancelledException("Cancelled by a hedged request");
+  private static final VertxException SERVER_ERROR = new VertxException("Server error, the request is sent again", true);
+
+  private final Vertx vertx;
+  private final int maxRetries;
+  private final long initialBackoff;
+  private final long maxBackoff;
+  private final long minHedgingDelay;
+  private final RetryBudget budget;
+  // null when the hedging is disabled
+  private final LatencyPercentile latencies;
+  private final LongAdder retries = new LongAdder();
+  private final LongAdder hedges = new LongAdder();
+  private final LongAdder hedgeWins = new LongAdder();
+
+  public RetryInterceptor(Vertx vertx, RetryingWebClientOptions options) {
+    this.vertx = vertx;
+    this.maxRetries = options.getMaxRetries();
+    this.initialBackoff = options.getInitialBackoff();
+    this.maxBackoff = options.getMaxBackoff();
+    this.minHedgingDelay = options.getMinHedgingDelay();
+    this.budget = new RetryBudget(options.getBudgetRatio(), options.getMinRetriesPerSecond());
+    this.latencies = options.getHedgingPercentile() > 0 ? new LatencyPercentile(options.getHedgingPercentile()) : null;
+  }
+
+  public long retries() {
+    return retries.sum();
+  }
+
+  public long hedges() {
+    return hedges.sum();
+  }
+
+  public long hedgeWins() {
+    return hedgeWins.sum();
+  }
+
+  @Override
+  public void handle(HttpContext<?> context) {
+    Attempt attempt = context.get(ATTEMPT_KEY);
+    switch (context.phase()) {
+      case PREPARE_REQUEST:
+        if (attempt == null && IDEMPOTENT_METHODS.contains(context.request().method())) {
+          budget.deposit();
+          Attempts attempts = new Attempts(context.body());
+          context.set(ATTEMPT_KEY, attempts.add(context, false));
+        }
+        context.next();
+        break;
+      case CREATE_REQUEST:
+        if (attempt != null) {
+          createRequest(attempt);
+        } else {
+          context.next();
+        }
+        break;
+      case SEND_REQUEST:
+        if (attempt != null) {
+          sendRequest(attempt);
+        } else {
+          context.next();
+        }
+        break;
+      case RECEIVE_RESPONSE:
+        if (attempt != null) {
+          receiveResponse(attempt);
+        } else {
+          context.next();
+        }
+        break;
+      case DISPATCH_RESPONSE:
+        if (attempt == null || attempt.attempts.win(attempt)) {
+          context.next();
+        }
+        break;
+      case FAILURE:
+        if (attempt != null) {
+          failure(attempt);
+        } else {
+          context.next();
+        }
+        break;
+      default:
+        context.next();
+        break;
+    }
+  }
+
+  private void createRequest(Attempt attempt) {
+    HttpContext<?> context = attempt.context;
+    Attempts attempts = attempt.attempts;
+    if (attempts.isDone()) {
+      // the other request won
+      context.fail(CANCELLED);
+      return;
+    }
+    attempt.request = null;
+    attempt.start = System.nanoTime();
+    attempt.vertxContext = vertx.getOrCreateContext();
+    if (latencies != null && !attempt.hedge && !(attempts.body instanceof ReadStream)) {
+      long percentile = latencies.value();
+      if (percentile >= 0) {
+        long delay = Math.max(minHedgingDelay, TimeUnit.NANOSECONDS.toMillis(percentile));
+        attempts.scheduleHedge(() -> vertx.setTimer(delay, id -> hedge(attempt)));
+      }
+    }
+    context.next();
+  }
+
+  private void sendRequest(Attempt attempt) {
+    HttpContext<?> context = attempt.context;
+    HttpClientRequest request = context.clientRequest();
+    if (!attempt.attempts.setRequest(attempt, request)) {
+      // the other request won
+      request.reset(0, CANCELLED);
+      context.fail(CANCELLED);
+      return;
+    }
+    context.next();
+  }
+
+  private void receiveResponse(Attempt attempt) {
+    HttpContext<?> context = attempt.context;
+    HttpClientResponse response = context.clientResponse();
+    if (latencies != null) {
+      latencies.record(System.nanoTime() - attempt.start);
+    }
+    // the body can stream for longer than the hedging delay
+    attempt.attempts.responded();
+    if (attempt.attempts.isDone()) {
+      // the other request won
+      discard(response);
+      context.fail(CANCELLED);
+      return;
+    }
+    if (response.statusCode() >= 500 && retry(attempt)) {
+      discard(response);
+      context.fail(SERVER_ERROR);
+      return;
+    }
+    context.next();
+  }
+
+  private void failure(Attempt attempt) {
+    HttpContext<?> context = attempt.context;
+    Attempts attempts = attempt.attempts;
+    if (attempts.isDone() || attempts.isRetrying(attempt)) {
+      // cancelled, failed after the other request won or already sent again
+      discardFailure(context);
+      return;
+    }
+    HttpClientResponse response = context.clientResponse();
+    boolean responded = response != null && attempt.request != null && response.request() == attempt.request;
+    Throwable failure = context.failure();
+    boolean retryable;
+    if (responded) {
+      // e.g. the status is checked by a response predicate
+      retryable = response.statusCode() >= 500;
+    } else {
+      retryable = isRetryable(failure);
+    }
+    if (retryable && retry(attempt)) {
+      if (responded) {
+        discard(response);
+      }
+      discardFailure(context);
+      return;
+    }
+    if (attempts.fail(attempt)) {
+      context.next();
+    } else {
+      // the other request can still get a response
+      discardFailure(context);
+    }
+  }
+
+  private static void discardFailure(HttpContext<?> context) {
+    context.discardFailure();
+    context.next();
+  }
+
+  /**
+   * @return whether the failure is a connection, timeout or reset failure the request can be sent again after
+   */
+  private static boolean isRetryable(Throwable failure) {
+    return failure instanceof IOException
+      || failure instanceof TimeoutException
+      || failure instanceof HttpClosedException
+      || failure instanceof StreamResetException;
+  }
+
+  private boolean retry(Attempt attempt) {
+    HttpContext<?> context = attempt.context;
+    if (attempt.retries >= maxRetries || context.body() instanceof ReadStream || !budget.tryWithdraw(System.nanoTime())) {
+      return false;
+    }
+    long backoff = Math.min(maxBackoff, initialBackoff << Math.min(attempt.retries, 30));
+    if (backoff < 0) {
+      backoff = maxBackoff;
+    }
+    // equal jitter
+    long delay = Math.max(1L, backoff / 2 + ThreadLocalRandom.current().nextLong(backoff - backoff / 2 + 1));
+    attempt.retries++;
+    retries.increment();
+    attempt.attempts.scheduleRetry(attempt, () -> vertx.setTimer(delay, id -> {
+      if (attempt.attempts.retryFired(attempt)) {
+        context.createRequest(context.requestOptions());
+      }
+    }));
+    return true;
+  }
+
+  private <T> void hedge(Attempt primary) {
+    Attempts attempts = primary.attempts;
+    if (!attempts.hedgeFired() || !budget.tryWithdraw(System.nanoTime())) {
+      return;
+    }
+    hedges.increment();
+    @SuppressWarnings("unchecked")
+    HttpContext<T> context = (HttpContext<T>) primary.context;
+    HttpContext<T> duplicate = context.duplicate();
+    duplicate.set(ATTEMPT_KEY, attempts.add(duplicate, true));
+    duplicate.prepareRequest(context.request(), context.contentType(), attempts.body);
+  }
+
+  private static void discard(HttpClientResponse response) {
+    response.exceptionHandler(err -> {
+    });
+    response.resume();
+  }
+
+  /**
+   * A request sent by an {@link HttpContext}, the original request or its hedge.
+   */
+  private static class Attempt {
+
+    final Attempts attempts;
+    final HttpContext<?> context;
+    final boolean hedge;
+    // accessed by the context of the request
+    int retries;
+    long start;
+    Context vertxContext;
+    // guarded by attempts
+    HttpClientRequest request;
+    long retryTimer = -1L;
+    boolean finished;
+
+    Attempt(Attempts attempts, HttpContext<?> context, boolean hedge) {
+      this.attempts = attempts;
+      this.context = context;
+      this.hedge = hedge;
+    }
+  }
+
+  /**
+   * The requests racing for a response, they can run on different event loops.
+   */
+  private class Attempts {
+
+    final Object body;
+    private final List<Attempt> list = new ArrayList<>(2);
+    private boolean done;
+    private boolean hedged;
+    private boolean responded;
+    private long hedgeTimer = -1L;
+
+    Attempts(Object body) {
+      this.body = body;
+    }
+
+    synchronized Attempt add(HttpContext<?> context, boolean hedge) {
+      Attempt attempt = new Attempt(this, context, hedge);
+      list.add(attempt);
+      return attempt;
+    }
+
+    synchronized boolean isDone() {
+      return done;
+    }
+
+    synchronized void scheduleHedge(LongSupplier timer) {
+      if (!hedged && !done) {
+        hedged = true;
+        hedgeTimer = timer.getAsLong();
+      }
+    }
+
+    synchronized void responded() {
+      responded = true;
+      cancelHedge();
+    }
+
+    synchronized boolean hedgeFired() {
+      hedgeTimer = -1L;
+      return !done && !responded;
+    }
+
+    synchronized void scheduleRetry(Attempt attempt, LongSupplier timer) {
+      attempt.retryTimer = timer.getAsLong();
+    }
+
+    synchronized boolean isRetrying(Attempt attempt) {
+      return attempt.retryTimer >= 0;
+    }
+
+    synchronized boolean retryFired(Attempt attempt) {
+      attempt.retryTimer = -1L;
+      return !done;
+    }
+
+    synchronized boolean setRequest(Attempt attempt, HttpClientRequest request) {
+      attempt.request = request;
+      return !done;
+    }
+
+    /**
+     * Dispatch the response of an attempt, the other attempts are cancelled.
+     *
+     * @return whether the response is the first one and must be dispatched
+     */
+    boolean win(Attempt winner) {
+      List<Attempt> losers = new ArrayList<>();
+      synchronized (this) {
+        if (done) {
+          return false;
+        }
+        done = true;
+        winner.finished = true;
+        cancelHedge();
+        for (Attempt attempt : list) {
+          if (!attempt.finished) {
+            attempt.finished = true;
+            if (attempt.retryTimer >= 0) {
+              vertx.cancelTimer(attempt.retryTimer);
+              attempt.retryTimer = -1L;
+            }
+            if (attempt.request != null) {
+              losers.add(attempt);
+            }
+          }
+        }
+      }
+      if (winner.hedge) {
+        hedgeWins.increment();
+      }
+      for (Attempt loser : losers) {
+        HttpClientRequest request = loser.request;
+        loser.vertxContext.runOnContext(v -> {
+          // the next interceptors see the cancellation rather than the failure of the reset request
+          loser.context.fail(CANCELLED);
+          request.reset(0, CANCELLED);
+        });
+      }
+      return true;
+    }
+
+    /**
+     * Fail an attempt.
+     *
+     * @return whether the failure must be dispatched because no other attempt can get a response
+     */
+    synchronized boolean fail(Attempt failed) {
+      if (done) {
+        return false;
+      }
+      failed.finished = true;
+      for (Attempt attempt : list) {
+        if (!attempt.finished) {
+          return false;
+        }
+      }
+      done = true;
+      cancelHedge();
+      return true;
+    }
+
+    private void cancelHedge() {
+      if (hedgeTimer >= 0) {
+        vertx.cancelTimer(hedgeTimer);
+        hedgeTimer = -1L;
+      }
+    }
+  }
+}
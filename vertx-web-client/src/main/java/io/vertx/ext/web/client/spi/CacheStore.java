@@ -21,6 +21,7 @@ import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.ext.web.client.impl.cache.CacheKey;
 import io.vertx.ext.web.client.impl.cache.CachedHttpResponse;
+import io.vertx.ext.web.client.impl.cache.FileCacheStore;
 import io.vertx.ext.web.client.impl.cache.LocalCacheStore;
 import io.vertx.ext.web.client.impl.cache.NoOpCacheStore;
 import io.vertx.ext.web.client.impl.cache.SharedDataCacheStore;
@@ -53,7 +54,8 @@ public interface CacheStore {
   }
 
   /**
-   * Builds a cache store that uses a {@link java.util.concurrent.ConcurrentHashMap}.
+   * Builds a cache store that keeps responses in memory, bounded to
+   * {@link io.vertx.ext.web.client.CachingWebClientOptions#DEFAULT_LOCAL_CACHE_MAX_SIZE} bytes.
    *
    * @return the new cache store
    */
@@ -61,6 +63,30 @@ public interface CacheStore {
     return new LocalCacheStore();
   }
 
+  /**
+   * Builds a cache store that keeps responses in memory, evicting the least recently used ones when their estimated
+   * size exceeds {@code maxSize}.
+   *
+   * @param maxSize the maximum size in bytes, or {@code -1} for an unbounded store
+   * @return the new cache store
+   */
+  static CacheStore localStore(long maxSize) {
+    return new LocalCacheStore(maxSize);
+  }
+
+  /**
+   * Opens a cache store that keeps responses in files of the given directory, so they survive restarts. The files are
+   * read on a worker thread. The store must be closed to release the files.
+   *
+   * @param vertx the vertx instance
+   * @param directory the directory of the files
+   * @param maxSize the maximum size of the files in bytes
+   * @return the new cache store, once the files are read
+   */
+  static Future<CacheStore> fileStore(Vertx vertx, String directory, long maxSize) {
+    return FileCacheStore.open(vertx, directory, maxSize);
+  }
+
   /**
    * Retrieve a cached response.
    *
@@ -93,6 +119,44 @@ public interface CacheStore {
    */
   Future<Void> flush();
 
+  /**
+   * Close the store and release its resources.
+   *
+   * @return a future completed when the store is closed
+   */
+  default Future<Void> close() {
+    return Future.succeededFuture();
+  }
+
+  /**
+   * @return the number of lookups that found a response, or {@code -1} if the store does not count them
+   */
+  default long hits() {
+    return -1L;
+  }
+
+  /**
+   * @return the number of lookups that found no response, or {@code -1} if the store does not count them
+   */
+  default long misses() {
+    return -1L;
+  }
+
+  /**
+   * @return the number of responses evicted to stay within the size budget, or {@code -1} if the store does not
+   * count them
+   */
+  default long evictions() {
+    return -1L;
+  }
+
+  /**
+   * @return the number of responses removed because they expired, or {@code -1} if the store does not count them
+   */
+  default long expirations() {
+    return -1L;
+  }
+
   /**
    * Retrieve a cached response.
    *
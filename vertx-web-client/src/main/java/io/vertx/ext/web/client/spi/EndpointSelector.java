@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.client.spi;
+
+import io.vertx.ext.web.client.LoadBalancedEndpoint;
+import io.vertx.ext.web.client.LoadBalancingStrategy;
+import io.vertx.ext.web.client.impl.lb.LeastOutstandingSelector;
+import io.vertx.ext.web.client.impl.lb.PowerOfTwoChoicesSelector;
+import io.vertx.ext.web.client.impl.lb.RoundRobinSelector;
+
+import java.util.List;
+
+/**
+ * Selects the endpoint of a request sent by a {@link io.vertx.ext.web.client.LoadBalancingWebClient}.
+ * <p>
+ * A selector is called concurrently by the requests of any thread.
+ */
+@FunctionalInterface
+public interface EndpointSelector {
+
+  /**
+   * Builds a selector picking each endpoint in turn.
+   *
+   * @return the new selector
+   */
+  static EndpointSelector roundRobin() {
+    return new RoundRobinSelector();
+  }
+
+  /**
+   * Builds a selector picking the endpoint with the fewest outstanding requests.
+   *
+   * @return the new selector
+   */
+  static EndpointSelector leastOutstanding() {
+    return new LeastOutstandingSelector();
+  }
+
+  /**
+   * Builds a selector picking the endpoint with the fewest outstanding requests among two random endpoints.
+   *
+   * @return the new selector
+   */
+  static EndpointSelector powerOfTwoChoices() {
+    return new PowerOfTwoChoicesSelector();
+  }
+
+  /**
+   * Builds the selector of a strategy.
+   *
+   * @param strategy the strategy
+   * @return the new selector
+   */
+  static EndpointSelector create(LoadBalancingStrategy strategy) {
+    switch (strategy) {
+      case ROUND_ROBIN:
+        return roundRobin();
+      case LEAST_OUTSTANDING:
+        return leastOutstanding();
+      case POWER_OF_TWO_CHOICES:
+        return powerOfTwoChoices();
+      default:
+        throw new IllegalArgumentException("Unsupported strategy " + strategy);
+    }
+  }
+
+  /**
+   * Select the endpoint of a request.
+   *
+   * @param endpoints the endpoints that are not ejected, never empty
+   * @return one of the {@code endpoints}
+   */
+  LoadBalancedEndpoint select(List<LoadBalancedEndpoint> endpoints);
+}
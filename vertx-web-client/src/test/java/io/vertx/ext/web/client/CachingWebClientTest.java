@@ -22,9 +22,11 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import org.junit.After;
@@ -596,6 +598,23 @@ public class CachingWebClientTest {
     context.assertEquals(response.get().statusCode(), 503);
   }
 
+  @Test
+  public void testDefaultStaleIfErrorOnFailure(TestContext context) {
+    Async waiter = context.async();
+    startMockServer(context, "public, max-age=1");
+
+    WebClient client = CachingWebClient.create(buildBaseWebClient(), new TestCacheStore(),
+      new CachingWebClientOptions().setDefaultStaleIfError(10));
+    String body1 = executeGetBlocking(context, client);
+
+    // the server becomes unreachable once the response is stale
+    vertx.setTimer(2000L, l -> server.close().onComplete(context.asyncAssertSuccess(v -> waiter.complete())));
+    waiter.await();
+    String body2 = executeGetBlocking(context, client);
+
+    context.assertEquals(body1, body2);
+  }
+
   @Test
   public void testMatchingPaths(TestContext context) {
     startMockServer(context, "public, max-age=300");
@@ -915,6 +934,37 @@ public class CachingWebClientTest {
     context.assertNotEquals(body2, body3);
   }
 
+  @Test
+  public void testConcurrentMissesAreCoalesced(TestContext context) {
+    AtomicInteger requests = new AtomicInteger();
+    Async listenLatch = context.async();
+    server.requestHandler(req -> {
+      requests.incrementAndGet();
+      // answer after all the requests are sent
+      vertx.setTimer(200, id -> req.response()
+        .putHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=60")
+        .end(UUID.randomUUID().toString()));
+    });
+    server.listen().onComplete(context.asyncAssertSuccess(s -> listenLatch.complete()));
+    listenLatch.awaitSuccess(15_000);
+
+    WebClient client = CachingWebClient.create(buildBaseWebClient(), new TestCacheStore(),
+      new CachingWebClientOptions().setRequestCoalescing(true));
+    int count = 10;
+    Async async = context.async(count);
+    Set<String> bodies = ConcurrentHashMap.newKeySet();
+    for (int i = 0; i < count; i++) {
+      client.get("localhost", "/").send().onComplete(context.asyncAssertSuccess(response -> {
+        bodies.add(response.bodyAsString());
+        async.countDown();
+      }));
+    }
+    async.awaitSuccess(15_000);
+
+    context.assertEquals(1, requests.get());
+    context.assertEquals(1, bodies.size());
+  }
+
   static class TestCacheStore implements CacheStore {
     public final Map<String, CachedHttpResponse> db = new ConcurrentHashMap<>();
 
@@ -1,9 +1,12 @@
 package io.vertx.ext.web.client;
 
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.parsetools.JsonParser;
+import io.vertx.core.streams.WriteStream;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
@@ -13,6 +16,9 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -39,6 +45,16 @@ public class JsonStreamTest {
         separator = "\r\n";
       }
       req.response().setChunked(true);
+      if (separator.equalsIgnoreCase("array")) {
+        // a top-level JSON array
+        req.response().write("[");
+        for (int i = 0; i < count; i++) {
+          JsonObject json = new JsonObject().put("count", i).put("data", "some message");
+          req.response().write((i > 0 ? "," : "") + json.encode());
+        }
+        req.response().end("]");
+        return;
+      }
       for (int i = 0; i < count; i++) {
         // Send chunks...
         JsonObject json = new JsonObject().put("count", i).put("data", "some message");
@@ -97,4 +113,133 @@ public class JsonStreamTest {
     });
   }
 
+  @Test
+  public void testPausedParserPausesResponse(TestContext tc) {
+    AtomicInteger counter = new AtomicInteger();
+    AtomicBoolean resumed = new AtomicBoolean();
+    Async async = tc.async();
+
+    client.get("/?separator=nl&count=10").as(BodyCodec.jsonStream(parser -> parser.objectValueMode()
+      .exceptionHandler(tc::fail)
+      .handler(event -> {
+        tc.assertEquals(counter.getAndIncrement(), event.objectValue().getInteger("count"));
+        if (event.objectValue().getInteger("count") == 0) {
+          // slow consumer
+          parser.pause();
+          vertx.setTimer(200, id -> {
+            resumed.set(true);
+            parser.resume();
+          });
+        }
+      })))
+      .send()
+      .onComplete(tc.asyncAssertSuccess(resp -> {
+        // the response cannot end before the parser asks for more
+        tc.assertTrue(resumed.get());
+        tc.assertEquals(10, counter.get());
+        async.complete();
+      }));
+  }
+
+  @Test
+  public void testJsonObjectsFromArray(TestContext tc) {
+    CollectingStream<JsonObject> stream = new CollectingStream<>();
+    client.get("/?separator=array&count=10").as(BodyCodec.jsonObjects(JsonObject.class, stream))
+      .send()
+      .onComplete(tc.asyncAssertSuccess(resp -> {
+        tc.assertTrue(stream.ended);
+        tc.assertEquals(10, stream.items.size());
+        for (int i = 0; i < 10; i++) {
+          tc.assertEquals(i, stream.items.get(i).getInteger("count"));
+        }
+      }));
+  }
+
+  @Test
+  public void testJsonObjectsFromNdjson(TestContext tc) {
+    CollectingStream<Message> stream = new CollectingStream<>();
+    client.get("/?separator=nl&count=10").as(BodyCodec.jsonObjects(Message.class, stream))
+      .send()
+      .onComplete(tc.asyncAssertSuccess(resp -> {
+        tc.assertEquals(10, stream.items.size());
+        for (int i = 0; i < 10; i++) {
+          tc.assertEquals(i, stream.items.get(i).count);
+          tc.assertEquals("some message", stream.items.get(i).data);
+        }
+      }));
+  }
+
+  @Test
+  public void testJsonObjectsFullStreamPausesResponse(TestContext tc) {
+    CollectingStream<JsonObject> stream = new CollectingStream<>();
+    stream.full = true;
+    vertx.setTimer(200, id -> {
+      // the values parsed after the first one wait in the paused parser
+      tc.assertEquals(1, stream.items.size());
+      tc.assertFalse(stream.ended);
+      stream.drain();
+    });
+    client.get("/?separator=array&count=10").as(BodyCodec.jsonObjects(JsonObject.class, stream))
+      .send()
+      .onComplete(tc.asyncAssertSuccess(resp -> {
+        tc.assertTrue(stream.ended);
+        tc.assertEquals(10, stream.items.size());
+      }));
+  }
+
+  public static class Message {
+    public int count;
+    public String data;
+  }
+
+  /**
+   * Collects the written items, its write queue is full until drained once.
+   */
+  private static class CollectingStream<T> implements WriteStream<T> {
+
+    final List<T> items = new ArrayList<>();
+    boolean full;
+    boolean ended;
+    Handler<Void> drainHandler;
+
+    void drain() {
+      full = false;
+      if (drainHandler != null) {
+        drainHandler.handle(null);
+      }
+    }
+
+    @Override
+    public WriteStream<T> exceptionHandler(Handler<Throwable> handler) {
+      return this;
+    }
+
+    @Override
+    public Future<Void> write(T data) {
+      items.add(data);
+      return Future.succeededFuture();
+    }
+
+    @Override
+    public Future<Void> end() {
+      ended = true;
+      return Future.succeededFuture();
+    }
+
+    @Override
+    public WriteStream<T> setWriteQueueMaxSize(int maxSize) {
+      return this;
+    }
+
+    @Override
+    public boolean writeQueueFull() {
+      return full;
+    }
+
+    @Override
+    public WriteStream<T> drainHandler(Handler<Void> handler) {
+      drainHandler = handler;
+      return this;
+    }
+  }
 }
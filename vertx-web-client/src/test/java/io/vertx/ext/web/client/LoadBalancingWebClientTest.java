@@ -0,0 +1,302 @@
+package io.vertx.ext.web.client;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(VertxUnitRunner.class)
+public class LoadBalancingWebClientTest {
+
+  private static final List<SocketAddress> ENDPOINTS = Arrays.asList(
+    SocketAddress.inetSocketAddress(8081, "localhost"),
+    SocketAddress.inetSocketAddress(8082, "localhost"),
+    SocketAddress.inetSocketAddress(8083, "localhost"));
+
+  private Vertx vertx;
+  private WebClient client;
+  // the requests received by each port
+  private final Map<Integer, AtomicInteger> received = new ConcurrentHashMap<>();
+  // the status and the delay of the responses of each port
+  private final Map<Integer, Integer> status = new ConcurrentHashMap<>();
+  private final Map<Integer, Long> delay = new ConcurrentHashMap<>();
+
+  @Before
+  public void setup(TestContext tc) {
+    vertx = Vertx.vertx();
+    client = WebClient.create(vertx);
+    List<Future<HttpServer>> servers = new ArrayList<>();
+    for (SocketAddress endpoint : ENDPOINTS) {
+      int port = endpoint.port();
+      received.put(port, new AtomicInteger());
+      servers.add(vertx.createHttpServer().requestHandler(req -> {
+        received.get(port).incrementAndGet();
+        tc.assertEquals("my-service:8080", req.getHeader("host"));
+        long d = delay.getOrDefault(port, 0L);
+        if (d > 0) {
+          vertx.setTimer(d, id -> req.response().setStatusCode(status.getOrDefault(port, 200)).end());
+        } else {
+          req.response().setStatusCode(status.getOrDefault(port, 200)).end();
+        }
+      }).listen(port));
+    }
+    Future.all(servers).onComplete(tc.asyncAssertSuccess());
+  }
+
+  @After
+  public void close(TestContext tc) {
+    vertx.close().onComplete(tc.asyncAssertSuccess());
+  }
+
+  private Future<Void> sendSequentially(WebClient client, int count) {
+    Future<Void> fut = Future.succeededFuture();
+    for (int i = 0; i < count; i++) {
+      fut = fut.compose(v -> client.get(8080, "my-service", "/").send().transform(ar -> Future.succeededFuture()));
+    }
+    return fut;
+  }
+
+  @Test
+  public void testRoundRobin(TestContext tc) {
+    LoadBalancingWebClient lb = LoadBalancingWebClient.create(client, ENDPOINTS);
+    sendSequentially(lb, 9).onComplete(tc.asyncAssertSuccess(v -> {
+      for (SocketAddress endpoint : ENDPOINTS) {
+        tc.assertEquals(3, received.get(endpoint.port()).get());
+      }
+      for (LoadBalancedEndpoint endpoint : lb.endpoints()) {
+        tc.assertEquals(3L, endpoint.requests());
+        tc.assertEquals(0L, endpoint.outstandingRequests());
+        tc.assertEquals(0L, endpoint.failures());
+        tc.assertFalse(endpoint.isEjected());
+      }
+    }));
+  }
+
+  @Test
+  public void testLeastOutstanding(TestContext tc) {
+    testAvoidsBusyEndpoint(tc, LoadBalancingStrategy.LEAST_OUTSTANDING);
+  }
+
+  @Test
+  public void testPowerOfTwoChoices(TestContext tc) {
+    testAvoidsBusyEndpoint(tc, LoadBalancingStrategy.POWER_OF_TWO_CHOICES);
+  }
+
+  private void testAvoidsBusyEndpoint(TestContext tc, LoadBalancingStrategy strategy) {
+    delay.put(8081, 1000L);
+    LoadBalancingWebClient lb = LoadBalancingWebClient.create(client, ENDPOINTS.subList(0, 2),
+      new LoadBalancingWebClientOptions().setStrategy(strategy));
+    // one request in flight on each endpoint
+    Future<HttpResponse<Buffer>> first = lb.get(8080, "my-service", "/").send();
+    Future<HttpResponse<Buffer>> second = lb.get(8080, "my-service", "/").send();
+    tc.assertEquals(1L, lb.endpoints().get(0).outstandingRequests());
+    tc.assertEquals(1L, lb.endpoints().get(1).outstandingRequests());
+    Async async = tc.async();
+    Future.any(first, second).compose(v -> {
+      // the fast endpoint is free again and gets the next requests while the slow one is busy
+      return sendSequentially(lb, 8);
+    }).onComplete(tc.asyncAssertSuccess(v -> {
+      tc.assertEquals(1, received.get(8081).get());
+      tc.assertEquals(9, received.get(8082).get());
+      tc.assertEquals(1L, lb.endpoints().get(0).outstandingRequests());
+      tc.assertEquals(0L, lb.endpoints().get(1).outstandingRequests());
+      Future.all(first, second).onComplete(tc.asyncAssertSuccess(v2 -> async.complete()));
+    }));
+  }
+
+  @Test
+  public void testFailingEndpointIsEjected(TestContext tc) {
+    status.put(8082, 500);
+    LoadBalancingWebClient lb = LoadBalancingWebClient.create(client, ENDPOINTS, new LoadBalancingWebClientOptions()
+      .setMinimumRequests(2)
+      .setEjectionTime(500));
+    sendSequentially(lb, 6).compose(v -> {
+      LoadBalancedEndpoint failing = lb.endpoints().get(1);
+      tc.assertTrue(failing.isEjected());
+      tc.assertEquals(1L, failing.ejections());
+      tc.assertEquals(2L, failing.failures());
+      tc.assertEquals(2, received.get(8082).get());
+      // no request while ejected
+      return sendSequentially(lb, 6);
+    }).compose(v -> {
+      tc.assertEquals(2, received.get(8082).get());
+      tc.assertEquals(5, received.get(8081).get());
+      tc.assertEquals(5, received.get(8083).get());
+      return Future.succeededFuture();
+    }).onComplete(tc.asyncAssertSuccess());
+  }
+
+  @Test
+  public void testEjectedEndpointIsAdmittedAgain(TestContext tc) {
+    status.put(8082, 500);
+    LoadBalancingWebClient lb = LoadBalancingWebClient.create(client, ENDPOINTS, new LoadBalancingWebClientOptions()
+      .setMinimumRequests(2)
+      .setEjectionTime(200));
+    Async async = tc.async();
+    sendSequentially(lb, 6).onComplete(tc.asyncAssertSuccess(v -> {
+      tc.assertTrue(lb.endpoints().get(1).isEjected());
+      status.remove(8082);
+      vertx.setTimer(300, id -> {
+        tc.assertFalse(lb.endpoints().get(1).isEjected());
+        sendSequentially(lb, 6).onComplete(tc.asyncAssertSuccess(v2 -> {
+          tc.assertTrue(received.get(8082).get() > 2);
+          tc.assertEquals(1L, lb.endpoints().get(1).ejections());
+          async.complete();
+        }));
+      });
+    }));
+  }
+
+  @Test
+  public void testSlowEndpointIsEjected(TestContext tc) {
+    delay.put(8083, 200L);
+    LoadBalancingWebClient lb = LoadBalancingWebClient.create(client, ENDPOINTS, new LoadBalancingWebClientOptions()
+      .setMinimumRequests(2)
+      .setLatencyThreshold(100));
+    sendSequentially(lb, 12).onComplete(tc.asyncAssertSuccess(v -> {
+      LoadBalancedEndpoint slow = lb.endpoints().get(2);
+      tc.assertTrue(slow.isEjected());
+      tc.assertEquals(0L, slow.failures());
+      tc.assertTrue(slow.averageLatency() >= 200);
+      tc.assertEquals(2, received.get(8083).get());
+    }));
+  }
+
+  @Test
+  public void testUnreachableEndpointIsEjected(TestContext tc) {
+    List<SocketAddress> endpoints = Arrays.asList(ENDPOINTS.get(0), SocketAddress.inetSocketAddress(8084, "localhost"));
+    LoadBalancingWebClient lb = LoadBalancingWebClient.create(client, endpoints, new LoadBalancingWebClientOptions()
+      .setMinimumRequests(1));
+    sendSequentially(lb, 5).onComplete(tc.asyncAssertSuccess(v -> {
+      tc.assertTrue(lb.endpoints().get(1).isEjected());
+      tc.assertEquals(1L, lb.endpoints().get(1).failures());
+      tc.assertEquals(4, received.get(8081).get());
+    }));
+  }
+
+  @Test
+  public void testMaxEjectionPercent(TestContext tc) {
+    status.put(8081, 500);
+    status.put(8082, 500);
+    status.put(8083, 500);
+    LoadBalancingWebClient lb = LoadBalancingWebClient.create(client, ENDPOINTS, new LoadBalancingWebClientOptions()
+      .setMinimumRequests(1)
+      .setMaxEjectionPercent(50));
+    sendSequentially(lb, 9).onComplete(tc.asyncAssertSuccess(v -> {
+      long ejected = lb.endpoints().stream().filter(LoadBalancedEndpoint::isEjected).count();
+      tc.assertEquals(1L, ejected);
+    }));
+  }
+
+  @Test
+  public void testCustomSelector(TestContext tc) {
+    LoadBalancingWebClient lb = LoadBalancingWebClient.create(client, ENDPOINTS, endpoints -> endpoints.get(endpoints.size() - 1),
+      new LoadBalancingWebClientOptions());
+    sendSequentially(lb, 3).onComplete(tc.asyncAssertSuccess(v -> {
+      tc.assertEquals(3, received.get(8083).get());
+    }));
+  }
+
+  @Test
+  public void testRedirectToAnotherServerIsNotBalanced(TestContext tc) {
+    Async listen = tc.async();
+    vertx.createHttpServer().requestHandler(req -> req.response().end("other")).listen(8085).onComplete(tc.asyncAssertSuccess(s -> listen.complete()));
+    listen.await();
+    vertx.createHttpServer().requestHandler(req -> req.response()
+      .setStatusCode(302)
+      .putHeader("location", "http://localhost:8085/")
+      .end()).listen(8086).onComplete(tc.asyncAssertSuccess(s -> {
+      LoadBalancingWebClient lb = LoadBalancingWebClient.create(client, Arrays.asList(SocketAddress.inetSocketAddress(8086, "localhost")));
+      lb.get(8080, "my-service", "/").send().onComplete(tc.asyncAssertSuccess(resp -> {
+        tc.assertEquals("other", resp.bodyAsString());
+        tc.assertEquals(1L, lb.endpoints().get(0).requests());
+        tc.assertEquals(0L, lb.endpoints().get(0).outstandingRequests());
+      }));
+    }));
+  }
+
+  @Test
+  public void testHedgesAreNotFailures(TestContext tc) {
+    delay.put(8081, 200L);
+    LoadBalancingWebClient lb = LoadBalancingWebClient.create(client, ENDPOINTS.subList(0, 2));
+    RetryingWebClient retrying = RetryingWebClient.create(lb, hedgingOptions());
+    testHedges(tc, retrying, retrying, lb);
+  }
+
+  @Test
+  public void testHedgesReleaseEndpoints(TestContext tc) {
+    delay.put(8081, 200L);
+    RetryingWebClient retrying = RetryingWebClient.create(client, hedgingOptions());
+    LoadBalancingWebClient lb = LoadBalancingWebClient.create(retrying, ENDPOINTS.subList(0, 2));
+    testHedges(tc, lb, retrying, lb);
+  }
+
+  @Test
+  public void testRetriedServerErrorsAreFailures(TestContext tc) {
+    status.put(8081, 503);
+    RetryingWebClient retrying = RetryingWebClient.create(client, new RetryingWebClientOptions().setInitialBackoff(10));
+    LoadBalancingWebClient lb = LoadBalancingWebClient.create(retrying, ENDPOINTS.subList(0, 2));
+    lb.get(8080, "my-service", "/").send().onComplete(tc.asyncAssertSuccess(resp -> {
+      // the request is sent again to the other endpoint
+      tc.assertEquals(200, resp.statusCode());
+      tc.assertEquals(1L, retrying.retries());
+      tc.assertEquals(1L, lb.endpoints().get(0).failures());
+      tc.assertEquals(0L, lb.endpoints().get(0).outstandingRequests());
+      tc.assertEquals(0L, lb.endpoints().get(1).failures());
+      tc.assertEquals(0L, lb.endpoints().get(1).outstandingRequests());
+    }));
+  }
+
+  private static RetryingWebClientOptions hedgingOptions() {
+    return new RetryingWebClientOptions()
+      .setHedgingPercentile(50)
+      .setMinHedgingDelay(20)
+      .setMinRetriesPerSecond(100);
+  }
+
+  private void testHedges(TestContext tc, WebClient client, RetryingWebClient retrying, LoadBalancingWebClient lb) {
+    Async async = tc.async();
+    // the hedging delay is known after 20 responses
+    sendSequentially(client, 40).onComplete(tc.asyncAssertSuccess(v -> {
+      tc.assertTrue(retrying.hedges() > 0);
+      // let the cancelled requests complete
+      vertx.setTimer(300, id -> {
+        for (LoadBalancedEndpoint endpoint : lb.endpoints()) {
+          // the requests cancelled by their hedge are neither failures nor outstanding
+          tc.assertEquals(0L, endpoint.failures());
+          tc.assertEquals(0L, endpoint.outstandingRequests());
+          tc.assertFalse(endpoint.isEjected());
+        }
+        async.complete();
+      });
+    }));
+  }
+
+  @Test
+  public void testOptionsJson() {
+    LoadBalancingWebClientOptions options = new LoadBalancingWebClientOptions()
+      .setStrategy(LoadBalancingStrategy.POWER_OF_TWO_CHOICES)
+      .setLatencyThreshold(250)
+      .setMaxEjectionPercent(30);
+    LoadBalancingWebClientOptions copy = new LoadBalancingWebClientOptions(options.toJson());
+    assertEquals(options.toJson(), copy.toJson());
+    assertEquals(LoadBalancingStrategy.POWER_OF_TWO_CHOICES, copy.getStrategy());
+  }
+}
@@ -23,6 +23,7 @@ import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
 import io.vertx.ext.web.client.impl.MultipartFormUpload;
+import io.vertx.ext.web.client.impl.StreamingMultipartFormUpload;
 import io.vertx.ext.web.multipart.MultipartForm;
 import io.vertx.test.core.TestUtils;
 import org.junit.After;
@@ -33,6 +34,7 @@ import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -40,6 +42,8 @@ import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(VertxUnitRunner.class)
 public class MultipartFormUploadTest {
@@ -124,4 +128,58 @@ public class MultipartFormUploadTest {
       }
     });
   }
+
+  @Test
+  public void testStreamingFileUpload(TestContext ctx) throws Exception {
+    File file = testFolder.newFile();
+    byte[] content = TestUtils.randomByteArray(256 * 1024);
+    Files.write(file.toPath(), content);
+
+    MultipartForm form = MultipartForm.create()
+      .attribute("foo", "bar")
+      .binaryFileUpload("the-file", file.getName(), file.getAbsolutePath(), "application/octet-stream");
+    ctx.assertTrue(StreamingMultipartFormUpload.supports(form, true));
+
+    Async async = ctx.async();
+    Context context = vertx.getOrCreateContext();
+    context.runOnContext(v1 -> {
+      try {
+        StreamingMultipartFormUpload upload = new StreamingMultipartFormUpload(vertx, form);
+        Buffer result = Buffer.buffer();
+        upload.pause();
+        upload.handler(buffer -> {
+          result.appendBuffer(buffer);
+          // one buffer at a time
+          upload.pause();
+          context.runOnContext(v2 -> upload.fetch(1));
+        });
+        upload.exceptionHandler(ctx::fail);
+        upload.endHandler(v2 -> {
+          ctx.assertEquals(upload.headers().get("content-length"), Integer.toString(result.length()));
+          String boundary = upload.headers().get("content-type").substring("multipart/form-data; boundary=".length());
+          String body = result.toString(StandardCharsets.ISO_8859_1);
+          ctx.assertTrue(body.startsWith("--" + boundary + "\r\n"));
+          ctx.assertTrue(body.endsWith("\r\n--" + boundary + "--\r\n"));
+          ctx.assertTrue(body.contains("name=\"foo\""));
+          ctx.assertTrue(body.contains("name=\"the-file\"; filename=\"" + file.getName() + "\""));
+          int start = body.indexOf("\r\n\r\n", body.indexOf("the-file")) + 4;
+          ctx.assertEquals(Buffer.buffer(content), result.getBuffer(start, start + content.length));
+          async.complete();
+        });
+        upload.fetch(1);
+      } catch (Exception e) {
+        ctx.fail(e);
+      }
+    });
+  }
+
+  @Test
+  public void testStreamingNotSupportedForSameNameFiles() throws Exception {
+    File file = testFolder.newFile();
+    MultipartForm form = MultipartForm.create()
+      .textFileUpload("files", "a.txt", file.getAbsolutePath(), "text/plain")
+      .textFileUpload("files", "b.txt", file.getAbsolutePath(), "text/plain");
+    assertFalse(StreamingMultipartFormUpload.supports(form, true));
+    assertTrue(StreamingMultipartFormUpload.supports(form, false));
+  }
 }
@@ -0,0 +1,261 @@
+package io.vertx.ext.web.client;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.ext.web.client.predicate.ResponsePredicate;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(VertxUnitRunner.class)
+public class RetryingWebClientTest {
+
+  private Vertx vertx;
+  private WebClient client;
+  private final AtomicInteger received = new AtomicInteger();
+  private volatile Handler<HttpServerRequest> handler;
+
+  @Before
+  public void setup(TestContext tc) {
+    vertx = Vertx.vertx();
+    client = WebClient.create(vertx, new WebClientOptions().setDefaultPort(8080).setDefaultHost("localhost"));
+    vertx.createHttpServer().requestHandler(req -> {
+      received.incrementAndGet();
+      handler.handle(req);
+    }).listen(8080).onComplete(tc.asyncAssertSuccess());
+  }
+
+  @After
+  public void close(TestContext tc) {
+    vertx.close().onComplete(tc.asyncAssertSuccess());
+  }
+
+  // the first requests get a 503
+  private void failFirst(int failures) {
+    AtomicInteger count = new AtomicInteger();
+    handler = req -> req.response().setStatusCode(count.getAndIncrement() < failures ? 503 : 200).end("ok");
+  }
+
+  @Test
+  public void testRetryServerError(TestContext tc) {
+    failFirst(2);
+    RetryingWebClient retrying = RetryingWebClient.create(client, new RetryingWebClientOptions().setInitialBackoff(10));
+    retrying.get("/").send().onComplete(tc.asyncAssertSuccess(resp -> {
+      tc.assertEquals(200, resp.statusCode());
+      tc.assertEquals("ok", resp.bodyAsString());
+      tc.assertEquals(3, received.get());
+      tc.assertEquals(2L, retrying.retries());
+    }));
+  }
+
+  @Test
+  public void testRetryServerErrorFailingExpectation(TestContext tc) {
+    failFirst(1);
+    RetryingWebClient retrying = RetryingWebClient.create(client, new RetryingWebClientOptions().setInitialBackoff(10));
+    retrying.get("/").expect(ResponsePredicate.SC_SUCCESS).send().onComplete(tc.asyncAssertSuccess(resp -> {
+      tc.assertEquals(200, resp.statusCode());
+      tc.assertEquals(2, received.get());
+      tc.assertEquals(1L, retrying.retries());
+    }));
+  }
+
+  @Test
+  public void testMaxRetries(TestContext tc) {
+    failFirst(Integer.MAX_VALUE);
+    RetryingWebClient retrying = RetryingWebClient.create(client, new RetryingWebClientOptions()
+      .setInitialBackoff(10)
+      .setMaxRetries(3));
+    retrying.get("/").send().onComplete(tc.asyncAssertSuccess(resp -> {
+      tc.assertEquals(503, resp.statusCode());
+      tc.assertEquals(4, received.get());
+      tc.assertEquals(3L, retrying.retries());
+    }));
+  }
+
+  @Test
+  public void testRetryConnectionFailure(TestContext tc) {
+    AtomicInteger count = new AtomicInteger();
+    handler = req -> {
+      if (count.getAndIncrement() == 0) {
+        req.connection().close();
+      } else {
+        req.response().end("ok");
+      }
+    };
+    RetryingWebClient retrying = RetryingWebClient.create(client, new RetryingWebClientOptions().setInitialBackoff(10));
+    retrying.get("/").send().onComplete(tc.asyncAssertSuccess(resp -> {
+      tc.assertEquals("ok", resp.bodyAsString());
+      tc.assertEquals(2, received.get());
+      tc.assertEquals(1L, retrying.retries());
+    }));
+  }
+
+  @Test
+  public void testRetryUnreachableServer(TestContext tc) {
+    RetryingWebClient retrying = RetryingWebClient.create(client, new RetryingWebClientOptions()
+      .setInitialBackoff(10)
+      .setMaxRetries(2));
+    retrying.get(8081, "localhost", "/").send().onComplete(tc.asyncAssertFailure(err -> {
+      tc.assertEquals(2L, retrying.retries());
+    }));
+  }
+
+  @Test
+  public void testDoNotRetryNonIdempotentRequest(TestContext tc) {
+    failFirst(1);
+    RetryingWebClient retrying = RetryingWebClient.create(client, new RetryingWebClientOptions().setInitialBackoff(10));
+    retrying.post("/").sendBuffer(Buffer.buffer("body")).onComplete(tc.asyncAssertSuccess(resp -> {
+      tc.assertEquals(503, resp.statusCode());
+      tc.assertEquals(1, received.get());
+      tc.assertEquals(0L, retrying.retries());
+    }));
+  }
+
+  @Test
+  public void testRetryBudget(TestContext tc) {
+    failFirst(Integer.MAX_VALUE);
+    // one retry every two requests
+    RetryingWebClient retrying = RetryingWebClient.create(client, new RetryingWebClientOptions()
+      .setInitialBackoff(10)
+      .setBudgetRatio(0.5)
+      .setMinRetriesPerSecond(0));
+    Future<Void> fut = Future.succeededFuture();
+    for (int i = 0; i < 4; i++) {
+      fut = fut.compose(v -> retrying.get("/").send().mapEmpty());
+    }
+    fut.onComplete(tc.asyncAssertSuccess(v -> {
+      tc.assertEquals(2L, retrying.retries());
+      tc.assertEquals(6, received.get());
+    }));
+  }
+
+  @Test
+  public void testRetryReplaysJsonBody(TestContext tc) {
+    AtomicInteger count = new AtomicInteger();
+    handler = req -> req.body().onSuccess(body -> {
+      tc.assertEquals(new JsonObject().put("foo", "bar"), body.toJsonObject());
+      req.response().setStatusCode(count.getAndIncrement() == 0 ? 500 : 200).end();
+    });
+    RetryingWebClient retrying = RetryingWebClient.create(client, new RetryingWebClientOptions().setInitialBackoff(10));
+    retrying.put("/").sendJson(new JsonObject().put("foo", "bar")).onComplete(tc.asyncAssertSuccess(resp -> {
+      tc.assertEquals(200, resp.statusCode());
+      tc.assertEquals(2, received.get());
+    }));
+  }
+
+  private Future<Void> warmUp(WebClient client) {
+    Future<Void> fut = Future.succeededFuture();
+    for (int i = 0; i < 20; i++) {
+      fut = fut.compose(v -> client.get("/").send().mapEmpty());
+    }
+    return fut;
+  }
+
+  @Test
+  public void testHedgeWins(TestContext tc) {
+    AtomicInteger slow = new AtomicInteger();
+    AtomicBoolean cancelled = new AtomicBoolean();
+    handler = req -> {
+      if (req.path().equals("/slow") && slow.getAndIncrement() == 0) {
+        // never responds, reset by the client when the hedge wins
+        req.connection().closeHandler(v -> cancelled.set(true));
+      } else {
+        req.response().end(req.path());
+      }
+    };
+    RetryingWebClient retrying = RetryingWebClient.create(client, new RetryingWebClientOptions()
+      .setHedgingPercentile(90)
+      .setMinHedgingDelay(50));
+    Async async = tc.async();
+    warmUp(retrying).compose(v -> retrying.get("/slow").send()).onComplete(tc.asyncAssertSuccess(resp -> {
+      tc.assertEquals("/slow", resp.bodyAsString());
+      tc.assertEquals(2, slow.get());
+      tc.assertEquals(1L, retrying.hedges());
+      tc.assertEquals(1L, retrying.hedgeWins());
+      vertx.setTimer(100, id -> {
+        tc.assertTrue(cancelled.get());
+        async.complete();
+      });
+    }));
+  }
+
+  @Test
+  public void testHedgeLoses(TestContext tc) {
+    AtomicInteger slow = new AtomicInteger();
+    handler = req -> {
+      if (req.path().equals("/slow")) {
+        // the original request responds before its hedge
+        long delay = slow.getAndIncrement() == 0 ? 150 : 2000;
+        vertx.setTimer(delay, id -> req.response().end("" + delay));
+      } else {
+        req.response().end();
+      }
+    };
+    RetryingWebClient retrying = RetryingWebClient.create(client, new RetryingWebClientOptions()
+      .setHedgingPercentile(90)
+      .setMinHedgingDelay(50));
+    warmUp(retrying).compose(v -> retrying.get("/slow").send()).onComplete(tc.asyncAssertSuccess(resp -> {
+      tc.assertEquals("150", resp.bodyAsString());
+      tc.assertEquals(2, slow.get());
+      tc.assertEquals(1L, retrying.hedges());
+      tc.assertEquals(0L, retrying.hedgeWins());
+    }));
+  }
+
+  @Test
+  public void testNoHedgeWhileBodyStreams(TestContext tc) {
+    handler = req -> {
+      if (req.path().equals("/stream")) {
+        // the headers are sent at once, the body is streamed for longer than the hedging delay
+        req.response().setChunked(true).write("a");
+        vertx.setTimer(300, id -> req.response().end("b"));
+      } else {
+        req.response().end();
+      }
+    };
+    RetryingWebClient retrying = RetryingWebClient.create(client, new RetryingWebClientOptions()
+      .setHedgingPercentile(90)
+      .setMinHedgingDelay(50));
+    warmUp(retrying).compose(v -> retrying.get("/stream").send()).onComplete(tc.asyncAssertSuccess(resp -> {
+      tc.assertEquals("ab", resp.bodyAsString());
+      tc.assertEquals(21, received.get());
+      tc.assertEquals(0L, retrying.hedges());
+    }));
+  }
+
+  @Test
+  public void testNoHedgeBeforeMinHedgingDelay(TestContext tc) {
+    handler = req -> vertx.setTimer(20, id -> req.response().end());
+    RetryingWebClient retrying = RetryingWebClient.create(client, new RetryingWebClientOptions()
+      .setHedgingPercentile(50)
+      .setMinHedgingDelay(500));
+    warmUp(retrying).compose(v -> retrying.get("/").send()).onComplete(tc.asyncAssertSuccess(resp -> {
+      tc.assertEquals(21, received.get());
+      tc.assertEquals(0L, retrying.hedges());
+    }));
+  }
+
+  @Test
+  public void testOptionsJson() {
+    RetryingWebClientOptions options = new RetryingWebClientOptions()
+      .setMaxRetries(5)
+      .setBudgetRatio(0.1)
+      .setHedgingPercentile(99);
+    RetryingWebClientOptions copy = new RetryingWebClientOptions(options.toJson());
+    assertEquals(options.toJson(), copy.toJson());
+    assertEquals(5, copy.getMaxRetries());
+  }
+}
@@ -1,6 +1,7 @@
 package io.vertx.ext.web.client;
 
 import io.vertx.core.Future;
+import io.vertx.core.Promise;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.json.JsonObject;
@@ -621,4 +622,116 @@ public class WebClientSessionOauth2Test extends WebClientTestBase {
 
     awaitLatch(latchClient);
   }
+
+  @Test
+  public void testConcurrentRequestsShareTokenRequest() throws Exception {
+    final AtomicInteger counter = new AtomicInteger(0);
+
+    server = vertx.createHttpServer().requestHandler(req -> {
+      if (req.method() == HttpMethod.POST && "/oauth/token".equals(req.path())) {
+        counter.incrementAndGet();
+        // slow identity provider, the other requests arrive while the token is requested
+        vertx.setTimer(200, id -> req.response().putHeader("Content-Type", "application/json").end(fixture.encode()));
+      } else if (req.method() == HttpMethod.GET && "/protected/path".equals(req.path())) {
+        assertEquals("Bearer " + fixture.getString("access_token"), req.getHeader("Authorization"));
+        req.response().end();
+      } else {
+        req.response().setStatusCode(400).end();
+      }
+    });
+    final CountDownLatch latch = new CountDownLatch(1);
+    server.listen(8080).onComplete(onSuccess(ready -> latch.countDown()));
+    awaitLatch(latch);
+
+    OAuth2Auth oauth2 = OAuth2Auth.create(vertx, new OAuth2Options()
+      .setClientId("client-id")
+      .setClientSecret("client-secret")
+      .setSite("http://localhost:8080"));
+
+    OAuth2WebClient oauth2WebClient = OAuth2WebClient.create(webClient, oauth2)
+      .withCredentials(oauthConfig);
+
+    final int requests = 20;
+    final CountDownLatch latchClient = new CountDownLatch(requests);
+    for (int i = 0; i < requests; i++) {
+      oauth2WebClient
+        .get(8080, "localhost", "/protected/path")
+        .send().onComplete(result -> {
+          if (result.failed()) {
+            fail(result.cause());
+          } else {
+            assertEquals(200, result.result().statusCode());
+            latchClient.countDown();
+          }
+        });
+    }
+
+    awaitLatch(latchClient);
+    assertEquals(1, counter.get());
+  }
+
+  @Test
+  public void testRefreshWindowRefreshesInBackground() throws Exception {
+    final AtomicInteger counter = new AtomicInteger(0);
+
+    server = vertx.createHttpServer().requestHandler(req -> {
+      if (req.method() == HttpMethod.POST && "/oauth/token".equals(req.path())) {
+        if (counter.incrementAndGet() == 1) {
+          req.response().putHeader("Content-Type", "application/json").end(fixture.encode());
+        } else {
+          // the refresh must not delay the requests
+          vertx.setTimer(1000, id -> req.response().putHeader("Content-Type", "application/json").end(loggedOutFixture.encode()));
+        }
+      } else if (req.method() == HttpMethod.GET && "/protected/path".equals(req.path())) {
+        req.response().end(req.getHeader("Authorization"));
+      } else {
+        req.response().setStatusCode(400).end();
+      }
+    });
+    final CountDownLatch latch = new CountDownLatch(1);
+    server.listen(8080).onComplete(onSuccess(ready -> latch.countDown()));
+    awaitLatch(latch);
+
+    OAuth2Auth oauth2 = OAuth2Auth.create(vertx, new OAuth2Options()
+      .setClientId("client-id")
+      .setClientSecret("client-secret")
+      .setSite("http://localhost:8080"));
+
+    // the token expires in 7200 seconds, always within the refresh window
+    OAuth2WebClient oauth2WebClient =
+      OAuth2WebClient.create(webClient, oauth2, new OAuth2WebClientOptions().setRefreshWindow(7300))
+        .withCredentials(oauthConfig);
+
+    Supplier<Future<String>> request = () -> oauth2WebClient
+      .get(8080, "localhost", "/protected/path")
+      .send()
+      .map(HttpResponse::bodyAsString);
+
+    final String first = "Bearer " + fixture.getString("access_token");
+    request.get()
+      .compose(auth -> {
+        assertEquals(first, auth);
+        return request.get();
+      })
+      .compose(auth -> {
+        // the current token is used while the refresh is in progress
+        assertEquals(first, auth);
+        assertEquals(2, counter.get());
+        return request.get();
+      })
+      .compose(auth -> {
+        assertEquals(first, auth);
+        // a single refresh in progress
+        assertEquals(2, counter.get());
+        // wait for the refresh to complete
+        Promise<Void> refreshed = Promise.promise();
+        vertx.setTimer(1500, id -> refreshed.complete());
+        return refreshed.future().compose(v -> request.get());
+      })
+      .onComplete(onSuccess(auth -> {
+        assertEquals("Bearer " + loggedOutFixture.getString("access_token"), auth);
+        complete();
+      }));
+    await();
+  }
 }
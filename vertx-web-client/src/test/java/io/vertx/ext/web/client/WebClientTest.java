@@ -29,16 +29,19 @@ import io.vertx.ext.web.multipart.MultipartForm;
 import io.vertx.test.core.Repeat;
 import io.vertx.test.core.TestUtils;
 import io.vertx.test.tls.Cert;
+import org.junit.Assume;
 import org.junit.Ignore;
 import org.junit.Test;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.net.ConnectException;
 import java.net.MalformedURLException;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
@@ -1419,6 +1422,91 @@ public class WebClientTest extends WebClientTestBase {
     await();
   }
 
+  @Test
+  public void testSendFileRegion() throws Exception {
+    Buffer content = TestUtils.randomBuffer(256 * 1024);
+    File file = testFolder.newFile();
+    vertx.fileSystem().writeFileBlocking(file.getPath(), content);
+    server.requestHandler(req -> {
+      assertEquals("100000", req.getHeader(HttpHeaders.CONTENT_LENGTH));
+      assertNull(req.getHeader(HttpHeaders.TRANSFER_ENCODING));
+      req.body().onComplete(onSuccess(body -> {
+        assertEquals(content.getBuffer(1000, 101000), body);
+        req.response().end();
+      }));
+    });
+    startServer();
+    webClient.post("somepath")
+      .sendFile(file.getPath(), 1000, 100000)
+      .onComplete(onSuccess(resp -> {
+        assertEquals(200, resp.statusCode());
+        complete();
+      }));
+    await();
+  }
+
+  @Test
+  public void testSendFileRegionBeyondEnd() throws Exception {
+    File file = testFolder.newFile();
+    vertx.fileSystem().writeFileBlocking(file.getPath(), TestUtils.randomBuffer(1024));
+    server.requestHandler(req -> fail("Should not be called"));
+    startServer();
+    webClient.post("somepath")
+      .sendFile(file.getPath(), 512, 1024)
+      .onComplete(onFailure(err -> {
+        assertEquals(IllegalArgumentException.class, err.getClass());
+        complete();
+      }));
+    await();
+  }
+
+  @Test
+  public void testUploadedFilesAreClosed() throws Exception {
+    Assume.assumeTrue("Requires /proc/self/fd", new File("/proc/self/fd").isDirectory());
+    File file = testFolder.newFile();
+    vertx.fileSystem().writeFileBlocking(file.getPath(), TestUtils.randomBuffer(256 * 1024));
+    AtomicInteger received = new AtomicInteger();
+    server.requestHandler(req -> {
+      if (received.incrementAndGet() % 2 == 0) {
+        // fail half of the uploads while the file is being read
+        req.connection().close();
+      } else {
+        req.body().onComplete(onSuccess(body -> req.response().end()));
+      }
+    });
+    startServer();
+    int uploads = 100;
+    CountDownLatch latch = new CountDownLatch(2 * uploads);
+    for (int i = 0; i < uploads; i++) {
+      webClient.post("somepath")
+        .sendFile(file.getPath(), 0, 256 * 1024)
+        .onComplete(ar -> latch.countDown());
+      webClient.post("somepath")
+        .sendMultipartForm(MultipartForm.create().binaryFileUpload("file", "file.bin", file.getPath(), "application/octet-stream"))
+        .onComplete(ar -> latch.countDown());
+    }
+    awaitLatch(latch);
+    // the files are closed asynchronously
+    assertWaitUntil(() -> openDescriptors(file) == 0);
+  }
+
+  private static int openDescriptors(File file) {
+    int count = 0;
+    File[] descriptors = new File("/proc/self/fd").listFiles();
+    if (descriptors != null) {
+      for (File descriptor : descriptors) {
+        try {
+          if (Files.readSymbolicLink(descriptor.toPath()).equals(file.toPath().toAbsolutePath())) {
+            count++;
+          }
+        } catch (IOException ignore) {
+          // closed in the meantime
+        }
+      }
+    }
+    return count;
+  }
+
   @Test
   public void testDefaultFollowRedirects() throws Exception {
     testFollowRedirects(null, true);
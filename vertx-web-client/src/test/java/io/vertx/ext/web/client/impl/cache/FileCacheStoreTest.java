@@ -0,0 +1,159 @@
+package io.vertx.ext.web.client.impl.cache;
+
+import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.core.http.impl.headers.HeadersMultiMap;
+import io.vertx.ext.web.client.spi.CacheStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FileCacheStoreTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private Vertx vertx;
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    await(vertx.close());
+  }
+
+  private static <T> T await(Future<T> future) throws Exception {
+    return future.toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+  }
+
+  private static CacheKey key(String path) {
+    RequestOptions request = new RequestOptions().setHost("localhost").setPort(8080).setURI(path).setHeaders(new HeadersMultiMap());
+    return new CacheKey(request, new Vary(new HeadersMultiMap(), new HeadersMultiMap()));
+  }
+
+  private static CachedHttpResponse response(String body, String cacheControl) {
+    MultiMap headers = new HeadersMultiMap().add("Cache-Control", cacheControl).add("Content-Type", "text/plain");
+    return new CachedHttpResponse("HTTP_1_1", 200, "OK", Buffer.buffer(body), headers, CacheControl.parse(headers));
+  }
+
+  @Test
+  public void testSurvivesRestart() throws Exception {
+    String dir = folder.getRoot().getAbsolutePath();
+    FileCacheStore store = new FileCacheStore(vertx, dir, 1024 * 1024);
+    CachedHttpResponse response = response("hello", "public, max-age=60, stale-if-error=30");
+    await(store.set(key("/a"), response));
+    await(store.set(key("/b"), response("deleted", "public, max-age=60")));
+    await(store.delete(key("/b")));
+    await(store.close());
+
+    CacheStore reopened = await(CacheStore.fileStore(vertx, dir, 1024 * 1024));
+    CachedHttpResponse recovered = await(reopened.get(key("/a")));
+    assertNotNull(recovered);
+    assertEquals("hello", recovered.getBody().toString());
+    assertEquals("text/plain", recovered.getResponseHeaders().get("Content-Type"));
+    assertEquals(response.getTimestamp().toEpochMilli(), recovered.getTimestamp().toEpochMilli());
+    assertEquals(30, recovered.getCacheControl().getStaleIfError());
+    assertNull(await(reopened.get(key("/b"))));
+    assertEquals(1, reopened.hits());
+    assertEquals(1, reopened.misses());
+    await(reopened.close());
+  }
+
+  @Test
+  public void testExpiredResponseIsDropped() throws Exception {
+    FileCacheStore store = new FileCacheStore(vertx, folder.getRoot().getAbsolutePath(), 1024 * 1024);
+    await(store.set(key("/expired"), response("stale", "public, max-age=-2")));
+
+    assertNull(await(store.get(key("/expired"))));
+    assertEquals(0, store.size());
+    assertEquals(1, store.expirations());
+    await(store.close());
+  }
+
+  @Test
+  public void testStaysWithinBudget() throws Exception {
+    long budget = 1024 * 1024;
+    FileCacheStore store = new FileCacheStore(vertx, folder.getRoot().getAbsolutePath(), budget);
+    String body = new String(new char[4096]).replace('\0', 'x');
+    for (int i = 0; i < 1000; i++) {
+      await(store.set(key("/" + i), response(body, "public, max-age=60")));
+    }
+    await(store.set(key("/last"), response(body, "public, max-age=60")));
+    // let the background cleaning finish
+    Thread.sleep(500);
+
+    // the active segment (an eighth of the budget) can be started before the oldest is dropped
+    assertTrue(store.diskSize() <= budget + budget / 8);
+    assertTrue(store.evictions() > 0);
+    assertNotNull(await(store.get(key("/last"))));
+    await(store.close());
+  }
+
+  @Test
+  public void testOverwritesAreCompacted() throws Exception {
+    long budget = 1024 * 1024;
+    FileCacheStore store = new FileCacheStore(vertx, folder.getRoot().getAbsolutePath(), budget);
+    String body = new String(new char[4096]).replace('\0', 'x');
+    for (int i = 0; i < 1000; i++) {
+      await(store.set(key("/" + (i % 10)), response(body + i, "public, max-age=60")));
+    }
+
+    assertEquals(10, store.size());
+    assertEquals(body + 999, await(store.get(key("/9"))).getBody().toString());
+    assertEquals(body + 990, await(store.get(key("/0"))).getBody().toString());
+    assertEquals(0, store.evictions());
+    await(store.close());
+  }
+
+  @Test
+  public void testChangesAreAppliedInOrder() throws Exception {
+    String dir = folder.getRoot().getAbsolutePath();
+    FileCacheStore store = new FileCacheStore(vertx, dir, 1024 * 1024);
+    Future<Void> last = null;
+    for (int i = 0; i < 100; i++) {
+      // not awaited, the changes of a key must not be reordered
+      store.set(key("/deleted/" + i), response("deleted", "public, max-age=60"));
+      store.delete(key("/deleted/" + i));
+      store.delete(key("/set/" + i));
+      last = store.set(key("/set/" + i), response("set", "public, max-age=60")).mapEmpty();
+    }
+    await(last);
+
+    assertEquals(100, store.size());
+    assertNull(await(store.get(key("/deleted/42"))));
+    assertEquals("set", await(store.get(key("/set/42"))).getBody().toString());
+    await(store.close());
+
+    store = new FileCacheStore(vertx, dir, 1024 * 1024);
+    assertEquals(100, store.size());
+    assertNull(await(store.get(key("/deleted/42"))));
+    await(store.close());
+  }
+
+  @Test
+  public void testTombstonesAreNotLive() throws Exception {
+    FileCacheStore store = new FileCacheStore(vertx, folder.getRoot().getAbsolutePath(), 1024 * 1024);
+    await(store.set(key("/a"), response("hello", "public, max-age=60")));
+    assertTrue(store.liveSize() > 0);
+    await(store.delete(key("/a")));
+
+    assertEquals(0, store.liveSize());
+    assertTrue(store.diskSize() > 0);
+    await(store.close());
+  }
+}
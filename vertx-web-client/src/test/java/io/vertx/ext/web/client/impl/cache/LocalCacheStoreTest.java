@@ -0,0 +1,127 @@
+package io.vertx.ext.web.client.impl.cache;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.core.http.impl.headers.HeadersMultiMap;
+import io.vertx.ext.web.client.spi.CacheStore;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LocalCacheStoreTest {
+
+  private static CacheKey key(String path) {
+    RequestOptions request = new RequestOptions().setHost("localhost").setPort(8080).setURI(path).setHeaders(new HeadersMultiMap());
+    return new CacheKey(request, new Vary(new HeadersMultiMap(), new HeadersMultiMap()));
+  }
+
+  private static CachedHttpResponse response(int size, String cacheControl) {
+    MultiMap headers = new HeadersMultiMap().add("Cache-Control", cacheControl);
+    return new CachedHttpResponse("HTTP_1_1", 200, "OK", Buffer.buffer(new byte[size]), headers, CacheControl.parse(headers));
+  }
+
+  @Test
+  public void testHitAndMiss() {
+    LocalCacheStore store = new LocalCacheStore(LocalCacheStore.UNBOUNDED);
+    CachedHttpResponse response = response(16, "public, max-age=60");
+    store.set(key("/a"), response);
+
+    assertEquals(response, store.get(key("/a")).result());
+    assertNull(store.get(key("/b")).result());
+    assertEquals(1, store.hits());
+    assertEquals(1, store.misses());
+    assertEquals(1, store.size());
+  }
+
+  @Test
+  public void testCountersOfCacheStore() {
+    CacheStore store = CacheStore.localStore(64 * 1024);
+    for (int i = 0; i < 100; i++) {
+      store.set(key("/" + i), response(4 * 1024, "public, max-age=60"));
+    }
+    store.set(key("/expired"), response(16, "public, max-age=-2"));
+
+    assertNotNull(store.get(key("/99")).result());
+    assertNull(store.get(key("/expired")).result());
+    assertEquals(1, store.hits());
+    assertEquals(1, store.misses());
+    assertTrue(store.evictions() > 0);
+    assertEquals(1, store.expirations());
+  }
+
+  @Test
+  public void testEvictsWithinBudget() {
+    LocalCacheStore store = new LocalCacheStore(64 * 1024);
+    for (int i = 0; i < 100; i++) {
+      store.set(key("/" + i), response(4 * 1024, "public, max-age=60"));
+    }
+
+    assertTrue(store.weight() <= 64 * 1024);
+    assertTrue(store.evictions() > 0);
+    assertEquals(100, store.size() + store.evictions());
+    assertNotNull(store.get(key("/99")).result());
+    assertNull(store.get(key("/0")).result());
+  }
+
+  @Test
+  public void testProtectsResponsesReadTwice() {
+    LocalCacheStore store = new LocalCacheStore(64 * 1024);
+    store.set(key("/popular"), response(4 * 1024, "public, max-age=60"));
+    assertNotNull(store.get(key("/popular")).result());
+
+    // a scan of responses read once does not evict the popular one
+    for (int i = 0; i < 100; i++) {
+      store.set(key("/" + i), response(4 * 1024, "public, max-age=60"));
+    }
+
+    assertNotNull(store.get(key("/popular")).result());
+  }
+
+  @Test
+  public void testRejectsResponseLargerThanBudget() {
+    LocalCacheStore store = new LocalCacheStore(1024);
+    store.set(key("/large"), response(4 * 1024, "public, max-age=60"));
+
+    assertNull(store.get(key("/large")).result());
+    assertEquals(0, store.weight());
+  }
+
+  @Test
+  public void testStoresResponseLargerThanShardShare() {
+    // the store is split in shards, the response is bigger than the share of the budget of a shard
+    LocalCacheStore store = new LocalCacheStore(8 * 1024 * 1024);
+    store.set(key("/large"), response(6 * 1024 * 1024, "public, max-age=60"));
+    assertNotNull(store.get(key("/large")).result());
+
+    store.set(key("/other"), response(6 * 1024 * 1024, "public, max-age=60"));
+    assertTrue(store.weight() <= 8 * 1024 * 1024);
+    assertEquals(1, store.size());
+    assertEquals(1, store.evictions());
+    assertNotNull(store.get(key("/other")).result());
+    assertNull(store.get(key("/large")).result());
+  }
+
+  @Test
+  public void testExpiredResponseIsRemoved() {
+    LocalCacheStore store = new LocalCacheStore(LocalCacheStore.UNBOUNDED);
+    store.set(key("/expired"), response(16, "public, max-age=-2"));
+
+    assertNull(store.get(key("/expired")).result());
+    assertEquals(1, store.expirations());
+    assertEquals(0, store.size());
+  }
+
+  @Test
+  public void testStaleResponseWithEtagIsKept() {
+    LocalCacheStore store = new LocalCacheStore(LocalCacheStore.UNBOUNDED);
+    MultiMap headers = new HeadersMultiMap().add("Cache-Control", "public, max-age=-2").add("ETag", "\"v1\"");
+    store.set(key("/etag"), new CachedHttpResponse("HTTP_1_1", 200, "OK", Buffer.buffer("body"), headers, CacheControl.parse(headers)));
+
+    // can still be revalidated
+    assertNotNull(store.get(key("/etag")).result());
+  }
+}
@@ -5,7 +5,9 @@ import io.vertx.core.http.RequestOptions;
 import io.vertx.core.http.impl.headers.HeadersMultiMap;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -68,6 +70,41 @@ public class VaryTest {
     assertFalse("Vary per custom header not present", instance.matchesRequest(requestFailsToo));
   }
 
+  @Test
+  public void testKeyOfMatchingRequests() {
+    MultiMap requestHeaders = new HeadersMultiMap()
+      .add(USER_AGENT, "Concrete Mobile User Agent")
+      .add("X-Vertx", "jordi, llach")
+      .add(ACCEPT_ENCODING, "gzip");
+    MultiMap responseHeaders = new HeadersMultiMap()
+      .add(VARY, "User-Agent, X-Vertx")
+      .add(VARY, ACCEPT_ENCODING);
+    Vary instance = new Vary(requestHeaders, responseHeaders);
+
+    RequestOptions requestMatches = new RequestOptions()
+      .addHeader(USER_AGENT, "Another Mobile User Agent")
+      .addHeader("x-vertx", "Llach")
+      .addHeader("X-Vertx", "jordi")
+      .addHeader(ACCEPT_ENCODING, "deflate");
+    RequestOptions requestDoesNotMatch = new RequestOptions()
+      .addHeader(USER_AGENT, "Another Mobile User Agent")
+      .addHeader("X-Vertx", "jordi");
+    assertTrue(instance.matchesRequest(requestMatches));
+    assertEquals(instance.key(), instance.keyOf(requestMatches));
+    assertFalse(instance.matchesRequest(requestDoesNotMatch));
+    assertNotEquals(instance.key(), instance.keyOf(requestDoesNotMatch));
+  }
+
+  @Test
+  public void testKeyDependsOnVariedHeaders() {
+    MultiMap requestHeaders = new HeadersMultiMap().add("X-Vertx", "jordi");
+    Vary byCustom = new Vary(requestHeaders, new HeadersMultiMap().add(VARY, "X-Vertx"));
+    Vary byLanguage = new Vary(requestHeaders, new HeadersMultiMap().add(VARY, "Accept-Language, X-Vertx"));
+
+    assertFalse(byCustom.variesLike(byLanguage));
+    assertNotEquals(byCustom.key(), byLanguage.key());
+  }
+
   private RequestOptions buildEmptyRequestOptions() {
     return new RequestOptions().setHeaders(new HeadersMultiMap());
   }
@@ -25,6 +25,7 @@ import io.vertx.core.json.JsonObject;
 import io.vertx.core.parsetools.JsonParser;
 import io.vertx.core.streams.WriteStream;
 import io.vertx.ext.web.codec.impl.BodyCodecImpl;
+import io.vertx.ext.web.codec.impl.JsonObjectsBodyCodec;
 import io.vertx.ext.web.codec.impl.JsonStreamBodyCodec;
 import io.vertx.ext.web.codec.impl.StreamingBodyCodec;
 import io.vertx.ext.web.codec.spi.BodyStream;
@@ -131,6 +132,10 @@ public interface BodyCodec<T> {
   /**
    * A body codec that parse the response as a JSON stream.
    *
+   * <p>
+   * The parser is created without a stream and cannot report its demand: the body is parsed as it is received even
+   * when the parser is paused, use {@link #jsonStream(Handler)} to pause the response instead.
+   *
    * @param parser the non-null JSON parser to emits the JSON object. The parser must be configured for the stream. Not
    *               e that you need to keep a reference on the parser to retrieved the JSON events.
    * @return the body codec for a write stream
@@ -139,6 +144,33 @@ public interface BodyCodec<T> {
     return new JsonStreamBodyCodec(parser);
   }
 
+  /**
+   * A body codec that parse the response as a JSON stream, with a parser created for each response.
+   * <p>
+   * The parser reads the response body as a stream, pausing the parser pauses the response.
+   *
+   * @param handler the non-null handler configuring the parser of a response, e.g. setting its mode and its handlers
+   * @return the body codec for a write stream
+   */
+  static BodyCodec<Void> jsonStream(Handler<JsonParser> handler) {
+    return new JsonStreamBodyCodec(handler);
+  }
+
+  /**
+   * A body codec that decodes the values of a top-level JSON array, or of a stream of JSON values such as NDJSON, and
+   * writes them to a stream as they are parsed.
+   * <p>
+   * The response is paused while the stream write queue is full and the stream is ended with the response.
+   *
+   * @param type the type of the values, {@link JsonObject} or a type mapped with Jackson databind
+   * @param stream the destination stream
+   * @return the body codec for a write stream
+   */
+  @GenIgnore(GenIgnore.PERMITTED_TYPE)
+  static <U> BodyCodec<Void> jsonObjects(Class<U> type, WriteStream<U> stream) {
+    return new JsonObjectsBodyCodec<>(type, stream);
+  }
+
   /**
    * Create the {@link BodyStream}.
    * <p>
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.codec.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.parsetools.JsonEvent;
+import io.vertx.core.parsetools.JsonParser;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.web.codec.BodyCodec;
+import io.vertx.ext.web.codec.spi.BodyStream;
+
+import java.util.Objects;
+
+/**
+ * Decodes the values of a top-level JSON array, or of a stream of JSON values (e.g. NDJSON), one at a time and writes
+ * them to a stream. The values are parsed as the body is received and the response is paused while the stream queue
+ * is full.
+ */
+public class JsonObjectsBodyCodec<T> implements BodyCodec<Void> {
+
+  private final Class<T> type;
+  private final WriteStream<T> stream;
+
+  public JsonObjectsBodyCodec(Class<T> type, WriteStream<T> stream) {
+    this.type = Objects.requireNonNull(type, "The type must be set");
+    this.stream = Objects.requireNonNull(stream, "The stream must be set");
+  }
+
+  @Override
+  public void create(Handler<AsyncResult<BodyStream<Void>>> handler) {
+    handler.handle(Future.succeededFuture(new JsonParserBodyStream(this::consume)));
+  }
+
+  private Future<Void> consume(JsonParser parser) {
+    Promise<Void> consumed = Promise.promise();
+    boolean[] inArray = new boolean[1];
+    parser
+      .objectValueMode()
+      .exceptionHandler(consumed::tryFail)
+      .endHandler(v -> stream.end().onComplete(consumed))
+      .handler(event -> {
+        switch (event.type()) {
+          case START_ARRAY:
+            if (inArray[0]) {
+              throw new DecodeException("Nested JSON arrays cannot be decoded as " + type.getName());
+            }
+            inArray[0] = true;
+            break;
+          case END_ARRAY:
+            inArray[0] = false;
+            break;
+          case VALUE:
+            stream.write(decode(event)).onFailure(consumed::tryFail);
+            if (stream.writeQueueFull()) {
+              // the parser pauses the response until the stream is drained
+              parser.pause();
+              stream.drainHandler(drained -> parser.resume());
+            }
+            break;
+        }
+      });
+    return consumed.future();
+  }
+
+  @SuppressWarnings("unchecked")
+  private T decode(JsonEvent event) {
+    if (type == JsonObject.class) {
+      return (T) event.objectValue();
+    }
+    return event.mapTo(type);
+  }
+}
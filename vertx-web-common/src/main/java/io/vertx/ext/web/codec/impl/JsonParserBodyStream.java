@@ -0,0 +1,193 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.codec.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.parsetools.JsonParser;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.web.codec.spi.BodyStream;
+
+import java.util.function.Function;
+
+/**
+ * A body stream parsed by a {@link JsonParser} created for the response.
+ * <p>
+ * The parser reads the body as a {@link ReadStream}: when its consumer pauses it, the parser pauses the body and this
+ * stream reports a full write queue until the parser asks for more, so the HTTP response is paused as well and at most
+ * one chunk of the body is buffered beyond the pending JSON events.
+ */
+public class JsonParserBodyStream implements BodyStream<Void> {
+
+  private final Promise<Void> promise = Promise.promise();
+  private final Source source = new Source();
+  private final Future<Void> consumed;
+  private Handler<Throwable> exceptionHandler;
+  private Handler<Void> drainHandler;
+  private boolean paused;
+
+  /**
+   * @param consumer configures the parser reading the body, the returned future completes when the parsed values are
+   *                 consumed
+   */
+  public JsonParserBodyStream(Function<JsonParser, Future<Void>> consumer) {
+    this.consumed = consumer.apply(JsonParser.newParser(source));
+  }
+
+  @Override
+  public Future<Void> result() {
+    return promise.future();
+  }
+
+  @Override
+  public void handle(Throwable cause) {
+    if (promise.tryFail(cause)) {
+      Handler<Throwable> handler = source.exceptionHandler;
+      if (handler != null) {
+        handler.handle(cause);
+      }
+    }
+  }
+
+  @Override
+  public WriteStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
+    exceptionHandler = handler;
+    return this;
+  }
+
+  @Override
+  public Future<Void> write(Buffer data) {
+    if (consumed.failed()) {
+      // the values can no longer be consumed, stop reading the body
+      fail(consumed.cause());
+    }
+    if (promise.future().failed()) {
+      return Future.failedFuture(promise.future().cause());
+    }
+    Handler<Buffer> handler = source.handler;
+    if (handler != null) {
+      try {
+        handler.handle(data);
+      } catch (Throwable t) {
+        // the parser has no exception handler
+        fail(t);
+        return Future.failedFuture(t);
+      }
+    }
+    return Future.succeededFuture();
+  }
+
+  @Override
+  public Future<Void> end() {
+    if (promise.future().isComplete()) {
+      return promise.future();
+    }
+    Handler<Void> handler = source.endHandler;
+    if (handler != null) {
+      try {
+        handler.handle(null);
+      } catch (Throwable t) {
+        fail(t);
+        return Future.failedFuture(t);
+      }
+    }
+    consumed.onComplete(ar -> {
+      if (ar.succeeded()) {
+        promise.tryComplete();
+      } else {
+        fail(ar.cause());
+      }
+    });
+    return promise.future();
+  }
+
+  @Override
+  public WriteStream<Buffer> setWriteQueueMaxSize(int maxSize) {
+    // the queue is bounded by the parser demand
+    return this;
+  }
+
+  @Override
+  public boolean writeQueueFull() {
+    return paused;
+  }
+
+  @Override
+  public WriteStream<Buffer> drainHandler(Handler<Void> handler) {
+    drainHandler = handler;
+    return this;
+  }
+
+  private void fail(Throwable cause) {
+    if (promise.tryFail(cause) && exceptionHandler != null) {
+      exceptionHandler.handle(cause);
+    }
+  }
+
+  /**
+   * The body as read by the parser, its demand drives the write queue of the body stream.
+   */
+  private class Source implements ReadStream<Buffer> {
+
+    private Handler<Buffer> handler;
+    private Handler<Void> endHandler;
+    private Handler<Throwable> exceptionHandler;
+
+    @Override
+    public ReadStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
+      exceptionHandler = handler;
+      return this;
+    }
+
+    @Override
+    public ReadStream<Buffer> handler(Handler<Buffer> handler) {
+      this.handler = handler;
+      return this;
+    }
+
+    @Override
+    public ReadStream<Buffer> endHandler(Handler<Void> endHandler) {
+      this.endHandler = endHandler;
+      return this;
+    }
+
+    @Override
+    public ReadStream<Buffer> pause() {
+      paused = true;
+      return this;
+    }
+
+    @Override
+    public ReadStream<Buffer> resume() {
+      if (paused) {
+        paused = false;
+        Handler<Void> handler = drainHandler;
+        if (handler != null) {
+          handler.handle(null);
+        }
+      }
+      return this;
+    }
+
+    @Override
+    public ReadStream<Buffer> fetch(long amount) {
+      return amount > 0 ? resume() : this;
+    }
+  }
+}
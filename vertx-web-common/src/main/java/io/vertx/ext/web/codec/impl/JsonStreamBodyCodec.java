@@ -16,9 +16,29 @@ public class JsonStreamBodyCodec implements BodyCodec<Void> {
 
   private final JsonParser parser;
   private final StreamingBodyCodec delegate;
+  private final Handler<JsonParser> parserHandler;
 
+  /**
+   * Creates a codec parsing the body of each response with a new parser, the parser demand is propagated to the
+   * response.
+   *
+   * @param parserHandler the handler configuring the parser of a response
+   */
+  public JsonStreamBodyCodec(Handler<JsonParser> parserHandler) {
+    this.parserHandler = Objects.requireNonNull(parserHandler, "The parser handler must be set");
+    this.parser = null;
+    this.delegate = null;
+  }
+
+  /**
+   * Creates a codec feeding the body of the responses to a parser created without a stream. Such a parser cannot
+   * report its demand, the body is written to it as it is received.
+   *
+   * @param parser the parser
+   */
   public JsonStreamBodyCodec(JsonParser parser) {
     this.parser = Objects.requireNonNull(parser, "The parser must be set");
+    this.parserHandler = null;
     this.delegate = new StreamingBodyCodec(new WriteStream<Buffer>() {
       @Override
       public WriteStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
@@ -65,6 +85,13 @@ public class JsonStreamBodyCodec implements BodyCodec<Void> {
 
   @Override
   public void create(Handler<AsyncResult<BodyStream<Void>>> handler) {
-    delegate.create(handler);
+    if (parserHandler != null) {
+      handler.handle(Future.succeededFuture(new JsonParserBodyStream(parser -> {
+        parserHandler.handle(parser);
+        return Future.succeededFuture();
+      })));
+    } else {
+      delegate.create(handler);
+    }
   }
 }
@@ -25,7 +25,8 @@ import io.vertx.ext.web.sstore.cookie.impl.CookieSessionStoreImpl;
  * plain sight and signed using a HMAC using the given secret.
  *
  * The signature ensures that the cookie payload is not tampered when returning from
- * the user agent (browser) back to the server.
+ * the user agent (browser) back to the server. Optionally the data can be encrypted instead,
+ * see {@link #create(Vertx, String, boolean)}.
  *
  * @author <a href="mailto:plopes@redhat.com">Paulo Lopes</a>
  */
@@ -46,4 +47,40 @@ public interface CookieSessionStore extends SessionStore {
   static CookieSessionStore create(Vertx vertx, String secret) {
     return new CookieSessionStoreImpl(vertx, secret);
   }
+
+  /**
+   * Creates a CookieSessionStore.
+   *
+   * When {@code encrypt} is {@code true} the cookie data is not readable by the user agent. It is encrypted with
+   * AES-GCM using a key derived from the given secret, the authentication tag replaces the HMAC signature. Otherwise
+   * this is the same as {@link #create(Vertx, String)}.
+   *
+   * Sessions that do not fit in a single cookie are split by the session handler across numbered cookies.
+   *
+   * @param vertx a vert.x instance
+   * @param secret a secret to derive the encryption key from
+   * @param encrypt {@code true} to encrypt the session data instead of just signing it
+   * @return the store
+   */
+  static CookieSessionStore create(Vertx vertx, String secret, boolean encrypt) {
+    return new CookieSessionStoreImpl(vertx, secret, encrypt, false);
+  }
+
+  /**
+   * Creates a CookieSessionStore encrypting the cookie data, see {@link #create(Vertx, String, boolean)}.
+   *
+   * When {@code compress} is {@code true} the session data is compressed before being encrypted, so more data fits
+   * in a cookie. The length of the encrypted cookie then depends on the content of the session: when the session
+   * mixes values influenced by an attacker with secrets, such as a CSRF token, the secrets can be guessed by
+   * observing the cookie length (CRIME/BREACH like attacks). Only compress sessions that do not hold such a mix.
+   *
+   * @param vertx a vert.x instance
+   * @param secret a secret to derive the encryption key from
+   * @param encrypt {@code true} to encrypt the session data instead of just signing it
+   * @param compress {@code true} to compress the encrypted session data
+   * @return the store
+   */
+  static CookieSessionStore create(Vertx vertx, String secret, boolean encrypt, boolean compress) {
+    return new CookieSessionStoreImpl(vertx, secret, encrypt, compress);
+  }
 }
@@ -17,11 +17,12 @@ package io.vertx.ext.web.sstore.cookie.impl;
 
 import io.vertx.core.buffer.Buffer;
 import io.vertx.ext.auth.VertxContextPRNG;
+import io.vertx.ext.web.impl.Signature;
 import io.vertx.ext.web.sstore.AbstractSession;
 
-import javax.crypto.Mac;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import static io.vertx.ext.auth.impl.Codec.base64UrlDecode;
 import static io.vertx.ext.auth.impl.Codec.base64UrlEncode;
@@ -33,20 +34,38 @@ public class CookieSession extends AbstractSession {
 
   private static final Charset UTF8 = StandardCharsets.UTF_8;
 
-  private final Mac mac;
+  private final Signature signature;
+  // when present the session is encrypted instead of signed
+  private final CookieSessionCipher cipher;
+  private final VertxContextPRNG prng;
   // track the original version
   private int oldVersion = 0;
   // track the original crc
   private int oldCrc = 0;
+  // the last sealed value and its plain bytes, the IV is random so the same data must not be sealed again
+  private byte[] sealedPlain;
+  private String sealedValue;
 
-  public CookieSession(Mac mac, VertxContextPRNG prng, long timeout, int length) {
+  public CookieSession(Signature signature, VertxContextPRNG prng, long timeout, int length) {
+    this(signature, null, prng, timeout, length);
+  }
+
+  public CookieSession(Signature signature, VertxContextPRNG prng) {
+    this(signature, null, prng);
+  }
+
+  CookieSession(Signature signature, CookieSessionCipher cipher, VertxContextPRNG prng, long timeout, int length) {
     super(prng, timeout, length);
-    this.mac = mac;
+    this.signature = signature;
+    this.cipher = cipher;
+    this.prng = prng;
   }
 
-  public CookieSession(Mac mac, VertxContextPRNG prng) {
+  CookieSession(Signature signature, CookieSessionCipher cipher, VertxContextPRNG prng) {
     super(prng);
-    this.mac = mac;
+    this.signature = signature;
+    this.cipher = cipher;
+    this.prng = prng;
   }
 
   @Override
@@ -61,10 +80,17 @@ public class CookieSession extends AbstractSession {
     buff.appendInt(version());
     writeDataToBuffer(buff);
 
-    String b64 = base64UrlEncode(buff.getBytes());
-    String signature = base64UrlEncode(mac.doFinal(b64.getBytes(StandardCharsets.US_ASCII)));
+    if (cipher != null) {
+      byte[] plain = buff.getBytes();
+      if (!Arrays.equals(plain, sealedPlain)) {
+        // the AEAD tag authenticates the payload, no extra signature is required
+        sealedValue = base64UrlEncode(cipher.seal(prng, plain));
+        sealedPlain = plain;
+      }
+      return sealedValue;
+    }
 
-    return b64 + "." + signature;
+    return signature.sign(base64UrlEncode(buff.getBytes()));
   }
 
   @Override
@@ -84,21 +110,38 @@ public class CookieSession extends AbstractSession {
       throw new NullPointerException();
     }
 
-    String[] tokens = payload.split("\\.");
-    if (tokens.length != 2) {
-      // no signature present, force a regeneration
-      // by claiming this session as invalid
-      return null;
+    final Buffer buffer;
+
+    if (cipher != null) {
+      final byte[] plain;
+      try {
+        plain = cipher.open(base64UrlDecode(payload));
+      } catch (IllegalArgumentException e) {
+        // not base64url, e.g.: a signed session from before encryption was enabled
+        return null;
+      }
+      if (plain == null) {
+        // unknown format, force a regeneration
+        return null;
+      }
+      buffer = Buffer.buffer(plain);
+      sealedPlain = plain;
+      sealedValue = payload;
+    } else {
+      final int separator = payload.indexOf('.');
+      if (separator == -1 || separator != payload.lastIndexOf('.')) {
+        // no signature present, force a regeneration
+        // by claiming this session as invalid
+        return null;
+      }
+
+      if (!signature.verify(payload)) {
+        throw new RuntimeException("Session data was Tampered!");
+      }
+
+      buffer = Buffer.buffer(base64UrlDecode(payload.substring(0, separator)));
     }
 
-    String signature = base64UrlEncode(mac.doFinal(tokens[0].getBytes(StandardCharsets.US_ASCII)));
-
-    if(!signature.equals(tokens[1])) {
-      throw new RuntimeException("Session data was Tampered!");
-    }
-
-    final Buffer buffer = Buffer.buffer(base64UrlDecode(tokens[0]));
-
     // reconstruct the session
     int pos = 0;
     int len = buffer.getInt(0);
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.sstore.cookie.impl;
+
+import io.vertx.ext.auth.VertxContextPRNG;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Authenticated encryption (AES-GCM) of serialized cookie sessions, with optional deflate compression.
+ *
+ * The sealed format is:
+ *
+ * <pre>
+ *   version (1 byte) | flags (1 byte) | iv (12 bytes) | ciphertext + tag
+ * </pre>
+ *
+ * The version and flags are authenticated as additional data, so they cannot be altered either. The AES key is derived
+ * from the store secret with HMAC-SHA256, so a single secret is still all that needs to be configured.
+ */
+class CookieSessionCipher {
+
+  private static final byte VERSION = 1;
+  private static final byte FLAG_DEFLATE = 1;
+
+  private static final int IV_LENGTH = 12;
+  private static final int TAG_BITS = 128;
+  private static final int HEADER_LENGTH = 2 + IV_LENGTH;
+
+  // payloads below this size rarely benefit from compression
+  private static final int MIN_DEFLATE_LENGTH = 64;
+  // upper bound of an inflated session, larger payloads are rejected
+  private static final int MAX_INFLATED_LENGTH = 1024 * 1024;
+
+  private final SecretKeySpec key;
+  private final boolean compress;
+  private final ThreadLocal<Cipher> cipher;
+
+  CookieSessionCipher(String secret, boolean compress) {
+    this.key = new SecretKeySpec(deriveKey(secret), "AES");
+    this.compress = compress;
+    this.cipher = ThreadLocal.withInitial(() -> {
+      try {
+        return Cipher.getInstance("AES/GCM/NoPadding");
+      } catch (GeneralSecurityException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+  }
+
+  byte[] seal(VertxContextPRNG prng, byte[] plain) {
+    byte flags = 0;
+    byte[] payload = plain;
+
+    if (compress && plain.length >= MIN_DEFLATE_LENGTH) {
+      byte[] deflated = deflate(plain);
+      // only keep the compressed form if it is actually smaller
+      if (deflated.length < plain.length) {
+        payload = deflated;
+        flags |= FLAG_DEFLATE;
+      }
+    }
+
+    final byte[] iv = new byte[IV_LENGTH];
+    prng.nextBytes(iv);
+
+    try {
+      final Cipher cipher = this.cipher.get();
+      cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+      final byte[] sealed = new byte[HEADER_LENGTH + cipher.getOutputSize(payload.length)];
+      sealed[0] = VERSION;
+      sealed[1] = flags;
+      System.arraycopy(iv, 0, sealed, 2, IV_LENGTH);
+      cipher.updateAAD(sealed, 0, 2);
+      cipher.doFinal(payload, 0, payload.length, sealed, HEADER_LENGTH);
+      return sealed;
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Decrypts a sealed payload.
+   *
+   * @return the plain session bytes or {@code null} if the payload is not in a known format.
+   * @throws RuntimeException if the payload was tampered.
+   */
+  byte[] open(byte[] sealed) {
+    if (sealed.length <= HEADER_LENGTH || sealed[0] != VERSION) {
+      return null;
+    }
+
+    final byte[] payload;
+    try {
+      final Cipher cipher = this.cipher.get();
+      cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, sealed, 2, IV_LENGTH));
+      cipher.updateAAD(sealed, 0, 2);
+      payload = cipher.doFinal(sealed, HEADER_LENGTH, sealed.length - HEADER_LENGTH);
+    } catch (GeneralSecurityException e) {
+      throw new RuntimeException("Session data was Tampered!", e);
+    }
+
+    if ((sealed[1] & FLAG_DEFLATE) != 0) {
+      return inflate(payload);
+    }
+    return payload;
+  }
+
+  private static byte[] deflate(byte[] data) {
+    final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(data);
+      deflater.finish();
+      final ByteArrayOutputStream out = new ByteArrayOutputStream(data.length);
+      final byte[] chunk = new byte[1024];
+      while (!deflater.finished()) {
+        int len = deflater.deflate(chunk);
+        out.write(chunk, 0, len);
+      }
+      return out.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private static byte[] inflate(byte[] data) {
+    final Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(data);
+      final ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 2);
+      final byte[] chunk = new byte[1024];
+      while (!inflater.finished()) {
+        int len = inflater.inflate(chunk);
+        if (len == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new IllegalStateException("Truncated session data");
+        }
+        out.write(chunk, 0, len);
+        if (out.size() > MAX_INFLATED_LENGTH) {
+          throw new IllegalStateException("Session data is too large");
+        }
+      }
+      return out.toByteArray();
+    } catch (DataFormatException e) {
+      throw new IllegalStateException(e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private static byte[] deriveKey(String secret) {
+    try {
+      final Mac mac = Mac.getInstance("HmacSHA256");
+      mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+      return mac.doFinal("vertx-web.cookie-session.aes-gcm".getBytes(StandardCharsets.US_ASCII));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
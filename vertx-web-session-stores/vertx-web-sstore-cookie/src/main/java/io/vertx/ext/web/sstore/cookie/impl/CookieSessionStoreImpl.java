@@ -22,15 +22,10 @@ import io.vertx.core.impl.ContextInternal;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.VertxContextPRNG;
 import io.vertx.ext.web.Session;
+import io.vertx.ext.web.impl.Signature;
 import io.vertx.ext.web.sstore.SessionStore;
 import io.vertx.ext.web.sstore.cookie.CookieSessionStore;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-import java.nio.charset.StandardCharsets;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
-
 /**
  * @author <a href="mailto:plopes@redhat.com">Paulo Lopes</a>
  */
@@ -44,7 +39,12 @@ public class CookieSessionStoreImpl implements CookieSessionStore {
     init(vertx, new JsonObject().put("secret", secret));
   }
 
-  private Mac mac;
+  public CookieSessionStoreImpl(Vertx vertx, String secret, boolean encrypt, boolean compress) {
+    init(vertx, new JsonObject().put("secret", secret).put("encrypt", encrypt).put("compress", compress));
+  }
+
+  private Signature signature;
+  private CookieSessionCipher cipher;
   private VertxContextPRNG random;
   private ContextInternal ctx;
 
@@ -54,11 +54,10 @@ public class CookieSessionStoreImpl implements CookieSessionStore {
     this.random = VertxContextPRNG.current(vertx);
     this.ctx = (ContextInternal) vertx.getOrCreateContext();
 
-    try {
-      mac = Mac.getInstance("HmacSHA256");
-      mac.init(new SecretKeySpec(options.getString("secret").getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
-    } catch (NoSuchAlgorithmException | InvalidKeyException e) {
-      throw new RuntimeException(e);
+    // HMAC-SHA256 signer, thread confined so event loops do not contend on a shared Mac
+    this.signature = new Signature(options.getString("secret"));
+    if (options.getBoolean("encrypt", false)) {
+      this.cipher = new CookieSessionCipher(options.getString("secret"), options.getBoolean("compress", false));
     }
 
     return this;
@@ -71,18 +70,18 @@ public class CookieSessionStoreImpl implements CookieSessionStore {
 
   @Override
   public Session createSession(long timeout) {
-    return new CookieSession(mac, random, timeout, DEFAULT_SESSIONID_LENGTH);
+    return new CookieSession(signature, cipher, random, timeout, DEFAULT_SESSIONID_LENGTH);
   }
 
   @Override
   public Session createSession(long timeout, int length) {
-    return new CookieSession(mac, random, timeout, length);
+    return new CookieSession(signature, cipher, random, timeout, length);
   }
 
   @Override
   public Future<@Nullable Session> get(String cookieValue) {
     try {
-      Session session = new CookieSession(mac, random).setValue(cookieValue);
+      Session session = new CookieSession(signature, cipher, random).setValue(cookieValue);
 
       if (session == null) {
         return ctx.succeededFuture();
@@ -122,6 +121,12 @@ public class CookieSessionStoreImpl implements CookieSessionStore {
     return ctx.succeededFuture();
   }
 
+  @Override
+  public Future<Void> touch(String id, long timeout) {
+    // the whole state lives in the cookie, there is no server side expiration to extend
+    return ctx.succeededFuture();
+  }
+
   @Override
   public Future<Void> clear() {
     return ctx.succeededFuture();
@@ -23,7 +23,9 @@ import io.vertx.ext.web.handler.SessionHandlerTestBase;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 /**
  * @author <a href="mailto:plopes@redhat.com">Paulo Lopes</a>
@@ -113,4 +115,31 @@ public class CookieSessionHandlerTest extends SessionHandlerTestBase {
     super.testSessionExpires();
   }
 
+  @Test
+  public void testLargeSessionIsSplitAcrossCookies() throws Exception {
+    // random data does not compress, so it must be split (while staying below the max header size)
+    byte[] data = new byte[4096];
+    new Random().nextBytes(data);
+
+    router.route().handler(SessionHandler.create(store));
+    router.route("/0").handler(rc -> {
+      rc.session().put("data", data);
+      rc.response().end();
+    });
+    router.route("/1").handler(rc -> {
+      assertArrayEquals(data, rc.session().get("data"));
+      rc.response().end();
+    });
+
+    AtomicReference<String> cookies = new AtomicReference<>();
+    testRequest(HttpMethod.GET, "/0", null, resp -> {
+      assertTrue(resp.cookies().size() > 1);
+      cookies.set(resp.cookies()
+        .stream()
+        .map(setCookie -> setCookie.substring(0, setCookie.indexOf(';')))
+        .collect(Collectors.joining("; ")));
+    }, 200, "OK", null);
+
+    testRequest(HttpMethod.GET, "/1", req -> req.putHeader("cookie", cookies.get()), null, 200, "OK", null);
+  }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.sstore.cookie;
+
+import io.vertx.ext.web.Session;
+import org.junit.Test;
+
+public class EncryptedCookieSessionHandlerTest extends CookieSessionHandlerTest {
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    store = CookieSessionStore.create(vertx, "KeyboardCat!", true);
+  }
+
+  @Test
+  public void testCompressedValueIsSmaller() {
+    store = CookieSessionStore.create(vertx, "KeyboardCat!", true, true);
+    Session encrypted = store.createSession(30_000);
+    Session signed = CookieSessionStore.create(vertx, "KeyboardCat!").createSession(30_000);
+    for (int i = 0; i < 100; i++) {
+      encrypted.put("key" + i, "some repetitive value");
+      signed.put("key" + i, "some repetitive value");
+    }
+
+    String value = encrypted.value();
+    assertTrue(value.length() < signed.value().length());
+
+    store.get(value).onComplete(onSuccess(session -> {
+      assertEquals("some repetitive value", session.get("key99"));
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testNotCompressedByDefault() {
+    Session compressed = CookieSessionStore.create(vertx, "KeyboardCat!", true, true).createSession(30_000);
+    Session encrypted = store.createSession(30_000);
+    for (int i = 0; i < 100; i++) {
+      compressed.put("key" + i, "some repetitive value");
+      encrypted.put("key" + i, "some repetitive value");
+    }
+    // the length of the cookie must not depend on how well the session data compresses
+    assertTrue(compressed.value().length() < encrypted.value().length());
+  }
+
+  @Test
+  public void testTamperedValueIsRejected() {
+    Session session = store.createSession(30_000);
+    session.put("admin", false);
+    String value = session.value();
+    int pos = value.length() / 2;
+    String tampered = value.substring(0, pos) + (value.charAt(pos) == 'A' ? 'B' : 'A') + value.substring(pos + 1);
+
+    store.get(tampered).onComplete(get -> {
+      assertTrue(get.failed());
+      testComplete();
+    });
+    await();
+  }
+}
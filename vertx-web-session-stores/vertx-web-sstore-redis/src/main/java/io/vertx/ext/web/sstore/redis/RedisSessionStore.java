@@ -26,6 +26,10 @@ import io.vertx.redis.client.Redis;
  * This assumes that the redis logical database (i.e. select) is only used
  * to store the sessions to make size query reliable.
  *
+ * When created with the {@code indexBySubject} option, the ids of the sessions of each user are also kept in a set
+ * (one key per user) so all sessions of a user can be deleted without scanning the database. These keys are counted
+ * by {@link #size()}.
+ *
  * @author <a href="https://github.com/llfbandit">Rémy Noël</a>
  */
 @VertxGen
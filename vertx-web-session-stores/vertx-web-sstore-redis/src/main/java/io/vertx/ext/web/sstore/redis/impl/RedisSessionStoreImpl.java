@@ -30,17 +30,39 @@ import io.vertx.ext.web.sstore.redis.RedisSessionStore;
 import io.vertx.redis.client.Redis;
 import io.vertx.redis.client.RedisOptions;
 import io.vertx.redis.client.Request;
+import io.vertx.redis.client.Response;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import static io.vertx.redis.client.Command.*;
 import static io.vertx.redis.client.Request.cmd;
 
 /**
+ * The commands involving several keys, a session and its subject index or several sessions, are split by hash slot
+ * so they can be served by a Redis Cluster, the keys of a command or a batch must belong to the same slot.
+ *
  * @author <a href="https://github.com/llfbandit">Rémy Noël</a>
  */
 public class RedisSessionStoreImpl implements RedisSessionStore {
+
+  /**
+   * Prefix of the sets holding the session ids of a user, when indexing by subject
+   */
+  private static final String SUBJECT_INDEX_PREFIX = "vertx-web.sessions.subject:";
+
+  /**
+   * Number of hash slots of a Redis Cluster
+   */
+  private static final int SLOTS = 16384;
+
   private Redis redis;
+  private boolean indexBySubject;
   private VertxContextPRNG random;
   private long retryTimeout;
   private ContextInternal ctx;
@@ -54,6 +76,7 @@ public class RedisSessionStoreImpl implements RedisSessionStore {
     Objects.requireNonNull(options, "options are required");
     long timeout = options.getLong("retryTimeout", RedisSessionStore.DEFAULT_RETRY_TIMEOUT_MS);
     Redis redis = Redis.createClient(vertx, new RedisOptions(options));
+    indexBySubject = options.getBoolean("indexBySubject", false);
     return init(vertx, timeout, redis);
   }
 
@@ -88,8 +111,9 @@ public class RedisSessionStoreImpl implements RedisSessionStore {
           SharedDataSessionImpl session = new SharedDataSessionImpl(random);
           session.readFromBuffer(0, response.toBuffer());
           // postpone expiration time, this cannot be done in a single frame with GET cmd
-          return redis
-            .send(cmd(PEXPIRE).arg(id).arg(session.timeout()))
+          final Map<Integer, List<Request>> expires = new LinkedHashMap<>();
+          addExpireRequests(expires, session, session.timeout());
+          return send(expires)
             .map(session);
         } else {
           return ctx.succeededFuture();
@@ -123,17 +147,242 @@ public class RedisSessionStoreImpl implements RedisSessionStore {
     });
   }
 
+  @Override
+  public Future<List<Session>> getAll(List<String> ids) {
+    if (ids.isEmpty()) {
+      return ctx.succeededFuture(new ArrayList<>());
+    }
+    return mget(ids)
+      .compose(response -> {
+        final List<Session> sessions = new ArrayList<>(ids.size());
+        final Map<Integer, List<Request>> expires = new LinkedHashMap<>();
+        for (Response item : response) {
+          if (item != null) {
+            SharedDataSessionImpl session = new SharedDataSessionImpl(random);
+            session.readFromBuffer(0, item.toBuffer());
+            sessions.add(session);
+            // postpone expiration time, just like a single get
+            addExpireRequests(expires, session, session.timeout());
+          }
+        }
+        return send(expires)
+          .map(sessions);
+      });
+  }
+
+  @Override
+  public Future<Void> putAll(List<Session> sessions) {
+    if (sessions.isEmpty()) {
+      return ctx.succeededFuture();
+    }
+    final List<String> ids = new ArrayList<>(sessions.size());
+    sessions.forEach(session -> ids.add(session.id()));
+    return mget(ids)
+      .compose(response -> {
+        // validate all versions before changing anything
+        for (int i = 0; i < sessions.size(); i++) {
+          Response old = response.get(i);
+          if (old != null) {
+            SharedDataSessionImpl oldSession = new SharedDataSessionImpl(random);
+            oldSession.readFromBuffer(0, old.toBuffer());
+            if (oldSession.version() != ((AbstractSession) sessions.get(i)).version()) {
+              return Future.failedFuture("Session version mismatch");
+            }
+          }
+        }
+        // the writes of a slot are pipelined
+        final Map<Integer, List<Request>> writes = new LinkedHashMap<>();
+        for (Session session : sessions) {
+          ((AbstractSession) session).incrementVersion();
+          addWriteRequests(writes, session);
+        }
+        return send(writes);
+      });
+  }
+
+  @Override
+  public Future<Void> deleteAll(List<String> ids) {
+    if (ids.isEmpty()) {
+      return ctx.succeededFuture();
+    }
+    final Map<Integer, Request> dels = new LinkedHashMap<>();
+    for (String id : ids) {
+      dels.computeIfAbsent(slot(id), slot -> cmd(DEL)).arg(id);
+    }
+    final List<Future<Response>> futures = new ArrayList<>(dels.size());
+    dels.values().forEach(del -> futures.add(redis.send(del)));
+    return Future.all(futures)
+      .mapEmpty();
+  }
+
+  @Override
+  public Future<List<String>> idsBySubject(String subject) {
+    if (!indexBySubject) {
+      return Future.failedFuture(new UnsupportedOperationException("Session store is not indexing sessions by subject (see: indexBySubject)"));
+    }
+    final String key = SUBJECT_INDEX_PREFIX + subject;
+    return redis.send(cmd(SMEMBERS).arg(key))
+      .compose(index -> {
+        if (index == null || index.size() == 0) {
+          return ctx.succeededFuture(new ArrayList<>());
+        }
+        final List<String> members = new ArrayList<>(index.size());
+        index.forEach(member -> members.add(member.toString()));
+        return mget(members)
+          .compose(response -> {
+            final List<String> ids = new ArrayList<>(members.size());
+            final Request srem = cmd(SREM).arg(key);
+            boolean stale = false;
+            for (int i = 0; i < members.size(); i++) {
+              final String id = members.get(i);
+              final Response item = response.get(i);
+              if (item != null) {
+                SharedDataSessionImpl session = new SharedDataSessionImpl(random);
+                session.readFromBuffer(0, item.toBuffer());
+                // the session may now belong to another user
+                if (subject.equals(session.subject())) {
+                  ids.add(id);
+                  continue;
+                }
+              }
+              srem.arg(id);
+              stale = true;
+            }
+            if (!stale) {
+              return ctx.succeededFuture(ids);
+            }
+            // prune expired or reassigned sessions from the index
+            return redis.send(srem)
+              .map(ids);
+          });
+      });
+  }
+
   private Future<Void> writeSession(Session session) {
+    final Map<Integer, List<Request>> requests = new LinkedHashMap<>();
+    addWriteRequests(requests, session);
+    return send(requests);
+  }
+
+  private void addWriteRequests(Map<Integer, List<Request>> requests, Session session) {
     Buffer buffer = Buffer.buffer();
     SharedDataSessionImpl sessionImpl = (SharedDataSessionImpl) session;
     sessionImpl.writeToBuffer(buffer);
 
     // submit with all session data & expiration TO in ms
-    Request rq = cmd(SET)
+    add(requests, session.id(), cmd(SET)
       .arg(session.id()).arg(buffer)
-      .arg("PX").arg(session.timeout());
+      .arg("PX").arg(session.timeout()));
+
+    if (indexBySubject) {
+      final String subject = sessionImpl.subject();
+      if (subject != null) {
+        // the index lives as long as the most recently written session of the user
+        final String key = SUBJECT_INDEX_PREFIX + subject;
+        add(requests, key, cmd(SADD).arg(key).arg(session.id()));
+        add(requests, key, cmd(PEXPIRE).arg(key).arg(session.timeout()));
+      }
+    }
+  }
+
+  private void addExpireRequests(Map<Integer, List<Request>> requests, SharedDataSessionImpl session, long timeout) {
+    add(requests, session.id(), cmd(PEXPIRE).arg(session.id()).arg(timeout));
+    if (indexBySubject) {
+      final String subject = session.subject();
+      if (subject != null) {
+        // keep the index alive as long as the session, otherwise revoking the user would miss it
+        final String key = SUBJECT_INDEX_PREFIX + subject;
+        add(requests, key, cmd(PEXPIRE).arg(key).arg(timeout));
+      }
+    }
+  }
+
+  private static void add(Map<Integer, List<Request>> requests, String key, Request request) {
+    requests.computeIfAbsent(slot(key), slot -> new ArrayList<>(2)).add(request);
+  }
+
+  /**
+   * Sends the requests of each slot in a single batch, the slots are sent concurrently.
+   */
+  private Future<Void> send(Map<Integer, List<Request>> requests) {
+    if (requests.isEmpty()) {
+      return ctx.succeededFuture();
+    }
+    final List<Future<?>> futures = new ArrayList<>(requests.size());
+    for (List<Request> batch : requests.values()) {
+      futures.add(batch.size() == 1 ? redis.send(batch.get(0)) : redis.batch(batch));
+    }
+    return Future.all(futures)
+      .mapEmpty();
+  }
+
+  /**
+   * Reads the given keys with a {@code MGET} per slot.
+   *
+   * @return the values, or {@code null} for missing keys, in the order of the keys
+   */
+  private Future<List<Response>> mget(List<String> keys) {
+    final Map<Integer, List<Integer>> positions = new LinkedHashMap<>();
+    for (int i = 0; i < keys.size(); i++) {
+      positions.computeIfAbsent(slot(keys.get(i)), slot -> new ArrayList<>()).add(i);
+    }
+    final List<List<Integer>> groups = new ArrayList<>(positions.values());
+    final List<Future<Response>> futures = new ArrayList<>(groups.size());
+    for (List<Integer> group : groups) {
+      final Request mget = cmd(MGET);
+      group.forEach(i -> mget.arg(keys.get(i)));
+      futures.add(redis.send(mget));
+    }
+    return Future.all(futures)
+      .map(all -> {
+        final Response[] values = new Response[keys.size()];
+        for (int g = 0; g < groups.size(); g++) {
+          final List<Integer> group = groups.get(g);
+          final Response response = all.resultAt(g);
+          for (int i = 0; i < group.size(); i++) {
+            values[group.get(i)] = response.get(i);
+          }
+        }
+        return Arrays.asList(values);
+      });
+  }
 
-    return redis.send(rq)
+  /**
+   * The Redis Cluster hash slot of a key, CRC16 (XMODEM) of the key or of its hash tag.
+   */
+  static int slot(String key) {
+    final byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+    int start = 0;
+    int end = bytes.length;
+    for (int i = 0; i < bytes.length; i++) {
+      if (bytes[i] == '{') {
+        for (int j = i + 1; j < bytes.length; j++) {
+          if (bytes[j] == '}') {
+            if (j > i + 1) {
+              start = i + 1;
+              end = j;
+            }
+            break;
+          }
+        }
+        break;
+      }
+    }
+    int crc = 0;
+    for (int i = start; i < end; i++) {
+      crc ^= (bytes[i] & 0xFF) << 8;
+      for (int k = 0; k < 8; k++) {
+        crc = (crc & 0x8000) != 0 ? (crc << 1) ^ 0x1021 : crc << 1;
+      }
+    }
+    return (crc & 0xFFFF) % SLOTS;
+  }
+
+  @Override
+  public Future<Void> touch(String id, long timeout) {
+    // only postpone the expiration time, the payload is left untouched. Sessions holding a user are written instead
+    // of touched, so their subject index is postponed by the write
+    return redis.send(cmd(PEXPIRE).arg(id).arg(timeout))
       .mapEmpty();
   }
 
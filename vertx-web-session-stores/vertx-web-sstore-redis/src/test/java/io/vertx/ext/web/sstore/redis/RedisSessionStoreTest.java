@@ -1,6 +1,11 @@
 package io.vertx.ext.web.sstore.redis;
 
 import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.ClusterSerializable;
+import io.vertx.ext.auth.User;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.RunTestOnContext;
@@ -10,10 +15,17 @@ import io.vertx.redis.client.RedisOptions;
 import org.junit.*;
 
 import io.vertx.ext.web.Session;
+import io.vertx.ext.web.handler.impl.SessionHandlerImpl;
+import io.vertx.ext.web.handler.impl.UserHolder;
 import io.vertx.ext.web.sstore.SessionStore;
+import io.vertx.ext.web.sstore.redis.impl.RedisSessionStoreImpl;
 import org.junit.runner.RunWith;
 import org.testcontainers.containers.GenericContainer;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
 /**
  * @author <a href="https://github.com/llfbandit">Rémy Noël</a>
  */
@@ -159,4 +171,145 @@ public class RedisSessionStoreTest {
       test.complete();
     });
   }
+
+  @Test(timeout = 10_000)
+  public void testPutAllGetAll(TestContext should) {
+    final Async test = should.async();
+
+    Session s1 = store.createSession(30_000);
+    s1.put("n", 1);
+    Session s2 = store.createSession(30_000);
+    s2.put("n", 2);
+
+    store.putAll(Arrays.asList(s1, s2))
+      .compose(v -> store.getAll(Arrays.asList(s1.id(), "missing", s2.id())))
+      .onComplete(should.asyncAssertSuccess(sessions -> {
+        // missing sessions are skipped, the order of the ids is kept
+        should.assertEquals(2, sessions.size());
+        should.assertEquals(s1.id(), sessions.get(0).id());
+        should.assertEquals(1, (Integer) sessions.get(0).get("n"));
+        should.assertEquals(s2.id(), sessions.get(1).id());
+        should.assertEquals(2, (Integer) sessions.get(1).get("n"));
+        test.complete();
+      }));
+  }
+
+  @Test(timeout = 10_000)
+  public void testPutAllVersionMismatch(TestContext should) {
+    final Async test = should.async();
+
+    Session s1 = store.createSession(30_000);
+    s1.put("n", 1);
+    Session s2 = store.createSession(30_000);
+    s2.put("n", 2);
+
+    store.putAll(Arrays.asList(s1, s2))
+      .compose(v -> store.get(s1.id()))
+      .compose(stale -> {
+        // another writer updates the session first
+        s1.put("n", 3);
+        return store.put(s1)
+          .compose(v -> {
+            stale.put("n", 4);
+            s2.put("n", 5);
+            return store.putAll(Arrays.asList(stale, s2));
+          });
+      })
+      .onComplete(should.asyncAssertFailure(err -> store.get(s2.id())
+        .onComplete(should.asyncAssertSuccess(current -> {
+          // nothing is written when one of the versions does not match
+          should.assertEquals(2, (Integer) current.get("n"));
+          test.complete();
+        }))));
+  }
+
+  @Test(timeout = 10_000)
+  public void testDeleteBySubject(TestContext should) {
+    final Async test = should.async();
+    final SessionStore indexed = indexedStore();
+
+    Session s1 = indexed.createSession(30_000);
+    s1.put(SessionHandlerImpl.SESSION_USER_HOLDER_KEY, userHolder("paulo"));
+    Session s2 = indexed.createSession(30_000);
+    s2.put(SessionHandlerImpl.SESSION_USER_HOLDER_KEY, userHolder("paulo"));
+    Session other = indexed.createSession(30_000);
+    other.put(SessionHandlerImpl.SESSION_USER_HOLDER_KEY, userHolder("julien"));
+
+    indexed.putAll(Arrays.asList(s1, s2, other))
+      .compose(v -> indexed.idsBySubject("paulo"))
+      .compose(ids -> {
+        should.assertEquals(2, ids.size());
+        should.assertTrue(ids.contains(s1.id()));
+        should.assertTrue(ids.contains(s2.id()));
+        return indexed.deleteBySubject("paulo");
+      })
+      .compose(v -> indexed.getAll(Arrays.asList(s1.id(), s2.id(), other.id())))
+      .onComplete(should.asyncAssertSuccess(sessions -> {
+        should.assertEquals(1, sessions.size());
+        should.assertEquals(other.id(), sessions.get(0).id());
+        test.complete();
+      }));
+  }
+
+  @Test(timeout = 10_000)
+  public void testIdsBySubjectPrunesStaleIds(TestContext should) {
+    final Async test = should.async();
+    final SessionStore indexed = indexedStore();
+
+    Session s1 = indexed.createSession(30_000);
+    s1.put(SessionHandlerImpl.SESSION_USER_HOLDER_KEY, userHolder("paulo"));
+    Session s2 = indexed.createSession(30_000);
+    s2.put(SessionHandlerImpl.SESSION_USER_HOLDER_KEY, userHolder("paulo"));
+
+    indexed.putAll(Arrays.asList(s1, s2))
+      .compose(v -> indexed.delete(s1.id()))
+      .compose(v -> indexed.idsBySubject("paulo"))
+      .onComplete(should.asyncAssertSuccess(ids -> {
+        should.assertEquals(Collections.singletonList(s2.id()), ids);
+        test.complete();
+      }));
+  }
+
+  @Test(timeout = 10_000)
+  public void testTouchPostponesExpiration(TestContext should) {
+    final Async test = should.async();
+
+    // the session is written with a short lifetime
+    Session session = store.createSession(300);
+    session.put("n", 1);
+
+    store.put(session)
+      .compose(v -> store.touch(session.id(), 30_000))
+      .compose(v -> {
+        Promise<Void> promise = Promise.promise();
+        rule.vertx().setTimer(600, t -> promise.complete());
+        return promise.future();
+      })
+      .compose(v -> store.get(session.id()))
+      .onComplete(should.asyncAssertSuccess(touched -> {
+        should.assertNotNull(touched);
+        should.assertEquals(1, (Integer) touched.get("n"));
+        test.complete();
+      }));
+  }
+
+  private SessionStore indexedStore() {
+    return new RedisSessionStoreImpl().init(rule.vertx(), new JsonObject()
+      .put("connectionString", "redis://" + container.getHost() + ":" + container.getMappedPort(6379))
+      .put("indexBySubject", true));
+  }
+
+  private static UserHolder userHolder(String subject) {
+    // the holder is restored the way a store reads it back
+    final User user = User.fromName(subject);
+    final byte[] className = user.getClass().getName().getBytes(StandardCharsets.UTF_8);
+    final Buffer buffer = Buffer.buffer()
+      .appendByte((byte) 1)
+      .appendInt(className.length)
+      .appendBytes(className);
+    ((ClusterSerializable) user).writeToBuffer(buffer);
+    final UserHolder holder = new UserHolder();
+    holder.readFromBuffer(0, buffer);
+    return holder;
+  }
 }
@@ -20,6 +20,11 @@ public class SockJSBridgeOptionsConverter {
   public static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, SockJSBridgeOptions obj) {
     for (java.util.Map.Entry<String, Object> member : json) {
       switch (member.getKey()) {
+        case "backpressurePolicy":
+          if (member.getValue() instanceof String) {
+            obj.setBackpressurePolicy(io.vertx.ext.web.handler.sockjs.BackpressurePolicy.valueOf((String)member.getValue()));
+          }
+          break;
         case "maxAddressLength":
           if (member.getValue() instanceof Number) {
             obj.setMaxAddressLength(((Number)member.getValue()).intValue());
@@ -30,6 +35,16 @@ public class SockJSBridgeOptionsConverter {
             obj.setMaxHandlersPerSocket(((Number)member.getValue()).intValue());
           }
           break;
+        case "maxPendingMessages":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxPendingMessages(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "maxPendingReplies":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxPendingReplies(((Number)member.getValue()).intValue());
+          }
+          break;
         case "pingTimeout":
           if (member.getValue() instanceof Number) {
             obj.setPingTimeout(((Number)member.getValue()).longValue());
@@ -49,8 +64,13 @@ public class SockJSBridgeOptionsConverter {
   }
 
   public static void toJson(SockJSBridgeOptions obj, java.util.Map<String, Object> json) {
+    if (obj.getBackpressurePolicy() != null) {
+      json.put("backpressurePolicy", obj.getBackpressurePolicy().name());
+    }
     json.put("maxAddressLength", obj.getMaxAddressLength());
     json.put("maxHandlersPerSocket", obj.getMaxHandlersPerSocket());
+    json.put("maxPendingMessages", obj.getMaxPendingMessages());
+    json.put("maxPendingReplies", obj.getMaxPendingReplies());
     json.put("pingTimeout", obj.getPingTimeout());
     json.put("replyTimeout", obj.getReplyTimeout());
   }
@@ -24,6 +24,7 @@ import io.vertx.ext.auth.User;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.Session;
 import io.vertx.ext.web.handler.impl.SessionHandlerImpl;
+import io.vertx.ext.web.sstore.ClusteredSessionStore;
 import io.vertx.ext.web.sstore.SessionStore;
 
 /**
@@ -195,6 +196,21 @@ public interface SessionHandler extends PlatformHandler {
   @Fluent
   SessionHandler setCookieMaxAge(long cookieMaxAge);
 
+  /**
+   * Set the minimum interval between two touches of the same session. When a session is accessed but its data did not
+   * change, the handler only asks the store to extend its lifetime (see {@link SessionStore#touch(String, long)})
+   * instead of writing it back. With a positive interval, touches for the same session id happening within the
+   * interval are skipped, so a burst of requests results in at most one store operation.
+   * <p>
+   * Sessions holding a user, whose state can change in place, and sessions of a {@link ClusteredSessionStore}, which
+   * rely on the versioned write to detect concurrent updates, are always written back.
+   *
+   * @param touchInterval the interval in ms, {@code 0} (the default) touches the session on every request.
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  SessionHandler setTouchInterval(long touchInterval);
+
   /**
    * Flush a context session earlier to the store, this will allow the end user to have full control on the event of
    * a failure at the store level. Once a session is flushed no automatic save will be performed at end of request.
@@ -27,12 +27,16 @@ import io.vertx.ext.auth.User;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.Session;
 import io.vertx.ext.web.handler.SessionHandler;
+import io.vertx.ext.web.impl.LRUCache;
 import io.vertx.ext.web.impl.RoutingContextInternal;
 import io.vertx.ext.web.impl.Signature;
 import io.vertx.ext.web.impl.UserContextInternal;
+import io.vertx.ext.web.sstore.ClusteredSessionStore;
 import io.vertx.ext.web.sstore.SessionStore;
 import io.vertx.ext.web.sstore.impl.SessionInternal;
+import io.vertx.ext.web.sstore.impl.SubjectHolder;
 
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -40,9 +44,21 @@ import java.util.Objects;
  */
 public class SessionHandlerImpl implements SessionHandler {
 
-  public static final String SESSION_USER_HOLDER_KEY = "__vertx.userHolder";
+  public static final String SESSION_USER_HOLDER_KEY = SubjectHolder.SESSION_KEY;
   public static final String SESSION_FLUSHED_KEY = "__vertx.session-flushed";
   public static final String SESSION_STOREUSER_KEY = "__vertx.session-storeuser";
+  public static final String SESSION_LOADED_KEY = "__vertx.session-loaded";
+
+  /**
+   * Upper bound of tracked touch timestamps, the least recently touched sessions are evicted first
+   */
+  private static final int MAX_TRACKED_TOUCHES = 10_000;
+
+  /**
+   * Maximum length of a session cookie value, longer values are split across numbered cookies
+   * (name, name.1, name.2, ...) to stay below the 4096 bytes per cookie browsers guarantee
+   */
+  private static final int MAX_COOKIE_VALUE_LENGTH = 3800;
 
   private static final Logger LOG = LoggerFactory.getLogger(SessionHandlerImpl.class);
 
@@ -57,11 +73,15 @@ public class SessionHandlerImpl implements SessionHandler {
   private int minLength = DEFAULT_SESSIONID_MIN_LENGTH;
   private boolean lazySession = DEFAULT_LAZY_SESSION;
   private long cookieMaxAge = -1;
+  private long touchInterval = 0;
 
   private boolean cookieless;
   private CookieSameSite cookieSameSite;
   private Signature signature;
 
+  // last time a session was touched, used to coalesce touches
+  private final Map<String, Long> touches = new LRUCache<>(16, 0.75f, true, MAX_TRACKED_TOUCHES);
+
   public SessionHandlerImpl(SessionStore sessionStore) {
     this.sessionStore = sessionStore;
   }
@@ -126,6 +146,12 @@ public class SessionHandlerImpl implements SessionHandler {
     return this;
   }
 
+  @Override
+  public SessionHandler setTouchInterval(long touchInterval) {
+    this.touchInterval = touchInterval;
+    return this;
+  }
+
   @Override
   public SessionHandler setCookieless(boolean cookieless) {
     this.cookieless = cookieless;
@@ -206,7 +232,7 @@ public class SessionHandlerImpl implements SessionHandler {
             if (Objects.nonNull(signature)) {
               cookieValue = signature.sign(cookieValue);
             }
-            cookie.setValue(cookieValue);
+            setSessionCookieValue(context, cookie, cookieValue);
             setCookieProperties(cookie, false);
           }
 
@@ -228,7 +254,18 @@ public class SessionHandlerImpl implements SessionHandler {
             sessionCookie(context, session);
           }
           session.setAccessed();
-          return sessionStore.put(session)
+          final Future<Void> store;
+          if (isUnmodified(context, session)) {
+            // only the last accessed time changed, extend the session lifetime without writing the data
+            if (!shouldTouch(session.id(), session.lastAccessed())) {
+              context.put(SESSION_FLUSHED_KEY, true);
+              return ctx.succeededFuture();
+            }
+            store = sessionStore.touch(session.id(), session.timeout());
+          } else {
+            store = sessionStore.put(session);
+          }
+          return store
             .onSuccess(put -> {
               context.put(SESSION_FLUSHED_KEY, true);
               if (session instanceof SessionInternal) {
@@ -246,12 +283,16 @@ public class SessionHandlerImpl implements SessionHandler {
         return ctx.succeededFuture();
       }
     } else {
+      synchronized (touches) {
+        touches.remove(session.id());
+      }
       if (!cookieless) {
         // invalidate the cookie as the session has been destroyed
         final Cookie expiredCookie = context.response().removeCookie(sessionCookieName);
         if (expiredCookie != null) {
           setCookieProperties(expiredCookie, true);
         }
+        expireSessionCookieChunks(context, 1);
       }
       // if the session was regenerated in the request
       // the old id must also be removed
@@ -316,6 +357,8 @@ public class SessionHandlerImpl implements SessionHandler {
         .onSuccess(session -> {
           if (session != null) {
             ((RoutingContextInternal) context).setSession(session);
+            // the session is known to the store, a touch is enough if the data is left untouched
+            context.put(SESSION_LOADED_KEY, true);
             // attempt to load the user from the session
             UserHolder holder = session.get(SESSION_USER_HOLDER_KEY);
             if (holder != null) {
@@ -406,12 +449,13 @@ public class SessionHandlerImpl implements SessionHandler {
       // Cookies with longer paths are listed before cookies with shorter paths.
       Cookie cookie = context.request().getCookie(sessionCookieName);
       if (cookie != null) {
+        final String cookieValue = joinSessionCookieChunks(context, cookie.getValue());
         // Look up sessionId
         if (Objects.nonNull(signature)) {
           // If we expect signed cookies parse the content, if it fails return null triggering a new session creation
-          return signature.parse(cookie.getValue());
+          return signature.parse(cookieValue);
         }
-        return cookie.getValue();
+        return cookieValue;
       }
     }
 
@@ -453,6 +497,40 @@ public class SessionHandlerImpl implements SessionHandler {
   }
 
 
+  private boolean isUnmodified(RoutingContext context, Session session) {
+    Boolean loaded = context.get(SESSION_LOADED_KEY);
+    if (loaded == null || !loaded) {
+      // new sessions must always be written
+      return false;
+    }
+    if (sessionStore instanceof ClusteredSessionStore) {
+      // the cluster wide map cannot refresh a TTL, the versioned put detects concurrent updates of the session
+      return false;
+    }
+    final Object holder = session.get(SESSION_USER_HOLDER_KEY);
+    if (holder instanceof UserHolder && ((UserHolder) holder).user() != null) {
+      // the user (authorizations, refreshed tokens, ...) can change in place, which the checksum cannot see
+      return false;
+    }
+    return session instanceof SessionInternal && !((SessionInternal) session).isModified();
+  }
+
+  private boolean shouldTouch(String id, long now) {
+    if (touchInterval <= 0) {
+      return true;
+    }
+
+    synchronized (touches) {
+      Long last = touches.get(id);
+      if (last != null && now - last < touchInterval) {
+        // a touch was already issued recently, skip it
+        return false;
+      }
+      touches.put(id, now);
+      return true;
+    }
+  }
+
   private void addStoreSessionHandler(RoutingContext context) {
     context.addHeadersEndHandler(v -> {
       // skip flush if we already flushed
@@ -488,9 +566,59 @@ public class SessionHandlerImpl implements SessionHandler {
     if (Objects.nonNull(signature)) {
       cookieValue = signature.sign(cookieValue);
     }
-    cookie = Cookie.cookie(sessionCookieName, cookieValue);
+    cookie = Cookie.cookie(sessionCookieName, "");
+    setSessionCookieValue(context, cookie, cookieValue);
     setCookieProperties(cookie, false);
     context.response().addCookie(cookie);
     return cookie;
   }
+
+  private String chunkCookieName(int index) {
+    return sessionCookieName + "." + index;
+  }
+
+  /**
+   * Sets the session cookie value, values that are too large for a single cookie are split and the remaining parts
+   * are stored in additional numbered cookies.
+   */
+  private void setSessionCookieValue(RoutingContext context, Cookie cookie, String cookieValue) {
+    int chunks = 1;
+    if (cookieValue.length() <= MAX_COOKIE_VALUE_LENGTH) {
+      cookie.setValue(cookieValue);
+    } else {
+      cookie.setValue(cookieValue.substring(0, MAX_COOKIE_VALUE_LENGTH));
+      for (int offset = MAX_COOKIE_VALUE_LENGTH; offset < cookieValue.length(); offset += MAX_COOKIE_VALUE_LENGTH) {
+        final Cookie chunk = Cookie.cookie(
+          chunkCookieName(chunks++),
+          cookieValue.substring(offset, Math.min(cookieValue.length(), offset + MAX_COOKIE_VALUE_LENGTH)));
+        setCookieProperties(chunk, false);
+        context.response().addCookie(chunk);
+      }
+    }
+    // a previous value may have used more chunks
+    expireSessionCookieChunks(context, chunks);
+  }
+
+  private void expireSessionCookieChunks(RoutingContext context, int from) {
+    for (int i = from; context.request().getCookie(chunkCookieName(i)) != null; i++) {
+      final Cookie expiredCookie = context.response().removeCookie(chunkCookieName(i));
+      if (expiredCookie != null) {
+        setCookieProperties(expiredCookie, true);
+      }
+    }
+  }
+
+  private String joinSessionCookieChunks(RoutingContext context, String cookieValue) {
+    Cookie chunk = context.request().getCookie(chunkCookieName(1));
+    if (chunk == null) {
+      // the common case, the session fits in a single cookie
+      return cookieValue;
+    }
+    final StringBuilder sb = new StringBuilder(cookieValue);
+    for (int i = 2; chunk != null; i++) {
+      sb.append(chunk.getValue());
+      chunk = context.request().getCookie(chunkCookieName(i));
+    }
+    return sb.toString();
+  }
 }
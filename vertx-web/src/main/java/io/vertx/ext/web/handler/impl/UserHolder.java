@@ -23,6 +23,7 @@ import io.vertx.ext.auth.User;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.impl.UserContextInternal;
 import io.vertx.ext.web.impl.Utils;
+import io.vertx.ext.web.sstore.impl.SubjectHolder;
 
 import java.nio.charset.StandardCharsets;
 
@@ -31,7 +32,7 @@ import java.nio.charset.StandardCharsets;
  *
  * @author <a href="http://tfox.org">Tim Fox</a>
  */
-public class UserHolder implements ClusterSerializable {
+public class UserHolder implements ClusterSerializable, SubjectHolder {
 
   private RoutingContext context;
   private User user;
@@ -56,6 +57,19 @@ public class UserHolder implements ClusterSerializable {
     }
   }
 
+  /**
+   * @return the user linked to the session, if any.
+   */
+  public synchronized User user() {
+    return context != null ? context.user().get() : user;
+  }
+
+  @Override
+  public String subject() {
+    final User user = user();
+    return user != null ? user.subject() : null;
+  }
+
   @Override
   public void writeToBuffer(Buffer buffer) {
     // try to get the user from the context otherwise fall back to any cached version
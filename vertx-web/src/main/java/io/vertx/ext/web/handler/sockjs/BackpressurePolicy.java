@@ -0,0 +1,54 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.sockjs;
+
+import io.vertx.codegen.annotations.VertxGen;
+
+/**
+ * What the event bus bridge does with the messages for a socket whose write queue is full.
+ */
+@VertxGen
+public enum BackpressurePolicy {
+
+  /**
+   * The messages are written anyway, the socket write queue grows without bounds.
+   */
+  WRITE,
+
+  /**
+   * The messages are dropped until the socket write queue drains.
+   */
+  DROP_NEWEST,
+
+  /**
+   * The messages are held by the bridge until the socket write queue drains, the oldest ones are dropped when more than
+   * {@link SockJSBridgeOptions#getMaxPendingMessages()} are held.
+   */
+  DROP_OLDEST,
+
+  /**
+   * Like {@link #DROP_OLDEST} but only the latest message of each address is held.
+   */
+  CONFLATE,
+
+  /**
+   * The socket alone is paused: its messages are held by the bridge until its write queue drains, while the other
+   * sockets keep receiving theirs. The socket is closed when more than
+   * {@link SockJSBridgeOptions#getMaxPendingMessages()} are held, as it cannot keep up.
+   */
+  PAUSE
+}
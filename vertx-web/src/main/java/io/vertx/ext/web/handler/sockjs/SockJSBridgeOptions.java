@@ -51,10 +51,35 @@ public class SockJSBridgeOptions extends BridgeOptions {
    */
   public static final long DEFAULT_REPLY_TIMEOUT = 30 * 1000;
 
+  /**
+   * The WebSocket subprotocol a raw WebSocket client requests to exchange the bridge messages encoded with
+   * <a href="https://msgpack.org">MessagePack</a> in binary frames instead of JSON. The subprotocol must be added to the
+   * {@link io.vertx.core.http.HttpServerOptions#setWebSocketSubProtocols(java.util.List) server subprotocols}.
+   */
+  public static final String MESSAGE_PACK_SUBPROTOCOL = "vertx-eventbus.msgpack";
+
+  /**
+   * Default value for the backpressure policy = {@link BackpressurePolicy#WRITE}
+   */
+  public static final BackpressurePolicy DEFAULT_BACKPRESSURE_POLICY = BackpressurePolicy.WRITE;
+
+  /**
+   * Default value for max pending messages per socket = 1000
+   */
+  public static final int DEFAULT_MAX_PENDING_MESSAGES = 1000;
+
+  /**
+   * Default value for max pending replies = 10000
+   */
+  public static final int DEFAULT_MAX_PENDING_REPLIES = 10000;
+
   private int maxAddressLength;
   private int maxHandlersPerSocket;
   private long pingTimeout;
   private long replyTimeout;
+  private BackpressurePolicy backpressurePolicy;
+  private int maxPendingMessages;
+  private int maxPendingReplies;
 
   /**
    * Copy constructor
@@ -67,6 +92,9 @@ public class SockJSBridgeOptions extends BridgeOptions {
     this.maxHandlersPerSocket = other.maxHandlersPerSocket;
     this.pingTimeout = other.pingTimeout;
     this.replyTimeout = other.replyTimeout;
+    this.backpressurePolicy = other.backpressurePolicy;
+    this.maxPendingMessages = other.maxPendingMessages;
+    this.maxPendingReplies = other.maxPendingReplies;
   }
 
   /**
@@ -78,6 +106,9 @@ public class SockJSBridgeOptions extends BridgeOptions {
     this.maxHandlersPerSocket = DEFAULT_MAX_HANDLERS_PER_SOCKET;
     this.pingTimeout = DEFAULT_PING_TIMEOUT;
     this.replyTimeout = DEFAULT_REPLY_TIMEOUT;
+    this.backpressurePolicy = DEFAULT_BACKPRESSURE_POLICY;
+    this.maxPendingMessages = DEFAULT_MAX_PENDING_MESSAGES;
+    this.maxPendingReplies = DEFAULT_MAX_PENDING_REPLIES;
   }
 
   /**
@@ -139,6 +170,66 @@ public class SockJSBridgeOptions extends BridgeOptions {
     return this;
   }
 
+  public BackpressurePolicy getBackpressurePolicy() {
+    return backpressurePolicy;
+  }
+
+  /**
+   * Set what happens to the outbound messages of a socket whose write queue is full, e.g. a slow client subscribed to
+   * a busy address.
+   * <p>
+   * Defaults to {@link BackpressurePolicy#WRITE}.
+   *
+   * @param backpressurePolicy the policy
+   * @return a reference to this, so the API can be used fluently
+   */
+  public SockJSBridgeOptions setBackpressurePolicy(BackpressurePolicy backpressurePolicy) {
+    if (backpressurePolicy == null) {
+      throw new IllegalArgumentException("backpressurePolicy cannot be null");
+    }
+    this.backpressurePolicy = backpressurePolicy;
+    return this;
+  }
+
+  public int getMaxPendingMessages() {
+    return maxPendingMessages;
+  }
+
+  /**
+   * Set the maximum number of outbound messages held for a socket whose write queue is full, when the backpressure
+   * policy is {@link BackpressurePolicy#DROP_OLDEST}, {@link BackpressurePolicy#CONFLATE} or
+   * {@link BackpressurePolicy#PAUSE}.
+   *
+   * @param maxPendingMessages the maximum number of messages
+   * @return a reference to this, so the API can be used fluently
+   */
+  public SockJSBridgeOptions setMaxPendingMessages(int maxPendingMessages) {
+    if (maxPendingMessages < 1) {
+      throw new IllegalArgumentException("maxPendingMessages must be > 0");
+    }
+    this.maxPendingMessages = maxPendingMessages;
+    return this;
+  }
+
+  public int getMaxPendingReplies() {
+    return maxPendingReplies;
+  }
+
+  /**
+   * Set the maximum number of event bus messages the bridge tracks to let the client replies through. When more
+   * messages await a reply, the oldest ones are forgotten and their replies rejected.
+   *
+   * @param maxPendingReplies the maximum number of messages
+   * @return a reference to this, so the API can be used fluently
+   */
+  public SockJSBridgeOptions setMaxPendingReplies(int maxPendingReplies) {
+    if (maxPendingReplies < 1) {
+      throw new IllegalArgumentException("maxPendingReplies must be > 0");
+    }
+    this.maxPendingReplies = maxPendingReplies;
+    return this;
+  }
+
   @Override
   public SockJSBridgeOptions addInboundPermitted(PermittedOptions permitted) {
     super.addInboundPermitted(permitted);
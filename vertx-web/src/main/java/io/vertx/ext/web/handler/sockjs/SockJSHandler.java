@@ -88,6 +88,11 @@ public interface SockJSHandler {
    */
   Router bridge(AuthorizationProvider authorizationProvider, SockJSBridgeOptions bridgeOptions, Handler<BridgeEvent> bridgeEventHandler);
 
+  /**
+   * @return the metrics of this handler, shared by all the routers it created
+   */
+  SockJSMetrics metrics();
+
   /**
    * Like {@link io.vertx.ext.web.handler.sockjs.SockJSHandler#bridge(SockJSBridgeOptions)} but specifying a handler
    * that will receive bridge events.
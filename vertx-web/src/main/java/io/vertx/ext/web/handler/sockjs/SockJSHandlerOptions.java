@@ -66,6 +66,21 @@ public class SockJSHandlerOptions {
    */
   public static final boolean DEFAULT_LOCAL_WRITE_HANDLER = true;
 
+  /**
+   * The default delay in ms of batched frames of streaming transports = -1 (batching disabled).
+   */
+  public static final long DEFAULT_WRITE_BATCH_DELAY = -1;
+
+  /**
+   * The default size in bytes above which a batch of frames is written immediately = 16K.
+   */
+  public static final int DEFAULT_WRITE_BATCH_MAX_SIZE = 16 * 1024;
+
+  /**
+   * Whether the requests of sessions owned by other nodes are forwarded to them by default = false.
+   */
+  public static final boolean DEFAULT_CLUSTERED_SESSIONS = false;
+
   private long sessionTimeout;
   private boolean insertJSESSIONID;
   private long heartbeatInterval;
@@ -75,6 +90,9 @@ public class SockJSHandlerOptions {
   private boolean registerWriteHandler;
   private boolean localWriteHandler;
   private String origin;
+  private long writeBatchDelay;
+  private int writeBatchMaxSize;
+  private boolean clusteredSessions;
 
   /**
    * Copy constructor.
@@ -91,6 +109,9 @@ public class SockJSHandlerOptions {
     registerWriteHandler = other.registerWriteHandler;
     localWriteHandler = other.localWriteHandler;
     origin = other.origin;
+    writeBatchDelay = other.writeBatchDelay;
+    writeBatchMaxSize = other.writeBatchMaxSize;
+    clusteredSessions = other.clusteredSessions;
   }
 
   /**
@@ -104,6 +125,9 @@ public class SockJSHandlerOptions {
     libraryURL = DEFAULT_LIBRARY_URL;
     registerWriteHandler = DEFAULT_REGISTER_WRITE_HANDLER;
     localWriteHandler = DEFAULT_LOCAL_WRITE_HANDLER;
+    writeBatchDelay = DEFAULT_WRITE_BATCH_DELAY;
+    writeBatchMaxSize = DEFAULT_WRITE_BATCH_MAX_SIZE;
+    clusteredSessions = DEFAULT_CLUSTERED_SESSIONS;
   }
 
   /**
@@ -131,6 +155,9 @@ public class SockJSHandlerOptions {
     registerWriteHandler = json.getBoolean("registerWriteHandler", DEFAULT_REGISTER_WRITE_HANDLER);
     localWriteHandler = json.getBoolean("localWriteHandler", DEFAULT_LOCAL_WRITE_HANDLER);
     origin = json.getString("origin");
+    writeBatchDelay = json.getLong("writeBatchDelay", DEFAULT_WRITE_BATCH_DELAY);
+    writeBatchMaxSize = json.getInteger("writeBatchMaxSize", DEFAULT_WRITE_BATCH_MAX_SIZE);
+    clusteredSessions = json.getBoolean("clusteredSessions", DEFAULT_CLUSTERED_SESSIONS);
   }
 
   /**
@@ -332,4 +359,81 @@ public class SockJSHandlerOptions {
     this.origin = origin;
     return this;
   }
+
+  /**
+   * @return the delay in ms frames of streaming transports are batched for, {@code -1} when disabled
+   */
+  public long getWriteBatchDelay() {
+    return writeBatchDelay;
+  }
+
+  /**
+   * HTTP streaming transports (xhr-streaming and eventsource) write each frame as an HTTP chunk. When a session sends
+   * bursts of small messages, the frames can be batched in a single chunk instead.
+   * <p>
+   * With a delay of {@code 0} the frames written during the same event loop task are batched, a positive delay keeps
+   * batching frames for that many milliseconds after the first one. A batch is written immediately when it reaches
+   * {@link #setWriteBatchMaxSize(int)}.
+   * <p>
+   * Defaults to {@code -1}, batching is disabled.
+   *
+   * @param writeBatchDelay the delay in ms, {@code -1} to disable batching
+   * @return a reference to this, so the API can be used fluently
+   */
+  public SockJSHandlerOptions setWriteBatchDelay(long writeBatchDelay) {
+    if (writeBatchDelay < -1) {
+      throw new IllegalArgumentException("writeBatchDelay must be >= -1");
+    }
+    this.writeBatchDelay = writeBatchDelay;
+    return this;
+  }
+
+  /**
+   * @return the size in bytes above which a batch of frames is written immediately
+   */
+  public int getWriteBatchMaxSize() {
+    return writeBatchMaxSize;
+  }
+
+  /**
+   * Set the size in bytes above which a batch of frames is written immediately, see {@link #setWriteBatchDelay(long)}.
+   * <p>
+   * Defaults to 16K.
+   *
+   * @param writeBatchMaxSize the size in bytes
+   * @return a reference to this, so the API can be used fluently
+   */
+  public SockJSHandlerOptions setWriteBatchMaxSize(int writeBatchMaxSize) {
+    if (writeBatchMaxSize < 1) {
+      throw new IllegalArgumentException("writeBatchMaxSize must be > 0");
+    }
+    this.writeBatchMaxSize = writeBatchMaxSize;
+    return this;
+  }
+
+  /**
+   * @return whether the requests of sessions owned by other nodes are forwarded to them
+   */
+  public boolean isClusteredSessions() {
+    return clusteredSessions;
+  }
+
+  /**
+   * Set whether the polling transport requests (XHR polling and JSONP) of a session owned by another node are
+   * forwarded to that node over the event bus, so the nodes can be load balanced without sticky sessions.
+   * <p>
+   * The node receiving the first request of a session owns it: its socket handler is called there and the pending
+   * writes stay there. The other nodes forward the poll and send requests of the session to the owner and write the
+   * frames it answers with. Streaming and WebSocket transports are not forwarded, they are long lived connections
+   * which stay on a node anyway.
+   * <p>
+   * Defaults to {@code false}.
+   *
+   * @param clusteredSessions whether to forward the requests
+   * @return a reference to this, so the API can be used fluently
+   */
+  public SockJSHandlerOptions setClusteredSessions(boolean clusteredSessions) {
+    this.clusteredSessions = clusteredSessions;
+    return this;
+  }
 }
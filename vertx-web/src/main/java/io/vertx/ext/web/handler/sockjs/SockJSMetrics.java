@@ -0,0 +1,71 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.sockjs;
+
+import io.vertx.codegen.annotations.VertxGen;
+
+/**
+ * The counters of a {@link SockJSHandler}, they are cumulated since the handler was created, except
+ * {@link #pendingReplies()} which is a current value.
+ */
+@VertxGen
+public interface SockJSMetrics {
+
+  /**
+   * @return the number of frames written by the HTTP streaming transports
+   */
+  long streamedFrames();
+
+  /**
+   * @return the number of HTTP chunks the frames of the HTTP streaming transports were written in, see
+   * {@link SockJSHandlerOptions#setWriteBatchDelay(long)}
+   */
+  long streamedChunks();
+
+  /**
+   * @return the number of outbound event bus message frames that were encoded by the bridges
+   */
+  long encodedMessages();
+
+  /**
+   * @return the number of outbound event bus message frames that were written to the bridge sockets, a frame delivered
+   * to several sockets is only encoded once unless a bridge event handler modifies it
+   */
+  long deliveredMessages();
+
+  /**
+   * @return the number of outbound event bus message frames that were dropped by the bridges because of their
+   * {@link SockJSBridgeOptions#getBackpressurePolicy() backpressure policy}
+   */
+  long droppedMessages();
+
+  /**
+   * @return the number of event bus messages the bridges currently let the client replies through for
+   */
+  long pendingReplies();
+
+  /**
+   * @return the number of event bus messages that did not get a client reply before the reply timeout
+   */
+  long expiredReplies();
+
+  /**
+   * @return the number of event bus messages that were forgotten before the reply timeout, because of the
+   * {@link SockJSBridgeOptions#getMaxPendingReplies()} limit
+   */
+  long evictedReplies();
+}
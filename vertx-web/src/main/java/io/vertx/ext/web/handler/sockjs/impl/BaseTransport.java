@@ -35,11 +35,14 @@ package io.vertx.ext.web.handler.sockjs.impl;
 import io.netty.handler.codec.http.cookie.Cookie;
 import io.netty.handler.codec.http.cookie.ServerCookieDecoder;
 import io.netty.handler.codec.http.cookie.ServerCookieEncoder;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.impl.NoStackTraceThrowable;
 import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
 import io.vertx.core.json.JsonArray;
@@ -69,19 +72,130 @@ class BaseTransport {
   private static final Logger LOG = LoggerFactory.getLogger(BaseTransport.class);
 
   protected final Vertx vertx;
+  protected final SockJSScheduler scheduler;
   protected final LocalMap<String, SockJSSession> sessions;
   protected final SockJSHandlerOptions options;
+  // null unless clustered sessions are enabled
+  protected final SessionForwarder forwarder;
+
+  private static final NoStackTraceThrowable UNKNOWN_SESSION = new NoStackTraceThrowable("Unknown session");
+
+  // the polls forwarded to a node holding the claim of a session before taking the session over from it
+  private static final int CLAIM_ATTEMPTS = 5;
+  private static final long CLAIM_RETRY_DELAY = 100;
 
   static final String COMMON_PATH_ELEMENT_RE = "\\/[^\\/\\.]+\\/([^\\/\\.]+)\\/";
 
-  public BaseTransport(Vertx vertx, LocalMap<String, SockJSSession> sessions, SockJSHandlerOptions options) {
+  public BaseTransport(Vertx vertx, SockJSScheduler scheduler, LocalMap<String, SockJSSession> sessions, SockJSHandlerOptions options) {
     this.vertx = vertx;
+    this.scheduler = scheduler;
     this.sessions = sessions;
     this.options = options;
+    this.forwarder = options.isClusteredSessions() ? new SessionForwarder(vertx, options) : null;
   }
 
   protected SockJSSession getSession(RoutingContext rc, SockJSHandlerOptions options, String sessionID, Handler<SockJSSocket> sockHandler) {
-    return sessions.computeIfAbsent(sessionID, s -> new SockJSSession(vertx, sessions, rc, s, options, sockHandler));
+    return sessions.computeIfAbsent(sessionID, s -> new SockJSSession(vertx, scheduler, sessions, rc, s, options, sockHandler));
+  }
+
+  /**
+   * Handles a poll request of a polling transport: with clustered sessions, the request of a session unknown to this
+   * node is forwarded to the node owning it, if any, and the frame it answers with is handed to {@code forwarded}.
+   * Otherwise the session is looked up or created and handed to {@code local}, it is then owned by this node once
+   * claimed, see {@link SessionForwarder#claim(String, boolean)}.
+   */
+  protected void poll(RoutingContext rc, String sessionID, Handler<SockJSSocket> sockHandler, Handler<SockJSSession> local, Handler<Buffer> forwarded) {
+    if (forwarder == null) {
+      local.handle(getSession(rc, options, sessionID, sockHandler));
+      return;
+    }
+    final SockJSSession session = sessions.get(sessionID);
+    if (session != null) {
+      handleOwned(rc, session, local);
+      return;
+    }
+    final HttpServerResponse response = rc.response();
+    response.closeHandler(v -> {
+      if (!response.ended()) {
+        // as a local poll would
+        forwarder.closed(sessionID);
+      }
+    });
+    forwardPoll(rc, sessionID, sockHandler, local, forwarded, CLAIM_ATTEMPTS);
+  }
+
+  private void forwardPoll(RoutingContext rc, String sessionID, Handler<SockJSSocket> sockHandler, Handler<SockJSSession> local, Handler<Buffer> forwarded, int attempts) {
+    forwarder.poll(sessionID).onComplete(ar -> {
+      if (ar.succeeded()) {
+        forwarded.handle(ar.result());
+      } else if (!SessionForwarder.isUnknownSession(ar.cause())) {
+        rc.fail(ar.cause());
+      } else {
+        // after a few attempts, the node holding the claim is considered gone
+        forwarder.claim(sessionID, attempts <= 0).onComplete(claim -> {
+          if (claim.failed()) {
+            rc.fail(claim.cause());
+          } else if (claim.result()) {
+            handleOwned(rc, getOwnedSession(rc, sessionID, sockHandler), local);
+          } else if (!rc.response().closed()) {
+            // another node claimed the session and is about to consume its address
+            vertx.setTimer(CLAIM_RETRY_DELAY, tid -> forwardPoll(rc, sessionID, sockHandler, local, forwarded, attempts - 1));
+          }
+        });
+      }
+    });
+  }
+
+  private SockJSSession getOwnedSession(RoutingContext rc, String sessionID, Handler<SockJSSocket> sockHandler) {
+    return sessions.computeIfAbsent(sessionID, s -> {
+      final SockJSSession session = new SockJSSession(vertx, scheduler, sessions, rc, s, options, sockHandler);
+      forwarder.own(session, s);
+      return session;
+    });
+  }
+
+  /**
+   * Hands a session to {@code local} once the other nodes forward its requests, so a client switching node right
+   * after its first poll reaches the owner.
+   */
+  private void handleOwned(RoutingContext rc, SockJSSession session, Handler<SockJSSession> local) {
+    session.owned().onComplete(ar -> {
+      if (ar.succeeded()) {
+        local.handle(session);
+      } else {
+        rc.fail(ar.cause());
+      }
+    });
+  }
+
+  /**
+   * Hands the messages of a send request to the session, or to the node owning it with clustered sessions.
+   *
+   * @return whether the messages were valid, a future failed with {@link #isUnknownSession(Throwable)} if the session
+   * is unknown
+   */
+  protected Future<Boolean> send(String sessionID, String messages) {
+    final SockJSSession session = sessions.get(sessionID);
+    if (session != null) {
+      if (session.isClosed()) {
+        return Future.failedFuture(UNKNOWN_SESSION);
+      }
+      return Future.succeededFuture(session.handleMessages(messages));
+    }
+    if (forwarder != null) {
+      return forwarder.send(sessionID, messages);
+    }
+    return Future.failedFuture(UNKNOWN_SESSION);
+  }
+
+  protected static boolean isUnknownSession(Throwable err) {
+    return err == UNKNOWN_SESSION || SessionForwarder.isUnknownSession(err);
+  }
+
+  protected void sendSessionNotFound(RoutingContext rc) {
+    rc.response().setStatusCode(404);
+    setJSESSIONID(options, rc);
+    rc.response().end();
   }
 
   protected void sendInvalidJSON(HttpServerResponse response) {
@@ -110,6 +224,14 @@ class BaseTransport {
     protected BaseListener(RoutingContext rc, SockJSSession session) {
       this.rc = rc;
       this.session = session;
+      rc.response().drainHandler(v -> session.handleDrain());
+    }
+
+    @Override
+    public boolean writeQueueFull() {
+      final HttpServerResponse response = rc.response();
+      // an ended response cannot be queried
+      return !closed && !response.ended() && !response.closed() && response.writeQueueFull();
     }
     protected void addCloseHandler(HttpServerResponse resp, final SockJSSession session) {
       resp.closeHandler(v -> {
@@ -29,17 +29,31 @@ import io.vertx.ext.web.handler.sockjs.SockJSSocket;
 class BridgeEventImpl implements BridgeEvent {
 
   private final BridgeEventType type;
-  private final JsonObject rawMessage;
+  private JsonObject rawMessage;
+  // the raw message is shared with other events and must be copied before being handed out
+  private boolean shared;
   private final SockJSSocket socket;
   private final Promise<Boolean> promise;
 
   public BridgeEventImpl(BridgeEventType type, JsonObject rawMessage, SockJSSocket socket) {
+    this(type, rawMessage, socket, false);
+  }
+
+  BridgeEventImpl(BridgeEventType type, JsonObject rawMessage, SockJSSocket socket, boolean shared) {
     this.type = type;
     this.rawMessage = rawMessage;
     this.socket = socket;
+    this.shared = shared;
     this.promise = Promise.promise();
   }
 
+  /**
+   * @return whether the shared raw message was never handed out, and hence cannot have been modified.
+   */
+  boolean isRawMessageShared() {
+    return shared;
+  }
+
   @Override
   public Future<Boolean> future() {
     return promise.future();
@@ -52,13 +66,17 @@ class BridgeEventImpl implements BridgeEvent {
 
   @Override
   public JsonObject getRawMessage() {
+    if (shared) {
+      rawMessage = rawMessage.copy();
+      shared = false;
+    }
     return rawMessage;
   }
 
   @Override
   public BridgeEvent setRawMessage(JsonObject message) {
     if (message != rawMessage) {
-      rawMessage.clear().mergeIn(message);
+      getRawMessage().clear().mergeIn(message);
     }
     return this;
   }
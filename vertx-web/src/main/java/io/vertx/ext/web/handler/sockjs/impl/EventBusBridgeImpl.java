@@ -22,21 +22,22 @@ import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.User;
 import io.vertx.ext.auth.authorization.Authorization;
 import io.vertx.ext.auth.authorization.AuthorizationProvider;
-import io.vertx.ext.auth.authorization.PermissionBasedAuthorization;
 import io.vertx.ext.bridge.BridgeEventType;
-import io.vertx.ext.bridge.PermittedOptions;
 import io.vertx.ext.web.Session;
+import io.vertx.ext.web.handler.sockjs.BackpressurePolicy;
 import io.vertx.ext.web.handler.sockjs.BridgeEvent;
 import io.vertx.ext.web.handler.sockjs.SockJSBridgeOptions;
 import io.vertx.ext.web.handler.sockjs.SockJSSocket;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Supplier;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import static io.vertx.core.buffer.Buffer.buffer;
 
@@ -48,37 +49,50 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
   private static final Logger LOG = LoggerFactory.getLogger(EventBusBridgeImpl.class);
 
   private final Map<SockJSSocket, SockInfo> sockInfos = new HashMap<>();
-  private final List<PermittedOptions> inboundPermitted;
-  private final List<PermittedOptions> outboundPermitted;
+  private final PermittedIndex inboundPermitted;
+  private final PermittedIndex outboundPermitted;
   private final int maxAddressLength;
   private final int maxHandlersPerSocket;
   private final long pingTimeout;
   private final long replyTimeout;
+  private final BackpressurePolicy backpressurePolicy;
+  private final int maxPendingMessages;
+  private final int maxPendingReplies;
+  private final long sweepInterval;
   private final Vertx vertx;
   private final EventBus eb;
-  private final Map<String, Message<?>> messagesAwaitingReply = new HashMap<>();
-  private final Map<String, Pattern> compiledREs = new HashMap<>();
+  // in insertion order, which is also the expiration order as all the replies have the same timeout
+  private final Map<String, PendingReply> messagesAwaitingReply = new LinkedHashMap<>();
+  private long sweepTimerID = -1;
+  private final Map<String, Subscription> subscriptions = new HashMap<>();
   private final Handler<BridgeEvent> bridgeEventHandler;
   private final AuthorizationProvider authzProvider;
+  private final SockJSMetricsImpl metrics;
 
-  public EventBusBridgeImpl(Vertx vertx, AuthorizationProvider authzProvider, SockJSBridgeOptions options, Handler<BridgeEvent> bridgeEventHandler) {
+  public EventBusBridgeImpl(Vertx vertx, AuthorizationProvider authzProvider, SockJSBridgeOptions options, Handler<BridgeEvent> bridgeEventHandler, SockJSMetricsImpl metrics) {
     this.vertx = vertx;
+    this.metrics = metrics;
     this.eb = vertx.eventBus();
     this.authzProvider = authzProvider;
-    this.inboundPermitted = options.getInboundPermitteds() == null ? new ArrayList<>() : options.getInboundPermitteds();
-    this.outboundPermitted = options.getOutboundPermitteds() == null ? new ArrayList<>() : options.getOutboundPermitteds();
+    this.inboundPermitted = new PermittedIndex(options.getInboundPermitteds() == null ? new ArrayList<>() : options.getInboundPermitteds());
+    this.outboundPermitted = new PermittedIndex(options.getOutboundPermitteds() == null ? new ArrayList<>() : options.getOutboundPermitteds());
     this.maxAddressLength = options.getMaxAddressLength();
     this.maxHandlersPerSocket = options.getMaxHandlersPerSocket();
     this.pingTimeout = options.getPingTimeout();
     this.replyTimeout = options.getReplyTimeout();
+    this.backpressurePolicy = options.getBackpressurePolicy();
+    this.maxPendingMessages = options.getMaxPendingMessages();
+    this.maxPendingReplies = options.getMaxPendingReplies();
+    // precise enough for both the ping and the reply timeouts
+    this.sweepInterval = Math.max(1, Math.min(1000, Math.min(pingTimeout, replyTimeout) / 10));
     this.bridgeEventHandler = bridgeEventHandler;
   }
 
-  private void handleSocketData(SockJSSocket sock, Buffer data, Map<String, MessageConsumer<?>> registrations) {
+  private void handleSocketData(SockJSSocket sock, Buffer data, Map<String, Registration> registrations) {
     JsonObject msg;
 
     try {
-      msg = new JsonObject(data.toString());
+      msg = isMessagePack(sock) ? MessagePackCodec.decode(data) : new JsonObject(data.toString());
     } catch (DecodeException e) {
       replyError(sock, "invalid_json");
       return;
@@ -182,7 +196,7 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
     }
   }
 
-  private void internalHandleRegister(SockJSSocket sock, JsonObject rawMsg, Map<String, MessageConsumer<?>> registrations) {
+  private void internalHandleRegister(SockJSSocket sock, JsonObject rawMsg, Map<String, Registration> registrations) {
     final SockInfo info = sockInfos.get(sock);
     if (!checkMaxHandlers(sock, info)) {
       return;
@@ -210,35 +224,7 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
             return;
           }
 
-          Handler<Message<Object>> handler = msg -> {
-            Match curMatch = checkMatches(false, address, msg.body());
-            if (curMatch.doesMatch) {
-              if (curMatch.requiredAuthority != null) {
-                authorise(curMatch, sock.webUser())
-                  .onSuccess(ok -> {
-                    if (ok) {
-                      checkAddAccceptedReplyAddress(msg);
-                      deliverMessage(sock, address, msg);
-                    } else {
-                      if (debug) {
-                        LOG.debug("Outbound message for address " + address + " rejected because auth is required and socket is not authed");
-                      }
-                    }
-                  })
-                  .onFailure(LOG::error);
-
-              } else {
-                checkAddAccceptedReplyAddress(msg);
-                deliverMessage(sock, address, msg);
-              }
-            } else {
-              // outbound match failed
-              if (debug) {
-                LOG.debug("Outbound message for address " + address + " rejected because there is no inbound match");
-              }
-            }
-          };
-          MessageConsumer<?> reg = eb.consumer(address).handler(handler);
+          Registration reg = subscribe(address, sock);
           registrations.put(address, reg);
           info.handlerCount++;
           reg.completion().onComplete(ar -> {
@@ -260,7 +246,7 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
       }, () -> replyError(sock, "rejected"));
   }
 
-  private void internalHandleUnregister(SockJSSocket sock, JsonObject rawMsg, Map<String, MessageConsumer<?>> registrations) {
+  private void internalHandleUnregister(SockJSSocket sock, JsonObject rawMsg, Map<String, Registration> registrations) {
     checkCallHook(() -> new BridgeEventImpl(BridgeEventType.UNREGISTER, rawMsg, sock),
       () -> {
         String address = rawMsg.getString("address");
@@ -270,7 +256,7 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
         }
         Match match = checkMatches(false, address, null);
         if (match.doesMatch) {
-          MessageConsumer<?> registration = registrations.remove(address);
+          Registration registration = registrations.remove(address);
           if (registration != null) {
             SockInfo info = sockInfos.get(sock);
             registration.completion().onSuccess(v -> registration.unregister());
@@ -302,36 +288,30 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
   public void handle(final SockJSSocket sock) {
     checkCallHook(() -> new BridgeEventImpl(BridgeEventType.SOCKET_CREATED, null, sock),
       () -> {
-        Map<String, MessageConsumer<?>> registrations = new HashMap<>();
+        Map<String, Registration> registrations = new HashMap<>();
 
         sock
           .handler(data -> handleSocketData(sock, data, registrations))
           .exceptionHandler(err -> handleSocketException(sock, err, registrations))
           .closeHandler(v -> handleSocketClosed(sock, registrations));
 
-        // Start a checker to check for pings
+        // The pings are checked by the sweep
         PingInfo pingInfo = new PingInfo();
-        pingInfo.timerID = vertx.setPeriodic(pingTimeout, id -> {
-          if (System.currentTimeMillis() - pingInfo.lastPing >= pingTimeout) {
-            // Trigger an event to allow custom behavior before disconnecting client.
-            checkCallHook(() -> new BridgeEventImpl(BridgeEventType.SOCKET_IDLE, null, sock),
-              // We didn't receive a ping in time so close the socket
-              ((SockJSSocketBase) sock)::closeAfterSessionExpired,
-              () -> replyError(sock, "rejected"));
-          }
-        });
+        pingInfo.nextCheck = System.currentTimeMillis() + pingTimeout;
         SockInfo sockInfo = new SockInfo();
         sockInfo.pingInfo = pingInfo;
+        sockInfo.registrations = registrations;
         sockInfos.put(sock, sockInfo);
+        startSweep();
       }, sock::close);
   }
 
-  private void handleSocketClosed(SockJSSocket sock, Map<String, MessageConsumer<?>> registrations) {
+  private void handleSocketClosed(SockJSSocket sock, Map<String, Registration> registrations) {
     clearSocketState(sock, registrations);
     checkCallHook(() -> new BridgeEventImpl(BridgeEventType.SOCKET_CLOSED, null, sock));
   }
 
-  private void handleSocketException(SockJSSocket sock, Throwable err, Map<String, MessageConsumer<?>> registrations) {
+  private void handleSocketException(SockJSSocket sock, Throwable err, Map<String, Registration> registrations) {
     LOG.error("SockJSSocket exception", err);
     clearSocketState(sock, registrations);
     final JsonObject msg = new JsonObject().put("type", "err").put("failureType", "socketException");
@@ -341,9 +321,9 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
     checkCallHook(() -> new BridgeEventImpl(BridgeEventType.SOCKET_ERROR, msg, sock));
   }
 
-  private void clearSocketState(SockJSSocket sock, Map<String, MessageConsumer<?>> registrations) {
+  private void clearSocketState(SockJSSocket sock, Map<String, Registration> registrations) {
     // On close or exception unregister any handlers that haven't been unregistered
-    for (MessageConsumer<?> registration : registrations.values()) {
+    for (Registration registration : registrations.values()) {
       registration.unregister();
       checkCallHook(() ->
         new BridgeEventImpl(
@@ -351,13 +331,10 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
           new JsonObject().put("type", "unregister").put("address", registration.address()),
           sock));
     }
-    // ensure that no timers remain active
     SockInfo info = sockInfos.remove(sock);
     if (info != null) {
-      PingInfo pingInfo = info.pingInfo;
-      if (pingInfo != null) {
-        vertx.cancelTimer(pingInfo.timerID);
-      }
+      metrics.droppedMessages.add(info.pending.size());
+      info.pending.clear();
     }
   }
 
@@ -371,34 +348,201 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
       // We also need to cache the message so we can actually call reply() on it - we need the actual message
       // as the original sender could be on a different node so we need the replyDest (serverID) too otherwise
       // the message won't be routed to the node.
-      messagesAwaitingReply.put(replyAddress, message);
-      // And we remove after timeout in case the reply never comes
-      vertx.setTimer(replyTimeout, tid -> messagesAwaitingReply.remove(replyAddress));
+      // And we remove after timeout in case the reply never comes, see sweep
+      if (messagesAwaitingReply.remove(replyAddress) == null) {
+        metrics.pendingReplies.increment();
+      }
+      messagesAwaitingReply.put(replyAddress, new PendingReply(message, System.currentTimeMillis() + replyTimeout));
+      if (messagesAwaitingReply.size() > maxPendingReplies) {
+        final Iterator<PendingReply> it = messagesAwaitingReply.values().iterator();
+        it.next();
+        it.remove();
+        metrics.pendingReplies.decrement();
+        metrics.evictedReplies.increment();
+      }
+      startSweep();
+    }
+  }
+
+  private Message<?> removeAwaitingReply(String address) {
+    final PendingReply pending = messagesAwaitingReply.remove(address);
+    if (pending == null) {
+      return null;
+    }
+    metrics.pendingReplies.decrement();
+    if (pending.expiresAt <= System.currentTimeMillis()) {
+      // not swept yet
+      metrics.expiredReplies.increment();
+      return null;
+    }
+    return pending.message;
+  }
+
+  private void startSweep() {
+    if (sweepTimerID == -1) {
+      sweepTimerID = vertx.setPeriodic(sweepInterval, this::sweep);
+    }
+  }
+
+  /**
+   * A single periodic task per bridge expires the replies and checks the pings of all the sockets, it only runs while
+   * there are sockets or replies.
+   */
+  private void sweep(long timerID) {
+    final long now = System.currentTimeMillis();
+
+    final Iterator<PendingReply> it = messagesAwaitingReply.values().iterator();
+    while (it.hasNext()) {
+      if (it.next().expiresAt > now) {
+        break;
+      }
+      it.remove();
+      metrics.pendingReplies.decrement();
+      metrics.expiredReplies.increment();
+    }
+
+    if (!sockInfos.isEmpty()) {
+      // the event hooks can close sockets
+      for (Map.Entry<SockJSSocket, SockInfo> entry : new ArrayList<>(sockInfos.entrySet())) {
+        checkPing(entry.getKey(), entry.getValue().pingInfo, now);
+      }
+    }
+
+    if (sockInfos.isEmpty() && messagesAwaitingReply.isEmpty()) {
+      vertx.cancelTimer(timerID);
+      if (sweepTimerID == timerID) {
+        sweepTimerID = -1;
+      }
+    }
+  }
+
+  private void checkPing(SockJSSocket sock, PingInfo pingInfo, long now) {
+    if (now < pingInfo.nextCheck) {
+      return;
+    }
+    pingInfo.nextCheck = now + pingTimeout;
+    if (now - pingInfo.lastPing >= pingTimeout) {
+      // Trigger an event to allow custom behavior before disconnecting client.
+      checkCallHook(() -> new BridgeEventImpl(BridgeEventType.SOCKET_IDLE, null, sock),
+        // We didn't receive a ping in time so close the socket
+        ((SockJSSocketBase) sock)::closeAfterSessionExpired,
+        () -> replyError(sock, "rejected"));
+    }
+  }
+
+  private Registration subscribe(String address, SockJSSocket sock) {
+    Subscription subscription = subscriptions.get(address);
+    if (subscription == null) {
+      subscription = new Subscription(address);
+      subscriptions.put(address, subscription);
     }
+    subscription.sockets.add(sock);
+    return new Registration(subscription, sock);
   }
 
   private void deliverMessage(SockJSSocket sock, String address, Message<?> message) {
-    JsonObject envelope = new JsonObject().put("type", "rec").put("address", address).put("body", message.body());
-    if (message.replyAddress() != null) {
-      envelope.put("replyAddress", message.replyAddress());
-    }
-    if (message.headers() != null && !message.headers().isEmpty()) {
-      JsonObject headersCopy = new JsonObject();
-      for (String name : message.headers().names()) {
-        List<String> values = message.headers().getAll(name);
-        if (values.size() == 1) {
-          headersCopy.put(name, values.get(0));
+    deliverMessage(sock, new OutboundMessage(address, message));
+  }
+
+  private void deliverMessage(SockJSSocket sock, OutboundMessage message) {
+    final boolean messagePack = isMessagePack(sock);
+    if (bridgeEventHandler == null) {
+      write(sock, message.address, message.frame(messagePack));
+      return;
+    }
+    // the event handler gets its own copy of the envelope only if it reads it
+    final BridgeEventImpl event = new BridgeEventImpl(BridgeEventType.RECEIVE, message.envelope, sock, true);
+    checkCallHook(() -> event,
+      () -> {
+        if (event.isRawMessageShared() || message.envelope.equals(event.getRawMessage())) {
+          write(sock, message.address, message.frame(messagePack));
         } else {
-          headersCopy.put(name, values);
+          metrics.encodedMessages.increment();
+          write(sock, message.address, encode(messagePack, event.getRawMessage()));
         }
-      }
-      envelope.put("headers", headersCopy);
-    }
-    checkCallHook(() -> new BridgeEventImpl(BridgeEventType.RECEIVE, envelope, sock),
-      () -> sock.write(buffer(envelope.encode())),
+      },
       () -> LOG.debug("outbound message rejected by bridge event handler"));
   }
 
+  private void write(SockJSSocket sock, String address, Buffer frame) {
+    final SockInfo info;
+    if (backpressurePolicy == BackpressurePolicy.WRITE || (info = sockInfos.get(sock)) == null) {
+      doWrite(sock, frame);
+      return;
+    }
+    if (info.closing) {
+      metrics.droppedMessages.increment();
+      return;
+    }
+    if (info.pending.isEmpty() && !sock.writeQueueFull()) {
+      doWrite(sock, frame);
+      return;
+    }
+
+    switch (backpressurePolicy) {
+      case DROP_NEWEST:
+        metrics.droppedMessages.increment();
+        return;
+      case DROP_OLDEST:
+        info.pending.put(info.sequence++, frame);
+        break;
+      case CONFLATE:
+        // the latest message of the address takes the place of the previous one, at the end of the queue
+        if (info.pending.remove(address) != null) {
+          metrics.droppedMessages.increment();
+        }
+        info.pending.put(address, frame);
+        break;
+      case PAUSE:
+        info.pending.put(info.sequence++, frame);
+        if (info.pending.size() > maxPendingMessages) {
+          // the socket cannot keep up, its messages are dropped until the close handler clears its state
+          metrics.droppedMessages.add(info.pending.size());
+          info.pending.clear();
+          info.closing = true;
+          sock.close();
+          return;
+        }
+        break;
+    }
+    final Iterator<Buffer> it = info.pending.values().iterator();
+    while (info.pending.size() > maxPendingMessages) {
+      it.next();
+      it.remove();
+      metrics.droppedMessages.increment();
+    }
+    awaitDrain(sock, info);
+  }
+
+  private void doWrite(SockJSSocket sock, Buffer frame) {
+    metrics.deliveredMessages.increment();
+    sock.write(frame);
+  }
+
+  private void awaitDrain(SockJSSocket sock, SockInfo info) {
+    if (!info.awaitingDrain) {
+      info.awaitingDrain = true;
+      sock.drainHandler(v -> handleDrain(sock, info));
+    }
+  }
+
+  private void handleDrain(SockJSSocket sock, SockInfo info) {
+    info.awaitingDrain = false;
+    if (sockInfos.get(sock) != info) {
+      // the socket was closed
+      return;
+    }
+    final Iterator<Buffer> it = info.pending.values().iterator();
+    while (it.hasNext() && !sock.writeQueueFull()) {
+      final Buffer frame = it.next();
+      it.remove();
+      doWrite(sock, frame);
+    }
+    if (!info.pending.isEmpty() || sock.writeQueueFull()) {
+      awaitDrain(sock, info);
+    }
+  }
+
   private void doSendOrPub(boolean send, SockJSSocket sock, String address,
                            JsonObject message) {
     Object body = message.getValue("body");
@@ -415,7 +559,7 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
     if (debug) {
       LOG.debug("Received msg from client in bridge. address:" + address + " message:" + body);
     }
-    final Message<?> awaitingReply = messagesAwaitingReply.remove(address);
+    final Message<?> awaitingReply = removeAwaitingReply(address);
     Match curMatch;
     if (awaitingReply != null) {
       curMatch = new Match(true);
@@ -492,7 +636,7 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
               .put("failureCode", cause.failureCode())
               .put("failureType", cause.failureType().name())
               .put("message", cause.getMessage());
-          sock.write(buffer(envelope.encode()));
+          sock.write(encode(isMessagePack(sock), envelope));
         }
         info.handlerCount--;
       };
@@ -554,94 +698,230 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
   this means that specifying one match with a JSON empty object means everything is accepted
    */
   private Match checkMatches(boolean inbound, String address, Object body) {
+    final PermittedIndex.Entry entry = (inbound ? inboundPermitted : outboundPermitted).lookup(address, body);
+    if (entry == null) {
+      return new Match(false);
+    }
+    return new Match(true, entry.requiredAuthority);
+  }
+
+  private static void replyError(SockJSSocket sock, String err) {
+    JsonObject envelope = new JsonObject().put("type", "err").put("body", err);
+    sock.write(encode(isMessagePack(sock), envelope));
+  }
 
-    List<PermittedOptions> matches = inbound ? inboundPermitted : outboundPermitted;
+  private static boolean isMessagePack(SockJSSocket sock) {
+    return sock instanceof SockJSSocketBase
+      && SockJSBridgeOptions.MESSAGE_PACK_SUBPROTOCOL.equals(((SockJSSocketBase) sock).subProtocol());
+  }
 
-    for (PermittedOptions matchHolder : matches) {
-      String matchAddress = matchHolder.getAddress();
-      String matchRegex;
-      if (matchAddress == null) {
-        matchRegex = matchHolder.getAddressRegex();
-      } else {
-        matchRegex = null;
-      }
+  private static Buffer encode(boolean messagePack, JsonObject envelope) {
+    return messagePack ? MessagePackCodec.encode(envelope) : buffer(envelope.encode());
+  }
 
-      boolean addressOK;
-      if (matchAddress == null) {
-        addressOK = matchRegex == null || regexMatches(matchRegex, address);
-      } else {
-        addressOK = matchAddress.equals(address);
+  private static class Match {
+    public final boolean doesMatch;
+    public final Authorization requiredAuthority;
+
+    Match(boolean doesMatch, Authorization requiredAuthority) {
+      this.doesMatch = doesMatch;
+      this.requiredAuthority = requiredAuthority;
+    }
+
+    Match(boolean doesMatch) {
+      this.doesMatch = doesMatch;
+      this.requiredAuthority = null;
+    }
+
+  }
+
+  /**
+   * An outbound message, the envelope is built and encoded once per wire format no matter how many sockets it is
+   * delivered to.
+   */
+  private final class OutboundMessage {
+    final String address;
+    final Message<?> message;
+    final JsonObject envelope;
+    private Buffer frame;
+    private Buffer messagePackFrame;
+    private boolean replyAccepted;
+
+    OutboundMessage(String address, Message<?> message) {
+      this.address = address;
+      this.message = message;
+      envelope = new JsonObject().put("type", "rec").put("address", address).put("body", message.body());
+      if (message.replyAddress() != null) {
+        envelope.put("replyAddress", message.replyAddress());
+      }
+      if (message.headers() != null && !message.headers().isEmpty()) {
+        JsonObject headersCopy = new JsonObject();
+        for (String name : message.headers().names()) {
+          List<String> values = message.headers().getAll(name);
+          if (values.size() == 1) {
+            headersCopy.put(name, values.get(0));
+          } else {
+            headersCopy.put(name, values);
+          }
+        }
+        envelope.put("headers", headersCopy);
       }
+    }
 
-      if (addressOK) {
-        boolean matched = structureMatches(matchHolder.getMatch(), body);
-        if (matched) {
-          String requiredAuthority = matchHolder.getRequiredAuthority();
-          return new Match(true, requiredAuthority);
+    Buffer frame(boolean messagePack) {
+      if (messagePack) {
+        if (messagePackFrame == null) {
+          metrics.encodedMessages.increment();
+          messagePackFrame = MessagePackCodec.encode(envelope);
         }
+        return messagePackFrame;
+      }
+      if (frame == null) {
+        metrics.encodedMessages.increment();
+        frame = buffer(envelope.encode());
       }
+      return frame;
     }
-    return new Match(false);
-  }
 
-  private boolean regexMatches(String matchRegex, String address) {
-    Pattern pattern = compiledREs.computeIfAbsent(matchRegex, Pattern::compile);
-    Matcher m = pattern.matcher(address);
-    return m.matches();
+    void acceptReply() {
+      if (!replyAccepted) {
+        replyAccepted = true;
+        checkAddAccceptedReplyAddress(message);
+      }
+    }
   }
 
-  private static void replyError(SockJSSocket sock, String err) {
-    JsonObject envelope = new JsonObject().put("type", "err").put("body", err);
-    sock.write(buffer(envelope.encode()));
-  }
-
-  private static boolean structureMatches(JsonObject match, Object bodyObject) {
-    if (match == null || bodyObject == null) return true;
-
-    // Can send message other than JSON too - in which case we can't do deep matching on structure of message
-    if (bodyObject instanceof JsonObject) {
-      JsonObject body = (JsonObject) bodyObject;
-      for (String fieldName : match.fieldNames()) {
-        Object mv = match.getValue(fieldName);
-        Object bv = body.getValue(fieldName);
-        // Support deep matching
-        if (mv instanceof JsonObject) {
-          if (!structureMatches((JsonObject) mv, bv)) {
-            return false;
+  /**
+   * A single event bus consumer per address, fanning out published messages to all the sockets of this bridge
+   * registered to it, so they are matched and encoded once. Point to point messages are delivered to one of the
+   * sockets, in a round robin fashion.
+   * <p>
+   * The event bus has no weighted registration, so the bridge takes the share of a single consumer of the point to
+   * point messages sent to the address, whatever its number of sockets.
+   */
+  private final class Subscription implements Handler<Message<Object>> {
+    final String address;
+    final MessageConsumer<Object> consumer;
+    final Set<SockJSSocket> sockets = new LinkedHashSet<>();
+    private int next;
+
+    Subscription(String address) {
+      this.address = address;
+      this.consumer = eb.consumer(address, this);
+      consumer.completion().onFailure(err -> {
+        // allow later registrations to retry
+        if (subscriptions.get(address) == this) {
+          subscriptions.remove(address);
+        }
+      });
+    }
+
+    @Override
+    public void handle(Message<Object> msg) {
+      final boolean debug = LOG.isDebugEnabled();
+      final Match curMatch = checkMatches(false, address, msg.body());
+      if (!curMatch.doesMatch) {
+        // outbound match failed
+        if (debug) {
+          LOG.debug("Outbound message for address " + address + " rejected because there is no inbound match");
+        }
+        return;
+      }
+      if (sockets.isEmpty()) {
+        return;
+      }
+
+      final OutboundMessage message = new OutboundMessage(address, msg);
+      final List<SockJSSocket> targets;
+      if (msg.isSend()) {
+        targets = new ArrayList<>(1);
+        int idx = next++ % sockets.size();
+        for (SockJSSocket sock : sockets) {
+          if (idx-- == 0) {
+            targets.add(sock);
+            break;
           }
-        } else if (!match.getValue(fieldName).equals(body.getValue(fieldName))) {
-          return false;
         }
+      } else {
+        targets = new ArrayList<>(sockets);
       }
-      return true;
-    }
 
-    return false;
+      for (SockJSSocket sock : targets) {
+        if (curMatch.requiredAuthority != null) {
+          authorise(curMatch, sock.webUser())
+            .onSuccess(ok -> {
+              if (ok) {
+                message.acceptReply();
+                deliverMessage(sock, message);
+              } else {
+                if (debug) {
+                  LOG.debug("Outbound message for address " + address + " rejected because auth is required and socket is not authed");
+                }
+              }
+            })
+            .onFailure(LOG::error);
+        } else {
+          message.acceptReply();
+          deliverMessage(sock, message);
+        }
+      }
+    }
   }
 
-  private static class Match {
-    public final boolean doesMatch;
-    public final Authorization requiredAuthority;
+  /**
+   * The registration of a socket to an address.
+   */
+  private final class Registration {
+    final Subscription subscription;
+    final SockJSSocket sock;
 
-    Match(boolean doesMatch, String requiredAuthority) {
-      this.doesMatch = doesMatch;
-      this.requiredAuthority = requiredAuthority == null ? null : PermissionBasedAuthorization.create(requiredAuthority);
+    Registration(Subscription subscription, SockJSSocket sock) {
+      this.subscription = subscription;
+      this.sock = sock;
     }
 
-    Match(boolean doesMatch) {
-      this.doesMatch = doesMatch;
-      this.requiredAuthority = null;
+    String address() {
+      return subscription.address;
     }
 
+    Future<Void> completion() {
+      return subscription.consumer.completion();
+    }
+
+    void unregister() {
+      if (subscription.sockets.remove(sock) && subscription.sockets.isEmpty()) {
+        subscription.consumer.unregister();
+        if (subscriptions.get(subscription.address) == subscription) {
+          subscriptions.remove(subscription.address);
+        }
+      }
+    }
   }
 
   private static final class PingInfo {
     long lastPing;
-    long timerID;
+    long nextCheck;
+  }
+
+  private static final class PendingReply {
+    final Message<?> message;
+    final long expiresAt;
+
+    PendingReply(Message<?> message, long expiresAt) {
+      this.message = message;
+      this.expiresAt = expiresAt;
+    }
   }
 
   private static final class SockInfo {
     int handlerCount;
     PingInfo pingInfo;
+    Map<String, Registration> registrations;
+    // the messages waiting for the socket to drain, keyed by sequence number or by address when conflating
+    final LinkedHashMap<Object, Buffer> pending = new LinkedHashMap<>();
+    long sequence;
+    boolean awaitingDrain;
+    // the socket was closed by the backpressure policy
+    boolean closing;
   }
 }
@@ -59,11 +59,13 @@ class EventSourceTransport extends BaseTransport {
   private static final Logger LOG = LoggerFactory.getLogger(EventSourceTransport.class);
 
   private final Handler<SockJSSocket> sockHandler;
+  private final SockJSMetricsImpl metrics;
 
-  EventSourceTransport(Vertx vertx, Router router, LocalMap<String, SockJSSession> sessions, SockJSHandlerOptions options, Handler<SockJSSocket> sockHandler) {
-    super(vertx, sessions, options);
+  EventSourceTransport(Vertx vertx, Router router, SockJSScheduler scheduler, LocalMap<String, SockJSSession> sessions, SockJSHandlerOptions options, SockJSMetricsImpl metrics, Handler<SockJSSocket> sockHandler) {
+    super(vertx, scheduler, sessions, options);
 
     this.sockHandler = sockHandler;
+    this.metrics = metrics;
 
     String eventSourceRE = COMMON_PATH_ELEMENT_RE + "eventsource";
 
@@ -83,15 +85,22 @@ class EventSourceTransport extends BaseTransport {
     final int maxBytesStreaming;
     boolean headersWritten;
     int bytesSent;
+    final FrameBatcher batcher;
 
     EventSourceListener(int maxBytesStreaming, RoutingContext rc, SockJSSession session) {
       super(rc, session);
       this.maxBytesStreaming = maxBytesStreaming;
+      this.batcher = new FrameBatcher(vertx, rc.response(), options, metrics);
       addCloseHandler(rc.response(), session);
     }
 
     @Override
     public Future<Void> sendFrame(String body) {
+      return sendFrame(buffer(body));
+    }
+
+    @Override
+    public Future<Void> sendFrame(Buffer body) {
       if (LOG.isTraceEnabled()) LOG.trace("EventSource, sending frame");
       if (!headersWritten) {
         // event stream data is always UTF8
@@ -103,11 +112,11 @@ class EventSourceTransport extends BaseTransport {
         rc.response().setChunked(true).write("\r\n");
         headersWritten = true;
       }
-      String sb = "data: " +
-        body +
-        "\r\n\r\n";
-      Buffer buff = buffer(sb);
-      Future<Void> fut = rc.response().write(buff);
+      Buffer buff = buffer(body.length() + 10)
+        .appendString("data: ")
+        .appendBuffer(body)
+        .appendString("\r\n\r\n");
+      Future<Void> fut = batcher.write(buff);
       bytesSent += buff.length();
       if (bytesSent >= maxBytesStreaming) {
         if (LOG.isTraceEnabled()) LOG.trace("More than maxBytes sent so closing connection");
@@ -120,14 +129,16 @@ class EventSourceTransport extends BaseTransport {
     @Override
     public void close() {
       if (!closed) {
-        try {
-          session.resetListener();
-          rc.response().end();
-          rc.response().close();
-        } catch (IllegalStateException e) {
-          // Underlying connection might already be closed - that's fine
-        }
+        session.resetListener();
         closed = true;
+        batcher.flush(() -> {
+          try {
+            rc.response().end();
+            rc.response().close();
+          } catch (IllegalStateException e) {
+            // Underlying connection might already be closed - that's fine
+          }
+        });
       }
     }
 
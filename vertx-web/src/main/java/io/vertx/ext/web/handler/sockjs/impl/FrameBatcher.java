@@ -0,0 +1,132 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.sockjs.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.ext.web.handler.sockjs.SockJSHandlerOptions;
+
+/**
+ * Batches the frames of an HTTP streaming response in as few chunks as possible, see
+ * {@link SockJSHandlerOptions#setWriteBatchDelay(long)}.
+ * <p>
+ * Frames can be sent from other threads than the response one (e.g.: heartbeats) so the batch is guarded by this
+ * instance lock. Batches are written outside the lock, on the response context, so they are written in order.
+ */
+class FrameBatcher {
+
+  private final HttpServerResponse response;
+  private final SockJSMetricsImpl metrics;
+  private final ContextInternal context;
+  private final long delay;
+  private final int maxSize;
+
+  private Buffer batch;
+  private int batchedFrames;
+  private Promise<Void> batchPromise;
+
+  FrameBatcher(Vertx vertx, HttpServerResponse response, SockJSHandlerOptions options, SockJSMetricsImpl metrics) {
+    this.response = response;
+    this.metrics = metrics;
+    this.context = (ContextInternal) vertx.getOrCreateContext();
+    this.delay = options.getWriteBatchDelay();
+    this.maxSize = options.getWriteBatchMaxSize();
+  }
+
+  /**
+   * Writes a frame, either immediately or as part of a batch.
+   *
+   * @return a future completed when the chunk holding the frame is written
+   */
+  Future<Void> write(Buffer frame) {
+    if (delay < 0) {
+      metrics.frames.increment();
+      metrics.chunks.increment();
+      return response.write(frame);
+    }
+
+    final Future<Void> fut;
+    final boolean schedule;
+    final boolean full;
+    synchronized (this) {
+      schedule = batch == null;
+      if (schedule) {
+        batch = Buffer.buffer(Math.max(frame.length(), 256));
+        batchPromise = Promise.promise();
+      }
+      batch.appendBuffer(frame);
+      batchedFrames++;
+      fut = batchPromise.future();
+      full = batch.length() >= maxSize;
+    }
+    if (full) {
+      flush(null);
+    } else if (schedule) {
+      if (delay == 0) {
+        // at the end of the current event loop task
+        context.runOnContext(v -> writeBatch());
+      } else {
+        context.setTimer(delay, id -> writeBatch());
+      }
+    }
+    return fut;
+  }
+
+  /**
+   * Writes the pending batch, if any, then runs the given action, e.g.: ending the response. Both happen on the
+   * response context, after the batches already being written.
+   *
+   * @param then the action to run after the batch is written, can be {@code null}
+   */
+  void flush(Runnable then) {
+    if (delay < 0 || context.inThread()) {
+      writeBatch();
+      if (then != null) {
+        then.run();
+      }
+    } else {
+      context.runOnContext(v -> flush(then));
+    }
+  }
+
+  private void writeBatch() {
+    final Buffer batch;
+    final Promise<Void> promise;
+    synchronized (this) {
+      batch = this.batch;
+      if (batch == null) {
+        return;
+      }
+      promise = batchPromise;
+      metrics.frames.add(batchedFrames);
+      this.batch = null;
+      batchPromise = null;
+      batchedFrames = 0;
+    }
+    metrics.chunks.increment();
+    try {
+      response.write(batch).onComplete(promise);
+    } catch (IllegalStateException e) {
+      // the response was ended in the meantime
+      promise.fail(e);
+    }
+  }
+}
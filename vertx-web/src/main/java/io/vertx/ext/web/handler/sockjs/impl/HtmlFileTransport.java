@@ -91,8 +91,8 @@ class HtmlFileTransport extends BaseTransport {
 
   private final Handler<SockJSSocket> sockHandler;
 
-  HtmlFileTransport(Vertx vertx, Router router, LocalMap<String, SockJSSession> sessions, SockJSHandlerOptions options, Handler<SockJSSocket> sockHandler) {
-    super(vertx, sessions, options);
+  HtmlFileTransport(Vertx vertx, Router router, SockJSScheduler scheduler, LocalMap<String, SockJSSession> sessions, SockJSHandlerOptions options, Handler<SockJSSocket> sockHandler) {
+    super(vertx, scheduler, sessions, options);
 
     this.sockHandler = sockHandler;
 
@@ -37,11 +37,13 @@ import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.io.CharTypes;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.EncodeException;
 
 import java.io.IOException;
 import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -117,6 +119,108 @@ public class JsonCodec {
     }
   }
 
+  /**
+   * Encodes UTF-8 messages as a SockJS array frame, {@code a["message1","message2"]}, escaping the messages while
+   * decoding them. The frame is written directly into the returned buffer.
+   */
+  public static Buffer encodeFrame(Collection<Buffer> messages) {
+    int estimate = 3;
+    for (Buffer message : messages) {
+      estimate += message.length() + 3;
+    }
+    final Buffer out = Buffer.buffer(estimate);
+    out.appendByte((byte) 'a');
+    out.appendByte((byte) '[');
+    boolean first = true;
+    for (Buffer message : messages) {
+      if (first) {
+        first = false;
+      } else {
+        out.appendByte((byte) ',');
+      }
+      out.appendByte((byte) '"');
+      writeEscaped(out, message);
+      out.appendByte((byte) '"');
+    }
+    out.appendByte((byte) ']');
+    return out;
+  }
+
+  private static void writeEscaped(Buffer out, Buffer message) {
+    final int len = message.length();
+    int i = 0;
+    while (i < len) {
+      final int b = message.getByte(i) & 0xFF;
+      if (b < 0x80) {
+        // use escape table for first 128 characters
+        final int code = ESCAPE_CODES[b];
+        if (code == 0) {
+          out.appendByte((byte) b); // no escaping
+        } else if (code == -1) {
+          writeUnicodeEscape(out, b); // generic escaping
+        } else {
+          out.appendByte((byte) '\\'); // short escaping (\n \t ...)
+          out.appendByte((byte) code);
+        }
+        i++;
+        continue;
+      }
+      // all non US-ASCII characters are unicode escaped, decode the UTF-8 sequence
+      final int n;
+      int cp;
+      final int min;
+      if (b >= 0xC2 && b <= 0xDF) {
+        n = 1;
+        cp = b & 0x1F;
+        min = 0x80;
+      } else if ((b & 0xF0) == 0xE0) {
+        n = 2;
+        cp = b & 0x0F;
+        min = 0x800;
+      } else if (b >= 0xF0 && b <= 0xF4) {
+        n = 3;
+        cp = b & 0x07;
+        min = 0x10000;
+      } else {
+        n = 0;
+        cp = -1;
+        min = 0;
+      }
+      int read = 1;
+      for (; read <= n; read++) {
+        if (i + read == len) {
+          cp = -1;
+          break;
+        }
+        final int c = message.getByte(i + read) & 0xFF;
+        if ((c & 0xC0) != 0x80) {
+          cp = -1;
+          break;
+        }
+        cp = (cp << 6) | (c & 0x3F);
+      }
+      if (cp < min || cp > 0x10FFFF || (cp >= 0xD800 && cp <= 0xDFFF)) {
+        // malformed input is replaced, as when decoding the message to a string
+        writeUnicodeEscape(out, 0xFFFD);
+      } else if (cp >= 0x10000) {
+        writeUnicodeEscape(out, Character.highSurrogate(cp));
+        writeUnicodeEscape(out, Character.lowSurrogate(cp));
+      } else {
+        writeUnicodeEscape(out, cp);
+      }
+      i += read;
+    }
+  }
+
+  private static void writeUnicodeEscape(Buffer out, int c) {
+    out.appendByte((byte) '\\');
+    out.appendByte((byte) 'u');
+    out.appendByte((byte) HEX_CHARS[(c >> 12) & 0xF]);
+    out.appendByte((byte) HEX_CHARS[(c >> 8) & 0xF]);
+    out.appendByte((byte) HEX_CHARS[(c >> 4) & 0xF]);
+    out.appendByte((byte) HEX_CHARS[c & 0xF]);
+  }
+
   public static List<String> decodeValues(String messages) {
     List<String> result = null;
     try (JsonParser parser = factory.createParser(messages)) {
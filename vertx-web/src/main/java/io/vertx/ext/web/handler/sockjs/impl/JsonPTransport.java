@@ -36,6 +36,7 @@ import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.impl.NoStackTraceThrowable;
@@ -64,8 +65,8 @@ class JsonPTransport extends BaseTransport {
 
   private final Handler<SockJSSocket> sockHandler;
 
-  JsonPTransport(Vertx vertx, Router router, LocalMap<String, SockJSSession> sessions, SockJSHandlerOptions options, Handler<SockJSSocket> sockHandler) {
-    super(vertx, sessions, options);
+  JsonPTransport(Vertx vertx, Router router, SockJSScheduler scheduler, LocalMap<String, SockJSSession> sessions, SockJSHandlerOptions options, Handler<SockJSSocket> sockHandler) {
+    super(vertx, scheduler, sessions, options);
 
     this.sockHandler = sockHandler;
 
@@ -100,23 +101,52 @@ class JsonPTransport extends BaseTransport {
 
     HttpServerRequest req = ctx.request();
     String sessionID = req.params().get("param0");
-    SockJSSession session = getSession(ctx, options, sessionID, sockHandler);
-    session.register(req, new JsonPListener(ctx, session, callback));
+    final String cb = callback;
+    poll(ctx, sessionID, sockHandler,
+      session -> session.register(req, new JsonPListener(ctx, session, cb)),
+      frame -> writeForwardedFrame(ctx, cb, frame));
+  }
+
+  private void writeForwardedFrame(RoutingContext rc, String callback, Buffer frame) {
+    if (frame.length() == 0) {
+      // the poll was closed without a frame
+      rc.response().end();
+      return;
+    }
+    writeHeaders(rc);
+    rc.response().end(wrap(callback, frame.toString()));
+  }
+
+  private void writeHeaders(RoutingContext rc) {
+    rc.response()
+      .setChunked(true)
+      // protect against SWF JSONP exploit
+      .putHeader("X-Content-Type-Options", "nosniff")
+      .putHeader(HttpHeaders.CONTENT_TYPE, "application/javascript; charset=UTF-8");
+    setNoCacheHeaders(rc);
+    setJSESSIONID(options, rc);
+  }
+
+  private String wrap(String callback, String body) {
+    body = escapeForJavaScript(body);
+
+    // prepend comment to avoid SWF exploit https://github.com/sockjs/sockjs-node/issues/163
+    return "/**/" + callback + "(\"" +
+      body +
+      "\");\r\n";
   }
 
   private void handlePost(RoutingContext ctx) {
     String sessionID = ctx.request().getParam("param0");
     final SockJSSession session = sessions.get(sessionID);
-    if (session != null && !session.isClosed()) {
-      handleSend(ctx, session);
+    if ((session != null && !session.isClosed()) || (session == null && forwarder != null)) {
+      handleSend(ctx, sessionID);
     } else {
-      ctx.response().setStatusCode(404);
-      setJSESSIONID(options, ctx);
-      ctx.response().end();
+      sendSessionNotFound(ctx);
     }
   }
 
-  private void handleSend(RoutingContext rc, SockJSSession session) {
+  private void handleSend(RoutingContext rc, String sessionID) {
     final RequestBody body = rc.body();
 
     if (!body.available()) {
@@ -151,15 +181,23 @@ class JsonPTransport extends BaseTransport {
       stringBody = URIDecoder.decodeURIComponent(stringBody, true).substring(2);
     }
 
-    if (!session.handleMessages(stringBody)) {
-      sendInvalidJSON(rc.response());
-    } else {
-      setJSESSIONID(options, rc);
-      rc.response().putHeader(HttpHeaders.CONTENT_TYPE, "text/plain; charset=UTF-8");
-      setNoCacheHeaders(rc);
-      rc.response().end("ok");
-      if (LOG.isTraceEnabled()) LOG.trace("send handled ok");
-    }
+    send(sessionID, stringBody).onComplete(ar -> {
+      if (ar.failed()) {
+        if (isUnknownSession(ar.cause())) {
+          sendSessionNotFound(rc);
+        } else {
+          rc.fail(ar.cause());
+        }
+      } else if (!ar.result()) {
+        sendInvalidJSON(rc.response());
+      } else {
+        setJSESSIONID(options, rc);
+        rc.response().putHeader(HttpHeaders.CONTENT_TYPE, "text/plain; charset=UTF-8");
+        setNoCacheHeaders(rc);
+        rc.response().end("ok");
+        if (LOG.isTraceEnabled()) LOG.trace("send handled ok");
+      }
+    });
   }
 
   private class JsonPListener extends BaseListener {
@@ -178,26 +216,13 @@ class JsonPTransport extends BaseTransport {
       if (LOG.isTraceEnabled()) LOG.trace("JsonP, sending frame");
 
       if (!headersWritten) {
-        rc.response()
-          .setChunked(true)
-          // protect against SWF JSONP exploit
-          .putHeader("X-Content-Type-Options", "nosniff")
-          .putHeader(HttpHeaders.CONTENT_TYPE, "application/javascript; charset=UTF-8");
-        setNoCacheHeaders(rc);
-        setJSESSIONID(options, rc);
+        writeHeaders(rc);
         headersWritten = true;
       }
 
-      body = escapeForJavaScript(body);
-
-      // prepend comment to avoid SWF exploit https://github.com/sockjs/sockjs-node/issues/163
-      String sb = "/**/" + callback + "(\"" +
-        body +
-        "\");\r\n";
-
       //End the response and close the HTTP connection
 
-      Future<Void> fut = rc.response().write(sb);
+      Future<Void> fut = rc.response().write(wrap(callback, body));
       close();
       return fut;
     }
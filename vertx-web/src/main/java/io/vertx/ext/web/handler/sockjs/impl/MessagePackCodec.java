@@ -0,0 +1,349 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.sockjs.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.EncodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static java.time.format.DateTimeFormatter.ISO_INSTANT;
+
+/**
+ * Encodes and decodes the event bus bridge messages with <a href="https://msgpack.org">MessagePack</a>, for the raw
+ * WebSocket clients negotiating the {@link io.vertx.ext.web.handler.sockjs.SockJSBridgeOptions#MESSAGE_PACK_SUBPROTOCOL}
+ * subprotocol.
+ * <p>
+ * Only the types a {@link JsonObject} can hold are supported. Binary values (a {@link Buffer} or a {@code byte[]}) are
+ * written as MessagePack {@code bin} instead of base64 strings and are decoded as {@link Buffer}. The other values that
+ * JSON encodes as strings (e.g. {@link Instant}) are written as strings as well.
+ */
+public final class MessagePackCodec {
+
+  // nesting limit of the decoded values, as for JSON
+  private static final int MAX_DEPTH = 1000;
+
+  private MessagePackCodec() {
+  }
+
+  public static Buffer encode(JsonObject json) throws EncodeException {
+    final Buffer buffer = Buffer.buffer(128);
+    writeMap(buffer, json.getMap());
+    return buffer;
+  }
+
+  public static JsonObject decode(Buffer buffer) throws DecodeException {
+    final Reader reader = new Reader(buffer);
+    final Object value;
+    try {
+      value = reader.read(0);
+    } catch (IndexOutOfBoundsException e) {
+      throw new DecodeException("Truncated MessagePack value");
+    }
+    if (!(value instanceof JsonObject)) {
+      throw new DecodeException("MessagePack value is not a map");
+    }
+    if (reader.pos != buffer.length()) {
+      throw new DecodeException("Trailing bytes after the MessagePack value");
+    }
+    return (JsonObject) value;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void write(Buffer buffer, Object value) {
+    if (value == null) {
+      buffer.appendByte((byte) 0xc0);
+    } else if (value instanceof Boolean) {
+      buffer.appendByte((byte) ((Boolean) value ? 0xc3 : 0xc2));
+    } else if (value instanceof String) {
+      writeString(buffer, (String) value);
+    } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+      writeLong(buffer, ((Number) value).longValue());
+    } else if (value instanceof Double) {
+      buffer.appendByte((byte) 0xcb).appendDouble((Double) value);
+    } else if (value instanceof Float) {
+      buffer.appendByte((byte) 0xca).appendFloat((Float) value);
+    } else if (value instanceof JsonObject) {
+      writeMap(buffer, ((JsonObject) value).getMap());
+    } else if (value instanceof Map) {
+      writeMap(buffer, (Map<String, Object>) value);
+    } else if (value instanceof JsonArray) {
+      writeArray(buffer, ((JsonArray) value).getList());
+    } else if (value instanceof List) {
+      writeArray(buffer, (List<Object>) value);
+    } else if (value instanceof Buffer) {
+      writeBinary(buffer, (Buffer) value);
+    } else if (value instanceof byte[]) {
+      writeBinary(buffer, Buffer.buffer((byte[]) value));
+    } else if (value instanceof BigInteger || value instanceof BigDecimal) {
+      // no arbitrary precision numbers in MessagePack, keep them exact
+      writeString(buffer, value.toString());
+    } else if (value instanceof Instant) {
+      writeString(buffer, ISO_INSTANT.format((Instant) value));
+    } else if (value instanceof Enum) {
+      writeString(buffer, ((Enum<?>) value).name());
+    } else if (value instanceof CharSequence) {
+      writeString(buffer, value.toString());
+    } else {
+      throw new EncodeException("Cannot encode " + value.getClass().getName() + " to MessagePack");
+    }
+  }
+
+  private static void writeMap(Buffer buffer, Map<String, Object> map) {
+    final int size = map.size();
+    if (size < 16) {
+      buffer.appendByte((byte) (0x80 | size));
+    } else if (size < 0x10000) {
+      buffer.appendByte((byte) 0xde).appendUnsignedShort(size);
+    } else {
+      buffer.appendByte((byte) 0xdf).appendInt(size);
+    }
+    for (Map.Entry<String, Object> entry : map.entrySet()) {
+      writeString(buffer, entry.getKey());
+      write(buffer, entry.getValue());
+    }
+  }
+
+  private static void writeArray(Buffer buffer, List<Object> list) {
+    final int size = list.size();
+    if (size < 16) {
+      buffer.appendByte((byte) (0x90 | size));
+    } else if (size < 0x10000) {
+      buffer.appendByte((byte) 0xdc).appendUnsignedShort(size);
+    } else {
+      buffer.appendByte((byte) 0xdd).appendInt(size);
+    }
+    for (Object value : list) {
+      write(buffer, value);
+    }
+  }
+
+  private static void writeString(Buffer buffer, String s) {
+    final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+    final int length = bytes.length;
+    if (length < 32) {
+      buffer.appendByte((byte) (0xa0 | length));
+    } else if (length < 0x100) {
+      buffer.appendByte((byte) 0xd9).appendUnsignedByte((short) length);
+    } else if (length < 0x10000) {
+      buffer.appendByte((byte) 0xda).appendUnsignedShort(length);
+    } else {
+      buffer.appendByte((byte) 0xdb).appendInt(length);
+    }
+    buffer.appendBytes(bytes);
+  }
+
+  private static void writeBinary(Buffer buffer, Buffer bin) {
+    final int length = bin.length();
+    if (length < 0x100) {
+      buffer.appendByte((byte) 0xc4).appendUnsignedByte((short) length);
+    } else if (length < 0x10000) {
+      buffer.appendByte((byte) 0xc5).appendUnsignedShort(length);
+    } else {
+      buffer.appendByte((byte) 0xc6).appendInt(length);
+    }
+    buffer.appendBuffer(bin);
+  }
+
+  private static void writeLong(Buffer buffer, long value) {
+    if (value >= 0) {
+      if (value < 0x80) {
+        buffer.appendByte((byte) value);
+      } else if (value < 0x100) {
+        buffer.appendByte((byte) 0xcc).appendUnsignedByte((short) value);
+      } else if (value < 0x10000) {
+        buffer.appendByte((byte) 0xcd).appendUnsignedShort((int) value);
+      } else if (value < 0x100000000L) {
+        buffer.appendByte((byte) 0xce).appendUnsignedInt(value);
+      } else {
+        buffer.appendByte((byte) 0xcf).appendLong(value);
+      }
+    } else {
+      if (value >= -32) {
+        buffer.appendByte((byte) value);
+      } else if (value >= Byte.MIN_VALUE) {
+        buffer.appendByte((byte) 0xd0).appendByte((byte) value);
+      } else if (value >= Short.MIN_VALUE) {
+        buffer.appendByte((byte) 0xd1).appendShort((short) value);
+      } else if (value >= Integer.MIN_VALUE) {
+        buffer.appendByte((byte) 0xd2).appendInt((int) value);
+      } else {
+        buffer.appendByte((byte) 0xd3).appendLong(value);
+      }
+    }
+  }
+
+  private static final class Reader {
+
+    private final Buffer buffer;
+    private int pos;
+
+    Reader(Buffer buffer) {
+      this.buffer = buffer;
+    }
+
+    Object read(int depth) {
+      if (depth > MAX_DEPTH) {
+        throw new DecodeException("MessagePack value nested too deep");
+      }
+      final int b = buffer.getUnsignedByte(pos++);
+      if (b < 0x80) {
+        return b;
+      }
+      if (b >= 0xe0) {
+        return (int) (byte) b;
+      }
+      if (b < 0x90) {
+        return readMap(b & 0x0f, depth);
+      }
+      if (b < 0xa0) {
+        return readArray(b & 0x0f, depth);
+      }
+      if (b < 0xc0) {
+        return readString(b & 0x1f);
+      }
+      switch (b) {
+        case 0xc0:
+          return null;
+        case 0xc2:
+          return false;
+        case 0xc3:
+          return true;
+        case 0xc4:
+          return readBinary(readLength(1));
+        case 0xc5:
+          return readBinary(readLength(2));
+        case 0xc6:
+          return readBinary(readLength(4));
+        case 0xca:
+          pos += 4;
+          return (double) buffer.getFloat(pos - 4);
+        case 0xcb:
+          pos += 8;
+          return buffer.getDouble(pos - 8);
+        case 0xcc:
+          return buffer.getUnsignedByte(pos++) & 0xff;
+        case 0xcd:
+          pos += 2;
+          return buffer.getUnsignedShort(pos - 2);
+        case 0xce:
+          pos += 4;
+          return narrow(buffer.getUnsignedInt(pos - 4));
+        case 0xcf: {
+          pos += 8;
+          final long value = buffer.getLong(pos - 8);
+          if (value < 0) {
+            throw new DecodeException("MessagePack integer out of range");
+          }
+          return narrow(value);
+        }
+        case 0xd0:
+          return (int) buffer.getByte(pos++);
+        case 0xd1:
+          pos += 2;
+          return (int) buffer.getShort(pos - 2);
+        case 0xd2:
+          pos += 4;
+          return buffer.getInt(pos - 4);
+        case 0xd3:
+          pos += 8;
+          return narrow(buffer.getLong(pos - 8));
+        case 0xd9:
+          return readString(readLength(1));
+        case 0xda:
+          return readString(readLength(2));
+        case 0xdb:
+          return readString(readLength(4));
+        case 0xdc:
+          return readArray(readLength(2), depth);
+        case 0xdd:
+          return readArray(readLength(4), depth);
+        case 0xde:
+          return readMap(readLength(2), depth);
+        case 0xdf:
+          return readMap(readLength(4), depth);
+        default:
+          // extension types
+          throw new DecodeException("Unsupported MessagePack type 0x" + Integer.toHexString(b));
+      }
+    }
+
+    private int readLength(int bytes) {
+      final long length;
+      switch (bytes) {
+        case 1:
+          length = buffer.getUnsignedByte(pos);
+          break;
+        case 2:
+          length = buffer.getUnsignedShort(pos);
+          break;
+        default:
+          length = buffer.getUnsignedInt(pos);
+      }
+      pos += bytes;
+      // every element takes at least one byte, this bounds what a small message can make us allocate
+      if (length > buffer.length() - pos) {
+        throw new DecodeException("Truncated MessagePack value");
+      }
+      return (int) length;
+    }
+
+    private JsonObject readMap(int size, int depth) {
+      final JsonObject json = new JsonObject();
+      for (int i = 0; i < size; i++) {
+        final Object key = read(depth + 1);
+        if (!(key instanceof String)) {
+          throw new DecodeException("MessagePack map key is not a string");
+        }
+        json.put((String) key, read(depth + 1));
+      }
+      return json;
+    }
+
+    private JsonArray readArray(int size, int depth) {
+      final JsonArray json = new JsonArray();
+      for (int i = 0; i < size; i++) {
+        json.add(read(depth + 1));
+      }
+      return json;
+    }
+
+    private String readString(int length) {
+      final String s = buffer.getString(pos, pos + length, "UTF-8");
+      pos += length;
+      return s;
+    }
+
+    private Buffer readBinary(int length) {
+      final Buffer bin = buffer.getBuffer(pos, pos + length);
+      pos += length;
+      return bin;
+    }
+
+    private static Object narrow(long value) {
+      return value == (int) value ? (Object) (int) value : (Object) value;
+    }
+  }
+}
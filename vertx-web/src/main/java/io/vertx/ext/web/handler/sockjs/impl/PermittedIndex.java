@@ -0,0 +1,217 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.sockjs.impl;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.authorization.Authorization;
+import io.vertx.ext.auth.authorization.PermissionBasedAuthorization;
+import io.vertx.ext.bridge.PermittedOptions;
+import io.vertx.ext.web.impl.LRUCache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * The permitted options of a bridge direction, compiled for lookups.
+ * <p>
+ * The options are evaluated in order and the first one matching both the address and the body wins, as before, but the
+ * candidates for an address are found without scanning the whole list:
+ *
+ * <ul>
+ *   <li>options with an exact address are indexed by address,</li>
+ *   <li>all the address regular expressions are combined in a single pattern, so an address matching none of them
+ *   is rejected in a single pass,</li>
+ *   <li>the candidates of the addresses, including the addresses matching no regular expression, are kept in a
+ *   bounded cache.</li>
+ * </ul>
+ *
+ * When the candidates have no body {@code match}, the first candidate is the result, so a cache hit does not evaluate
+ * anything.
+ */
+class PermittedIndex {
+
+  private static final Entry[] EMPTY = new Entry[0];
+  private static final int MAX_CACHED_ADDRESSES = 1024;
+  // numbered back references would be shifted by the groups of the other expressions
+  private static final Pattern BACK_REFERENCE = Pattern.compile("\\\\[1-9]");
+
+  private final Map<String, Entry[]> exact = new HashMap<>();
+  // options matching any address
+  private final Entry[] wildcards;
+  private final Entry[] regexes;
+  private final Pattern combined;
+  private final Map<String, Entry[]> cache;
+
+  PermittedIndex(List<PermittedOptions> permitted) {
+    final Map<String, List<Entry>> byAddress = new HashMap<>();
+    final List<Entry> wildcards = new ArrayList<>();
+    final List<Entry> regexes = new ArrayList<>();
+
+    for (int i = 0; i < permitted.size(); i++) {
+      final PermittedOptions options = permitted.get(i);
+      final Entry entry = new Entry(i, options);
+      if (options.getAddress() != null) {
+        byAddress.computeIfAbsent(options.getAddress(), k -> new ArrayList<>()).add(entry);
+      } else if (options.getAddressRegex() != null) {
+        regexes.add(entry);
+      } else {
+        wildcards.add(entry);
+      }
+    }
+
+    this.wildcards = wildcards.toArray(EMPTY);
+    this.regexes = regexes.toArray(EMPTY);
+    // the wildcards apply to every address, merge them once
+    byAddress.forEach((address, entries) -> exact.put(address, merge(entries.toArray(EMPTY), this.wildcards)));
+    this.combined = combine(this.regexes);
+    this.cache = this.regexes.length == 0 ? null : new LRUCache<>(16, 0.75f, true, MAX_CACHED_ADDRESSES);
+  }
+
+  /**
+   * @return the first permitted option matching the address and the body, {@code null} if none.
+   */
+  Entry lookup(String address, Object body) {
+    for (Entry entry : candidates(address)) {
+      if (structureMatches(entry.match, body)) {
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  private Entry[] candidates(String address) {
+    if (regexes.length == 0) {
+      return exact.getOrDefault(address, wildcards);
+    }
+
+    Entry[] candidates;
+    synchronized (cache) {
+      candidates = cache.get(address);
+    }
+    if (candidates == null) {
+      final Entry[] indexed = exact.getOrDefault(address, wildcards);
+      if (combined != null && !combined.matcher(address).matches()) {
+        // rejected by every expression, cached as well so a repeated address is not matched again
+        candidates = indexed;
+      } else {
+        final List<Entry> matching = new ArrayList<>();
+        for (Entry entry : regexes) {
+          if (entry.regex.matcher(address).matches()) {
+            matching.add(entry);
+          }
+        }
+        candidates = merge(indexed, matching.toArray(EMPTY));
+      }
+      synchronized (cache) {
+        cache.put(address, candidates);
+      }
+    }
+    return candidates;
+  }
+
+  /**
+   * @return the number of addresses whose candidates are cached.
+   */
+  int cachedAddresses() {
+    if (cache == null) {
+      return 0;
+    }
+    synchronized (cache) {
+      return cache.size();
+    }
+  }
+
+  private static Entry[] merge(Entry[] a, Entry[] b) {
+    if (b.length == 0) {
+      return a;
+    }
+    if (a.length == 0) {
+      return b;
+    }
+    final Entry[] merged = Arrays.copyOf(a, a.length + b.length);
+    System.arraycopy(b, 0, merged, a.length, b.length);
+    // keep the configuration order
+    Arrays.sort(merged, (x, y) -> Integer.compare(x.position, y.position));
+    return merged;
+  }
+
+  private static Pattern combine(Entry[] regexes) {
+    if (regexes.length < 2) {
+      return null;
+    }
+    final StringBuilder sb = new StringBuilder();
+    for (Entry entry : regexes) {
+      final String regex = entry.regex.pattern();
+      if (BACK_REFERENCE.matcher(regex).find()) {
+        return null;
+      }
+      if (sb.length() > 0) {
+        sb.append('|');
+      }
+      sb.append("(?:").append(regex).append(')');
+    }
+    try {
+      return Pattern.compile(sb.toString());
+    } catch (PatternSyntaxException e) {
+      // e.g.: the same group name used in several expressions, each expression is then evaluated on its own
+      return null;
+    }
+  }
+
+  private static boolean structureMatches(JsonObject match, Object bodyObject) {
+    if (match == null || bodyObject == null) return true;
+
+    // Can send message other than JSON too - in which case we can't do deep matching on structure of message
+    if (bodyObject instanceof JsonObject) {
+      JsonObject body = (JsonObject) bodyObject;
+      for (String fieldName : match.fieldNames()) {
+        Object mv = match.getValue(fieldName);
+        Object bv = body.getValue(fieldName);
+        // Support deep matching
+        if (mv instanceof JsonObject) {
+          if (!structureMatches((JsonObject) mv, bv)) {
+            return false;
+          }
+        } else if (!match.getValue(fieldName).equals(body.getValue(fieldName))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    return false;
+  }
+
+  static final class Entry {
+    final int position;
+    final Pattern regex;
+    final JsonObject match;
+    final Authorization requiredAuthority;
+
+    private Entry(int position, PermittedOptions options) {
+      this.position = position;
+      this.regex = options.getAddress() == null && options.getAddressRegex() != null ? Pattern.compile(options.getAddressRegex()) : null;
+      this.match = options.getMatch();
+      this.requiredAuthority = options.getRequiredAuthority() == null ? null : PermissionBasedAuthorization.create(options.getRequiredAuthority());
+    }
+  }
+}
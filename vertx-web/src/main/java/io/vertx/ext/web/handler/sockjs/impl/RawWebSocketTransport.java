@@ -225,6 +225,11 @@ class RawWebSocketTransport {
       ws.close((short) statusCode, reason);
     }
 
+    @Override
+    public String subProtocol() {
+      return ws.subProtocol();
+    }
+
     @Override
     public SocketAddress remoteAddress() {
       return ws.remoteAddress();
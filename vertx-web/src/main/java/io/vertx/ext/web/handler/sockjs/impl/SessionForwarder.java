@@ -0,0 +1,241 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.sockjs.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.shareddata.AsyncMap;
+import io.vertx.ext.web.handler.sockjs.SockJSHandlerOptions;
+
+import java.util.UUID;
+
+/**
+ * Forwards the polling transport requests of a session to the node owning it, see
+ * {@link SockJSHandlerOptions#setClusteredSessions(boolean)}.
+ * <p>
+ * The owner of a session consumes the session address, the other nodes send it the requests they receive:
+ *
+ * <ul>
+ *   <li>{@code poll}: the owner registers a listener replying with the first frame written to it, exactly like an
+ *   HTTP polling listener ending its response,</li>
+ *   <li>{@code send}: the owner handles the messages and replies whether they were valid,</li>
+ *   <li>{@code closed}: the connection of a forwarded poll was closed, the owner shuts the session down.</li>
+ * </ul>
+ *
+ * A session nobody consumes the address of is unknown to the cluster. The node receiving its request claims it in a
+ * cluster wide map before creating it, so two nodes receiving the first requests of a session at the same time cannot
+ * both own it: the node losing the claim forwards its request to the winner once its address is consumed.
+ * <p>
+ * Frames other than heartbeats are acknowledged by the forwarding node. The owner answers a poll before the
+ * forwarding node gives up on it, and writes again a frame whose acknowledgement failed, e.g. because the answer
+ * arrived after the forwarding node timed out.
+ */
+class SessionForwarder {
+
+  private static final String ADDRESS_PREFIX = "__vertx.sockjs.session.";
+  private static final String OWNERS = "__vertx.sockjs.owners";
+  private static final String OP = "op";
+  private static final String POLL = "poll";
+  private static final String SEND = "send";
+  private static final String CLOSED = "closed";
+
+  private static final int SESSION_CLOSED = 404;
+  private static final int INVALID_JSON = 400;
+
+  private final Vertx vertx;
+  private final EventBus eb;
+  private final String nodeId = UUID.randomUUID().toString();
+  private final long pollTimeout;
+  private final long answerTimeout;
+  private Future<AsyncMap<String, String>> owners;
+
+  SessionForwarder(Vertx vertx, SockJSHandlerOptions options) {
+    this.vertx = vertx;
+    this.eb = vertx.eventBus();
+    // the owner writes at least a heartbeat frame every heartbeat interval
+    this.pollTimeout = 2 * options.getHeartbeatInterval();
+    // and answers well before the forwarding node times out
+    this.answerTimeout = options.getHeartbeatInterval();
+  }
+
+  private synchronized Future<AsyncMap<String, String>> owners() {
+    if (owners == null || owners.failed()) {
+      owners = vertx.sharedData().getAsyncMap(OWNERS);
+    }
+    return owners;
+  }
+
+  /**
+   * Claims the ownership of a session unknown to the cluster.
+   *
+   * @param takeOver whether to take the session over from the node holding the claim, because that node does not
+   *                 consume the session address (any more)
+   * @return whether this node owns the session
+   */
+  Future<Boolean> claim(String id, boolean takeOver) {
+    return owners().compose(map -> map.putIfAbsent(id, nodeId).compose(owner -> {
+      if (owner == null || owner.equals(nodeId)) {
+        return Future.succeededFuture(true);
+      }
+      return takeOver ? map.replaceIfPresent(id, owner, nodeId) : Future.succeededFuture(false);
+    }));
+  }
+
+  /**
+   * Makes this node the owner of a session it claimed, the session releases the claim when it is shut down.
+   */
+  void own(SockJSSession session, String id) {
+    final MessageConsumer<Object> consumer = eb.consumer(ADDRESS_PREFIX + id, msg -> handle(session, msg));
+    session.setOwnership(consumer.completion(), () -> consumer.unregister().onComplete(ar -> release(id)));
+  }
+
+  private void release(String id) {
+    owners().onSuccess(map -> map.removeIfPresent(id, nodeId));
+  }
+
+  private void handle(SockJSSession session, Message<Object> msg) {
+    final String op = msg.headers().get(OP);
+    if (POLL.equals(op)) {
+      session.register(new ForwardedListener(session, msg));
+    } else if (SEND.equals(op)) {
+      if (session.isClosed()) {
+        msg.fail(SESSION_CLOSED, "Session closed");
+      } else if (session.handleMessages((String) msg.body())) {
+        msg.reply(null);
+      } else {
+        msg.fail(INVALID_JSON, "Broken JSON encoding");
+      }
+    } else if (CLOSED.equals(op)) {
+      session.shutdown();
+    }
+  }
+
+  /**
+   * @return the frame the owner answered with, empty if the poll was closed without one
+   */
+  Future<Buffer> poll(String id) {
+    return eb
+      .request(ADDRESS_PREFIX + id, null, new DeliveryOptions().addHeader(OP, POLL).setSendTimeout(pollTimeout))
+      .map(msg -> {
+        if (msg.body() == null) {
+          return Buffer.buffer();
+        }
+        if (msg.replyAddress() != null) {
+          // acknowledge the frame, so the owner does not write it again
+          msg.reply(null);
+        }
+        return (Buffer) msg.body();
+      });
+  }
+
+  /**
+   * @return whether the messages were valid
+   */
+  Future<Boolean> send(String id, String messages) {
+    return eb
+      .request(ADDRESS_PREFIX + id, messages, new DeliveryOptions().addHeader(OP, SEND))
+      .map(true)
+      .recover(err -> isFailure(err, INVALID_JSON) ? Future.succeededFuture(false) : Future.failedFuture(err));
+  }
+
+  void closed(String id) {
+    eb.send(ADDRESS_PREFIX + id, null, new DeliveryOptions().addHeader(OP, CLOSED));
+  }
+
+  /**
+   * @return whether the failure means no node owns the session (any more)
+   */
+  static boolean isUnknownSession(Throwable err) {
+    return err instanceof ReplyException
+      && (((ReplyException) err).failureType() == ReplyFailure.NO_HANDLERS || isFailure(err, SESSION_CLOSED));
+  }
+
+  private static boolean isFailure(Throwable err, int code) {
+    return err instanceof ReplyException
+      && ((ReplyException) err).failureType() == ReplyFailure.RECIPIENT_FAILURE
+      && ((ReplyException) err).failureCode() == code;
+  }
+
+  private static boolean isHeartbeat(Buffer frame) {
+    return frame.length() == 1 && frame.getByte(0) == 'h';
+  }
+
+  /**
+   * Stands for the HTTP polling listener of the forwarding node.
+   */
+  private final class ForwardedListener implements TransportListener {
+
+    private final SockJSSession session;
+    private final Message<Object> request;
+    private final long timerID;
+    private boolean replied;
+
+    ForwardedListener(SockJSSession session, Message<Object> request) {
+      this.session = session;
+      this.request = request;
+      this.timerID = vertx.setTimer(answerTimeout, tid -> close());
+    }
+
+    @Override
+    public Future<Void> sendFrame(String body) {
+      return sendFrame(Buffer.buffer(body));
+    }
+
+    @Override
+    public Future<Void> sendFrame(Buffer body) {
+      if (reply(body)) {
+        return Future.succeededFuture();
+      }
+      return Future.failedFuture("Poll already answered");
+    }
+
+    @Override
+    public void close() {
+      reply(null);
+    }
+
+    @Override
+    public void sessionClosed() {
+      session.writeClosed(this);
+      close();
+    }
+
+    private boolean reply(Buffer body) {
+      if (replied) {
+        return false;
+      }
+      replied = true;
+      vertx.cancelTimer(timerID);
+      session.resetListener();
+      if (body == null || isHeartbeat(body)) {
+        request.reply(body);
+      } else {
+        request
+          .replyAndRequest(body, new DeliveryOptions().setSendTimeout(pollTimeout))
+          .onFailure(err -> session.resend(body));
+      }
+      return true;
+    }
+  }
+}
@@ -68,17 +68,25 @@ public class SockJSImpl implements SockJSHandler {
   private final Vertx vertx;
   private final LocalMap<String, SockJSSession> sessions;
   private final SockJSHandlerOptions options;
+  private final SockJSScheduler scheduler;
+  private final SockJSMetricsImpl metrics = new SockJSMetricsImpl();
 
   public SockJSImpl(Vertx vertx, SockJSHandlerOptions options) {
     this.vertx = vertx;
     // TODO use clustered map
     this.sessions = vertx.sharedData().getLocalMap("_vertx.sockjssessions");
     this.options = options;
+    this.scheduler = new SockJSScheduler(options);
+  }
+
+  @Override
+  public SockJSMetrics metrics() {
+    return metrics;
   }
 
   @Override
   public Router bridge(AuthorizationProvider authorizationProvider, SockJSBridgeOptions bridgeOptions, Handler<BridgeEvent> bridgeEventHandler) {
-    return socketHandler(new EventBusBridgeImpl(vertx, authorizationProvider, bridgeOptions, bridgeEventHandler));
+    return socketHandler(new EventBusBridgeImpl(vertx, authorizationProvider, bridgeOptions, bridgeEventHandler, metrics));
   }
 
   @Override
@@ -126,19 +134,19 @@ public class SockJSImpl implements SockJSHandler {
     enabledTransports.removeAll(disabledTransports);
 
     if (enabledTransports.contains(Transport.XHR.toString())) {
-      new XhrTransport(vertx, router, sessions, options, sockHandler);
+      new XhrTransport(vertx, router, scheduler, sessions, options, metrics, sockHandler);
     }
     if (enabledTransports.contains(Transport.EVENT_SOURCE.toString())) {
-      new EventSourceTransport(vertx, router, sessions, options, sockHandler);
+      new EventSourceTransport(vertx, router, scheduler, sessions, options, metrics, sockHandler);
     }
     if (enabledTransports.contains(Transport.HTML_FILE.toString())) {
-      new HtmlFileTransport(vertx, router, sessions, options, sockHandler);
+      new HtmlFileTransport(vertx, router, scheduler, sessions, options, sockHandler);
     }
     if (enabledTransports.contains(Transport.JSON_P.toString())) {
-      new JsonPTransport(vertx, router, sessions, options, sockHandler);
+      new JsonPTransport(vertx, router, scheduler, sessions, options, sockHandler);
     }
     if (enabledTransports.contains(Transport.WEBSOCKET.toString())) {
-      new WebSocketTransport(vertx, router, sessions, options, sockHandler);
+      new WebSocketTransport(vertx, router, scheduler, sessions, options, sockHandler);
       new RawWebSocketTransport(vertx, router, options, sockHandler);
     }
 
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.sockjs.impl;
+
+import io.vertx.ext.web.handler.sockjs.SockJSMetrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The counters of a handler, shared by its transports and bridges.
+ */
+public class SockJSMetricsImpl implements SockJSMetrics {
+
+  final LongAdder frames = new LongAdder();
+  final LongAdder chunks = new LongAdder();
+  final LongAdder encodedMessages = new LongAdder();
+  final LongAdder deliveredMessages = new LongAdder();
+  final LongAdder droppedMessages = new LongAdder();
+  final LongAdder pendingReplies = new LongAdder();
+  final LongAdder expiredReplies = new LongAdder();
+  final LongAdder evictedReplies = new LongAdder();
+
+  @Override
+  public long streamedFrames() {
+    return frames.sum();
+  }
+
+  @Override
+  public long streamedChunks() {
+    return chunks.sum();
+  }
+
+  @Override
+  public long encodedMessages() {
+    return encodedMessages.sum();
+  }
+
+  @Override
+  public long deliveredMessages() {
+    return deliveredMessages.sum();
+  }
+
+  @Override
+  public long droppedMessages() {
+    return droppedMessages.sum();
+  }
+
+  @Override
+  public long pendingReplies() {
+    return pendingReplies.sum();
+  }
+
+  @Override
+  public long expiredReplies() {
+    return expiredReplies.sum();
+  }
+
+  @Override
+  public long evictedReplies() {
+    return evictedReplies.sum();
+  }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.sockjs.impl;
+
+import io.vertx.core.Closeable;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.ext.web.handler.sockjs.SockJSHandlerOptions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the heartbeats and timeouts of all the sessions of a {@link SockJSImpl}.
+ * <p>
+ * Instead of one Vert.x timer per session, tasks are kept in a hashed timing wheel per event loop context, which is
+ * advanced by a single periodic timer running only while the wheel holds tasks. All the tasks due in a tick run in the
+ * same timer callback, so heartbeat frames are written in batches and the timer overhead does not grow with the number
+ * of sessions.
+ * <p>
+ * Tasks cannot be cancelled, they are expected to check their own state when run: a task returns the next time it
+ * wants to run, or {@code -1} to be discarded.
+ */
+class SockJSScheduler {
+
+  @FunctionalInterface
+  interface Task {
+    /**
+     * @param now the scheduler time, see {@link SockJSScheduler#now()}
+     * @return the next time the task should run or {@code -1}
+     */
+    long run(long now);
+  }
+
+  private static final int WHEEL_SIZE = 512;
+  // upper bound of the tick, which is also the precision of the timeouts
+  private static final long MAX_TICK = 100;
+
+  private final long tick;
+  private final Map<ContextInternal, Wheel> wheels = new ConcurrentHashMap<>();
+
+  SockJSScheduler(SockJSHandlerOptions options) {
+    final long shortest = Math.min(options.getHeartbeatInterval(), options.getSessionTimeout());
+    this.tick = Math.max(1, Math.min(MAX_TICK, shortest / 10));
+  }
+
+  /**
+   * @return the current time in milliseconds, from a monotonic clock.
+   */
+  long now() {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+  }
+
+  /**
+   * Runs the task at (or shortly after) {@code deadline}, on the given context.
+   */
+  void schedule(Context context, long deadline, Task task) {
+    final ContextInternal ctx = (ContextInternal) context;
+    final Wheel wheel = wheels.computeIfAbsent(ctx, c -> {
+      final Wheel w = new Wheel(c);
+      // the context can go away before the scheduler, e.g. when the verticle using it is undeployed
+      c.addCloseHook(w);
+      return w;
+    });
+    if (ctx.inThread()) {
+      wheel.add(deadline / tick + 1, task);
+    } else {
+      ctx.execute(() -> wheel.add(deadline / tick + 1, task));
+    }
+  }
+
+  /**
+   * A wheel is only ever accessed from its context thread, except when the context is closed.
+   */
+  private final class Wheel implements Handler<Long>, Closeable {
+
+    private final ContextInternal context;
+    private final List<Entry>[] slots;
+    private List<Entry> spare = new ArrayList<>();
+    private long current;
+    private int size;
+    private long timerID = -1;
+
+    @SuppressWarnings("unchecked")
+    Wheel(ContextInternal context) {
+      this.context = context;
+      this.slots = new List[WHEEL_SIZE];
+      for (int i = 0; i < WHEEL_SIZE; i++) {
+        slots[i] = new ArrayList<>();
+      }
+    }
+
+    void add(long due, Task task) {
+      if (timerID == -1) {
+        // the wheel was idle, resume from the current tick
+        current = now() / tick;
+        timerID = context.setPeriodic(tick, this);
+      }
+      // a task can never be due in the past, the next tick is the earliest
+      due = Math.max(due, current + 1);
+      slots[(int) (due & (WHEEL_SIZE - 1))].add(new Entry(due, task));
+      size++;
+    }
+
+    @Override
+    public void handle(Long id) {
+      final long target = now() / tick;
+      // after a long pause visiting every slot once is enough to find all the due tasks
+      final long from = Math.max(current + 1, target - WHEEL_SIZE + 1);
+      for (long t = from; t <= target; t++) {
+        current = t;
+        expire((int) (t & (WHEEL_SIZE - 1)), target);
+      }
+      current = target;
+      if (size == 0) {
+        context.owner().cancelTimer(timerID);
+        timerID = -1;
+      }
+    }
+
+    private void expire(int idx, long target) {
+      final List<Entry> bucket = slots[idx];
+      if (bucket.isEmpty()) {
+        return;
+      }
+      slots[idx] = spare;
+      spare = bucket;
+      for (Entry entry : bucket) {
+        if (entry.due <= target) {
+          size--;
+          final long next = run(entry.task);
+          if (next != -1) {
+            add(next / tick + 1, entry.task);
+          }
+        } else {
+          // not due in this round
+          slots[idx].add(entry);
+        }
+      }
+      bucket.clear();
+    }
+
+    @Override
+    public void close(Promise<Void> completion) {
+      wheels.remove(context, this);
+      final long id = timerID;
+      if (id != -1) {
+        context.owner().cancelTimer(id);
+      }
+      completion.complete();
+    }
+
+    private long run(Task task) {
+      try {
+        return task.run(now());
+      } catch (RuntimeException e) {
+        context.reportException(e);
+        return -1;
+      }
+    }
+  }
+
+  private static final class Entry {
+    final long due;
+    final Task task;
+
+    Entry(long due, Task task) {
+      this.due = due;
+      this.task = task;
+    }
+  }
+}
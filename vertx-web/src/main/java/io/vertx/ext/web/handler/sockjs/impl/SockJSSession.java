@@ -66,21 +66,29 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
   private static final Logger LOG = LoggerFactory.getLogger(SockJSSession.class);
 
   private final LocalMap<String, SockJSSession> sessions;
-  private final Deque<String> pendingWrites = new LinkedList<>();
+  private final Deque<Buffer> pendingWrites = new ArrayDeque<>();
+  // frames a forwarded poll did not deliver, written before the pending writes
+  private final Deque<Buffer> unacknowledgedFrames = new ArrayDeque<>();
   private final Context context;
   private final InboundBuffer<Buffer> pendingReads;
   private final String id;
   private final long timeout;
   private final Handler<SockJSSocket> sockHandler;
-  private final long heartbeatID;
+  private final SockJSScheduler scheduler;
+  private final long heartbeatInterval;
   private final List<Handler<AsyncResult<Void>>> writeAcks = new ArrayList<>();
   private TransportListener listener;
   private boolean closed;
   private boolean openWritten;
-  private long timeoutTimerID = -1;
-  private int maxQueueSize = 64 * 1024; // Message queue size is measured in *characters* (not bytes)
+  private volatile boolean heartbeat = true;
+  // deadline of the session timeout, -1 when the session has a listener
+  private long timeoutAt = -1;
+  private boolean timeoutScheduled;
+  private int maxQueueSize = 64 * 1024; // Message queue size is measured in bytes
   private int messagesSize;
   private Handler<Void> drainHandler;
+  private volatile Future<Void> owned = Future.succeededFuture();
+  private volatile Runnable disown;
   private Handler<Void> endHandler;
   private Handler<Void> closeHandler;
   private Handler<Throwable> exceptionHandler;
@@ -91,29 +99,37 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
   private MultiMap headers;
   private Context transportCtx;
 
-  SockJSSession(Vertx vertx, LocalMap<String, SockJSSession> sessions, RoutingContext rc, SockJSHandlerOptions options, Handler<SockJSSocket> sockHandler) {
-    this(vertx, sessions, rc, null, options, sockHandler);
+  SockJSSession(Vertx vertx, SockJSScheduler scheduler, LocalMap<String, SockJSSession> sessions, RoutingContext rc, SockJSHandlerOptions options, Handler<SockJSSocket> sockHandler) {
+    this(vertx, scheduler, sessions, rc, null, options, sockHandler);
   }
 
-  SockJSSession(Vertx vertx, LocalMap<String, SockJSSession> sessions, RoutingContext rc, String id, SockJSHandlerOptions options, Handler<SockJSSocket> sockHandler) {
+  SockJSSession(Vertx vertx, SockJSScheduler scheduler, LocalMap<String, SockJSSession> sessions, RoutingContext rc, String id, SockJSHandlerOptions options, Handler<SockJSSocket> sockHandler) {
     super(vertx, rc, options);
+    this.scheduler = scheduler;
     this.sessions = sessions;
     this.id = id;
     this.timeout = id == null ? -1 : options.getSessionTimeout();
+    this.heartbeatInterval = options.getHeartbeatInterval();
     this.sockHandler = sockHandler;
     context = vertx.getOrCreateContext();
     pendingReads = new InboundBuffer<>(context);
 
     // Start a heartbeat
+    scheduler.schedule(context, scheduler.now() + heartbeatInterval, this::heartbeat);
+  }
 
-    heartbeatID = vertx.setPeriodic(options.getHeartbeatInterval(), tid -> {
-      if (listener != null) {
-        listener.sendFrame("h");
-      }
-    });
+  private long heartbeat(long now) {
+    if (!heartbeat) {
+      return -1;
+    }
+    final TransportListener listener = this.listener;
+    if (listener != null) {
+      listener.sendFrame("h");
+    }
+    return now + heartbeatInterval;
   }
 
-  private void writeInternal(String msg, Promise<Void> promise) {
+  private void writeInternal(Buffer msg, Promise<Void> promise) {
     synchronized (this) {
       pendingWrites.add(msg);
       messagesSize += msg.length();
@@ -142,8 +158,7 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
         promise.fail(ConnectionBase.CLOSED_EXCEPTION);
       }
     } else {
-      final String msg = buffer.toString();
-      writeInternal(msg, promise);
+      writeInternal(buffer, promise);
     }
     return promise.future();
   }
@@ -160,7 +175,7 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
         promise.fail(ConnectionBase.CLOSED_EXCEPTION);
       }
     } else {
-      writeInternal(text, promise);
+      writeInternal(buffer(text), promise);
     }
     return promise.future();
   }
@@ -200,7 +215,12 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
 
   @Override
   public boolean writeQueueFull() {
-    return messagesSize >= maxQueueSize;
+    if (messagesSize >= maxQueueSize) {
+      return true;
+    }
+    // the frames were handed over to the transport, which might not keep up with them
+    final TransportListener listener = this.listener;
+    return listener != null && listener.writeQueueFull();
   }
 
   @Override
@@ -282,36 +302,56 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
     setTimer();
   }
 
-  private void cancelTimer() {
-    if (timeoutTimerID != -1) {
-      vertx.cancelTimer(timeoutTimerID);
-    }
+  private synchronized void cancelTimer() {
+    // the scheduled task is discarded when it runs
+    timeoutAt = -1;
   }
 
-  private void setTimer() {
+  private synchronized void setTimer() {
     if (timeout != -1) {
-      cancelTimer();
-      timeoutTimerID = vertx.setTimer(timeout, id1 -> {
-        vertx.cancelTimer(heartbeatID);
-        final TransportListener listener = this.listener;
-        if (listener == null) {
-          shutdown();
-        }
-        if (listener != null) {
-          listener.close();
-        }
-      });
+      timeoutAt = scheduler.now() + timeout;
+      if (!timeoutScheduled) {
+        timeoutScheduled = true;
+        scheduler.schedule(context, timeoutAt, this::checkTimeout);
+      }
     }
   }
 
+  private long checkTimeout(long now) {
+    final TransportListener listener;
+    synchronized (this) {
+      if (timeoutAt == -1) {
+        timeoutScheduled = false;
+        return -1;
+      }
+      if (now < timeoutAt) {
+        // the timer was reset since the task was scheduled
+        return timeoutAt;
+      }
+      timeoutAt = -1;
+      timeoutScheduled = false;
+      listener = this.listener;
+    }
+    heartbeat = false;
+    if (listener == null) {
+      shutdown();
+    } else {
+      listener.close();
+    }
+    return -1;
+  }
+
   private void writePendingMessages() {
     final TransportListener listener = this.listener;
     if (listener != null) {
-      final String json;
+      final Buffer frame;
       final List<Handler<AsyncResult<Void>>> acks;
       synchronized (this) {
-        if (!pendingWrites.isEmpty()) {
-          json = JsonCodec.encode(pendingWrites.toArray(new String[0]));
+        if (!unacknowledgedFrames.isEmpty()) {
+          frame = unacknowledgedFrames.poll();
+          acks = Collections.emptyList();
+        } else if (!pendingWrites.isEmpty()) {
+          frame = JsonCodec.encodeFrame(pendingWrites);
           pendingWrites.clear();
           if (!writeAcks.isEmpty()) {
             acks = new ArrayList<>(writeAcks);
@@ -321,22 +361,33 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
           }
           messagesSize = 0;
         } else {
-          json = null;
+          frame = null;
           acks = Collections.emptyList();
         }
       }
-      if (json != null) {
+      if (frame != null) {
         if (!acks.isEmpty()) {
-          listener.sendFrame("a" + json).onComplete(ar -> acks.forEach(a -> a.handle(ar)));
+          listener.sendFrame(frame).onComplete(ar -> acks.forEach(a -> a.handle(ar)));
         } else {
-          listener.sendFrame("a" + json);
+          listener.sendFrame(frame);
         }
       }
-      if (drainHandler != null) {
-        Handler<Void> dh = drainHandler;
-        drainHandler = null;
-        context.runOnContext(dh);
-      }
+      checkDrained();
+    }
+  }
+
+  /**
+   * Called by the transport when its write queue drained.
+   */
+  void handleDrain() {
+    checkDrained();
+  }
+
+  private void checkDrained() {
+    if (drainHandler != null && !writeQueueFull()) {
+      Handler<Void> dh = drainHandler;
+      drainHandler = null;
+      context.runOnContext(dh);
     }
   }
 
@@ -345,11 +396,18 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
   }
 
   void register(HttpServerRequest req, TransportListener lst) {
-    this.transportCtx = vertx.getOrCreateContext();
     this.localAddress = req.localAddress();
     this.remoteAddress = req.remoteAddress();
     this.uri = req.uri();
     this.headers = BaseTransport.removeCookieHeaders(req.headers());
+    register(lst);
+  }
+
+  /**
+   * Registers a listener for a request received by another node, the request details of the session are kept.
+   */
+  void register(TransportListener lst) {
+    this.transportCtx = vertx.getOrCreateContext();
     if (closed) {
       // Closed by the application
       writeClosed(lst);
@@ -378,7 +436,7 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
           listener = null;
           lst.close();
         } else {
-          if (!pendingWrites.isEmpty()) {
+          if (!pendingWrites.isEmpty() || !unacknowledgedFrames.isEmpty()) {
             writePendingMessages();
           }
         }
@@ -390,15 +448,16 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
   // Yes, I know it's weird but that's the way SockJS likes it.
   void shutdown() {
     super.close(); // We must call this or handlers don't get unregistered and we get a leak
-    if (heartbeatID != -1) {
-      vertx.cancelTimer(heartbeatID);
-    }
-    if (timeoutTimerID != -1) {
-      vertx.cancelTimer(timeoutTimerID);
+    final Runnable disown = this.disown;
+    if (disown != null) {
+      this.disown = null;
+      disown.run();
     }
+    heartbeat = false;
+    cancelTimer();
     if (id != null) {
       // Can be null if websocket session
-      sessions.remove(id);
+      sessions.remove(id, this);
     }
 
     synchronized (this) {
@@ -413,6 +472,7 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
     synchronized (this) {
       pendingReads.clear();
       pendingWrites.clear();
+      unacknowledgedFrames.clear();
       writeAcks.forEach(handler -> context.runOnContext(v -> handler.handle(Future.failedFuture(ConnectionBase.CLOSED_EXCEPTION))));
       writeAcks.clear();
     }
@@ -426,6 +486,40 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
     }
   }
 
+  /**
+   * Sets the ownership of the session in the cluster, see {@link SessionForwarder}.
+   *
+   * @param owned a future completed when the requests forwarded by other nodes are received
+   * @param disown called when the session is shut down
+   */
+  void setOwnership(Future<Void> owned, Runnable disown) {
+    this.owned = owned;
+    this.disown = disown;
+  }
+
+  /**
+   * @return a future completed when the requests of the session received by other nodes are forwarded to this node
+   */
+  Future<Void> owned() {
+    return owned;
+  }
+
+  /**
+   * Writes again a frame a forwarded poll did not deliver, before the pending writes.
+   */
+  void resend(Buffer frame) {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      unacknowledgedFrames.add(frame);
+    }
+    final Context ctx = transportCtx;
+    if (listener != null && ctx != null) {
+      ctx.runOnContext(v -> writePendingMessages());
+    }
+  }
+
   boolean handleMessages(String messages) {
     List<String> msgList = JsonCodec.decodeValues(messages);
     if (msgList == null) {
@@ -109,6 +109,13 @@ public abstract class SockJSSocketBase implements SockJSSocket {
     end();
   }
 
+  /**
+   * @return the negotiated WebSocket subprotocol, {@code null} if none or not a raw WebSocket
+   */
+  public String subProtocol() {
+    return null;
+  }
+
   // Only websocket transport allows status code and reason, so in other cases we simply call close()
   public void closeAfterSessionExpired() {
     close();
@@ -35,6 +35,7 @@ package io.vertx.ext.web.handler.sockjs.impl;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
 
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
@@ -43,6 +44,21 @@ interface TransportListener {
 
   Future<Void> sendFrame(String body);
 
+  /**
+   * Sends an encoded frame, transports able to write it without decoding it to a string should override this method.
+   */
+  default Future<Void> sendFrame(Buffer body) {
+    return sendFrame(body.toString());
+  }
+
+  /**
+   * @return whether the underlying connection cannot take more writes, transports must then call
+   * {@link SockJSSession#handleDrain()} once it can
+   */
+  default boolean writeQueueFull() {
+    return false;
+  }
+
   void close();
 
   void sessionClosed();
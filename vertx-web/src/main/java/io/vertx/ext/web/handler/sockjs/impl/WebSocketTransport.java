@@ -64,8 +64,8 @@ class WebSocketTransport extends BaseTransport {
   private final Origin origin;
   private final Handler<SockJSSocket> sockHandler;
 
-  WebSocketTransport(Vertx vertx, Router router, LocalMap<String, SockJSSession> sessions, SockJSHandlerOptions options, Handler<SockJSSocket> sockHandler) {
-    super(vertx, sessions, options);
+  WebSocketTransport(Vertx vertx, Router router, SockJSScheduler scheduler, LocalMap<String, SockJSSession> sessions, SockJSHandlerOptions options, Handler<SockJSSocket> sockHandler) {
+    super(vertx, scheduler, sessions, options);
 
     this.origin = options.getOrigin() != null ? Origin.parse(options.getOrigin()) : null;
     this.sockHandler = sockHandler;
@@ -98,7 +98,7 @@ class WebSocketTransport extends BaseTransport {
       .onFailure(ctx::fail)
       .onSuccess(socket -> {
         // handle the sockjs session as usual
-        SockJSSession session = new SockJSSession(vertx, sessions, ctx, options, sockHandler);
+        SockJSSession session = new SockJSSession(vertx, scheduler, sessions, ctx, options, sockHandler);
         session.register(req, new WebSocketListener(socket, session));
       });
   }
@@ -113,6 +113,7 @@ class WebSocketTransport extends BaseTransport {
       this.ws = ws;
       this.session = session;
       ws.textMessageHandler(this::handleMessages);
+      ws.drainHandler(v -> session.handleDrain());
       ws.closeHandler(v -> {
         closed = true;
         session.shutdown();
@@ -148,6 +149,11 @@ class WebSocketTransport extends BaseTransport {
       }
     }
 
+    @Override
+    public boolean writeQueueFull() {
+      return !closed && ws.writeQueueFull();
+    }
+
     @Override
     public void close() {
       if (!closed) {
@@ -75,12 +75,14 @@ class XhrTransport extends BaseTransport {
   }
 
   private final Handler<SockJSSocket> sockHandler;
+  private final SockJSMetricsImpl metrics;
 
-  XhrTransport(Vertx vertx, Router router, LocalMap<String, SockJSSession> sessions, SockJSHandlerOptions options, Handler<SockJSSocket> sockHandler) {
+  XhrTransport(Vertx vertx, Router router, SockJSScheduler scheduler, LocalMap<String, SockJSSession> sessions, SockJSHandlerOptions options, SockJSMetricsImpl metrics, Handler<SockJSSocket> sockHandler) {
 
-    super(vertx, sessions, options);
+    super(vertx, scheduler, sessions, options);
 
     this.sockHandler = sockHandler;
+    this.metrics = metrics;
 
     String xhrBase = COMMON_PATH_ELEMENT_RE;
     String xhrRE = xhrBase + "xhr";
@@ -110,12 +112,10 @@ class XhrTransport extends BaseTransport {
   private void handlePost(RoutingContext ctx) {
     String sessionID = ctx.request().getParam("param0");
     final SockJSSession session = sessions.get(sessionID);
-    if (session != null && !session.isClosed()) {
-      handleSend(ctx, session);
+    if ((session != null && !session.isClosed()) || (session == null && forwarder != null)) {
+      handleSend(ctx, sessionID);
     } else {
-      ctx.response().setStatusCode(404);
-      setJSESSIONID(options, ctx);
-      ctx.response().end();
+      sendSessionNotFound(ctx);
     }
   }
 
@@ -130,12 +130,26 @@ class XhrTransport extends BaseTransport {
   private void handlePostPolling(RoutingContext ctx) {
     setNoCacheHeaders(ctx);
     String sessionID = ctx.request().getParam("param0");
-    SockJSSession session = getSession(ctx, options, sessionID, sockHandler);
     HttpServerRequest req = ctx.request();
-    session.register(req, new XhrPollingListener(ctx, session));
+    poll(ctx, sessionID, sockHandler,
+      session -> session.register(req, new XhrPollingListener(ctx, session)),
+      frame -> writeForwardedFrame(ctx, frame));
   }
 
-  private void handleSend(RoutingContext rc, SockJSSession session) {
+  private void writeForwardedFrame(RoutingContext rc, Buffer frame) {
+    HttpServerResponse resp = rc.response();
+    if (frame.length() == 0) {
+      // the poll was closed without a frame
+      resp.end();
+      return;
+    }
+    resp.putHeader(HttpHeaders.CONTENT_TYPE, "application/javascript; charset=UTF-8");
+    setJSESSIONID(options, rc);
+    setCORSIfNeeded(rc);
+    resp.end(buffer(frame.length() + 1).appendBuffer(frame).appendByte((byte) '\n'));
+  }
+
+  private void handleSend(RoutingContext rc, String sessionID) {
     final RequestBody body = rc.body();
 
     if (!body.available()) {
@@ -156,18 +170,26 @@ class XhrTransport extends BaseTransport {
       return;
     }
 
-    if (!session.handleMessages(body.asString())) {
-      sendInvalidJSON(rc.response());
-    } else {
-      rc.response().putHeader(HttpHeaders.CONTENT_TYPE, "text/plain; charset=UTF-8");
-      setNoCacheHeaders(rc);
-      setJSESSIONID(options, rc);
-      setCORSIfNeeded(rc);
-      rc.response()
-        .setStatusCode(204)
-        .end();
-    }
-    if (LOG.isTraceEnabled()) LOG.trace("XHR send processed ok");
+    send(sessionID, body.asString()).onComplete(ar -> {
+      if (ar.failed()) {
+        if (isUnknownSession(ar.cause())) {
+          sendSessionNotFound(rc);
+        } else {
+          rc.fail(ar.cause());
+        }
+      } else if (!ar.result()) {
+        sendInvalidJSON(rc.response());
+      } else {
+        rc.response().putHeader(HttpHeaders.CONTENT_TYPE, "text/plain; charset=UTF-8");
+        setNoCacheHeaders(rc);
+        setJSESSIONID(options, rc);
+        setCORSIfNeeded(rc);
+        rc.response()
+          .setStatusCode(204)
+          .end();
+        if (LOG.isTraceEnabled()) LOG.trace("XHR send processed ok");
+      }
+    });
   }
 
   private abstract class BaseXhrListener extends BaseListener {
@@ -208,8 +230,13 @@ class XhrTransport extends BaseTransport {
 
     @Override
     public Future<Void> sendFrame(String body) {
+      return sendFrame(buffer(body));
+    }
+
+    @Override
+    public Future<Void> sendFrame(Buffer body) {
       super.beforeSend();
-      Future<Void> fut = rc.response().write(body + "\n");
+      Future<Void> fut = rc.response().write(buffer(body.length() + 1).appendBuffer(body).appendByte((byte) '\n'));
       close();
       return fut;
     }
@@ -234,23 +261,29 @@ class XhrTransport extends BaseTransport {
 
     int bytesSent;
     final int maxBytesStreaming;
+    final FrameBatcher batcher;
 
     XhrStreamingListener(int maxBytesStreaming, RoutingContext rc, SockJSSession session) {
       super(rc, session);
       this.maxBytesStreaming = maxBytesStreaming;
+      this.batcher = new FrameBatcher(vertx, rc.response(), options, metrics);
       addCloseHandler(rc.response(), session);
     }
 
     @Override
     public Future<Void> sendFrame(String body) {
+      return sendFrame(buffer(body));
+    }
+
+    @Override
+    public Future<Void> sendFrame(Buffer body) {
       boolean hr = headersWritten;
       super.beforeSend();
       if (!hr) {
         rc.response().write(H_BLOCK);
       }
-      String sbody = body + "\n";
-      Buffer buff = buffer(sbody);
-      Future<Void> fut = rc.response().write(buff);
+      Buffer buff = buffer(body.length() + 1).appendBuffer(body).appendByte((byte) '\n');
+      Future<Void> fut = batcher.write(buff);
       bytesSent += buff.length();
       if (bytesSent >= maxBytesStreaming) {
         close();
@@ -263,13 +296,15 @@ class XhrTransport extends BaseTransport {
       if (LOG.isTraceEnabled()) LOG.trace("XHR stream closing listener");
       if (!closed) {
         session.resetListener();
-        try {
-          rc.response().end();
-          rc.response().close();
-          closed = true;
-        } catch (IllegalStateException e) {
-          // Underlying connection might already be closed - that's fine
-        }
+        closed = true;
+        batcher.flush(() -> {
+          try {
+            rc.response().end();
+            rc.response().close();
+          } catch (IllegalStateException e) {
+            // Underlying connection might already be closed - that's fine
+          }
+        });
       }
     }
   }
@@ -20,70 +20,139 @@ import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
 
 import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.Arrays;
 
 import static io.vertx.ext.auth.impl.Codec.base64UrlEncode;
 
+/**
+ * HMAC signing of string tokens in the form {@code data.signature}.
+ *
+ * A {@link Mac} is not thread safe, instead of guarding a single instance with a lock, each thread (usually an event
+ * loop) gets its own instance initialized with the same key, so signing and verification never contend.
+ */
 public class Signature {
   private static final Logger LOG = LoggerFactory.getLogger(Signature.class);
   private static final String algorithm = "HmacSHA256";
 
-  private final Mac mac;
+  private static final char[] BASE64URL = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+  private static final int SCRATCH_SIZE = 256;
+
+  private final ThreadLocal<State> state;
 
   public Signature(final String secret) {
-    try {
-      if (secret.length() <= 8) {
-        LOG.warn("Signing secret is very short (<= 8 bytes)");
-      }
-      mac = Mac.getInstance(algorithm);
-      mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), algorithm));
-    } catch (NoSuchAlgorithmException | InvalidKeyException e) {
-      throw new RuntimeException(e);
+    if (secret.length() <= 8) {
+      LOG.warn("Signing secret is very short (<= 8 bytes)");
     }
+    final SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), algorithm);
+    // fail fast on an invalid setup, and keep the instance for the current thread
+    final State initial = new State(key);
+    this.state = ThreadLocal.withInitial(() -> new State(key));
+    this.state.set(initial);
   }
 
   public String sign(String data) {
-    final String signature;
-    synchronized (mac) {
-      signature = base64UrlEncode(mac.doFinal(data.getBytes(StandardCharsets.US_ASCII)));
-    }
-    return data + "." + signature;
+    final State state = this.state.get();
+    return data + "." + base64UrlEncode(state.digest(data, data.length()));
   }
 
   public boolean verify(String signedData) {
-    String[] parts = signedData.split("\\.");
-    if (parts.length < 2) {
+    return verify(signedData, signedData.lastIndexOf('.'));
+  }
+
+  public String parse(String signedData) {
+    final int separator = signedData.lastIndexOf('.');
+    if (!verify(signedData, separator)) {
+      return null;
+    }
+    return signedData.substring(0, separator);
+  }
+
+  private boolean verify(String signedData, int separator) {
+    if (separator == -1) {
       // There is no signature on this data
       return false;
     }
 
-    final String signature = parts[parts.length - 1];
-    final String[] dataParts = Arrays.copyOfRange(parts,0, parts.length - 1);
-    final String data = String.join(".", dataParts);
-    final String calculatedSignature;
+    final State state = this.state.get();
+    state.digest(signedData, separator);
+    return state.matches(signedData, separator + 1);
+  }
 
-    synchronized (mac) {
-      calculatedSignature = base64UrlEncode(mac.doFinal(data.getBytes(StandardCharsets.US_ASCII)));
-    }
+  private static final class State {
 
-    return MessageDigest.isEqual(
-      calculatedSignature.getBytes(StandardCharsets.US_ASCII),
-      signature.getBytes(StandardCharsets.US_ASCII)
-    );
-  }
+    private final Mac mac;
+    private final byte[] scratch = new byte[SCRATCH_SIZE];
+    private final byte[] digest;
 
-  public String parse(String signedData) {
-    if (!verify(signedData)) {
-      return null;
+    State(SecretKeySpec key) {
+      try {
+        mac = Mac.getInstance(algorithm);
+        mac.init(key);
+      } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+        throw new RuntimeException(e);
+      }
+      digest = new byte[mac.getMacLength()];
     }
 
-    String[] parts = signedData.split("\\.");
-    final String[] dataParts = Arrays.copyOfRange(parts,0, parts.length - 1);
-    return String.join(".", dataParts);
+    /**
+     * Computes the MAC of the first {@code len} chars of {@code data} as US-ASCII, without encoding it to a new array.
+     */
+    byte[] digest(String data, int len) {
+      int pos = 0;
+      while (pos < len) {
+        final int chunk = Math.min(len - pos, SCRATCH_SIZE);
+        for (int i = 0; i < chunk; i++) {
+          final char c = data.charAt(pos + i);
+          // same replacement as String#getBytes(US_ASCII)
+          scratch[i] = c < 0x80 ? (byte) c : (byte) '?';
+        }
+        mac.update(scratch, 0, chunk);
+        pos += chunk;
+      }
+      try {
+        mac.doFinal(digest, 0);
+      } catch (ShortBufferException e) {
+        throw new IllegalStateException(e);
+      }
+      return digest;
+    }
+
+    /**
+     * Compares the base64url (no padding) encoding of the last digest to {@code signedData} starting at
+     * {@code offset}. The comparison does not short circuit on the content to avoid timing attacks.
+     */
+    boolean matches(String signedData, int offset) {
+      final int len = digest.length;
+      if (signedData.length() - offset != (len * 4 + 2) / 3) {
+        return false;
+      }
+
+      int diff = 0;
+      int pos = offset;
+      int i = 0;
+      while (i + 2 < len) {
+        final int bits = (digest[i++] & 0xff) << 16 | (digest[i++] & 0xff) << 8 | (digest[i++] & 0xff);
+        diff |= signedData.charAt(pos++) ^ BASE64URL[(bits >>> 18) & 0x3f];
+        diff |= signedData.charAt(pos++) ^ BASE64URL[(bits >>> 12) & 0x3f];
+        diff |= signedData.charAt(pos++) ^ BASE64URL[(bits >>> 6) & 0x3f];
+        diff |= signedData.charAt(pos++) ^ BASE64URL[bits & 0x3f];
+      }
+      if (i < len) {
+        final int b0 = digest[i++] & 0xff;
+        diff |= signedData.charAt(pos++) ^ BASE64URL[b0 >>> 2];
+        if (i < len) {
+          final int b1 = digest[i] & 0xff;
+          diff |= signedData.charAt(pos++) ^ BASE64URL[(b0 << 4 | b1 >>> 4) & 0x3f];
+          diff |= signedData.charAt(pos) ^ BASE64URL[(b1 << 2) & 0x3f];
+        } else {
+          diff |= signedData.charAt(pos) ^ BASE64URL[(b0 << 4) & 0x3f];
+        }
+      }
+      return diff == 0;
+    }
   }
 }
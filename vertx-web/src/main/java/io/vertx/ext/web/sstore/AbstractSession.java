@@ -25,6 +25,7 @@ import io.vertx.ext.auth.VertxContextPRNG;
 import io.vertx.ext.web.Session;
 import io.vertx.ext.web.impl.Utils;
 import io.vertx.ext.web.sstore.impl.SessionInternal;
+import io.vertx.ext.web.sstore.impl.SubjectHolder;
 
 import java.lang.reflect.InvocationTargetException;
 import java.nio.charset.Charset;
@@ -141,6 +142,11 @@ public abstract class AbstractSession implements Session, SessionInternal {
     }
   }
 
+  @Override
+  public boolean isModified() {
+    return crc != checksum();
+  }
+
   @Override
   public String id() {
     return id;
@@ -271,6 +277,23 @@ public abstract class AbstractSession implements Session, SessionInternal {
     return version;
   }
 
+  /**
+   * The subject of the user linked to this session by the session handler, stores can use it to index sessions by
+   * user.
+   *
+   * @return the subject or {@code null} for anonymous sessions.
+   */
+  public String subject() {
+    if (isEmpty()) {
+      return null;
+    }
+    final Object holder = data.get(SubjectHolder.SESSION_KEY);
+    if (holder instanceof SubjectHolder) {
+      return ((SubjectHolder) holder).subject();
+    }
+    return null;
+  }
+
   public void incrementVersion() {
     int old = this.crc;
     // update the checksum
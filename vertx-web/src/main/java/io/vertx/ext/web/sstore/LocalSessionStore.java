@@ -20,6 +20,7 @@ import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.sstore.impl.LocalSessionStoreImpl;
+import io.vertx.ext.web.sstore.impl.OffHeapSessionStoreImpl;
 
 /**
  * A session store which is only available on a single node.
@@ -86,4 +87,46 @@ public interface LocalSessionStore extends SessionStore {
       .put("mapName", sessionMapName));
     return store;
   }
+
+  /**
+   * Create a session store that keeps the sessions serialized in direct (off-heap) memory instead of as live objects
+   * on the heap. This is useful for very large session populations, as the heap usage and GC pressure do not grow with
+   * the session data. Sessions are deserialized on every read and serialized on every write, so the session data must
+   * be serializable (the same constraint as the clustered store).
+   * <p>
+   * When the memory budget is exhausted, the least recently used sessions are evicted.
+   *
+   * @param vertx  the Vert.x instance
+   * @param maxMemory  the memory budget, in bytes, for the stored sessions
+   * @return the session store
+   */
+  static LocalSessionStore createOffHeap(Vertx vertx, long maxMemory) {
+    OffHeapSessionStoreImpl store = new OffHeapSessionStoreImpl();
+    store.init(vertx, new JsonObject()
+      .put("reaperInterval", DEFAULT_REAPER_INTERVAL)
+      .put("maxMemory", maxMemory));
+    return store;
+  }
+
+  /**
+   * Create a session store that keeps the sessions serialized in direct (off-heap) memory, see
+   * {@link #createOffHeap(Vertx, long)}.
+   * <p>
+   * Stores created with the same name share the sessions and must use the same memory budget, the sessions are
+   * released when the last of these stores is closed.
+   *
+   * @param vertx  the Vert.x instance
+   * @param sessionMapName  name of the table used to store sessions
+   * @param maxMemory  the memory budget, in bytes, for the stored sessions
+   * @return the session store
+   * @throws IllegalStateException if a store with the same name is open with a different memory budget
+   */
+  static LocalSessionStore createOffHeap(Vertx vertx, String sessionMapName, long maxMemory) {
+    OffHeapSessionStoreImpl store = new OffHeapSessionStoreImpl();
+    store.init(vertx, new JsonObject()
+      .put("reaperInterval", DEFAULT_REAPER_INTERVAL)
+      .put("mapName", sessionMapName)
+      .put("maxMemory", maxMemory));
+    return store;
+  }
 }
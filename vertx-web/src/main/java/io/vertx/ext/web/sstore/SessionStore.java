@@ -25,6 +25,9 @@ import io.vertx.ext.web.Session;
 import io.vertx.ext.web.sstore.impl.ClusteredSessionStoreImpl;
 import io.vertx.ext.web.sstore.impl.LocalSessionStoreImpl;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * A session store is used to store sessions for an Vert.x-Web web app
  *
@@ -140,6 +143,112 @@ public interface SessionStore {
    */
   Future<Void> put(Session session);
 
+  /**
+   * Extend the lifetime of the session with the specified ID without rewriting its data. This is used by the session
+   * handler when a session was accessed during a request but its content did not change, so stores are expected to
+   * implement it with the cheapest operation that postpones the expiration (e.g. a TTL refresh).
+   * <p>
+   * The default implementation reads and writes back the whole session, stores should override it when their
+   * backend offers a better alternative.
+   *
+   * @param id  the session id
+   * @param timeout  the session timeout, in ms
+   * @return future that will be called with a result, or a failure
+   */
+  default Future<Void> touch(String id, long timeout) {
+    return get(id)
+      .compose(session -> {
+        if (session == null) {
+          // nothing to touch, the session has already expired
+          return Future.succeededFuture();
+        }
+        session.setAccessed();
+        return put(session);
+      });
+  }
+
+  /**
+   * Get the sessions with the specified IDs. Stores should override this method to fetch all sessions in a single
+   * round trip, the default implementation issues one {@link #get(String)} per id, concurrently.
+   *
+   * @param ids  the session ids
+   * @return future that will be called with the sessions that were found, in the order of the ids, or a failure
+   */
+  default Future<List<Session>> getAll(List<String> ids) {
+    final List<Future<Session>> futures = new ArrayList<>(ids.size());
+    for (String id : ids) {
+      futures.add(get(id));
+    }
+    return Future.all(futures)
+      .map(all -> {
+        final List<Session> sessions = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+          final Session session = all.resultAt(i);
+          if (session != null) {
+            sessions.add(session);
+          }
+        }
+        return sessions;
+      });
+  }
+
+  /**
+   * Add all the given sessions. Stores should override this method to write all sessions in a single round trip, the
+   * default implementation issues one {@link #put(Session)} per session, concurrently.
+   *
+   * @param sessions  the sessions
+   * @return future that will be called with a result, or a failure
+   */
+  default Future<Void> putAll(List<Session> sessions) {
+    final List<Future<Void>> futures = new ArrayList<>(sessions.size());
+    for (Session session : sessions) {
+      futures.add(put(session));
+    }
+    return Future.all(futures)
+      .mapEmpty();
+  }
+
+  /**
+   * Delete the sessions with the specified IDs. Stores should override this method to delete all sessions in a single
+   * round trip, the default implementation issues one {@link #delete(String)} per id, concurrently.
+   *
+   * @param ids  the session ids
+   * @return future that will be called with a result, or a failure
+   */
+  default Future<Void> deleteAll(List<String> ids) {
+    final List<Future<Void>> futures = new ArrayList<>(ids.size());
+    for (String id : ids) {
+      futures.add(delete(id));
+    }
+    return Future.all(futures)
+      .mapEmpty();
+  }
+
+  /**
+   * Get the IDs of the sessions linked to the user with the given subject (see {@link io.vertx.ext.auth.User#subject()}).
+   * <p>
+   * This requires the store to keep a secondary index of sessions by user, stores that support it enable it with the
+   * {@code indexBySubject} init option. The default implementation fails with an {@link UnsupportedOperationException}.
+   *
+   * @param subject  the user subject
+   * @return future that will be called with the session ids, or a failure
+   */
+  default Future<List<String>> idsBySubject(String subject) {
+    return Future.failedFuture(new UnsupportedOperationException("Session store does not index sessions by subject"));
+  }
+
+  /**
+   * Delete all sessions linked to the user with the given subject, e.g.: to log out a user everywhere after a password
+   * change. See {@link #idsBySubject(String)} for the requirements.
+   *
+   * @param subject  the user subject
+   * @return future that will be called with a result, or a failure
+   */
+  default Future<Void> deleteBySubject(String subject) {
+    return idsBySubject(subject)
+      .compose(this::deleteAll);
+  }
+
   /**
    * Remove all sessions from the store.
    *
@@ -29,6 +29,9 @@ import io.vertx.ext.web.sstore.AbstractSession;
 import io.vertx.ext.web.sstore.ClusteredSessionStore;
 import io.vertx.ext.web.sstore.SessionStore;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
  */
@@ -123,6 +126,44 @@ public class ClusteredSessionStoreImpl implements SessionStore, ClusteredSession
       );
   }
 
+  @Override
+  public Future<List<Session>> getAll(List<String> ids) {
+    return getMap()
+      .compose(map -> {
+        // the cluster map has no bulk operations, all reads are issued at once
+        final List<Future<Session>> futures = new ArrayList<>(ids.size());
+        for (String id : ids) {
+          futures.add(map.get(id));
+        }
+        return Future.all(futures);
+      })
+      .map(all -> {
+        final List<Session> sessions = new ArrayList<>(ids.size());
+        for (int i = 0; i < all.size(); i++) {
+          final Session session = all.resultAt(i);
+          if (session != null) {
+            ((AbstractSession) session).setPRNG(random);
+            sessions.add(session);
+          }
+        }
+        return sessions;
+      });
+  }
+
+  @Override
+  public Future<Void> deleteAll(List<String> ids) {
+    return getMap()
+      .compose(map -> {
+        // the cluster map has no bulk operations, all removals are issued at once
+        final List<Future<Session>> futures = new ArrayList<>(ids.size());
+        for (String id : ids) {
+          futures.add(map.remove(id));
+        }
+        return Future.all(futures);
+      })
+      .mapEmpty();
+  }
+
   @Override
   public Future<Void> clear() {
     return getMap()
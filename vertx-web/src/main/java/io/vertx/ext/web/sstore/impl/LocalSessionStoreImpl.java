@@ -24,14 +24,20 @@ import io.vertx.core.impl.ContextInternal;
 import io.vertx.core.impl.VertxInternal;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
 import io.vertx.ext.auth.VertxContextPRNG;
 import io.vertx.ext.web.Session;
 import io.vertx.ext.web.sstore.AbstractSession;
 import io.vertx.ext.web.sstore.LocalSessionStore;
 import io.vertx.ext.web.sstore.SessionStore;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
@@ -50,6 +56,8 @@ public class LocalSessionStoreImpl implements SessionStore, LocalSessionStore, H
 
 
   private LocalMap<String, Session> localMap;
+  // optional index of session ids by user subject
+  private SubjectIndex subjectIndex;
   private long reaperInterval;
   private VertxContextPRNG random;
 
@@ -74,7 +82,15 @@ public class LocalSessionStoreImpl implements SessionStore, LocalSessionStore, H
     this.random = VertxContextPRNG.current(vertx);
     this.vertx = (VertxInternal) vertx;
     this.reaperInterval = options.getLong("reaperInterval", DEFAULT_REAPER_INTERVAL);
-    localMap = vertx.sharedData().getLocalMap(options.getString("mapName", DEFAULT_SESSION_MAP_NAME));
+    final String mapName = options.getString("mapName", DEFAULT_SESSION_MAP_NAME);
+    localMap = vertx.sharedData().getLocalMap(mapName);
+    if (options.getBoolean("indexBySubject", false)) {
+      // the index is shared by all the stores using the same map
+      final LocalMap<String, SubjectIndex> indexes = vertx.sharedData().getLocalMap(mapName + ".subjects");
+      final SubjectIndex index = new SubjectIndex();
+      final SubjectIndex existing = indexes.putIfAbsent("index", index);
+      subjectIndex = existing != null ? existing : index;
+    }
     setTimer();
 
     return this;
@@ -113,6 +129,64 @@ public class LocalSessionStoreImpl implements SessionStore, LocalSessionStore, H
 
     newSession.incrementVersion();
     localMap.put(session.id(), session);
+    if (subjectIndex != null) {
+      subjectIndex.add(newSession.subject(), session.id());
+    }
+    return ctx.succeededFuture();
+  }
+
+  @Override
+  public Future<List<Session>> getAll(List<String> ids) {
+    final ContextInternal ctx = vertx.getOrCreateContext();
+    final List<Session> sessions = new ArrayList<>(ids.size());
+    for (String id : ids) {
+      final Session session = localMap.get(id);
+      if (session != null) {
+        sessions.add(session);
+      }
+    }
+    return ctx.succeededFuture(sessions);
+  }
+
+  @Override
+  public Future<Void> deleteAll(List<String> ids) {
+    final ContextInternal ctx = vertx.getOrCreateContext();
+    for (String id : ids) {
+      localMap.remove(id);
+    }
+    return ctx.succeededFuture();
+  }
+
+  @Override
+  public Future<List<String>> idsBySubject(String subject) {
+    final ContextInternal ctx = vertx.getOrCreateContext();
+    if (subjectIndex == null) {
+      return ctx.failedFuture(new UnsupportedOperationException("Session store is not indexing sessions by subject (see: indexBySubject)"));
+    }
+    final Set<String> indexed = subjectIndex.ids.get(subject);
+    final List<String> ids = new ArrayList<>();
+    if (indexed != null) {
+      for (String id : indexed) {
+        final AbstractSession session = (AbstractSession) localMap.get(id);
+        // the entry might be stale, if the session was removed or now belongs to another user
+        if (session != null && subject.equals(session.subject())) {
+          ids.add(id);
+        } else {
+          subjectIndex.remove(subject, id);
+        }
+      }
+    }
+    return ctx.succeededFuture(ids);
+  }
+
+  @Override
+  public Future<Void> touch(String id, long timeout) {
+    final ContextInternal ctx = vertx.getOrCreateContext();
+    final Session session = localMap.get(id);
+    if (session != null) {
+      // sessions are kept as live objects, so there is nothing to write, only to update the timestamp
+      session.setAccessed();
+    }
     return ctx.succeededFuture();
   }
 
@@ -143,16 +217,26 @@ public class LocalSessionStoreImpl implements SessionStore, LocalSessionStore, H
     long now = System.currentTimeMillis();
 
     Set<String> toRemove = new HashSet<>();
+    Map<String, String> toUnindex = subjectIndex != null ? new HashMap<>() : null;
 
     localMap.forEach((String id, Session session) -> {
       if (now - session.lastAccessed() > session.timeout()) {
         toRemove.add(id);
+        if (toUnindex != null) {
+          String subject = ((AbstractSession) session).subject();
+          if (subject != null) {
+            toUnindex.put(id, subject);
+          }
+        }
       }
     });
 
     for (String id: toRemove) {
       localMap.remove(id);
     }
+    if (toUnindex != null) {
+      toUnindex.forEach((id, subject) -> subjectIndex.remove(subject, id));
+    }
     if (!closed) {
       setTimer();
     }
@@ -163,4 +247,25 @@ public class LocalSessionStoreImpl implements SessionStore, LocalSessionStore, H
       timerID = vertx.setTimer(reaperInterval, this);
     }
   }
+
+  /**
+   * Index of session ids by user subject, kept in a local map so all stores sharing the sessions share the index.
+   */
+  private static final class SubjectIndex implements Shareable {
+
+    private final Map<String, Set<String>> ids = new ConcurrentHashMap<>();
+
+    void add(String subject, String id) {
+      if (subject != null) {
+        ids.computeIfAbsent(subject, k -> ConcurrentHashMap.newKeySet()).add(id);
+      }
+    }
+
+    void remove(String subject, String id) {
+      ids.computeIfPresent(subject, (k, set) -> {
+        set.remove(id);
+        return set.isEmpty() ? null : set;
+      });
+    }
+  }
 }
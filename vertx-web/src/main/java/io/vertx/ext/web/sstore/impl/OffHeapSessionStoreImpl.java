@@ -0,0 +1,214 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.sstore.impl;
+
+import io.vertx.codegen.annotations.Nullable;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.ext.auth.VertxContextPRNG;
+import io.vertx.ext.web.Session;
+import io.vertx.ext.web.sstore.AbstractSession;
+import io.vertx.ext.web.sstore.LocalSessionStore;
+import io.vertx.ext.web.sstore.SessionStore;
+
+/**
+ * A local session store keeping sessions serialized in direct memory, see {@link OffHeapSessionTable}.
+ * <p>
+ * Unlike {@link LocalSessionStoreImpl}, sessions are not kept as live objects: they are deserialized on {@link #get}
+ * and serialized on {@link #put}, which trades some CPU for a heap usage that does not grow with the session data.
+ */
+public class OffHeapSessionStoreImpl implements SessionStore, LocalSessionStore, Handler<Long> {
+
+  /**
+   * Default name for the table used to store sessions
+   */
+  private static final String DEFAULT_SESSION_MAP_NAME = "vertx-web.sessions.offheap";
+
+  /**
+   * Default memory budget for the stored sessions
+   */
+  private static final long DEFAULT_MAX_MEMORY = 256L * 1024 * 1024;
+
+  /**
+   * Name of the local map holding the tables, so stores with the same name share sessions
+   */
+  private static final String TABLES_MAP_NAME = "vertx-web.sessions.offheap.tables";
+
+  private LocalMap<String, OffHeapSessionTable> tables;
+  private String mapName;
+  private OffHeapSessionTable table;
+  private long reaperInterval;
+  private VertxContextPRNG random;
+
+  private long timerID = -1;
+  private boolean closed;
+
+  private VertxInternal vertx;
+
+  @Override
+  public Session createSession(long timeout) {
+    return new SharedDataSessionImpl(random, timeout, DEFAULT_SESSIONID_LENGTH);
+  }
+
+  @Override
+  public Session createSession(long timeout, int length) {
+    return new SharedDataSessionImpl(random, timeout, length);
+  }
+
+  @Override
+  public SessionStore init(Vertx vertx, JsonObject options) {
+    // initialize a secure random
+    this.random = VertxContextPRNG.current(vertx);
+    this.vertx = (VertxInternal) vertx;
+    this.reaperInterval = options.getLong("reaperInterval", DEFAULT_REAPER_INTERVAL);
+    this.mapName = options.getString("mapName", DEFAULT_SESSION_MAP_NAME);
+
+    final long maxMemory = options.getLong("maxMemory", DEFAULT_MAX_MEMORY);
+    final int concurrency = options.getInteger("concurrency", 2 * Runtime.getRuntime().availableProcessors());
+
+    tables = vertx.sharedData().getLocalMap(TABLES_MAP_NAME);
+    table = tables.compute(mapName, (name, existing) -> {
+      if (existing == null) {
+        existing = new OffHeapSessionTable(maxMemory, concurrency);
+      } else if (existing.maxMemory() != maxMemory) {
+        // silently sharing the table would ignore the requested budget
+        throw new IllegalStateException("Session table '" + name + "' is already in use with a memory budget of " + existing.maxMemory() + " bytes");
+      }
+      existing.retain();
+      return existing;
+    });
+    setTimer();
+
+    return this;
+  }
+
+  @Override
+  public long retryTimeout() {
+    return 0;
+  }
+
+  @Override
+  public Future<@Nullable Session> get(String id) {
+    final ContextInternal ctx = vertx.getOrCreateContext();
+    final Buffer buffer = table.get(id, System.currentTimeMillis());
+    if (buffer == null) {
+      return ctx.succeededFuture();
+    }
+    try {
+      final SharedDataSessionImpl session = new SharedDataSessionImpl(random);
+      session.readFromBuffer(0, buffer);
+      return ctx.succeededFuture(session);
+    } catch (RuntimeException e) {
+      return ctx.failedFuture(e);
+    }
+  }
+
+  @Override
+  public Future<Void> delete(String id) {
+    final ContextInternal ctx = vertx.getOrCreateContext();
+    table.remove(id);
+    return ctx.succeededFuture();
+  }
+
+  @Override
+  public Future<Void> put(Session session) {
+    final ContextInternal ctx = vertx.getOrCreateContext();
+    final AbstractSession newSession = (AbstractSession) session;
+
+    final int oldVersion = table.version(session.id());
+    if (oldVersion != -1) {
+      // there was already some stored data in this case we need to validate versions
+      if (oldVersion != newSession.version()) {
+        return ctx.failedFuture("Session version mismatch");
+      }
+    }
+
+    newSession.incrementVersion();
+
+    final Buffer buffer = Buffer.buffer();
+    try {
+      ((SharedDataSessionImpl) newSession).writeToBuffer(buffer);
+    } catch (RuntimeException e) {
+      return ctx.failedFuture(e);
+    }
+
+    if (!table.put(session.id(), newSession.version(), session.lastAccessed() + session.timeout(), buffer.getBytes())) {
+      return ctx.failedFuture("Session is larger than the store memory budget");
+    }
+    return ctx.succeededFuture();
+  }
+
+  @Override
+  public Future<Void> touch(String id, long timeout) {
+    final ContextInternal ctx = vertx.getOrCreateContext();
+    final long now = System.currentTimeMillis();
+    table.touch(id, now + timeout, now);
+    return ctx.succeededFuture();
+  }
+
+  @Override
+  public Future<Void> clear() {
+    final ContextInternal ctx = vertx.getOrCreateContext();
+    table.clear();
+    return ctx.succeededFuture();
+  }
+
+  @Override
+  public Future<Integer> size() {
+    final ContextInternal ctx = vertx.getOrCreateContext();
+    return ctx.succeededFuture(table.size());
+  }
+
+  @Override
+  public synchronized void close() {
+    if (closed) {
+      return;
+    }
+    // the sessions are released when the last store sharing the table is closed
+    tables.computeIfPresent(mapName, (name, existing) -> {
+      if (existing == table && existing.release()) {
+        existing.clear();
+        return null;
+      }
+      return existing;
+    });
+    if (timerID != -1) {
+      vertx.cancelTimer(timerID);
+    }
+    closed = true;
+  }
+
+  @Override
+  public synchronized void handle(Long tid) {
+    table.sweep(System.currentTimeMillis());
+    if (!closed) {
+      setTimer();
+    }
+  }
+
+  private void setTimer() {
+    if (reaperInterval != 0) {
+      timerID = vertx.setTimer(reaperInterval, this);
+    }
+  }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.sstore.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.shareddata.Shareable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A memory bounded table of serialized sessions. The session payloads live in direct (off-heap) memory, the heap only
+ * holds the id to buffer index, so the heap footprint of a session does not depend on its data.
+ * <p>
+ * The table is split in segments, each one guarded by its own lock and owning an equal share of the memory budget.
+ * Within a segment entries are kept in access order, when the budget is exceeded the least recently used entries are
+ * evicted.
+ * <p>
+ * Each entry is laid out as:
+ *
+ * <pre>
+ *   expiresAt (8 bytes) | version (4 bytes) | session as written by {@link SharedDataSessionImpl#writeToBuffer(Buffer)}
+ * </pre>
+ */
+class OffHeapSessionTable implements Shareable {
+
+  private static final ByteBufAllocator ALLOC = PooledByteBufAllocator.DEFAULT;
+
+  private static final int EXPIRES_AT = 0;
+  private static final int VERSION = 8;
+  private static final int HEADER_LENGTH = 12;
+
+  private final Segment[] segments;
+  private final long segmentCapacity;
+  private final long maxMemory;
+  // number of stores using the table, only updated within the atomic operations of the map holding the tables
+  private int refCount;
+
+  OffHeapSessionTable(long maxMemory, int concurrency) {
+    this.maxMemory = maxMemory;
+    // round to a power of 2 so a mask can select the segment
+    int size = Integer.highestOneBit(Math.max(1, concurrency - 1) << 1);
+    segments = new Segment[size];
+    for (int i = 0; i < size; i++) {
+      segments[i] = new Segment();
+    }
+    segmentCapacity = maxMemory / size;
+  }
+
+  long maxMemory() {
+    return maxMemory;
+  }
+
+  void retain() {
+    refCount++;
+  }
+
+  /**
+   * @return {@code true} when the table is not used anymore.
+   */
+  boolean release() {
+    return --refCount == 0;
+  }
+
+  private Segment segment(String id) {
+    int h = id.hashCode();
+    h ^= (h >>> 16);
+    return segments[h & (segments.length - 1)];
+  }
+
+  /**
+   * @return the serialized session or {@code null} if not present or expired.
+   */
+  Buffer get(String id, long now) {
+    final Segment segment = segment(id);
+    final byte[] bytes;
+    synchronized (segment) {
+      final ByteBuf buf = segment.entries.get(id);
+      if (buf == null) {
+        return null;
+      }
+      if (buf.getLong(EXPIRES_AT) < now) {
+        segment.remove(id);
+        return null;
+      }
+      bytes = new byte[buf.readableBytes() - HEADER_LENGTH];
+      buf.getBytes(HEADER_LENGTH, bytes);
+    }
+    return Buffer.buffer(bytes);
+  }
+
+  /**
+   * @return the stored version or {@code -1} if not present.
+   */
+  int version(String id) {
+    final Segment segment = segment(id);
+    synchronized (segment) {
+      final ByteBuf buf = segment.entries.get(id);
+      return buf == null ? -1 : buf.getInt(VERSION);
+    }
+  }
+
+  /**
+   * @return {@code false} if the session does not fit in the memory budget.
+   */
+  boolean put(String id, int version, long expiresAt, byte[] session) {
+    final int length = HEADER_LENGTH + session.length;
+    if (length > segmentCapacity) {
+      return false;
+    }
+
+    final ByteBuf buf = ALLOC.directBuffer(length, length);
+    buf
+      .writeLong(expiresAt)
+      .writeInt(version)
+      .writeBytes(session);
+
+    final Segment segment = segment(id);
+    synchronized (segment) {
+      segment.remove(id);
+      segment.entries.put(id, buf);
+      segment.used += length;
+      // evict the least recently used entries, the new entry is the most recent so it is never evicted
+      final Iterator<Map.Entry<String, ByteBuf>> it = segment.entries.entrySet().iterator();
+      while (segment.used > segmentCapacity && it.hasNext()) {
+        final ByteBuf eldest = it.next().getValue();
+        it.remove();
+        segment.used -= eldest.readableBytes();
+        eldest.release();
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Updates the expiration and last accessed time in place, without rewriting the session.
+   */
+  void touch(String id, long expiresAt, long lastAccessed) {
+    final Segment segment = segment(id);
+    synchronized (segment) {
+      final ByteBuf buf = segment.entries.get(id);
+      if (buf != null) {
+        buf.setLong(EXPIRES_AT, expiresAt);
+        // skip the id and the timeout to reach the last accessed field
+        final int idLength = buf.getInt(HEADER_LENGTH);
+        buf.setLong(HEADER_LENGTH + 4 + idLength + 8, lastAccessed);
+      }
+    }
+  }
+
+  void remove(String id) {
+    final Segment segment = segment(id);
+    synchronized (segment) {
+      segment.remove(id);
+    }
+  }
+
+  /**
+   * Removes all the entries that expired before {@code now}.
+   */
+  void sweep(long now) {
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        final Iterator<ByteBuf> it = segment.entries.values().iterator();
+        while (it.hasNext()) {
+          final ByteBuf buf = it.next();
+          if (buf.getLong(EXPIRES_AT) < now) {
+            it.remove();
+            segment.used -= buf.readableBytes();
+            buf.release();
+          }
+        }
+      }
+    }
+  }
+
+  int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        size += segment.entries.size();
+      }
+    }
+    return size;
+  }
+
+  void clear() {
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        for (ByteBuf buf : segment.entries.values()) {
+          buf.release();
+        }
+        segment.entries.clear();
+        segment.used = 0;
+      }
+    }
+  }
+
+  private static final class Segment {
+
+    // access ordered, the eldest entry is the least recently used
+    private final LinkedHashMap<String, ByteBuf> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long used;
+
+    private void remove(String id) {
+      final ByteBuf old = entries.remove(id);
+      if (old != null) {
+        used -= old.readableBytes();
+        old.release();
+      }
+    }
+  }
+}
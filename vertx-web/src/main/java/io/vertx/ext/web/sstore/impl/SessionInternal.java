@@ -28,4 +28,11 @@ public interface SessionInternal {
    *                which is unnecessary.
    */
   void flushed(boolean skipCrc);
+
+  /**
+   * Verify if the session data has changed since it was last read from or written to the store.
+   *
+   * @return true if the data checksum differs from the last known one.
+   */
+  boolean isModified();
 }
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.sstore.impl;
+
+/**
+ * Internal interface for the session value linking a session to a user, so stores can index sessions by subject
+ * without depending on the session handler.
+ */
+public interface SubjectHolder {
+
+  /**
+   * The session key under which the holder is stored.
+   */
+  String SESSION_KEY = "__vertx.userHolder";
+
+  /**
+   * @return the subject of the user linked to the session or {@code null} when there is no user.
+   */
+  String subject();
+}
@@ -3,6 +3,9 @@ package io.vertx.ext.web;
 import io.vertx.ext.web.impl.Signature;
 import org.junit.Test;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.Assert.*;
 
 public class SignatureTest {
@@ -51,4 +54,30 @@ public class SignatureTest {
     token = token.replaceFirst("random-bit", "edited-bit");
     assertNull(signature.parse(token));
   }
+
+  @Test
+  public void signsAndVerifiesConcurrently() throws Exception {
+    Signature signature = new Signature("any-string");
+    int threads = 16;
+    CountDownLatch latch = new CountDownLatch(threads);
+    AtomicInteger failures = new AtomicInteger();
+    for (int i = 0; i < threads; i++) {
+      final int id = i;
+      new Thread(() -> {
+        try {
+          for (int j = 0; j < 1000; j++) {
+            String data = "thread-" + id + ".data-" + j;
+            String token = signature.sign(data);
+            if (!data.equals(signature.parse(token))) {
+              failures.incrementAndGet();
+            }
+          }
+        } finally {
+          latch.countDown();
+        }
+      }).start();
+    }
+    latch.await();
+    assertEquals(0, failures.get());
+  }
 }
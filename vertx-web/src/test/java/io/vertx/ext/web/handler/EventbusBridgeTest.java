@@ -17,17 +17,25 @@ package io.vertx.ext.web.handler;
 
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelPromise;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.WebSocketConnectOptions;
 import io.vertx.core.http.impl.HttpClientConnection;
 import io.vertx.core.http.impl.WebSocketInternal;
+import io.vertx.core.json.DecodeException;
 import io.vertx.core.json.Json;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.auth.User;
 import io.vertx.ext.auth.authentication.AuthenticationProvider;
 import io.vertx.ext.auth.authentication.UsernamePasswordCredentials;
 import io.vertx.ext.auth.properties.PropertyFileAuthentication;
@@ -35,10 +43,17 @@ import io.vertx.ext.auth.properties.PropertyFileAuthorization;
 import io.vertx.ext.bridge.BridgeEventType;
 import io.vertx.ext.bridge.PermittedOptions;
 import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.Session;
 import io.vertx.ext.web.WebTestBase;
+import io.vertx.ext.web.handler.sockjs.BackpressurePolicy;
 import io.vertx.ext.web.handler.sockjs.SockJSBridgeOptions;
 import io.vertx.ext.web.handler.sockjs.SockJSHandler;
+import io.vertx.ext.web.handler.sockjs.SockJSSocket;
+import io.vertx.ext.web.handler.sockjs.impl.EventBusBridgeImpl;
+import io.vertx.ext.web.handler.sockjs.impl.SockJSMetricsImpl;
 import io.vertx.ext.web.handler.sockjs.impl.JsonCodec;
+import io.vertx.ext.web.handler.sockjs.impl.MessagePackCodec;
 import io.vertx.ext.web.sstore.LocalSessionStore;
 import io.vertx.ext.web.sstore.SessionStore;
 import io.vertx.test.core.TestUtils;
@@ -46,8 +61,10 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
@@ -87,6 +104,13 @@ public class EventbusBridgeTest extends WebTestBase {
     sockJS = SockJSHandler.create(vertx);
   }
 
+  @Override
+  protected HttpServerOptions getHttpServerOptions() {
+    // raw WebSocket clients can negotiate the MessagePack encoding of the bridge messages
+    return super.getHttpServerOptions()
+      .setWebSocketSubProtocols(Collections.singletonList(SockJSBridgeOptions.MESSAGE_PACK_SUBPROTOCOL));
+  }
+
   @Test
   public void testHookCreateSocket() throws Exception {
 
@@ -1344,6 +1368,271 @@ public class EventbusBridgeTest extends WebTestBase {
     awaitLatch(latch);
   }
 
+  @Test
+  public void testPublishIsEncodedOnce() throws Exception {
+    router.route("/eventbus/*").subRouter(sockJS.bridge(allAccessOptions));
+
+    CountDownLatch latch = new CountDownLatch(2);
+    BridgeClient client1 = new BridgeClient(super.client, transport);
+    BridgeClient client2 = new BridgeClient(super.client, transport);
+    for (BridgeClient client : Arrays.asList(client1, client2)) {
+      client.handler((address, received) -> {
+        assertEquals(addr, address);
+        assertEquals("foobar", received.getValue("body"));
+        latch.countDown();
+      });
+    }
+    client1.connect(websocketURI)
+      .compose(v -> client1.register(addr))
+      .compose(v -> client2.connect(websocketURI))
+      .compose(v -> client2.register(addr))
+      .onComplete(onSuccess(v -> {
+        // Wait a bit to allow the handlers to be setup on the server, then publish
+        vertx.setTimer(200, tid -> vertx.eventBus().publish(addr, "foobar"));
+      }));
+    awaitLatch(latch);
+
+    assertEquals(1, sockJS.metrics().encodedMessages());
+    assertEquals(2, sockJS.metrics().deliveredMessages());
+  }
+
+  @Test
+  public void testPointToPointIsRoundRobinAcrossSockets() throws Exception {
+    router.route("/eventbus/*").subRouter(sockJS.bridge(allAccessOptions));
+
+    int count = 40;
+    CountDownLatch latch = new CountDownLatch(count);
+    AtomicInteger bridged1 = new AtomicInteger();
+    AtomicInteger bridged2 = new AtomicInteger();
+    AtomicInteger local = new AtomicInteger();
+    BridgeClient client1 = new BridgeClient(super.client, transport);
+    BridgeClient client2 = new BridgeClient(super.client, transport);
+    client1.handler((address, received) -> {
+      bridged1.incrementAndGet();
+      latch.countDown();
+    });
+    client2.handler((address, received) -> {
+      bridged2.incrementAndGet();
+      latch.countDown();
+    });
+    client1.connect(websocketURI)
+      .compose(v -> client1.register(addr))
+      .compose(v -> client2.connect(websocketURI))
+      .compose(v -> client2.register(addr))
+      .onComplete(onSuccess(v -> {
+        vertx.eventBus().consumer(addr, msg -> {
+          local.incrementAndGet();
+          latch.countDown();
+        }).completion().onComplete(onSuccess(v2 -> vertx.setTimer(200, tid -> {
+          for (int i = 0; i < count; i++) {
+            vertx.eventBus().send(addr, i);
+          }
+        })));
+      }));
+    awaitLatch(latch);
+
+    // the bridge registers a single consumer, which takes half of the messages and shares them among its sockets
+    assertEquals(20, local.get());
+    assertEquals(10, bridged1.get());
+    assertEquals(10, bridged2.get());
+  }
+
+  @Test
+  public void testConflatedMessagesAreDeliveredWhenClientKeepsUp() throws Exception {
+    SockJSBridgeOptions options = new SockJSBridgeOptions(allAccessOptions)
+      .setBackpressurePolicy(BackpressurePolicy.CONFLATE)
+      .setMaxPendingMessages(1);
+    router.route("/eventbus/*").subRouter(sockJS.bridge(options));
+
+    int count = 10;
+    CountDownLatch latch = new CountDownLatch(count);
+    AtomicInteger expected = new AtomicInteger();
+    BridgeClient client = new BridgeClient(super.client, transport);
+    client.handler((address, received) -> {
+      assertEquals(expected.getAndIncrement(), (int) received.getInteger("body"));
+      latch.countDown();
+    });
+    client.connect(websocketURI)
+      .compose(v -> client.register(addr))
+      .onComplete(onSuccess(v -> vertx.setTimer(200, tid -> {
+        for (int i = 0; i < count; i++) {
+          vertx.eventBus().publish(addr, i);
+        }
+      })));
+    awaitLatch(latch);
+
+    assertEquals(count, sockJS.metrics().deliveredMessages());
+    assertEquals(0, sockJS.metrics().droppedMessages());
+  }
+
+  @Test
+  public void testBackpressureDropNewest() throws Exception {
+    // the messages are dropped while the queue is full, nothing is left to deliver on drain
+    testBackpressure(BackpressurePolicy.DROP_NEWEST, 5, Arrays.asList(), 5, Arrays.asList());
+  }
+
+  @Test
+  public void testBackpressureDropOldest() throws Exception {
+    // only the 2 latest messages are held
+    testBackpressure(BackpressurePolicy.DROP_OLDEST, 5, Arrays.asList(), 3, Arrays.asList(3, 4));
+  }
+
+  @Test
+  public void testBackpressureConflate() throws Exception {
+    // all the messages have the same address, only the latest one is held
+    testBackpressure(BackpressurePolicy.CONFLATE, 5, Arrays.asList(), 4, Arrays.asList(4));
+  }
+
+  @Test
+  public void testBackpressurePause() throws Exception {
+    // the messages are held for the socket until it drains
+    SlowSocket sock = testBackpressure(BackpressurePolicy.PAUSE, 2, Arrays.asList(), 0, Arrays.asList(0, 1));
+    assertFalse(sock.closed);
+  }
+
+  @Test
+  public void testBackpressurePauseClosesSlowSocket() throws Exception {
+    // the socket is closed once more messages than allowed are held, the others are dropped
+    SlowSocket sock = testBackpressure(BackpressurePolicy.PAUSE, 5, Arrays.asList(), 5, Arrays.asList());
+    assertTrue(sock.closed);
+  }
+
+  private SlowSocket testBackpressure(BackpressurePolicy policy, int count, List<Integer> beforeDrain, int dropped, List<Integer> afterDrain) throws Exception {
+    SockJSBridgeOptions options = new SockJSBridgeOptions(allAccessOptions)
+      .setBackpressurePolicy(policy)
+      .setMaxPendingMessages(2);
+    CountDownLatch registered = new CountDownLatch(1);
+    SockJSMetricsImpl metrics = new SockJSMetricsImpl();
+    EventBusBridgeImpl bridge = new EventBusBridgeImpl(vertx, null, options, event -> {
+      if (event.type() == BridgeEventType.REGISTERED) {
+        registered.countDown();
+      }
+      event.complete(true);
+    }, metrics);
+
+    SlowSocket sock = new SlowSocket();
+    Context ctx = vertx.getOrCreateContext();
+    ctx.runOnContext(v -> {
+      bridge.handle(sock);
+      sock.receive(new JsonObject().put("type", "register").put("address", addr));
+    });
+    awaitLatch(registered);
+
+    // a consumer registered on the same context after the bridge gets each message after it
+    CountDownLatch published = new CountDownLatch(count);
+    ctx.runOnContext(v -> vertx.eventBus().consumer(addr, msg -> published.countDown()).completion().onComplete(onSuccess(v2 -> {
+      sock.full = true;
+      for (int i = 0; i < count; i++) {
+        vertx.eventBus().publish(addr, i);
+      }
+    })));
+    awaitLatch(published);
+
+    CountDownLatch checked = new CountDownLatch(1);
+    ctx.runOnContext(v -> {
+      assertEquals(beforeDrain, sock.bodies());
+      assertEquals(beforeDrain.size(), metrics.deliveredMessages());
+      assertEquals(dropped, metrics.droppedMessages());
+      sock.drain();
+      checked.countDown();
+    });
+    awaitLatch(checked);
+
+    waitUntil(() -> metrics.deliveredMessages() == afterDrain.size());
+    CountDownLatch drained = new CountDownLatch(1);
+    ctx.runOnContext(v -> {
+      assertEquals(afterDrain, sock.bodies());
+      assertEquals(dropped, metrics.droppedMessages());
+      drained.countDown();
+    });
+    awaitLatch(drained);
+    return sock;
+  }
+
+  @Test
+  public void testPendingRepliesAreBounded() throws Exception {
+    SockJSBridgeOptions options = new SockJSBridgeOptions(allAccessOptions).setMaxPendingReplies(1);
+    router.route("/eventbus/*").subRouter(sockJS.bridge(options));
+
+    CountDownLatch latch = new CountDownLatch(2);
+    BridgeClient client = new BridgeClient(super.client, transport);
+    client.handler((address, received) -> {
+      assertNotNull(received.getString("replyAddress"));
+      latch.countDown();
+    });
+    client.connect(websocketURI)
+      .compose(v -> client.register(addr))
+      .onComplete(onSuccess(v -> vertx.setTimer(200, tid -> {
+        vertx.eventBus().request(addr, "foo");
+        vertx.eventBus().request(addr, "bar");
+      })));
+    awaitLatch(latch);
+
+    assertEquals(1, sockJS.metrics().pendingReplies());
+    assertEquals(1, sockJS.metrics().evictedReplies());
+  }
+
+  @Test
+  public void testMessagePackSubProtocol() throws Exception {
+    router.route("/eventbus/*").subRouter(sockJS.bridge(allAccessOptions));
+    waitFor(2);
+
+    vertx.eventBus().<JsonObject>consumer("inbound", msg -> {
+      // decoded by the bridge from a binary MessagePack frame
+      assertEquals(new JsonObject().put("foo", "bar"), msg.body());
+      complete();
+    });
+
+    WebSocketConnectOptions options = new WebSocketConnectOptions()
+      .setURI(websocketURI)
+      .addSubProtocol(SockJSBridgeOptions.MESSAGE_PACK_SUBPROTOCOL);
+    client.webSocket(options).onComplete(onSuccess(ws -> {
+      assertEquals(SockJSBridgeOptions.MESSAGE_PACK_SUBPROTOCOL, ws.subProtocol());
+      ws.textMessageHandler(text -> fail("Unexpected text frame " + text));
+      ws.binaryMessageHandler(buff -> {
+        JsonObject received = MessagePackCodec.decode(buff);
+        assertEquals("rec", received.getString("type"));
+        assertEquals(addr, received.getString("address"));
+        assertEquals(new JsonObject().put("count", 1L << 40), received.getJsonObject("body"));
+        complete();
+      });
+      ws.writeBinaryMessage(MessagePackCodec.encode(new JsonObject().put("type", "register").put("address", addr)))
+        .compose(v -> ws.writeBinaryMessage(MessagePackCodec.encode(new JsonObject()
+          .put("type", "send")
+          .put("address", "inbound")
+          .put("body", new JsonObject().put("foo", "bar")))))
+        .onComplete(onSuccess(v -> {
+          // Wait a bit to allow the handler to be setup on the server, then publish
+          vertx.setTimer(200, tid -> vertx.eventBus().publish(addr, new JsonObject().put("count", 1L << 40)));
+        }));
+    }));
+    await();
+  }
+
+  @Test
+  public void testMessagePackEnvelopeRoundTrip() {
+    JsonObject envelope = new JsonObject()
+      .put("type", "rec")
+      .put("address", addr)
+      .put("body", new JsonObject()
+        .put("small", 1)
+        .put("negative", -100000)
+        .put("large", 1L << 40)
+        .put("double", 3.5)
+        .put("string", "h\u00e9llo")
+        .put("array", new JsonArray().add(true).addNull().add("x")))
+      .put("headers", new JsonObject().put("h", "v"));
+    Buffer encoded = MessagePackCodec.encode(envelope);
+    assertTrue(encoded.length() < envelope.encode().length());
+    assertEquals(envelope, MessagePackCodec.decode(encoded));
+
+    try {
+      MessagePackCodec.decode(encoded.getBuffer(0, encoded.length() - 1));
+      fail("Truncated value should not decode");
+    } catch (DecodeException ignore) {
+    }
+  }
+
   private void testReceive(Object body) throws Exception {
     testReceive("someaddress", body);
   }
@@ -1552,6 +1841,149 @@ public class EventbusBridgeTest extends WebTestBase {
     void abruptClose();
   }
 
+  /**
+   * A socket whose write queue is full until {@link #drain()} is called.
+   */
+  static class SlowSocket implements SockJSSocket {
+
+    final List<JsonObject> written = new ArrayList<>();
+    boolean full;
+    boolean closed;
+    private Handler<Buffer> handler;
+    private Handler<Void> drainHandler;
+
+    void receive(JsonObject msg) {
+      handler.handle(Buffer.buffer(msg.encode()));
+    }
+
+    void drain() {
+      full = false;
+      Handler<Void> h = drainHandler;
+      drainHandler = null;
+      if (h != null) {
+        h.handle(null);
+      }
+    }
+
+    List<Integer> bodies() {
+      List<Integer> bodies = new ArrayList<>();
+      for (JsonObject msg : written) {
+        if ("rec".equals(msg.getString("type"))) {
+          bodies.add(msg.getInteger("body"));
+        }
+      }
+      return bodies;
+    }
+
+    @Override
+    public SockJSSocket handler(Handler<Buffer> handler) {
+      this.handler = handler;
+      return this;
+    }
+
+    @Override
+    public Future<Void> write(Buffer data) {
+      written.add(new JsonObject(data));
+      return Future.succeededFuture();
+    }
+
+    @Override
+    public boolean writeQueueFull() {
+      return full;
+    }
+
+    @Override
+    public SockJSSocket drainHandler(Handler<Void> handler) {
+      drainHandler = handler;
+      return this;
+    }
+
+    @Override
+    public SockJSSocket setWriteQueueMaxSize(int maxSize) {
+      return this;
+    }
+
+    @Override
+    public SockJSSocket exceptionHandler(Handler<Throwable> handler) {
+      return this;
+    }
+
+    @Override
+    public SockJSSocket pause() {
+      return this;
+    }
+
+    @Override
+    public SockJSSocket resume() {
+      return this;
+    }
+
+    @Override
+    public SockJSSocket fetch(long amount) {
+      return this;
+    }
+
+    @Override
+    public SockJSSocket endHandler(Handler<Void> endHandler) {
+      return this;
+    }
+
+    @Override
+    public SockJSSocket closeHandler(Handler<Void> closeHandler) {
+      return this;
+    }
+
+    @Override
+    public String writeHandlerID() {
+      return null;
+    }
+
+    @Override
+    public Future<Void> end() {
+      return Future.succeededFuture();
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+
+    @Override
+    public SocketAddress remoteAddress() {
+      return null;
+    }
+
+    @Override
+    public SocketAddress localAddress() {
+      return null;
+    }
+
+    @Override
+    public MultiMap headers() {
+      return MultiMap.caseInsensitiveMultiMap();
+    }
+
+    @Override
+    public String uri() {
+      return "/";
+    }
+
+    @Override
+    public RoutingContext routingContext() {
+      return null;
+    }
+
+    @Override
+    public Session webSession() {
+      return null;
+    }
+
+    @Override
+    public User webUser() {
+      return null;
+    }
+  }
+
   static class BridgeClient {
 
     private final HttpClient client;
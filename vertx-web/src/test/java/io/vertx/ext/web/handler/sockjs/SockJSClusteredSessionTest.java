@@ -0,0 +1,156 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.sockjs;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.spi.cluster.ClusterManager;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.WebTestBase;
+import io.vertx.ext.web.handler.BodyHandler;
+import io.vertx.test.fakecluster.FakeClusterManager;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SockJSClusteredSessionTest extends WebTestBase {
+
+  private final HttpServer[] servers = new HttpServer[2];
+  private HttpClient nodeClient;
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    startNodes(2);
+    // the polling responses close their connection, it must not be pooled
+    nodeClient = vertx.createHttpClient(new HttpClientOptions().setDefaultHost("localhost").setKeepAlive(false));
+  }
+
+  @Override
+  public void tearDown() throws Exception {
+    for (HttpServer server : servers) {
+      if (server != null) {
+        CountDownLatch latch = new CountDownLatch(1);
+        server.close().onComplete(ar -> latch.countDown());
+        awaitLatch(latch);
+      }
+    }
+    super.tearDown();
+  }
+
+  @Override
+  protected ClusterManager getClusterManager() {
+    return new FakeClusterManager();
+  }
+
+  @Test
+  public void testRequestsAreForwardedToTheOwner() throws Exception {
+    startServers(sock -> sock.handler(sock::write));
+
+    // the session is owned by the first node, the other nodes know it once the first poll is answered
+    post(8081, "/test/400/8ne8e94a/xhr", "")
+      .compose(open -> {
+        assertEquals("o\n", open);
+        return post(8082, "/test/400/8ne8e94a/xhr_send", "[\"hello\"]");
+      })
+      .compose(sent -> {
+        assertEquals("", sent);
+        return post(8082, "/test/400/8ne8e94a/xhr", "");
+      })
+      .onComplete(onSuccess(frame -> {
+        assertEquals("a[\"hello\"]\n", frame);
+        testComplete();
+      }));
+    await();
+  }
+
+  @Test
+  public void testConcurrentFirstPollsHaveOneOwner() throws Exception {
+    AtomicInteger sockets = new AtomicInteger();
+    startServers(sock -> {
+      sockets.incrementAndGet();
+      sock.write("hello");
+    });
+
+    Future<String> first = post(8081, "/test/400/concurrent/xhr", "");
+    Future<String> second = post(8082, "/test/400/concurrent/xhr", "");
+    Future.all(first, second).onComplete(onSuccess(v -> {
+      List<String> frames = Arrays.asList(first.result(), second.result());
+      assertTrue(frames.toString(), frames.contains("o\n"));
+      // the poll of the node losing the claim reached the owner, either while the other poll was open or after
+      assertTrue(frames.toString(), frames.contains("a[\"hello\"]\n")
+        || frames.contains("c[2010,\"Another connection still open\"]\n"));
+      assertEquals(1, sockets.get());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testUnknownSessionIsNotFound() throws Exception {
+    CountDownLatch serverReady = new CountDownLatch(1);
+    Router router = Router.router(vertices[0]);
+    router.route().handler(BodyHandler.create());
+    SockJSHandlerOptions options = new SockJSHandlerOptions().setClusteredSessions(true);
+    router.route("/test/*").subRouter(SockJSHandler.create(vertices[0], options).socketHandler(sock -> {}));
+    servers[0] = vertices[0].createHttpServer(new HttpServerOptions().setPort(8081).setHost("localhost")).requestHandler(router);
+    servers[0].listen().onComplete(onSuccess(s -> serverReady.countDown()));
+    awaitLatch(serverReady);
+
+    nodeClient.request(HttpMethod.POST, 8081, "localhost", "/test/400/unknown/xhr_send")
+      .compose(req -> req.send(Buffer.buffer("[\"hello\"]")))
+      .onComplete(onSuccess(resp -> {
+        assertEquals(404, resp.statusCode());
+        testComplete();
+      }));
+    await();
+  }
+
+  private void startServers(Handler<SockJSSocket> socketHandler) throws Exception {
+    CountDownLatch serversReady = new CountDownLatch(2);
+    for (int i = 0; i < 2; i++) {
+      Vertx node = vertices[i];
+      Router router = Router.router(node);
+      router.route().handler(BodyHandler.create());
+      SockJSHandlerOptions options = new SockJSHandlerOptions().setClusteredSessions(true);
+      router.route("/test/*").subRouter(SockJSHandler.create(node, options).socketHandler(socketHandler));
+      servers[i] = node.createHttpServer(new HttpServerOptions().setPort(8081 + i).setHost("localhost")).requestHandler(router);
+      servers[i].listen().onComplete(onSuccess(s -> serversReady.countDown()));
+    }
+    awaitLatch(serversReady);
+  }
+
+  private Future<String> post(int port, String uri, String body) {
+    return nodeClient.request(HttpMethod.POST, port, "localhost", uri)
+      .compose(req -> req.send(Buffer.buffer(body)))
+      .compose(resp -> {
+        assertTrue(resp.statusCode() == 200 || resp.statusCode() == 204);
+        return resp.body();
+      })
+      .map(Buffer::toString);
+  }
+}
@@ -457,6 +457,32 @@ public class SockJSHandlerTest extends WebTestBase {
     await();
   }
 
+  @Test
+  public void testStreamingFramesAreBatched() {
+    SockJSHandler sockJS = SockJSHandler.create(vertx, new SockJSHandlerOptions().setWriteBatchDelay(0));
+    router.route("/batched*").subRouter(sockJS.socketHandler(sock -> {
+      for (int i = 0; i < 10; i++) {
+        sock.write("msg" + i);
+      }
+    }));
+
+    client.request(HttpMethod.GET, "/batched/000/batched/eventsource")
+      .compose(req -> req.send())
+      .onComplete(onSuccess(resp -> {
+        StringBuilder received = new StringBuilder();
+        resp.handler(buff -> {
+          received.append(buff);
+          if (received.indexOf("msg9") != -1) {
+            // the open frame and the messages
+            assertEquals(11, sockJS.metrics().streamedFrames());
+            assertEquals(1, sockJS.metrics().streamedChunks());
+            testComplete();
+          }
+        });
+      }));
+    await();
+  }
+
   @Test
   public void testTimeoutCloseCode() {
     router.route("/ws-timeout*").subRouter(SockJSHandler
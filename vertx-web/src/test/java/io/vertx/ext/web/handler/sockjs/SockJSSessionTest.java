@@ -17,6 +17,7 @@ package io.vertx.ext.web.handler.sockjs;
 
 import io.vertx.core.Context;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientResponse;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.impl.Utils;
 import io.vertx.test.core.TestUtils;
@@ -135,6 +136,41 @@ public class SockJSSessionTest extends SockJSTestBase {
     await();
   }
 
+  @Test
+  public void testWriteIsEscaped() throws Exception {
+    socketHandler = () -> socket -> socket.write(Buffer.buffer("caf\u00e9 \"\n\ud83d\ude00"));
+    startServers();
+    client.webSocket("/test/400/8ne8e94a/websocket").onComplete(onSuccess(ws -> ws.textMessageHandler(msg -> {
+      if (msg.startsWith("a")) {
+        assertEquals("a[\"caf\\u00e9 \\\"\\n\\ud83d\\ude00\"]", msg);
+        testComplete();
+      }
+    })));
+    await();
+  }
+
+  @Test
+  public void testHeartbeat() throws Exception {
+    socketHandler = () -> socket -> {};
+    startServers();
+    client.webSocket("/test/400/8ne8e94a/websocket").onComplete(onSuccess(ws -> ws.textMessageHandler(msg -> {
+      if ("h".equals(msg)) {
+        testComplete();
+      }
+    })));
+    await();
+  }
+
+  @Test
+  public void testSessionExpiresWhenClientDoesNotComeBack() throws Exception {
+    socketHandler = () -> socket -> socket.endHandler(v -> testComplete());
+    startServers(new SockJSHandlerOptions().setSessionTimeout(200));
+    client.request(HttpMethod.POST, "/test/400/8ne8e94a/xhr")
+      .compose(req -> req.send().compose(HttpClientResponse::body))
+      .onComplete(onSuccess(body -> assertEquals("o\n", body.toString())));
+    await();
+  }
+
   @Test
   public void doesNotSendEmptyAnswerForWriteSentInEarlierBatch() throws Exception {
     AtomicInteger answerCount = new AtomicInteger();
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.sockjs.impl;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.bridge.PermittedOptions;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class PermittedIndexTest {
+
+  @Test
+  public void testFirstMatchWins() {
+    PermittedIndex index = new PermittedIndex(Arrays.asList(
+      new PermittedOptions().setAddressRegex("news\\..+").setMatch(new JsonObject().put("level", "public")),
+      new PermittedOptions().setAddress("news.sport"),
+      new PermittedOptions().setAddressRegex("news\\..+"),
+      new PermittedOptions()));
+
+    // the regular expression comes first in the configuration, its match is checked before the exact address
+    assertEquals(0, index.lookup("news.sport", new JsonObject().put("level", "public")).position);
+    assertEquals(1, index.lookup("news.sport", new JsonObject().put("level", "private")).position);
+    assertEquals(2, index.lookup("news.weather", new JsonObject().put("level", "private")).position);
+    // the wildcard applies to any address, after the more specific options
+    assertEquals(3, index.lookup("other", "body").position);
+  }
+
+  @Test
+  public void testNoMatch() {
+    PermittedIndex index = new PermittedIndex(Arrays.asList(
+      new PermittedOptions().setAddress("exact"),
+      new PermittedOptions().setAddressRegex("a\\..+"),
+      new PermittedOptions().setAddressRegex("b\\..+").setMatch(new JsonObject().put("foo", "bar"))));
+
+    assertNull(index.lookup("c.d", "body"));
+    assertNull(index.lookup("b.c", new JsonObject().put("foo", "baz")));
+    assertEquals(2, index.lookup("b.c", new JsonObject().put("foo", "bar")).position);
+    assertEquals(0, index.lookup("exact", "body").position);
+  }
+
+  @Test
+  public void testRejectedAddressesAreCached() {
+    PermittedIndex index = new PermittedIndex(Arrays.asList(
+      new PermittedOptions().setAddressRegex("a\\..+"),
+      new PermittedOptions().setAddressRegex("b\\..+")));
+
+    assertNull(index.lookup("c.d", "body"));
+    assertEquals(1, index.cachedAddresses());
+    assertNull(index.lookup("c.d", "body"));
+    assertEquals(1, index.cachedAddresses());
+
+    assertEquals(0, index.lookup("a.b", "body").position);
+    assertEquals(2, index.cachedAddresses());
+    assertEquals(0, index.lookup("a.b", "body").position);
+    assertEquals(2, index.cachedAddresses());
+  }
+
+  @Test
+  public void testCacheIsBounded() {
+    PermittedIndex index = new PermittedIndex(Arrays.asList(
+      new PermittedOptions().setAddressRegex("a\\..+"),
+      new PermittedOptions().setAddressRegex("b\\..+")));
+
+    for (int i = 0; i < 10_000; i++) {
+      index.lookup((i % 2 == 0 ? "a." : "c.") + i, "body");
+    }
+    assertTrue(index.cachedAddresses() <= 1024);
+    // the result does not depend on the cache
+    assertEquals(1, index.lookup("b.0", "body").position);
+    assertNull(index.lookup("c.1", "body"));
+  }
+
+  @Test
+  public void testExactAddressesAreNotCached() {
+    PermittedIndex index = new PermittedIndex(Arrays.asList(
+      new PermittedOptions().setAddress("a"),
+      new PermittedOptions()));
+
+    assertEquals(0, index.lookup("a", "body").position);
+    assertEquals(1, index.lookup("b", "body").position);
+    assertEquals(0, index.cachedAddresses());
+  }
+}
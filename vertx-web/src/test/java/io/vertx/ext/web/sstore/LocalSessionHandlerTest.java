@@ -16,11 +16,19 @@
 
 package io.vertx.ext.web.sstore;
 
+import io.vertx.core.Future;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.User;
+import io.vertx.ext.web.Session;
 import io.vertx.ext.web.handler.SessionHandler;
 import io.vertx.ext.web.handler.SessionHandlerTestBase;
+import io.vertx.ext.web.sstore.impl.LocalSessionStoreImpl;
 import org.junit.Test;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
  */
@@ -58,4 +66,125 @@ public class LocalSessionHandlerTest extends SessionHandlerTestBase {
 
     testRequest(HttpMethod.GET, "/", 500, "Internal Server Error");
   }
+
+  @Test
+  public void testTouchUnmodifiedSession() throws Exception {
+    AtomicInteger puts = new AtomicInteger();
+    AtomicInteger touches = new AtomicInteger();
+
+    SessionStore countingStore = new LocalSessionStoreImpl() {
+      @Override
+      public Future<Void> put(Session session) {
+        puts.incrementAndGet();
+        return super.put(session);
+      }
+
+      @Override
+      public Future<Void> touch(String id, long timeout) {
+        touches.incrementAndGet();
+        return super.touch(id, timeout);
+      }
+    }.init(vertx, new JsonObject());
+
+    router.route().handler(SessionHandler.create(countingStore).setTouchInterval(10_000));
+    AtomicInteger requestCount = new AtomicInteger();
+    router.route().handler(rc -> {
+      if (requestCount.getAndIncrement() == 0) {
+        rc.session().put("foo", "bar");
+      } else {
+        assertEquals("bar", rc.session().get("foo"));
+      }
+      rc.response().end();
+    });
+
+    AtomicReference<String> rSetCookie = new AtomicReference<>();
+    testRequest(HttpMethod.GET, "/", null, resp -> rSetCookie.set(resp.headers().get("set-cookie")), 200, "OK", null);
+    assertEquals(1, puts.get());
+    assertEquals(0, touches.get());
+
+    // the data is unchanged, so only a touch is expected
+    testRequest(HttpMethod.GET, "/", req -> req.putHeader("cookie", rSetCookie.get()), null, 200, "OK", null);
+    assertEquals(1, puts.get());
+    assertEquals(1, touches.get());
+
+    // within the touch interval, the touch is coalesced
+    testRequest(HttpMethod.GET, "/", req -> req.putHeader("cookie", rSetCookie.get()), null, 200, "OK", null);
+    assertEquals(1, puts.get());
+    assertEquals(1, touches.get());
+  }
+
+  @Test
+  public void testWriteSessionWithUser() throws Exception {
+    AtomicInteger puts = new AtomicInteger();
+    AtomicInteger touches = new AtomicInteger();
+
+    SessionStore countingStore = new LocalSessionStoreImpl() {
+      @Override
+      public Future<Void> put(Session session) {
+        puts.incrementAndGet();
+        return super.put(session);
+      }
+
+      @Override
+      public Future<Void> touch(String id, long timeout) {
+        touches.incrementAndGet();
+        return super.touch(id, timeout);
+      }
+    }.init(vertx, new JsonObject());
+
+    SessionHandler sessionHandler = SessionHandler.create(countingStore).setTouchInterval(10_000);
+    router.route().handler(sessionHandler);
+    AtomicInteger requestCount = new AtomicInteger();
+    router.route().handler(rc -> {
+      if (requestCount.getAndIncrement() == 0) {
+        sessionHandler.setUser(rc, User.fromName("paulo"))
+          .onFailure(rc::fail)
+          .onSuccess(v -> rc.response().end());
+      } else {
+        // the user can be changed in place, the session must be written
+        rc.user().principal().put("visits", requestCount.get());
+        rc.response().end();
+      }
+    });
+
+    AtomicReference<String> rSetCookie = new AtomicReference<>();
+    testRequest(HttpMethod.GET, "/", null, resp -> rSetCookie.set(resp.headers().get("set-cookie")), 200, "OK", null);
+    int written = puts.get();
+
+    testRequest(HttpMethod.GET, "/", req -> req.putHeader("cookie", rSetCookie.get()), null, 200, "OK", null);
+    assertEquals(written + 1, puts.get());
+    assertEquals(0, touches.get());
+  }
+
+  @Test
+  public void testDeleteBySubject() throws Exception {
+    SessionStore indexedStore = new LocalSessionStoreImpl()
+      .init(vertx, new JsonObject().put("mapName", "indexed-sessions").put("indexBySubject", true));
+
+    SessionHandler sessionHandler = SessionHandler.create(indexedStore);
+    router.route().handler(sessionHandler);
+    router.route().handler(rc -> sessionHandler.setUser(rc, User.fromName("paulo"))
+      .onFailure(rc::fail)
+      .onSuccess(v -> rc.response().end()));
+
+    // no cookies are sent back, so each request creates a session for the same user
+    testRequest(HttpMethod.GET, "/", 200, "OK");
+    testRequest(HttpMethod.GET, "/", 200, "OK");
+
+    indexedStore.idsBySubject("paulo")
+      .compose(ids -> {
+        assertEquals(2, ids.size());
+        return indexedStore.getAll(ids);
+      })
+      .compose(sessions -> {
+        assertEquals(2, sessions.size());
+        return indexedStore.deleteBySubject("paulo");
+      })
+      .compose(v -> indexedStore.size())
+      .onComplete(onSuccess(size -> {
+        assertEquals(0, size.intValue());
+        testComplete();
+      }));
+    await();
+  }
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.sstore;
+
+import io.vertx.core.Future;
+import io.vertx.ext.web.Session;
+import io.vertx.ext.web.handler.SessionHandlerTestBase;
+import org.junit.Test;
+
+public class OffHeapSessionHandlerTest extends SessionHandlerTestBase {
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    store = LocalSessionStore.createOffHeap(vertx, 16 * 1024 * 1024);
+  }
+
+  @Override
+  public void tearDown() throws Exception {
+    store.close();
+    super.tearDown();
+  }
+
+  @Test
+  public void testRetryTimeout() throws Exception {
+    assertTrue(doTestSessionRetryTimeout() < 3000);
+  }
+
+  @Test
+  public void testEvictLeastRecentlyUsed() throws Exception {
+    // small budget so only a few sessions fit
+    LocalSessionStore small = LocalSessionStore.createOffHeap(vertx, "offheap-evict", 64 * 1024);
+    byte[] data = new byte[1024];
+
+    Session first = small.createSession(30_000);
+    first.put("data", data);
+    small.put(first)
+      .compose(v -> {
+        Future<Void> fut = Future.succeededFuture();
+        for (int i = 0; i < 500; i++) {
+          Session session = small.createSession(30_000);
+          session.put("data", data);
+          fut = fut.compose(v2 -> small.put(session));
+        }
+        return fut;
+      })
+      .compose(v -> small.get(first.id()))
+      .onComplete(onSuccess(session -> {
+        // the first session was the least recently used, so it was evicted
+        assertNull(session);
+        small.size().onComplete(onSuccess(size -> {
+          assertTrue(size < 500);
+          small.close();
+          testComplete();
+        }));
+      }));
+    await();
+  }
+
+  @Test
+  public void testBudgetMismatch() {
+    LocalSessionStore shared = LocalSessionStore.createOffHeap(vertx, "offheap-budget", 1024 * 1024);
+    try {
+      LocalSessionStore.createOffHeap(vertx, "offheap-budget", 2 * 1024 * 1024);
+      fail("A table in use must not be reused with another budget");
+    } catch (IllegalStateException expected) {
+      // the existing table is left untouched
+    } finally {
+      shared.close();
+    }
+  }
+
+  @Test
+  public void testCloseSharedTable() throws Exception {
+    LocalSessionStore first = LocalSessionStore.createOffHeap(vertx, "offheap-shared", 1024 * 1024);
+    LocalSessionStore second = LocalSessionStore.createOffHeap(vertx, "offheap-shared", 1024 * 1024);
+
+    Session session = first.createSession(30_000);
+    session.put("foo", "bar");
+    first.put(session)
+      .compose(v -> {
+        // closing one store must not release the sessions of the other
+        first.close();
+        return second.get(session.id());
+      })
+      .onComplete(onSuccess(stored -> {
+        assertNotNull(stored);
+        assertEquals("bar", stored.get("foo"));
+        second.close();
+        // the last close releases the table, a new store starts empty
+        LocalSessionStore third = LocalSessionStore.createOffHeap(vertx, "offheap-shared", 1024 * 1024);
+        third.size().onComplete(onSuccess(size -> {
+          assertEquals(0, (int) size);
+          third.close();
+          testComplete();
+        }));
+      }));
+    await();
+  }
+}